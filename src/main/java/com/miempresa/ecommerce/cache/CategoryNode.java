@@ -0,0 +1,28 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Nodo inmutable del {@link CategoryTree}
+ * @param id ID de la categoría
+ * @param parentId ID del padre (null si es raíz)
+ * @param name Nombre
+ * @param slug Slug
+ * @param description Descripción
+ * @param imageUrl URL de la imagen
+ * @param sortOrder Orden entre hermanos
+ * @param depth Profundidad (0 para las raíces)
+ * @param children Hijos activos en orden de sortOrder y nombre
+ * @param createdAt Fecha de alta
+ * @param updatedAt Fecha de la última modificación
+ *
+ */
+public record CategoryNode(Long id, Long parentId, String name, String slug, String description, String imageUrl,
+                           Integer sortOrder, int depth, List<CategoryNode> children,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public boolean hasChildren() {
+        return !children.isEmpty();
+    }
+}
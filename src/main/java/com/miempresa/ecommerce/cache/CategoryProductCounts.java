@@ -0,0 +1,321 @@
+package com.miempresa.ecommerce.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductsCreatedEvent;
+import com.miempresa.ecommerce.repository.CategoryProductCount;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cantidad de productos activos por categoría, directa y del subárbol, en memoria.
+ *
+ * Se guarda la categoría de cada producto activo; cada alta, baja, activación o
+ * cambio de categoría confirmado mueve una unidad de una categoría a otra y de sus
+ * ancestros, sin consultas de agregación. Los conteos del subárbol corresponden a una
+ * instantánea del árbol de categorías: cuando la instantánea cambia (una categoría se
+ * mueve o se da de baja) se recalculan desde los directos en la siguiente lectura.
+ *
+ * Una verificación periódica compara los directos con un COUNT agrupado y, si hay
+ * desvíos, vuelve a cargar todo.
+ *
+ */
+@Component
+public class CategoryProductCounts {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryProductCounts.class);
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final int loadBatchSize;
+    private final long verifyIntervalMinutes;
+
+    // Protegidos por this; los mapas de conteos se leen sin lock
+    private Map<Long, Long> placements = new HashMap<>();
+    private volatile Map<Long, Long> direct = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> subtree = new ConcurrentHashMap<>();
+    private volatile CategoryTree countedTree;
+
+    private volatile boolean ready;
+    private volatile boolean loading;
+    // Productos modificados mientras corre una carga: se releen al terminarla
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+    private final Object loadLock = new Object();
+    private ScheduledExecutorService scheduler;
+
+    public CategoryProductCounts(ProductRepository productRepository, CategoryTreeCache categoryTreeCache,
+                                 @Value("${categories.counts.load-batch-size:5000}") int loadBatchSize,
+                                 @Value("${categories.counts.verify-interval-minutes:10}") long verifyIntervalMinutes) {
+        this.productRepository = productRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        this.loadBatchSize = loadBatchSize;
+        this.verifyIntervalMinutes = verifyIntervalMinutes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread loader = new Thread(this::loadQuietly, "category-counts-loader");
+        loader.setDaemon(true);
+        loader.start();
+
+        // 0 desactiva la verificación periódica; sigue disponible a demanda
+        if (verifyIntervalMinutes > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "category-counts-verifier");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::verifyQuietly, verifyIntervalMinutes, verifyIntervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Indica si la carga inicial terminó
+     * @return true si los conteos están disponibles
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Productos activos asignados directamente a la categoría
+     * @param categoryId ID de la categoría
+     * @return Cantidad, o null si la carga inicial no terminó
+     */
+    public Long directCount(Long categoryId) {
+        return ready ? direct.getOrDefault(categoryId, 0L) : null;
+    }
+
+    /**
+     * Productos activos de la categoría y de todas sus subcategorías
+     * @param categoryId ID de la categoría
+     * @return Cantidad, o null si la carga inicial no terminó
+     */
+    public Long subtreeCount(Long categoryId) {
+        if (!ready) {
+            return null;
+        }
+        CategoryTree tree = categoryTreeCache.tree();
+        if (tree != countedTree) {
+            syncTree(tree);
+        }
+        return subtree.getOrDefault(categoryId, 0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // El stock no cambia la categoría ni el estado del producto
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_UPDATED) {
+            return;
+        }
+        if (loading) {
+            touchedDuringLoad.add(event.getProductId());
+        }
+        Long categoryId = event.getType() == ProductChangedEvent.ChangeType.DELETED
+                ? null
+                : productRepository.findCategoryPlacements(List.of(event.getProductId())).stream()
+                        .findFirst()
+                        .map(ProductCategoryPlacement::categoryId)
+                        .orElse(null);
+        place(event.getProductId(), categoryId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        if (loading) {
+            touchedDuringLoad.addAll(event.getProductIds());
+        }
+        reread(event.getProductIds());
+    }
+
+    /**
+     * Comparar los conteos directos con la base de datos y recargar si hay desvíos
+     * @return Cantidad de categorías con desvío
+     */
+    public int verify() {
+        if (!ready) {
+            return 0;
+        }
+        Map<Long, Long> expected = productRepository.countActiveByCategory().stream()
+                .collect(Collectors.toMap(CategoryProductCount::categoryId, CategoryProductCount::count));
+        Map<Long, Long> current = direct;
+        Set<Long> categories = new HashSet<>(expected.keySet());
+        categories.addAll(current.keySet());
+        int drifted = 0;
+        for (Long categoryId : categories) {
+            if (expected.getOrDefault(categoryId, 0L) != current.getOrDefault(categoryId, 0L).longValue()) {
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            logger.warn("Conteo de productos desviado en {} categorías; se vuelve a cargar", drifted);
+            load();
+        }
+        return drifted;
+    }
+
+    /**
+     * Cargar la categoría de todos los productos activos y reemplazar los conteos
+     */
+    void load() {
+        synchronized (loadLock) {
+            long start = System.currentTimeMillis();
+            touchedDuringLoad.clear();
+            loading = true;
+            Map<Long, Long> loaded = new HashMap<>();
+            try {
+                Long lastId = 0L;
+                List<ProductCategoryPlacement> batch;
+                do {
+                    batch = productRepository.findCategoryPlacementsAfter(lastId, PageRequest.of(0, loadBatchSize));
+                    for (ProductCategoryPlacement placement : batch) {
+                        loaded.put(placement.productId(), placement.categoryId());
+                    }
+                    if (!batch.isEmpty()) {
+                        lastId = batch.get(batch.size() - 1).productId();
+                    }
+                } while (batch.size() == loadBatchSize);
+            } catch (RuntimeException ex) {
+                loading = false;
+                throw ex;
+            }
+
+            List<Long> touched;
+            synchronized (this) {
+                Map<Long, Long> counts = new ConcurrentHashMap<>();
+                loaded.values().forEach(categoryId -> counts.merge(categoryId, 1L, Long::sum));
+                CategoryTree tree = categoryTreeCache.tree();
+                placements = loaded;
+                direct = counts;
+                subtree = subtreeCounts(tree, counts);
+                countedTree = tree;
+                loading = false;
+                touched = new ArrayList<>(touchedDuringLoad);
+                touchedDuringLoad.clear();
+            }
+            // Lo que cambió durante la carga puede haberse leído antes del cambio
+            if (!touched.isEmpty()) {
+                reread(touched);
+            }
+            ready = true;
+            logger.info("Conteo de productos por categoría cargado: {} productos en {} ms",
+                    loaded.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private void reread(List<Long> productIds) {
+        Map<Long, Long> current = productRepository.findCategoryPlacements(productIds).stream()
+                .collect(Collectors.toMap(ProductCategoryPlacement::productId, ProductCategoryPlacement::categoryId));
+        for (Long productId : productIds) {
+            place(productId, current.get(productId));
+        }
+    }
+
+    /**
+     * Registrar la categoría actual de un producto y mover una unidad si cambió
+     * @param productId ID del producto
+     * @param categoryId Categoría, o null si el producto no cuenta (inactivo, sin categoría o borrado)
+     */
+    private synchronized void place(Long productId, Long categoryId) {
+        Long previous = categoryId != null ? placements.put(productId, categoryId) : placements.remove(productId);
+        if (Objects.equals(previous, categoryId)) {
+            return;
+        }
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        if (categoryId != null) {
+            adjust(categoryId, 1);
+        }
+    }
+
+    /**
+     * La categoría y sus ancestros en la instantánea contada; una categoría fuera del
+     * árbol (inactiva o colgada de una inactiva) solo cuenta para sí misma
+     */
+    private void adjust(Long categoryId, long delta) {
+        direct.merge(categoryId, delta, Long::sum);
+        CategoryNode node = countedTree != null ? countedTree.byId(categoryId).orElse(null) : null;
+        if (node == null) {
+            subtree.merge(categoryId, delta, Long::sum);
+            return;
+        }
+        while (node != null) {
+            subtree.merge(node.id(), delta, Long::sum);
+            node = node.parentId() != null ? countedTree.byId(node.parentId()).orElse(null) : null;
+        }
+    }
+
+    private synchronized void syncTree(CategoryTree tree) {
+        if (tree != countedTree) {
+            subtree = subtreeCounts(tree, direct);
+            countedTree = tree;
+        }
+    }
+
+    private static Map<Long, Long> subtreeCounts(CategoryTree tree, Map<Long, Long> direct) {
+        Map<Long, Long> counts = new ConcurrentHashMap<>(direct);
+        for (CategoryNode root : tree.roots()) {
+            sum(root, direct, counts);
+        }
+        return counts;
+    }
+
+    /**
+     * Los hijos se suman antes que el padre
+     */
+    private static long sum(CategoryNode node, Map<Long, Long> direct, Map<Long, Long> counts) {
+        long total = direct.getOrDefault(node.id(), 0L);
+        for (CategoryNode child : node.children()) {
+            total += sum(child, direct, counts);
+        }
+        counts.put(node.id(), total);
+        return total;
+    }
+
+    private void loadQuietly() {
+        try {
+            load();
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo cargar el conteo de productos por categoría", ex);
+        }
+    }
+
+    private void verifyQuietly() {
+        try {
+            verify();
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo verificar el conteo de productos por categoría; se reintentará en el próximo ciclo", ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila plana de una categoría activa, tal como se lee para armar el {@link CategoryTree}
+ * @param id ID de la categoría
+ * @param parentId ID del padre (null si es raíz)
+ * @param name Nombre
+ * @param slug Slug
+ * @param description Descripción
+ * @param imageUrl URL de la imagen
+ * @param sortOrder Orden entre hermanos
+ * @param createdAt Fecha de alta
+ * @param updatedAt Fecha de la última modificación
+ *
+ */
+public record CategoryRow(Long id, Long parentId, String name, String slug, String description, String imageUrl,
+                          Integer sortOrder, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
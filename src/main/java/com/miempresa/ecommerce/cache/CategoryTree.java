@@ -0,0 +1,157 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.miempresa.ecommerce.dto.response.CategoryBreadcrumbDTO;
+
+/**
+ * Instantánea inmutable del árbol de categorías activas, indexada por ID y por slug.
+ *
+ * Se arma de una vez a partir de las filas planas y nunca se modifica: un cambio de
+ * categoría produce una instantánea nueva que reemplaza a la anterior, así que los
+ * lectores recorren siempre un árbol consistente sin locks. Una categoría activa cuyo
+ * padre no está activo no es alcanzable desde las raíces y queda fuera del árbol.
+ *
+ * La ruta desde la raíz de cada categoría se arma junto con el árbol: los productos la
+ * reutilizan tal cual, y un cambio de nombre o de padre la renueva con la instantánea.
+ *
+ */
+public final class CategoryTree {
+
+    private final List<CategoryNode> roots;
+    private final Map<Long, CategoryNode> byId;
+    private final Map<String, CategoryNode> bySlug;
+    private final Map<Long, List<CategoryBreadcrumbDTO>> breadcrumbs;
+    private final LocalDateTime lastUpdated;
+
+    private CategoryTree(List<CategoryNode> roots, Map<Long, CategoryNode> byId, Map<String, CategoryNode> bySlug,
+                         Map<Long, List<CategoryBreadcrumbDTO>> breadcrumbs, LocalDateTime lastUpdated) {
+        this.roots = roots;
+        this.byId = byId;
+        this.bySlug = bySlug;
+        this.breadcrumbs = breadcrumbs;
+        this.lastUpdated = lastUpdated;
+    }
+
+    /**
+     * Armar el árbol
+     * @param rows Categorías activas, ordenadas por sortOrder y nombre
+     * @return Instantánea
+     */
+    static CategoryTree build(List<CategoryRow> rows) {
+        Map<Long, List<CategoryRow>> childrenByParent = new HashMap<>();
+        List<CategoryRow> rootRows = new ArrayList<>();
+        for (CategoryRow row : rows) {
+            if (row.parentId() == null) {
+                rootRows.add(row);
+            } else {
+                childrenByParent.computeIfAbsent(row.parentId(), id -> new ArrayList<>()).add(row);
+            }
+        }
+
+        Map<Long, CategoryNode> byId = new HashMap<>(rows.size() * 2);
+        Map<String, CategoryNode> bySlug = new HashMap<>(rows.size() * 2);
+        Map<Long, List<CategoryBreadcrumbDTO>> breadcrumbs = new HashMap<>(rows.size() * 2);
+        List<CategoryNode> roots = new ArrayList<>(rootRows.size());
+        for (CategoryRow row : rootRows) {
+            roots.add(node(row, List.of(), childrenByParent, byId, bySlug, breadcrumbs));
+        }
+        // Última modificación de las categorías alcanzables: versión de las rutas
+        LocalDateTime lastUpdated = byId.values().stream()
+                .map(CategoryNode::updatedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        return new CategoryTree(List.copyOf(roots), Collections.unmodifiableMap(byId), Collections.unmodifiableMap(bySlug),
+                Collections.unmodifiableMap(breadcrumbs), lastUpdated);
+    }
+
+    /**
+     * Los hijos se arman antes que el padre: cada nodo nace con su lista de hijos
+     * definitiva. La ruta baja del padre a los hijos
+     */
+    private static CategoryNode node(CategoryRow row, List<CategoryBreadcrumbDTO> parentPath,
+                                     Map<Long, List<CategoryRow>> childrenByParent, Map<Long, CategoryNode> byId,
+                                     Map<String, CategoryNode> bySlug, Map<Long, List<CategoryBreadcrumbDTO>> breadcrumbs) {
+        List<CategoryBreadcrumbDTO> path = new ArrayList<>(parentPath.size() + 1);
+        path.addAll(parentPath);
+        path.add(new CategoryBreadcrumbDTO(row.id(), row.name(), row.slug()));
+        path = List.copyOf(path);
+        breadcrumbs.put(row.id(), path);
+
+        List<CategoryRow> childRows = childrenByParent.getOrDefault(row.id(), List.of());
+        List<CategoryNode> children = new ArrayList<>(childRows.size());
+        for (CategoryRow child : childRows) {
+            children.add(node(child, path, childrenByParent, byId, bySlug, breadcrumbs));
+        }
+        CategoryNode node = new CategoryNode(row.id(), row.parentId(), row.name(), row.slug(), row.description(),
+                row.imageUrl(), row.sortOrder(), parentPath.size(), List.copyOf(children), row.createdAt(),
+                row.updatedAt());
+        byId.put(node.id(), node);
+        if (node.slug() != null) {
+            bySlug.put(node.slug(), node);
+        }
+        return node;
+    }
+
+    public List<CategoryNode> roots() {
+        return roots;
+    }
+
+    public Optional<CategoryNode> byId(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<CategoryNode> bySlug(String slug) {
+        return Optional.ofNullable(bySlug.get(slug));
+    }
+
+    /**
+     * Ruta de una categoría desde la raíz, precalculada
+     * @param id ID de la categoría
+     * @return Categorías de la raíz a la indicada, o vacía si no está en el árbol
+     */
+    public List<CategoryBreadcrumbDTO> breadcrumb(Long id) {
+        return id != null ? breadcrumbs.getOrDefault(id, List.of()) : List.of();
+    }
+
+    /**
+     * Última modificación entre las categorías del árbol
+     * @return Fecha, o null si el árbol está vacío
+     */
+    public LocalDateTime lastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * Cantidad de categorías alcanzables desde las raíces
+     * @return Número de nodos
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Si una categoría está en el subárbol de otra (incluida ella misma)
+     * @param ancestorId ID del posible ancestro
+     * @param id ID de la categoría
+     * @return true si ancestorId es id o uno de sus ancestros
+     */
+    public boolean isInSubtree(Long ancestorId, Long id) {
+        CategoryNode node = byId.get(id);
+        while (node != null) {
+            if (node.id().equals(ancestorId)) {
+                return true;
+            }
+            node = node.parentId() != null ? byId.get(node.parentId()) : null;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,80 @@
+package com.miempresa.ecommerce.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.miempresa.ecommerce.event.CategoryChangedEvent;
+import com.miempresa.ecommerce.repository.CategoryRepository;
+
+/**
+ * Árbol de categorías en memoria con copia en escritura.
+ *
+ * Los lectores toman la instantánea vigente ({@link CategoryTree}) sin consultas ni
+ * locks. Cada cambio de categoría confirmado vuelve a leer todas las categorías
+ * activas con una sola consulta, arma una instantánea nueva y la publica de una vez.
+ * Los cambios que llegan mientras se arma una instantánea se juntan en la siguiente
+ * lectura, y quien escribió ve su cambio al terminar su transacción.
+ *
+ */
+@Component
+public class CategoryTreeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryTreeCache.class);
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree;
+
+    // Cambios pedidos y cambios cubiertos por la instantánea vigente
+    private final AtomicLong requested = new AtomicLong();
+    private long built = -1;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Instantánea vigente del árbol
+     * @return Árbol de categorías activas
+     */
+    public CategoryTree tree() {
+        CategoryTree current = tree;
+        return current != null ? current : refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        logger.debug("Recargando árbol de categorías por la categoría {} ({})", event.getCategoryId(), event.getType());
+        refresh();
+    }
+
+    /**
+     * Leer de nuevo el árbol, salvo que una lectura empezada después del pedido ya lo cubra
+     * @return Instantánea que incluye todos los cambios confirmados antes de la llamada
+     */
+    public CategoryTree refresh() {
+        long target = requested.incrementAndGet();
+        synchronized (this) {
+            if (built >= target) {
+                return tree;
+            }
+            long covering = requested.get();
+            long start = System.currentTimeMillis();
+            CategoryTree loaded = CategoryTree.build(categoryRepository.findActiveTreeRows());
+            tree = loaded;
+            built = covering;
+            logger.info("Árbol de categorías cargado: {} categorías en {} ms",
+                    loaded.size(), System.currentTimeMillis() - start);
+            return loaded;
+        }
+    }
+}
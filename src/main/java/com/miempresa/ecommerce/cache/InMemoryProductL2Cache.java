@@ -0,0 +1,72 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+
+/**
+ * Implementación en memoria de la caché L2, para desarrollo y tests
+ * (sustituye a un almacén compartido real como Redis)
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "cache.products.l2.type", havingValue = "in-memory")
+public class InMemoryProductL2Cache implements ProductL2Cache {
+
+    private final Map<Long, Entry<ProductResponseDTO>> products = new ConcurrentHashMap<>();
+    private final Map<String, Entry<Long>> skuToId = new ConcurrentHashMap<>();
+
+    @Value("${cache.products.l2.ttl:30m}")
+    private Duration ttl = Duration.ofMinutes(30);
+
+    @Override
+    public Optional<ProductResponseDTO> getById(Long id) {
+        return read(products, id);
+    }
+
+    @Override
+    public Optional<Long> getIdBySku(String sku) {
+        return read(skuToId, sku);
+    }
+
+    @Override
+    public void put(ProductResponseDTO product) {
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        products.put(product.getId(), new Entry<>(product, expiresAt));
+        if (product.getSku() != null) {
+            skuToId.put(product.getSku(), new Entry<>(product.getId(), expiresAt));
+        }
+    }
+
+    @Override
+    public void evictById(Long id) {
+        products.remove(id);
+    }
+
+    @Override
+    public void evictSku(String sku) {
+        skuToId.remove(sku);
+    }
+
+    private static <K, V> Optional<V> read(Map<K, Entry<V>> map, K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            map.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value);
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de lectura de productos en dos niveles: L1 en proceso (Caffeine, acotada
+ * por tamaño y TTL) y L2 compartida opcional ({@link ProductL2Cache}).
+ *
+ * Los productos se guardan por ID; el SKU se resuelve a ID con un mapa aparte, de
+ * modo que invalidar por ID basta cuando el SKU no cambia.
+ *
+ */
+@Component
+public class ProductCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCache.class);
+
+    private final Cache<Long, ProductResponseDTO> byId;
+    private final Cache<String, Long> skuToId;
+    private final ProductL2Cache l2;
+
+    // Evita cachear una lectura que empezó antes de una invalidación concurrente
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong l2Hits = new AtomicLong();
+    private final AtomicLong l2Misses = new AtomicLong();
+
+    public ProductCache(@Value("${cache.products.l1.maximum-size:10000}") long maximumSize,
+                        @Value("${cache.products.l1.ttl:10m}") Duration ttl,
+                        ObjectProvider<ProductL2Cache> l2Provider,
+                        ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.skuToId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.l2 = l2Provider.getIfAvailable();
+
+        meterRegistryProvider.ifAvailable(this::bindMetrics);
+        logger.info("Caché de productos: L1 (máx. {} entradas, TTL {}), L2 {}", maximumSize, ttl,
+                l2 != null ? l2.getClass().getSimpleName() : "deshabilitada");
+    }
+
+    /**
+     * Obtener producto por ID, cargándolo con el loader si no está en ninguna capa
+     * @param id ID del producto
+     * @param loader Carga desde la base de datos
+     * @return Optional del producto
+     */
+    public Optional<ProductResponseDTO> getById(Long id, Function<Long, Optional<ProductResponseDTO>> loader) {
+        ProductResponseDTO cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<ProductResponseDTO> fromL2 = getFromL2(id);
+        if (fromL2.isPresent()) {
+            putL1(fromL2.get());
+            return fromL2;
+        }
+
+        long generation = invalidations.get();
+        Optional<ProductResponseDTO> product = loader.apply(id);
+        product.ifPresent(loaded -> putIfNotInvalidated(loaded, generation));
+        return product;
+    }
+
+    /**
+     * Obtener producto por SKU, cargándolo con el loader si no está en ninguna capa
+     * @param sku SKU del producto
+     * @param loader Carga desde la base de datos
+     * @return Optional del producto
+     */
+    public Optional<ProductResponseDTO> getBySku(String sku, Supplier<Optional<ProductResponseDTO>> loader) {
+        Long id = skuToId.getIfPresent(sku);
+        if (id == null && l2 != null) {
+            id = countL2(l2.getIdBySku(sku)).orElse(null);
+        }
+        if (id != null) {
+            Optional<ProductResponseDTO> product = getById(id, key -> Optional.empty());
+            // Descartar si el SKU ya no corresponde (relación desactualizada)
+            if (product.isPresent() && sku.equals(product.get().getSku())) {
+                return product;
+            }
+        }
+
+        long generation = invalidations.get();
+        Optional<ProductResponseDTO> product = loader.get();
+        product.ifPresent(loaded -> putIfNotInvalidated(loaded, generation));
+        return product;
+    }
+
+    /**
+     * Invalidar ambas capas por ID y por SKU
+     * @param id ID del producto
+     * @param sku SKU del producto (puede ser null)
+     */
+    public void evict(Long id, String sku) {
+        invalidations.incrementAndGet();
+        if (id != null) {
+            ProductResponseDTO cached = byId.getIfPresent(id);
+            byId.invalidate(id);
+            if (l2 != null) {
+                l2.evictById(id);
+            }
+            if (cached != null && cached.getSku() != null && !cached.getSku().equals(sku)) {
+                evictSku(cached.getSku());
+            }
+        }
+        if (sku != null) {
+            evictSku(sku);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        logger.debug("Invalidando caché del producto {} ({})", event.getProductId(), event.getType());
+        evict(event.getProductId(), event.getSku());
+    }
+
+    /**
+     * Estadísticas de la L1
+     * @return CacheStats de Caffeine
+     */
+    public CacheStats l1Stats() {
+        return byId.stats();
+    }
+
+    public long l1Size() {
+        return byId.estimatedSize();
+    }
+
+    public boolean isL2Enabled() {
+        return l2 != null;
+    }
+
+    public long l2Hits() {
+        return l2Hits.get();
+    }
+
+    public long l2Misses() {
+        return l2Misses.get();
+    }
+
+    private Optional<ProductResponseDTO> getFromL2(Long id) {
+        if (l2 == null) {
+            return Optional.empty();
+        }
+        return countL2(l2.getById(id));
+    }
+
+    private <T> Optional<T> countL2(Optional<T> result) {
+        (result.isPresent() ? l2Hits : l2Misses).incrementAndGet();
+        return result;
+    }
+
+    private void evictSku(String sku) {
+        skuToId.invalidate(sku);
+        if (l2 != null) {
+            l2.evictSku(sku);
+        }
+    }
+
+    private void putIfNotInvalidated(ProductResponseDTO product, long generation) {
+        if (invalidations.get() != generation) {
+            return;
+        }
+        putL1(product);
+        putL2(product);
+    }
+
+    private void putL1(ProductResponseDTO product) {
+        byId.put(product.getId(), product);
+        if (product.getSku() != null) {
+            skuToId.put(product.getSku(), product.getId());
+        }
+    }
+
+    private void putL2(ProductResponseDTO product) {
+        if (l2 != null) {
+            l2.put(product);
+        }
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "products.l1");
+        FunctionCounter.builder("cache.gets", l2Hits, AtomicLong::get)
+                .tag("cache", "products.l2").tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", l2Misses, AtomicLong::get)
+                .tag("cache", "products.l2").tag("result", "miss")
+                .register(registry);
+    }
+}
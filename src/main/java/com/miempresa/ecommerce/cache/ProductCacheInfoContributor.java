@@ -0,0 +1,44 @@
+package com.miempresa.ecommerce.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Publica los contadores de la caché de productos en /actuator/info
+ *
+ */
+@Component
+public class ProductCacheInfoContributor implements InfoContributor {
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        CacheStats stats = productCache.l1Stats();
+
+        Map<String, Object> l1 = new LinkedHashMap<>();
+        l1.put("size", productCache.l1Size());
+        l1.put("hits", stats.hitCount());
+        l1.put("misses", stats.missCount());
+        l1.put("evictions", stats.evictionCount());
+        l1.put("hitRate", stats.hitRate());
+
+        Map<String, Object> l2 = new LinkedHashMap<>();
+        l2.put("enabled", productCache.isL2Enabled());
+        l2.put("hits", productCache.l2Hits());
+        l2.put("misses", productCache.l2Misses());
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("l1", l1);
+        details.put("l2", l2);
+        builder.withDetail("productCache", details);
+    }
+}
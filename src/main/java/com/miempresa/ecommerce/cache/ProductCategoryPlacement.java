@@ -0,0 +1,9 @@
+package com.miempresa.ecommerce.cache;
+
+/**
+ * Categoría de un producto activo, lo único que necesita el conteo por categoría
+ * @param productId ID del producto
+ * @param categoryId ID de la categoría
+ */
+public record ProductCategoryPlacement(Long productId, Long categoryId) {
+}
@@ -0,0 +1,90 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Totales aproximados de los listados de productos, por filtro.
+ *
+ * Cada total se calcula una vez con COUNT y luego se sirve desde memoria; pasado el
+ * intervalo de refresco, la siguiente lectura devuelve el valor anterior y dispara el
+ * recálculo en segundo plano. Así ninguna petición espera un COUNT salvo la primera
+ * de cada filtro.
+ *
+ */
+@Component
+public class ProductCountCache {
+
+    private final LoadingCache<CountKey, Long> counts;
+    private final ProductRepository productRepository;
+
+    public ProductCountCache(ProductRepository productRepository,
+                             @Value("${cache.products.counts.maximum-size:1000}") long maximumSize,
+                             @Value("${cache.products.counts.refresh:30s}") Duration refresh,
+                             @Value("${cache.products.counts.expire:5m}") Duration expire) {
+        this.productRepository = productRepository;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refresh)
+                .expireAfterWrite(expire)
+                .build(this::count);
+    }
+
+    /**
+     * Total aproximado de productos activos
+     * @return Cantidad de productos
+     */
+    public long activeProducts() {
+        return counts.get(new CountKey(Filter.ACTIVE, ""));
+    }
+
+    /**
+     * Total aproximado de productos activos de una categoría
+     * @param categoryId ID de la categoría
+     * @return Cantidad de productos
+     */
+    public long byCategory(Long categoryId) {
+        return counts.get(new CountKey(Filter.CATEGORY, categoryId.toString()));
+    }
+
+    /**
+     * Total aproximado de productos activos que contienen la palabra clave
+     * @param keyword Palabra clave ya normalizada con {@link #normalizeKeyword(String)},
+     *                la misma que recibe la consulta de la página
+     * @return Cantidad de productos
+     */
+    public long byKeyword(String keyword) {
+        return counts.get(new CountKey(Filter.KEYWORD, keyword));
+    }
+
+    /**
+     * Normalizar una palabra clave de búsqueda. La búsqueda no distingue mayúsculas:
+     * hay una entrada por palabra normalizada y la página debe consultar con el mismo
+     * valor para que el total corresponda a sus filas
+     * @param keyword Palabra clave tal como llega
+     * @return Palabra clave sin espacios en los extremos y en minúsculas
+     */
+    public static String normalizeKeyword(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Long count(CountKey key) {
+        return switch (key.filter()) {
+            case ACTIVE -> productRepository.countByActiveTrue();
+            case CATEGORY -> productRepository.countActiveByCategoryId(Long.valueOf(key.value()));
+            case KEYWORD -> productRepository.countActiveByKeyword(key.value());
+        };
+    }
+
+    private enum Filter { ACTIVE, CATEGORY, KEYWORD }
+
+    private record CountKey(Filter filter, String value) {
+    }
+}
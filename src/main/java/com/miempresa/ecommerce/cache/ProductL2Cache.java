@@ -0,0 +1,44 @@
+package com.miempresa.ecommerce.cache;
+
+import java.util.Optional;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+
+/**
+ * Caché compartida (L2) de productos entre instancias de la aplicación
+ *
+ */
+public interface ProductL2Cache {
+
+    /**
+     * Obtener producto por ID
+     * @param id ID del producto
+     * @return Optional del producto cacheado
+     */
+    Optional<ProductResponseDTO> getById(Long id);
+
+    /**
+     * Resolver el ID de un producto a partir de su SKU
+     * @param sku SKU del producto
+     * @return Optional del ID cacheado
+     */
+    Optional<Long> getIdBySku(String sku);
+
+    /**
+     * Guardar producto (por ID y, si tiene, la relación SKU -> ID)
+     * @param product Producto a cachear
+     */
+    void put(ProductResponseDTO product);
+
+    /**
+     * Invalidar producto por ID
+     * @param id ID del producto
+     */
+    void evictById(Long id);
+
+    /**
+     * Invalidar la relación SKU -> ID
+     * @param sku SKU del producto
+     */
+    void evictSku(String sku);
+}
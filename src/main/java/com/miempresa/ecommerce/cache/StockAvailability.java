@@ -0,0 +1,11 @@
+package com.miempresa.ecommerce.cache;
+
+/**
+ * Disponible de un producto junto con la versión de stock de la que se leyó
+ * @param productId ID del producto
+ * @param availableQuantity Stock total menos lo reservado
+ * @param stockVersion Versión de los totales de stock del producto
+ *
+ */
+public record StockAvailability(Long productId, Integer availableQuantity, Long stockVersion) {
+}
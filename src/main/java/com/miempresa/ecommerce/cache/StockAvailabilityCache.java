@@ -0,0 +1,169 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Caché del disponible por producto con versión de stock.
+ *
+ * products.stock_version se incrementa en la misma sentencia que cada cambio de los
+ * totales de stock, así que es monótona por producto y viaja con el valor leído. Una
+ * lectura sin versión mínima se sirve desde memoria; una con versión mínima solo
+ * acepta una entrada de esa versión o posterior y, si no la hay, lee de la base de
+ * datos, donde la escritura ya está confirmada: quien escribió y envía la versión que
+ * recibió nunca lee un valor anterior a su escritura, aunque haya escrito en otra
+ * instancia. Las versiones que entrega el inventario en memoria llegan a la base de
+ * datos con la escritura diferida: si la versión leída todavía es anterior, se
+ * adelanta esa escritura y se vuelve a leer. Los cambios confirmados en esta instancia
+ * invalidan la entrada; los de otras instancias se ven a más tardar al vencer el TTL.
+ *
+ */
+@Component
+public class StockAvailabilityCache {
+
+    private final Cache<Long, Entry> entries;
+    private final ProductRepository productRepository;
+    private final InventoryWriteBehind writeBehind;
+
+    // Una carga que empezó antes de invalidar su producto no se guarda
+    private final AtomicLong invalidations = new AtomicLong();
+    // Las marcas de invalidación cuentan como fallo, por eso no se usan las estadísticas de Caffeine
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public StockAvailabilityCache(ProductRepository productRepository,
+                                  InventoryWriteBehind writeBehind,
+                                  @Value("${cache.availability.maximum-size:100000}") long maximumSize,
+                                  @Value("${cache.availability.ttl:30s}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.writeBehind = writeBehind;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Disponible de varios productos activos, con una sola consulta para los que no están
+     * en memoria o tienen una versión anterior a la pedida
+     * @param productIds IDs de los productos
+     * @param minVersions Versión mínima por producto (los que no figuran aceptan cualquiera)
+     * @return Disponible por producto, en el orden pedido; faltan los inexistentes o inactivos
+     */
+    public Map<Long, StockAvailability> getAll(Collection<Long> productIds, Map<Long, Long> minVersions) {
+        Map<Long, StockAvailability> cached = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            Entry entry = entries.getIfPresent(productId);
+            Long minVersion = minVersions.get(productId);
+            if (entry != null && entry.value() != null
+                    && (minVersion == null || entry.value().stockVersion() >= minVersion)) {
+                cached.put(productId, entry.value());
+            } else {
+                missing.add(productId);
+            }
+        }
+        hits.addAndGet(cached.size());
+        misses.addAndGet(missing.size());
+
+        if (!missing.isEmpty()) {
+            load(missing, cached);
+            List<Long> behind = missing.stream()
+                    .filter(productId -> cached.containsKey(productId) && minVersions.containsKey(productId)
+                            && cached.get(productId).stockVersion() < minVersions.get(productId))
+                    .toList();
+            // La versión pedida todavía está solo en memoria. Se relee aunque este flush no
+            // escriba nada: puede haber esperado al flush periódico que la estaba escribiendo
+            if (!behind.isEmpty()) {
+                writeBehind.flush();
+                load(behind, cached);
+            }
+        }
+
+        Map<Long, StockAvailability> result = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            StockAvailability availability = cached.get(productId);
+            if (availability != null) {
+                result.put(productId, availability);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Invalidar el disponible de un producto
+     * @param productId ID del producto
+     */
+    public void evict(Long productId) {
+        // Se deja una marca en lugar de borrar: así una carga en curso sabe que llegó tarde
+        entries.put(productId, new Entry(null, invalidations.incrementAndGet()));
+    }
+
+    /**
+     * Incluye STOCK_UPDATED, que publica la escritura diferida del inventario en memoria
+     * @param event Evento de cambio de producto
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.getProductId());
+    }
+
+    /**
+     * Lecturas servidas desde memoria
+     * @return Cantidad de aciertos
+     */
+    public long hitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Lecturas que fueron a la base de datos
+     * @return Cantidad de fallos
+     */
+    public long missCount() {
+        return misses.get();
+    }
+
+    private void load(List<Long> productIds, Map<Long, StockAvailability> cached) {
+        long generation = invalidations.get();
+        for (StockAvailability loaded : productRepository.findStockAvailability(productIds)) {
+            cached.put(loaded.productId(), loaded);
+            store(loaded, generation);
+        }
+    }
+
+    private void store(StockAvailability loaded, long generation) {
+        entries.asMap().compute(loaded.productId(), (productId, current) -> {
+            if (current == null) {
+                return new Entry(loaded, 0);
+            }
+            if (current.value() == null) {
+                return current.invalidatedAt() > generation ? current : new Entry(loaded, 0);
+            }
+            // Nunca reemplazar por una versión anterior
+            return current.value().stockVersion() > loaded.stockVersion() ? current : new Entry(loaded, 0);
+        });
+    }
+
+    /**
+     * Valor cacheado, o marca de invalidación (value null) con su número de invalidación
+     */
+    private record Entry(StockAvailability value, long invalidatedAt) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.miempresa.ecommerce.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.miempresa.ecommerce.dto.request.OrderAllocationRequestDTO;
+import com.miempresa.ecommerce.dto.response.BatchAllocationResultDTO;
+import com.miempresa.ecommerce.dto.response.OrderAllocationResultDTO;
+import com.miempresa.ecommerce.service.IAllocationService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Controlador REST para asignar pedidos a depósitos
+ *
+ */
+@RestController
+@RequestMapping("/api/v1/allocations")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Allocations", description = "Endpoints para asignar pedidos a depósitos")
+public class AllocationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllocationController.class);
+
+    @Autowired
+    private IAllocationService allocationService;
+
+    /**
+     * Asignar un pedido (solo administradores)
+     * @param request Líneas del pedido
+     * @return Envíos por depósito con las unidades ya reservadas y el ID de cada reserva
+     */
+    @Operation(summary = "Asignar pedido",
+               description = "Reparte el pedido en el menor número de depósitos, priorizando el principal, y reserva el stock "
+                       + "con reservas temporales que se confirman o cancelan en /api/v1/stock/holds")
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderAllocationResultDTO> allocate(@Valid @RequestBody OrderAllocationRequestDTO request) {
+        logger.info("Solicitud REST para asignar el pedido {} con {} líneas", request.getOrderRef(), request.getLines().size());
+
+        return new ResponseEntity<>(allocationService.allocate(request), HttpStatus.CREATED);
+    }
+
+    /**
+     * Asignar un lote de pedidos en orden de llegada (solo administradores)
+     * @param requests Pedidos
+     * @return Resultado de cada pedido
+     */
+    @Operation(summary = "Asignar lote de pedidos", description = "Asigna los pedidos en orden; los que fallan no detienen al resto")
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchAllocationResultDTO> allocateBatch(@RequestBody List<OrderAllocationRequestDTO> requests) {
+        logger.info("Solicitud REST para asignar un lote de {} pedidos", requests.size());
+
+        return ResponseEntity.ok(allocationService.allocateBatch(requests));
+    }
+}
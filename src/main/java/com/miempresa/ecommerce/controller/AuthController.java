@@ -115,10 +115,9 @@ public class AuthController {
     @PostMapping("/logout")
     public ResponseEntity<String> logout(@RequestBody LogoutRequest logoutRequest) {
         logger.info("Solicitud REST para cerrar la sesión del usuario");
-        
-       // TODO: Implementar el punto final de cierre de sesión
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        authService.logout(logoutRequest.getToken());
+        return ResponseEntity.ok("Sesión cerrada correctamente");
     }
 
     /**
@@ -0,0 +1,128 @@
+package com.miempresa.ecommerce.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.miempresa.ecommerce.dto.request.CategoryCreateRequestDTO;
+import com.miempresa.ecommerce.dto.response.CategoryResponseDTO;
+import com.miempresa.ecommerce.dto.response.CategoryTreeNodeDTO;
+import com.miempresa.ecommerce.service.ICategoryService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Controlador REST para operaciones de categoría
+ *
+ */
+@RestController
+@RequestMapping("/api/v1/categories")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Categories", description = "Endpoints para gestión de categorías")
+public class CategoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryController.class);
+
+    @Autowired
+    private ICategoryService categoryService;
+
+    /**
+     * Obtener el árbol completo de categorías activas, servido desde memoria
+     * @return Categorías raíz con sus subcategorías anidadas
+     */
+    @Operation(summary = "Obtener árbol de categorías",
+               description = "Devuelve el árbol completo de categorías activas desde la instantánea en memoria, sin consultas")
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryTreeNodeDTO>> getCategoryTree() {
+        logger.info("Solicitud REST para obtener el árbol de categorías");
+
+        return ResponseEntity.ok(categoryService.getCategoryTree());
+    }
+
+    /**
+     * Obtener categoría por ID
+     * @param id ID de la categoría
+     * @return Respuesta de la categoría
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CategoryResponseDTO> getCategoryById(@PathVariable Long id) {
+        logger.info("Solicitud REST para obtener la categoría por ID: {}", id);
+
+        return ResponseEntity.ok(categoryService.getCategoryById(id));
+    }
+
+    /**
+     * Obtener categoría por slug
+     * @param slug Slug de la categoría
+     * @return Respuesta de la categoría
+     */
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<CategoryResponseDTO> getCategoryBySlug(@PathVariable String slug) {
+        logger.info("Solicitud REST para obtener la categoría por slug: {}", slug);
+
+        return ResponseEntity.ok(categoryService.getCategoryBySlug(slug));
+    }
+
+    /**
+     * Crear una nueva categoría (solo administradores)
+     * @param request Solicitud de creación
+     * @return Respuesta de la categoría creada
+     */
+    @Operation(summary = "Crear categoría", description = "Crea una categoría (requiere rol ADMIN)",
+               security = @SecurityRequirement(name = "Bearer Authentication"))
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CategoryResponseDTO> createCategory(@Valid @RequestBody CategoryCreateRequestDTO request) {
+        logger.info("Solicitud REST para crear una categoría: {}", request.getName());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(categoryService.createCategory(request));
+    }
+
+    /**
+     * Modificar una categoría, incluido su padre (solo administradores)
+     * @param id ID de la categoría
+     * @param request Datos completos de la categoría
+     * @return Respuesta de la categoría modificada
+     */
+    @Operation(summary = "Modificar categoría", description = "Renombra o mueve una categoría (requiere rol ADMIN)",
+               security = @SecurityRequirement(name = "Bearer Authentication"))
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CategoryResponseDTO> updateCategory(@PathVariable Long id,
+                                                              @Valid @RequestBody CategoryCreateRequestDTO request) {
+        logger.info("Solicitud REST para modificar la categoría con ID: {}", id);
+
+        return ResponseEntity.ok(categoryService.updateCategory(id, request));
+    }
+
+    /**
+     * Eliminar una categoría (solo administradores)
+     * @param id ID de la categoría
+     * @return Respuesta sin contenido
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
+        logger.info("Solicitud REST para eliminar la categoría con ID: {}", id);
+
+        categoryService.deleteCategory(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.miempresa.ecommerce.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.miempresa.ecommerce.dto.response.HotSkuResponseDTO;
+import com.miempresa.ecommerce.dto.response.LedgerVerificationResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockLevelResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockMovementDTO;
+import com.miempresa.ecommerce.dto.response.StockReconciliationResponseDTO;
+import com.miempresa.ecommerce.service.IInventoryService;
+import com.miempresa.ecommerce.util.Constants;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST para reservas de inventario por producto y depósito
+ *
+ */
+@RestController
+@RequestMapping("/api/v1/inventory")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Inventory", description = "Endpoints para reservas de stock en memoria")
+public class InventoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
+
+    @Autowired
+    private IInventoryService inventoryService;
+
+    /**
+     * Obtener las existencias de un producto en un depósito
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @return Existencias actuales
+     */
+    @GetMapping("/{productId}/deposits/{depositoId}")
+    public ResponseEntity<StockLevelResponseDTO> getStock(@PathVariable Long productId, @PathVariable Long depositoId) {
+        return ResponseEntity.ok(inventoryService.getStock(productId, depositoId));
+    }
+
+    /**
+     * Reservar unidades (solo administradores)
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a reservar
+     * @return Existencias después de la reserva, con la versión de stock en X-Stock-Version
+     */
+    @Operation(summary = "Reservar stock", description = "Reserva unidades en memoria; la base de datos se actualiza en diferido")
+    @PostMapping("/{productId}/deposits/{depositoId}/reserve")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockLevelResponseDTO> reserve(@PathVariable Long productId, @PathVariable Long depositoId,
+                                                         @RequestParam Integer quantity) {
+        logger.info("Solicitud REST para reservar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        StockLevelResponseDTO level = inventoryService.reserve(productId, depositoId, quantity);
+        return ResponseEntity.ok().header(Constants.STOCK_VERSION_HEADER,
+                String.valueOf(inventoryService.stockVersion(productId))).body(level);
+    }
+
+    /**
+     * Liberar unidades reservadas (solo administradores)
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a liberar
+     * @return Existencias después de liberar, con la versión de stock en X-Stock-Version
+     */
+    @PostMapping("/{productId}/deposits/{depositoId}/release")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockLevelResponseDTO> release(@PathVariable Long productId, @PathVariable Long depositoId,
+                                                         @RequestParam Integer quantity) {
+        logger.info("Solicitud REST para liberar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        StockLevelResponseDTO level = inventoryService.release(productId, depositoId, quantity);
+        return ResponseEntity.ok().header(Constants.STOCK_VERSION_HEADER,
+                String.valueOf(inventoryService.stockVersion(productId))).body(level);
+    }
+
+    /**
+     * Confirmar unidades reservadas (venta) (solo administradores)
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a confirmar
+     * @return Existencias después de confirmar, con la versión de stock en X-Stock-Version
+     */
+    @PostMapping("/{productId}/deposits/{depositoId}/commit")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockLevelResponseDTO> commit(@PathVariable Long productId, @PathVariable Long depositoId,
+                                                        @RequestParam Integer quantity) {
+        logger.info("Solicitud REST para confirmar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        StockLevelResponseDTO level = inventoryService.commit(productId, depositoId, quantity);
+        return ResponseEntity.ok().header(Constants.STOCK_VERSION_HEADER,
+                String.valueOf(inventoryService.stockVersion(productId))).body(level);
+    }
+
+    /**
+     * Conciliar los totales de stock de los productos (solo administradores)
+     * @return Resumen con la cantidad de productos corregidos
+     */
+    @Operation(summary = "Conciliar totales de stock",
+               description = "Compara stock total y disponible de cada producto con la suma por depósito y corrige los desvíos")
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockReconciliationResponseDTO> reconcileTotals() {
+        logger.info("Solicitud REST para conciliar los totales de stock");
+
+        return ResponseEntity.ok(inventoryService.reconcileTotals());
+    }
+
+    /**
+     * Obtener los movimientos de stock de un producto (solo administradores)
+     * @param productId ID del producto
+     * @param from Desde (inclusive, opcional)
+     * @param to Hasta (inclusive, opcional)
+     * @param limit Cantidad máxima de movimientos
+     * @return Movimientos en orden de secuencia
+     */
+    @Operation(summary = "Movimientos de stock", description = "Consulta el registro de movimientos por producto y rango de tiempo")
+    @GetMapping("/{productId}/movements")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<StockMovementDTO>> getMovements(
+            @PathVariable Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(inventoryService.getMovements(productId, from, to, limit));
+    }
+
+    /**
+     * Comparar el stock reconstruido desde el registro de movimientos con la base de datos (solo administradores)
+     * @return Resumen con las filas que no coinciden
+     */
+    @Operation(summary = "Verificar registro de movimientos",
+               description = "Reconstruye product_stocks desde la última instantánea y los movimientos posteriores y lo compara con la base de datos")
+    @PostMapping("/ledger/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LedgerVerificationResponseDTO> verifyLedger() {
+        logger.info("Solicitud REST para verificar el registro de movimientos de stock");
+
+        return ResponseEntity.ok(inventoryService.verifyLedger());
+    }
+
+    /**
+     * Activar el modo SKU caliente de un producto (solo administradores)
+     * @param productId ID del producto
+     * @param shards Sub-buckets por depósito (opcional)
+     * @return Estado del modo
+     */
+    @Operation(summary = "Activar modo SKU caliente",
+               description = "Reparte el stock del producto en cada depósito en sub-buckets en memoria para promociones")
+    @PutMapping("/{productId}/hot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HotSkuResponseDTO> enableHotMode(@PathVariable Long productId,
+                                                           @RequestParam(required = false) Integer shards) {
+        logger.info("Solicitud REST para activar el modo SKU caliente del producto {}", productId);
+
+        return ResponseEntity.ok(inventoryService.enableHotMode(productId, shards));
+    }
+
+    /**
+     * Desactivar el modo SKU caliente de un producto (solo administradores)
+     * @param productId ID del producto
+     * @return Estado del modo
+     */
+    @DeleteMapping("/{productId}/hot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HotSkuResponseDTO> disableHotMode(@PathVariable Long productId) {
+        logger.info("Solicitud REST para desactivar el modo SKU caliente del producto {}", productId);
+
+        return ResponseEntity.ok(inventoryService.disableHotMode(productId));
+    }
+}
@@ -1,6 +1,12 @@
 package com.miempresa.ecommerce.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,7 +15,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -20,14 +28,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.miempresa.ecommerce.dto.request.ProductCreateRequestDTO;
 import com.miempresa.ecommerce.dto.request.ProductUpdateRequestDTO;
+import com.miempresa.ecommerce.dto.response.BulkProductResultDTO;
+import com.miempresa.ecommerce.dto.response.CursorPageResponseDTO;
+import com.miempresa.ecommerce.dto.response.FacetedPageResponseDTO;
 import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.dto.response.SliceResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockAvailabilityResponseDTO;
+import com.miempresa.ecommerce.repository.ProductListingVersion;
+import com.miempresa.ecommerce.search.ProductFacetFilter;
+import com.miempresa.ecommerce.service.ILowStockService;
+import com.miempresa.ecommerce.service.IProductExportService;
 import com.miempresa.ecommerce.service.IProductService;
+import com.miempresa.ecommerce.service.ProductExportFormat;
+import com.miempresa.ecommerce.util.ETagUtil;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -36,6 +58,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 /**
@@ -53,6 +76,12 @@ public class ProductController {
     @Autowired
     private IProductService productService;
 
+    @Autowired
+    private IProductExportService productExportService;
+
+    @Autowired
+    private ILowStockService lowStockService;
+
     /**
      * Crear un nuevo producto
      * @param productRequest Solicitud de creación de producto
@@ -85,7 +114,22 @@ public class ProductController {
     }
     
     /**
-     * Obtener producto por ID
+     * Crear productos en bloque (p. ej. sincronización con proveedores). Devuelve el
+     * resultado de cada elemento: los inválidos se informan sin abortar el resto
+     * @param productRequests Solicitudes de creación
+     * @return Resultado por elemento
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkProductResultDTO> createProducts(@RequestBody List<ProductCreateRequestDTO> productRequests) {
+        logger.info("Solicitud REST para crear {} productos en bloque", productRequests.size());
+
+        return ResponseEntity.ok(productService.createProducts(productRequests));
+    }
+
+    /**
+     * Obtener producto por ID. Responde 304 si el cliente ya tiene la versión actual
+     * (If-None-Match / If-Modified-Since)
      * @param id Product ID
      * @return Respuesta de Product 
      */
@@ -93,14 +137,17 @@ public class ProductController {
     public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable Long id) {
         logger.info("Solicitud REST para obtener el producto por ID: {}", id);
         
+        // La versión de las categorías se lee antes que el producto: si cambian en medio,
+        // los validadores quedan atrás del cuerpo y el cliente solo vuelve a pedirlo
+        LocalDateTime categoriesUpdated = productService.getCategoriesLastUpdated();
         ProductResponseDTO response = productService.getProductById(id);
-        return ResponseEntity.ok(response);
+        return withValidators(response, categoriesUpdated);
         
         //throw new UnsupportedOperationException("Punto final aún no implementado");
     }
 
     /**
-     * Obtener producto por SKU
+     * Obtener producto por SKU. Responde 304 si el cliente ya tiene la versión actual
      * @param sku Product SKU
      * @return Respuesta de Product 
      */
@@ -108,18 +155,55 @@ public class ProductController {
     public ResponseEntity<ProductResponseDTO> getProductBySku(@PathVariable String sku) {
         logger.info("Solicitud REST para obtener el producto por SKU: {}", sku);
         
+        // La versión de las categorías se lee antes que el producto: si cambian en medio,
+        // los validadores quedan atrás del cuerpo y el cliente solo vuelve a pedirlo
+        LocalDateTime categoriesUpdated = productService.getCategoriesLastUpdated();
         ProductResponseDTO response = productService.getProductBySku(sku);
-        return ResponseEntity.ok(response);
+        return withValidators(response, categoriesUpdated);
         
         //throw new UnsupportedOperationException("Punto final aún no implementado");
     }
 
+    /**
+     * Obtener el disponible de un producto desde memoria
+     * @param id ID del producto
+     * @param minVersion Versión de stock recibida al escribir (opcional): garantiza no leer un valor anterior
+     * @return Disponible y versión de stock
+     */
+    @Operation(summary = "Obtener disponible de un producto",
+               description = "Sirve el disponible desde la caché; con minVersion nunca devuelve una versión anterior")
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<StockAvailabilityResponseDTO> getAvailability(@PathVariable Long id,
+                                                                        @RequestParam(required = false) Long minVersion) {
+        logger.info("Solicitud REST para obtener el disponible del producto {}", id);
+
+        return ResponseEntity.ok(productService.getAvailability(id, minVersion));
+    }
+
+    /**
+     * Obtener el disponible de varios productos desde memoria
+     * @param ids IDs de los productos
+     * @param minVersion Versiones mínimas como productId:versión (opcional, repetible)
+     * @return Disponible de los productos activos encontrados
+     */
+    @Operation(summary = "Obtener disponible de varios productos",
+               description = "Una sola consulta para los productos que no están en la caché o tienen una versión anterior a la pedida")
+    @GetMapping("/availability")
+    public ResponseEntity<List<StockAvailabilityResponseDTO>> getAvailability(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) List<String> minVersion) {
+        logger.info("Solicitud REST para obtener el disponible de {} productos", ids.size());
+
+        return ResponseEntity.ok(productService.getAvailability(ids, minVersion));
+    }
+
     /**
      * Obtenga todos los productos activos con paginación
      * @param page Número de página (predeterminado: 0) 
      * @param size Tamaño de página (predeterminado: 20) 
      * @param sortBy Campo de ordenación (predeterminado: id) 
      * @param sortDir Dirección de ordenación (predeterminado: asc) 
+     * @param webRequest Petición, para responder 304 con el ETag débil del listado
      * @return Page de respuestas del producto
      */
     @GetMapping
@@ -127,10 +211,15 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
         
         logger.info("Solicitud REST para obtener todos los productos activos - página: {}, tamaño: {}", page, size);
 
+        if (notModified(webRequest, productService.getActiveProductsVersion())) {
+            return null;
+        }
+
         Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
 
@@ -141,27 +230,144 @@ public class ProductController {
         // throw new UnsupportedOperationException("Punto final aún no implementado");
     }
 
+    /**
+     * Obtener productos activos paginados por cursor (keyset). Se activa enviando el
+     * parámetro cursor: vacío para la primera página y luego el valor de next
+     * @param cursor Token de la página anterior
+     * @param size Tamaño de página (predeterminado: 20)
+     * @param sortBy Campo de ordenación (predeterminado: id)
+     * @param sortDir Dirección de ordenación (predeterminado: asc)
+     * @return Página con el token de la siguiente
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> getAllActiveProductsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        logger.info("Solicitud REST para obtener productos activos por cursor - tamaño: {}", size);
+
+        return ResponseEntity.ok(productService.getAllActiveProductsByCursor(cursor, size, sortBy, sortDir));
+    }
+
+    /**
+     * Obtener productos activos sin conteo exacto (slice=true): una sola consulta por
+     * página, con indicador de página siguiente y total aproximado
+     * @param page Número de página (predeterminado: 0)
+     * @param size Tamaño de página (predeterminado: 20)
+     * @param sortBy Campo de ordenación (predeterminado: id)
+     * @param sortDir Dirección de ordenación (predeterminado: asc)
+     * @return Slice de respuestas del producto
+     */
+    @GetMapping(params = {"slice=true", "!cursor"})
+    public ResponseEntity<SliceResponseDTO<ProductResponseDTO>> getAllActiveProductsSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        logger.info("Solicitud REST para obtener productos activos sin conteo - página: {}, tamaño: {}", page, size);
+
+        Sort sort = sortDir.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending()
+                : Sort.by(sortBy).descending();
+        return ResponseEntity.ok(productService.getAllActiveProductsSlice(PageRequest.of(page, size, sort)));
+    }
+
+    /**
+     * Obtener productos activos filtrados por facetas (facets=true), con los conteos
+     * por categoría, rango de precio y disponibilidad. Se resuelve en memoria con el
+     * índice de facetas y se ordena por ID
+     * @param categoryId IDs de categoría (se combinan con OR)
+     * @param priceBand Rangos de precio, por ejemplo "25-50" o "500+" (se combinan con OR)
+     * @param inStock true solo con stock, false solo sin stock
+     * @param page Número de página (predeterminado: 0)
+     * @param size Tamaño de página (predeterminado: 20)
+     * @return Página con facetas
+     */
+    @GetMapping(params = {"facets=true", "!cursor"})
+    public ResponseEntity<FacetedPageResponseDTO<ProductResponseDTO>> getAllActiveProductsFaceted(
+            @RequestParam(required = false) Set<Long> categoryId,
+            @RequestParam(required = false) Set<String> priceBand,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        logger.info("Solicitud REST para obtener productos activos con facetas - página: {}, tamaño: {}", page, size);
+
+        ProductFacetFilter filter = new ProductFacetFilter(categoryId, priceBand, inStock);
+        return ResponseEntity.ok(productService.getActiveProductsFaceted(filter, PageRequest.of(page, size)));
+    }
+
     /**
      * Obtener productos por categoría 
      * @param category Categoría del producto 
      * @param page Número de página (predeterminado: 0)
      * @param size Tamaño de página (predeterminado: 20) 
+     * @param includeSubcategories Incluir los productos de todas las subcategorías (predeterminado: false)
+     * @param webRequest Petición, para responder 304 con el ETag débil del listado
      * @return Page de respuestas del producto */
     @GetMapping("/category/{category}")
     public ResponseEntity<Page<ProductResponseDTO>> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
+            WebRequest webRequest) {
         
         logger.info("Solicitud REST para obtener productos por categoría: {}", category);
 
+        if (notModified(webRequest, productService.getProductsByCategoryVersion(category, includeSubcategories))) {
+            return null;
+        }
+
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductResponseDTO> products = productService.getProductsByCategory(category, pageable);
+        Page<ProductResponseDTO> products = productService.getProductsByCategory(category, includeSubcategories, pageable);
         return ResponseEntity.ok(products);
         
         //throw new UnsupportedOperationException("Endpoint aún no implementado");
     }
 
+    /**
+     * Obtener productos por categoría paginados por cursor (keyset)
+     * @param category Categoría del producto
+     * @param cursor Token de la página anterior
+     * @param size Tamaño de página (predeterminado: 20)
+     * @param sortBy Campo de ordenación (predeterminado: id)
+     * @param sortDir Dirección de ordenación (predeterminado: asc)
+     * @return Página con el token de la siguiente
+     */
+    @GetMapping(value = "/category/{category}", params = "cursor")
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> getProductsByCategoryByCursor(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        logger.info("Solicitud REST para obtener productos por categoría con cursor: {}", category);
+
+        return ResponseEntity.ok(productService.getProductsByCategoryByCursor(category, cursor, size, sortBy, sortDir));
+    }
+
+    /**
+     * Obtener productos por categoría sin conteo exacto (slice=true)
+     * @param category Categoría del producto
+     * @param page Número de página (predeterminado: 0)
+     * @param size Tamaño de página (predeterminado: 20)
+     * @return Slice de respuestas del producto
+     */
+    @GetMapping(value = "/category/{category}", params = {"slice=true", "!cursor"})
+    public ResponseEntity<SliceResponseDTO<ProductResponseDTO>> getProductsByCategorySlice(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        logger.info("Solicitud REST para obtener productos por categoría sin conteo: {}", category);
+
+        return ResponseEntity.ok(productService.getProductsByCategorySlice(category, PageRequest.of(page, size)));
+    }
+
     /**
      * Buscar productos por palabra clave 
      * @param palabra clave Buscar palabra clave 
@@ -185,6 +391,80 @@ public class ProductController {
         //throw new UnsupportedOperationException("Endpoint aún no implementado");
     }
 
+    /**
+     * Buscar productos por palabra clave paginados por cursor, ordenados por relevancia
+     * @param keyword Palabra clave
+     * @param cursor Token de la página anterior
+     * @param size Tamaño de página (predeterminado: 20)
+     * @return Página con el token de la siguiente
+     */
+    @GetMapping(value = "/search", params = "cursor")
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> searchProductsByCursor(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        logger.info("Solicitud REST para buscar productos por cursor con palabra clave: {}", keyword);
+
+        return ResponseEntity.ok(productService.searchProductsByCursor(keyword, cursor, size));
+    }
+
+    /**
+     * Buscar productos por palabra clave sin conteo exacto (slice=true)
+     * @param keyword Palabra clave
+     * @param page Número de página (predeterminado: 0)
+     * @param size Tamaño de página (predeterminado: 20)
+     * @return Slice de respuestas de productos coincidentes
+     */
+    @GetMapping(value = "/search", params = {"slice=true", "!cursor"})
+    public ResponseEntity<SliceResponseDTO<ProductResponseDTO>> searchProductsSlice(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        logger.info("Solicitud REST para buscar productos sin conteo con palabra clave: {}", keyword);
+
+        return ResponseEntity.ok(productService.searchProductsSlice(keyword, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Exportar el catálogo activo completo en una sola respuesta, fila a fila y en orden
+     * de ID. Se comprime con gzip si el cliente lo acepta; una exportación cortada se
+     * reanuda enviando el último ID recibido en afterId
+     * @param format Formato de salida: ndjson (predeterminado) o csv
+     * @param afterId Último ID recibido (opcional)
+     * @param acceptEncoding Cabecera Accept-Encoding del cliente
+     * @param response Respuesta HTTP sobre la que se escribe
+     * @throws IOException Si falla la escritura
+     */
+    @GetMapping("/export")
+    public void exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        logger.info("Solicitud REST para exportar productos - formato: {}, desde ID: {}", format, afterId);
+
+        ProductExportFormat exportFormat = ProductExportFormat.fromParameter(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"products." + exportFormat.getExtension() + "\"");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+            productExportService.exportActiveProducts(exportFormat, afterId, out);
+            out.finish();
+        } else {
+            OutputStream out = response.getOutputStream();
+            productExportService.exportActiveProducts(exportFormat, afterId, out);
+        }
+    }
+
     /**
      * Actualizar producto 
      * @param id ID del producto 
@@ -223,14 +503,14 @@ public class ProductController {
 
     /**
      * Obtener productos con poco stock 
-     * @param threshold Umbral de stock (predeterminado: 10) 
+     * @param threshold Umbral de stock total (opcional; sin él, productos con alguna fila en o por debajo de su mínimo)
      * @return Lista de productos con poco stock 
      */
 
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ProductResponseDTO>> getLowStockProducts(
-            @RequestParam(defaultValue = "10") Integer threshold) {
+            @RequestParam(required = false) Integer threshold) {
         
         logger.info("Solicitud REST para obtener productos con bajo stock con threshold: {}", threshold);
 
@@ -240,6 +520,19 @@ public class ProductController {
         //throw new UnsupportedOperationException("Endpoint aún no implementado");
     }
 
+    /**
+     * Stream de cruces del stock mínimo (eventos "low" y "recovered")
+     * @return Emisor de Server-Sent Events
+     */
+    @Operation(summary = "Stream de stock bajo", description = "Server-Sent Events con cada fila de stock que cruza su mínimo")
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamLowStock() {
+        logger.info("Solicitud REST para suscribirse al stream de stock bajo");
+
+        return lowStockService.subscribe();
+    }
+
     /**
      * Actualizar stock de producto 
      * @param id ID del producto 
@@ -260,4 +553,26 @@ public class ProductController {
         
         //throw new UnsupportedOperationException("Endpoint aún no implementado");
     }
+    /**
+     * Respuesta con ETag fuerte y Last-Modified; Spring responde 304 sin serializar el
+     * cuerpo cuando la petición condicional coincide
+     */
+    private static ResponseEntity<ProductResponseDTO> withValidators(ProductResponseDTO product,
+                                                                     LocalDateTime categoriesUpdated) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(ETagUtil.strong(product, categoriesUpdated));
+        Instant lastModified = ETagUtil.lastModified(product, categoriesUpdated);
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder.body(product);
+    }
+
+    /**
+     * Evaluar la petición condicional de un listado con su ETag débil. Si devuelve true
+     * la respuesta 304 ya está preparada y no hace falta consultar la página
+     */
+    private static boolean notModified(WebRequest webRequest, ProductListingVersion version) {
+        Instant lastModified = ETagUtil.toInstant(version.lastUpdated());
+        return webRequest.checkNotModified(ETagUtil.weak(version), lastModified != null ? lastModified.toEpochMilli() : -1);
+    }
 }
@@ -0,0 +1,75 @@
+package com.miempresa.ecommerce.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.miempresa.ecommerce.dto.request.StockAdjustmentRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockAdjustmentResultDTO;
+import com.miempresa.ecommerce.service.IStockService;
+import com.miempresa.ecommerce.util.Constants;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador REST para movimientos de stock físico por depósito. Los cambios se
+ * aplican en el inventario en memoria y la escritura diferida los persiste; las
+ * reservas de los compradores van por las retenciones (/api/v1/stock/holds)
+ *
+ */
+@RestController
+@RequestMapping("/api/v1/stock")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Stock", description = "Endpoints para movimientos de stock por depósito")
+public class StockController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockController.class);
+
+    @Autowired
+    private IStockService stockService;
+
+    /**
+     * Descontar unidades del stock físico (solo administradores)
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a descontar
+     * @return Respuesta sin contenido, con la versión de stock del producto en X-Stock-Version
+     */
+    @Operation(summary = "Descontar stock", description = "Descuenta unidades del inventario en memoria si no deja la fila por debajo de lo reservado; la base de datos se actualiza con la escritura diferida")
+    @PostMapping("/{productId}/deposits/{depositoId}/decrement")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> decrementStock(@PathVariable Long productId, @PathVariable Long depositoId,
+                                               @RequestParam Integer quantity) {
+        logger.info("Solicitud REST para descontar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        long stockVersion = stockService.decrementStock(productId, depositoId, quantity);
+        return ResponseEntity.noContent().header(Constants.STOCK_VERSION_HEADER, String.valueOf(stockVersion)).build();
+    }
+
+    /**
+     * Aplicar un lote de ajustes de stock (solo administradores)
+     * @param adjustments Diferencias por producto y depósito
+     * @return Existencias resultantes de las filas modificadas
+     */
+    @Operation(summary = "Ajustar stock por lotes",
+               description = "Aplica todos los ajustes en una transacción; si uno deja la fila por debajo de lo reservado no se aplica ninguno")
+    @PostMapping("/adjustments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockAdjustmentResultDTO> adjustStock(@RequestBody List<StockAdjustmentRequestDTO> adjustments) {
+        logger.info("Solicitud REST para aplicar {} ajustes de stock", adjustments.size());
+
+        return ResponseEntity.ok(stockService.adjustStock(adjustments));
+    }
+}
@@ -0,0 +1,85 @@
+package com.miempresa.ecommerce.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.miempresa.ecommerce.dto.request.StockHoldRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockHoldResponseDTO;
+import com.miempresa.ecommerce.service.IStockHoldService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Controlador REST para reservas temporales de stock
+ *
+ */
+@RestController
+@RequestMapping("/api/v1/stock/holds")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Tag(name = "Stock holds", description = "Endpoints para reservas temporales de stock")
+public class StockHoldController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldController.class);
+
+    @Autowired
+    private IStockHoldService stockHoldService;
+
+    /**
+     * Crear una reserva temporal
+     * @param request Producto, depósito, cantidad y duración opcional
+     * @return Reserva creada con su ID y vencimiento
+     */
+    @Operation(summary = "Crear reserva temporal", description = "Reserva stock hasta confirmar, cancelar o vencer")
+    @PostMapping
+    public ResponseEntity<StockHoldResponseDTO> createHold(@Valid @RequestBody StockHoldRequestDTO request) {
+        logger.info("Solicitud REST para reservar {} unidades del producto {}", request.getQuantity(), request.getProductId());
+
+        return new ResponseEntity<>(stockHoldService.createHold(request), HttpStatus.CREATED);
+    }
+
+    /**
+     * Obtener una reserva
+     * @param id ID de la reserva
+     * @return Reserva
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<StockHoldResponseDTO> getHold(@PathVariable String id) {
+        return ResponseEntity.ok(stockHoldService.getHold(id));
+    }
+
+    /**
+     * Confirmar una reserva
+     * @param id ID de la reserva
+     * @return Reserva confirmada
+     */
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<StockHoldResponseDTO> confirmHold(@PathVariable String id) {
+        logger.info("Solicitud REST para confirmar la reserva: {}", id);
+
+        return ResponseEntity.ok(stockHoldService.confirmHold(id));
+    }
+
+    /**
+     * Cancelar una reserva
+     * @param id ID de la reserva
+     * @return Reserva cancelada
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<StockHoldResponseDTO> cancelHold(@PathVariable String id) {
+        logger.info("Solicitud REST para cancelar la reserva: {}", id);
+
+        return ResponseEntity.ok(stockHoldService.cancelHold(id));
+    }
+}
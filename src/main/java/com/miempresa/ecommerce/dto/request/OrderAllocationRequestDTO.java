@@ -0,0 +1,29 @@
+package com.miempresa.ecommerce.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para asignar un pedido de varias líneas a depósitos
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderAllocationRequestDTO {
+
+    /** Referencia del pedido del cliente; se devuelve tal cual en el resultado */
+    private String orderRef;
+
+    @NotEmpty(message = "El pedido debe tener al menos una línea")
+    @Valid
+    private List<OrderLineRequestDTO> lines;
+
+}
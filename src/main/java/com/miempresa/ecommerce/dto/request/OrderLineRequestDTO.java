@@ -0,0 +1,27 @@
+package com.miempresa.ecommerce.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de una línea de pedido a asignar
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderLineRequestDTO {
+
+    @NotNull(message = "Se requiere el producto")
+    private Long productId;
+
+    @NotNull(message = "Se requiere la cantidad")
+    @Min(value = 1, message = "La cantidad debe ser mayor que cero")
+    private Integer quantity;
+
+}
@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de un ajuste de stock por producto y depósito
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAdjustmentRequestDTO {
+
+    private Long productId;
+    private Long depositoId;
+
+    /** Unidades a sumar (positivo) o a restar (negativo) del stock físico */
+    private Integer delta;
+
+}
@@ -0,0 +1,34 @@
+package com.miempresa.ecommerce.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO para crear una reserva temporal de stock
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockHoldRequestDTO {
+
+    @NotNull(message = "Se requiere el producto")
+    private Long productId;
+
+    @NotNull(message = "Se requiere el depósito")
+    private Long depositoId;
+
+    @NotNull(message = "Se requiere la cantidad")
+    @Min(value = 1, message = "La cantidad debe ser mayor que cero")
+    private Integer quantity;
+
+    /** Duración de la reserva en segundos; si falta se usa la configurada por defecto */
+    @Min(value = 1, message = "La duración debe ser mayor que cero")
+    private Long ttlSeconds;
+
+}
@@ -0,0 +1,26 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Unidades de un producto asignadas a un envío, retenidas por una reserva temporal
+ * que se confirma o se cancela con su ID
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AllocatedItemDTO {
+
+    private Long productId;
+    private Integer quantity;
+    private String holdId;
+    private LocalDateTime holdExpiresAt;
+
+}
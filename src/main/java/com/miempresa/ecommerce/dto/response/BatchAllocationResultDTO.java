@@ -0,0 +1,25 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta de la asignación de un lote de pedidos, con el resultado de cada uno
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchAllocationResultDTO {
+
+    private int total;
+    private int allocated;
+    private int failed;
+    private List<OrderAllocationResultDTO> items;
+
+}
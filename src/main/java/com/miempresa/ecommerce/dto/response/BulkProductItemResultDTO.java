@@ -0,0 +1,37 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resultado de un elemento del alta masiva de productos
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkProductItemResultDTO {
+
+    public enum Status {
+        CREATED, FAILED
+    }
+
+    /** Posición del elemento en la solicitud */
+    private int index;
+    private String sku;
+    private Status status;
+    private Long id;
+    private String errorCode;
+    private String message;
+
+    public static BulkProductItemResultDTO created(int index, String sku, Long id) {
+        return new BulkProductItemResultDTO(index, sku, Status.CREATED, id, null, null);
+    }
+
+    public static BulkProductItemResultDTO failed(int index, String sku, String errorCode, String message) {
+        return new BulkProductItemResultDTO(index, sku, Status.FAILED, null, errorCode, message);
+    }
+}
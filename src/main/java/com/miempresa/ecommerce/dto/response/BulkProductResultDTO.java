@@ -0,0 +1,25 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta del alta masiva de productos, con el resultado de cada elemento
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkProductResultDTO {
+
+    private int total;
+    private int created;
+    private int failed;
+    private List<BulkProductItemResultDTO> items;
+
+}
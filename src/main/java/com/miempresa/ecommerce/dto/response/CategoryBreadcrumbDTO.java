@@ -0,0 +1,21 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * DTO de un paso de la ruta de categorías (raíz → hoja) de un producto.
+ *
+ * Sin setters: las mismas instancias se comparten entre todas las respuestas que
+ * arma la instantánea del árbol de categorías
+ *
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryBreadcrumbDTO {
+
+    private final Long id;
+    private final String name;
+    private final String slug;
+
+}
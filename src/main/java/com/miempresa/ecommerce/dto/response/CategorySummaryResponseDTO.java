@@ -22,5 +22,9 @@ public class CategorySummaryResponseDTO {
     private Boolean active;
     private Integer sortOrder;
     private Boolean hasChildren;
+    /** Productos activos asignados directamente a la categoría */
+    private Long productCount;
+    /** Productos activos de la categoría y de todas sus subcategorías */
+    private Long totalProductCount;
 
 }
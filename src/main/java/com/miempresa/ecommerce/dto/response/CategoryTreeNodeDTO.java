@@ -0,0 +1,31 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de un nodo del árbol de categorías, con sus subcategorías anidadas
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryTreeNodeDTO {
+
+    private Long id;
+    private String name;
+    private String slug;
+    private String imageUrl;
+    private Integer sortOrder;
+    /** Productos activos asignados directamente a la categoría */
+    private Long productCount;
+    /** Productos activos de la categoría y de todas sus subcategorías */
+    private Long totalProductCount;
+    private List<CategoryTreeNodeDTO> children;
+
+}
@@ -0,0 +1,25 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de página por cursor (keyset): el cliente pide la siguiente página con el token next
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponseDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String next;
+
+}
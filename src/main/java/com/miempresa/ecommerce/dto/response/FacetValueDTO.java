@@ -0,0 +1,22 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de un valor de faceta con la cantidad de productos que lo tienen
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetValueDTO {
+
+    private String value;
+    private String label;
+    private long count;
+
+}
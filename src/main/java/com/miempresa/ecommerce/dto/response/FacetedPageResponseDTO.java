@@ -0,0 +1,27 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de página con facetas: contenido, total exacto y conteos por faceta
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetedPageResponseDTO<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private boolean hasNext;
+    private ProductFacetsDTO facets;
+
+}
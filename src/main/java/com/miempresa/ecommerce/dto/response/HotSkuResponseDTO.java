@@ -0,0 +1,27 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta del modo SKU caliente de un producto
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotSkuResponseDTO {
+
+    private Long productId;
+    private Boolean hot;
+
+    /** Sub-buckets por fila; null si el modo no está activo */
+    private Integer shards;
+
+    /** Filas (depósitos) afectadas por el cambio */
+    private Integer rows;
+
+}
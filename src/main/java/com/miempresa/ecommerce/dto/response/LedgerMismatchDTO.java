@@ -0,0 +1,26 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Fila de stock cuyo estado reconstruido desde el registro de movimientos no coincide
+ * con la base de datos; los valores faltantes de un lado son null
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerMismatchDTO {
+
+    private Long productId;
+    private Long depositoId;
+    private Integer ledgerQuantity;
+    private Integer ledgerReservedQuantity;
+    private Integer databaseQuantity;
+    private Integer databaseReservedQuantity;
+
+}
@@ -0,0 +1,28 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta de la comparación entre el registro de movimientos y product_stocks
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerVerificationResponseDTO {
+
+    /** Filas comparadas (unión de ambos lados) */
+    private Integer rows;
+    private Integer mismatched;
+
+    /** Primeras diferencias encontradas */
+    private List<LedgerMismatchDTO> mismatches;
+    private Long elapsedMillis;
+
+}
@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de un cruce del stock mínimo, enviado por el stream de stock bajo
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LowStockEventDTO {
+
+    private Long productId;
+    private Long depositoId;
+    private Integer quantity;
+    private Integer minStock;
+    private Boolean low;
+
+}
@@ -0,0 +1,39 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resultado de la asignación de un pedido a depósitos
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderAllocationResultDTO {
+
+    public enum Status {
+        ALLOCATED, FAILED
+    }
+
+    /** Posición del pedido en la solicitud */
+    private int index;
+    private String orderRef;
+    private Status status;
+    private List<ShipmentDTO> shipments;
+    private String errorCode;
+    private String message;
+
+    public static OrderAllocationResultDTO allocated(int index, String orderRef, List<ShipmentDTO> shipments) {
+        return new OrderAllocationResultDTO(index, orderRef, Status.ALLOCATED, shipments, null, null);
+    }
+
+    public static OrderAllocationResultDTO failed(int index, String orderRef, String errorCode, String message) {
+        return new OrderAllocationResultDTO(index, orderRef, Status.FAILED, List.of(), errorCode, message);
+    }
+}
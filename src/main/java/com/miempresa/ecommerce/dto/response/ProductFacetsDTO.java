@@ -0,0 +1,25 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO con los conteos por faceta de un listado de productos. El conteo de cada
+ * faceta no aplica el filtro de esa misma faceta
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFacetsDTO {
+
+    private List<FacetValueDTO> categories;
+    private List<FacetValueDTO> priceBands;
+    private List<FacetValueDTO> availability;
+
+}
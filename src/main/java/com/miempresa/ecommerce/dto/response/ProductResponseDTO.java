@@ -1,6 +1,7 @@
 package com.miempresa.ecommerce.dto.response;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -23,11 +24,25 @@ public class ProductResponseDTO {
     private String description;
     private Double price;
     private Integer stockQuantity;
+    private Integer availableQuantity;
     private String sku;
     private String category;
+    private Long categoryId;
     private String imageUrl;
     private Boolean active;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    /** Ruta de la categoría desde la raíz; se completa con la instantánea del árbol de categorías */
+    private List<CategoryBreadcrumbDTO> breadcrumb;
+
+    /**
+     * Constructor de las proyecciones JPQL, sin la ruta de categorías
+     */
+    public ProductResponseDTO(Long id, String name, String description, Double price, Integer stockQuantity,
+                              Integer availableQuantity, String sku, String category, Long categoryId, String imageUrl,
+                              Boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, description, price, stockQuantity, availableQuantity, sku, category, categoryId, imageUrl,
+                active, createdAt, updatedAt, null);
+    }
 
 }
@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Envío de un pedido desde un depósito
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipmentDTO {
+
+    private Long depositoId;
+    private Boolean main;
+    private List<AllocatedItemDTO> items;
+
+}
@@ -0,0 +1,27 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de página sin conteo exacto (Slice): indica si hay página siguiente y un
+ * total aproximado que puede tener algunos segundos de antigüedad
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SliceResponseDTO<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private long approximateTotal;
+
+}
@@ -0,0 +1,33 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta de un lote de ajustes de stock
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAdjustmentResultDTO {
+
+    /** Ajustes recibidos */
+    private int requested;
+
+    /** Filas modificadas, después de sumar los ajustes de una misma fila */
+    private int adjusted;
+
+    /** Existencias resultantes de cada fila modificada */
+    private List<StockLevelResponseDTO> levels;
+
+    /** Versión de stock de cada producto modificado, para leer su disponible sin retroceder */
+    private Map<Long, Long> stockVersions;
+
+}
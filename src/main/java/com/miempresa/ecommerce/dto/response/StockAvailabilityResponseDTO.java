@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta con el disponible de un producto y su versión de stock
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockAvailabilityResponseDTO {
+
+    private Long productId;
+    private Integer availableQuantity;
+
+    /** Versión de stock de la que se leyó el disponible; crece con cada cambio */
+    private Long stockVersion;
+
+}
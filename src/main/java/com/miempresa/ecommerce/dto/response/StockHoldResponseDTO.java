@@ -0,0 +1,27 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta de una reserva temporal de stock
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockHoldResponseDTO {
+
+    private String id;
+    private Long productId;
+    private Long depositoId;
+    private Integer quantity;
+    private String status;
+    private LocalDateTime expiresAt;
+
+}
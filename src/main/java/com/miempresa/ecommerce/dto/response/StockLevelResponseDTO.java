@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta con las existencias de un producto en un depósito
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockLevelResponseDTO {
+
+    private Long productId;
+    private Long depositoId;
+    private Integer quantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+
+}
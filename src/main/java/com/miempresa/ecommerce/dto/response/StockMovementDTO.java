@@ -0,0 +1,30 @@
+package com.miempresa.ecommerce.dto.response;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta de un movimiento del registro de stock
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovementDTO {
+
+    private Long sequence;
+    private LocalDateTime timestamp;
+
+    /** DELTA suma las cantidades a la fila; SET las fija (alta de la fila) */
+    private String type;
+    private Long productId;
+    private Long depositoId;
+    private Integer quantity;
+    private Integer reservedQuantity;
+
+}
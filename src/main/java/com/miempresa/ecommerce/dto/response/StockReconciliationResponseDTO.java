@@ -0,0 +1,23 @@
+package com.miempresa.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO de respuesta con el resumen de una conciliación de totales de stock
+ *
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReconciliationResponseDTO {
+
+    private Integer chunks;
+    private Integer failedChunks;
+    private Integer productsFixed;
+    private Long elapsedMillis;
+
+}
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,6 +15,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
@@ -34,8 +38,13 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "categories")
+@NamedEntityGraph(name = Category.WITH_PARENT_AND_CHILDREN,
+        attributeNodes = { @NamedAttributeNode("parent"), @NamedAttributeNode("children") })
 public class Category {
 
+    /** Grafo de carga: categoría con su padre y sus hijos directos */
+    public static final String WITH_PARENT_AND_CHILDREN = "Category.withParentAndChildren";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -66,6 +75,7 @@ public class Category {
     private Category parent;
 
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<Category> children = new ArrayList<>();
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -88,7 +98,12 @@ public class Category {
         updatedAt = LocalDateTime.now();
     }
 
-    private String generateSlug(String name) {
+    /**
+     * Slug derivado del nombre, el mismo que se asigna al dar de alta sin slug
+     * @param name Nombre de la categoría
+     * @return Slug
+     */
+    public static String generateSlug(String name) {
         return name.toLowerCase()
                 .replaceAll("[^a-z0-9\\s-]", "")
                 .replaceAll("\\s+", "-")
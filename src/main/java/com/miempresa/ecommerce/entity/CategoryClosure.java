@@ -0,0 +1,66 @@
+package com.miempresa.ecommerce.entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Fila de la tabla de clausura de categorías: un par ancestro-descendiente por cada
+ * camino del árbol, incluido el de cada categoría consigo misma (profundidad 0).
+ *
+ * El subárbol de una categoría son las filas con su ID como ancestro, así que
+ * "productos de la categoría y sus subcategorías" se resuelve con una igualdad sobre
+ * la clave primaria, sin recorrer Category.parent.
+ *
+ * En bases existentes la tabla se crea con db/category_closure.sql; las filas se
+ * reconstruyen al arrancar
+ *
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(CategoryClosure.Key.class)
+@Table(name = "category_closure",
+       indexes = @Index(name = "idx_category_closure_descendant", columnList = "descendant_id"))
+public class CategoryClosure {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    /** Distancia en niveles entre el ancestro y el descendiente */
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+
+    /**
+     * Clave compuesta: ancestro y descendiente
+     */
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,9 +15,13 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -36,10 +42,26 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "products")
+@NamedEntityGraph(name = Product.WITH_CATEGORY, attributeNodes = @NamedAttributeNode("category"))
+@NamedEntityGraph(name = Product.WITH_STOCKS,
+        attributeNodes = {
+            @NamedAttributeNode("category"),
+            @NamedAttributeNode(value = "productStocks", subgraph = "stocks")
+        },
+        subgraphs = @NamedSubgraph(name = "stocks", attributeNodes = @NamedAttributeNode("deposito")))
 public class Product {
 
+    /** Grafo de carga: producto con su categoría */
+    public static final String WITH_CATEGORY = "Product.withCategory";
+
+    /** Grafo de carga: producto con su categoría y el stock por depósito */
+    public static final String WITH_STOCKS = "Product.withStocks";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con asignación por bloques (pooled): permite agrupar los INSERT en lotes JDBC.
+    // En bases existentes se crea con db/product_sequences.sql
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Se requiere nombre de producto")
@@ -56,10 +78,20 @@ public class Product {
     @Column(name = "price", nullable = false)
     private Double price;
 
+    // Los totales de stock solo cambian con UPDATE por diferencias: guardar el producto no los pisa
     @NotNull(message = "Se requiere cantidad de stock")
-    @Column(name = "stock_quantity", nullable = false)
+    @Column(name = "stock_quantity", nullable = false, updatable = false)
     private Integer stockQuantity;
 
+    // Stock total menos lo reservado; igual que stockQuantity, se mantiene con cada cambio de product_stocks.
+    // En bases existentes esta columna y stock_version se crean con db/products_stock_totals.sql
+    @Column(name = "available_quantity", updatable = false)
+    private Integer availableQuantity;
+
+    // Avanza con cada cambio de los totales de stock, en la misma sentencia; la entrega el inventario en memoria
+    @Column(name = "stock_version", updatable = false)
+    private Long stockVersion;
+
     @Column(name = "sku", unique = true, length = 100)
     private String sku;
 
@@ -68,6 +100,7 @@ public class Product {
     private Category category;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<ProductStock> productStocks = new ArrayList<>();
 
     @Column(name = "category")
@@ -89,6 +122,12 @@ public class Product {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (availableQuantity == null) {
+            availableQuantity = stockQuantity;
+        }
+        if (stockVersion == null) {
+            stockVersion = 0L;
+        }
     }
 
     @PreUpdate
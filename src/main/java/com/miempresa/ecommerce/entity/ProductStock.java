@@ -12,6 +12,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Min;
@@ -35,7 +36,9 @@ import lombok.Setter;
 public class ProductStock {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Misma asignación por bloques que Product (ver db/product_sequences.sql)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_stocks_seq")
+    @SequenceGenerator(name = "product_stocks_seq", sequenceName = "product_stocks_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Product es requerido")
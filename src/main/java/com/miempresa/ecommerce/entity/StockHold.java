@@ -0,0 +1,107 @@
+package com.miempresa.ecommerce.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entidad de reserva temporal de stock: las unidades quedan en reservedQuantity del
+ * depósito hasta que la reserva se confirma, se cancela o vence.
+ *
+ * En bases existentes la tabla se crea con db/stock_holds.sql. El ID se asigna antes de
+ * guardar; como {@link Persistable}, una reserva nueva se inserta sin el SELECT previo
+ * que haría merge
+ *
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "stock_holds",
+       indexes = @Index(name = "idx_stock_holds_status", columnList = "status, expires_at"))
+public class StockHold implements Persistable<String> {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @NotNull(message = "Product es requerido")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @NotNull(message = "Deposito es requerido")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "deposito_id", nullable = false)
+    private Deposito deposito;
+
+    @NotNull(message = "Quantity es requerido")
+    @Min(value = 1, message = "Quantity debe ser mayor que cero")
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.ACTIVE;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        persisted = true;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        ACTIVE, CONFIRMED, CANCELLED, EXPIRED
+    }
+}
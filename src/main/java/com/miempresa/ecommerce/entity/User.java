@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -87,6 +89,15 @@ public class User {
     @Column(name = "role")
     private Set<Role> roles = new HashSet<>();
 
+    /**
+     * Versión de los tokens emitidos: incrementarla revoca todos los tokens anteriores.
+     * En bases existentes se crea con db/users_token_version.sql; el valor por defecto
+     * permite que ddl-auto=update agregue la columna a una tabla con filas
+     */
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion = 0L;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
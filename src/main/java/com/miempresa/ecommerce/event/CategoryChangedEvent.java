@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.event;
+
+/**
+ * Evento publicado cuando una categoría cambia (alta, modificación, cambio de padre o baja)
+ *
+ */
+public class CategoryChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, MOVED, DELETED
+    }
+
+    private final ChangeType type;
+    private final Long categoryId;
+
+    public CategoryChangedEvent(ChangeType type, Long categoryId) {
+        this.type = type;
+        this.categoryId = categoryId;
+    }
+
+    public ChangeType getType() { return type; }
+
+    public Long getCategoryId() { return categoryId; }
+}
@@ -0,0 +1,33 @@
+package com.miempresa.ecommerce.event;
+
+/**
+ * Evento publicado cuando una fila de stock cruza su stock mínimo, en cualquiera de
+ * los dos sentidos
+ *
+ */
+public class LowStockChangedEvent {
+
+    private final Long productId;
+    private final Long depositoId;
+    private final int quantity;
+    private final int minStock;
+    private final boolean low;
+
+    public LowStockChangedEvent(Long productId, Long depositoId, int quantity, int minStock, boolean low) {
+        this.productId = productId;
+        this.depositoId = depositoId;
+        this.quantity = quantity;
+        this.minStock = minStock;
+        this.low = low;
+    }
+
+    public Long getProductId() { return productId; }
+
+    public Long getDepositoId() { return depositoId; }
+
+    public int getQuantity() { return quantity; }
+
+    public int getMinStock() { return minStock; }
+
+    public boolean isLow() { return low; }
+}
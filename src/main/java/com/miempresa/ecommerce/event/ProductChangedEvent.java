@@ -0,0 +1,34 @@
+package com.miempresa.ecommerce.event;
+
+import com.miempresa.ecommerce.entity.Product;
+
+/**
+ * Evento publicado cuando un producto cambia (alta, modificación, stock o baja)
+ *
+ */
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, STOCK_UPDATED, DELETED
+    }
+
+    private final ChangeType type;
+    private final Long productId;
+    private final String sku;
+
+    public ProductChangedEvent(ChangeType type, Long productId, String sku) {
+        this.type = type;
+        this.productId = productId;
+        this.sku = sku;
+    }
+
+    public static ProductChangedEvent of(ChangeType type, Product product) {
+        return new ProductChangedEvent(type, product.getId(), product.getSku());
+    }
+
+    public ChangeType getType() { return type; }
+
+    public Long getProductId() { return productId; }
+
+    public String getSku() { return sku; }
+}
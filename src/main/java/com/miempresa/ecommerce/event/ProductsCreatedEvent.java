@@ -0,0 +1,20 @@
+package com.miempresa.ecommerce.event;
+
+import java.util.List;
+
+/**
+ * Evento publicado por el alta masiva: un único evento por lote en lugar de un
+ * {@link ProductChangedEvent} por producto, para que los oyentes puedan procesar el
+ * lote con una sola consulta
+ *
+ */
+public class ProductsCreatedEvent {
+
+    private final List<Long> productIds;
+
+    public ProductsCreatedEvent(List<Long> productIds) {
+        this.productIds = List.copyOf(productIds);
+    }
+
+    public List<Long> getProductIds() { return productIds; }
+}
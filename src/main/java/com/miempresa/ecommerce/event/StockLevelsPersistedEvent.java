@@ -0,0 +1,21 @@
+package com.miempresa.ecommerce.event;
+
+import java.util.List;
+
+import com.miempresa.ecommerce.inventory.StockLevel;
+
+/**
+ * Evento publicado por la escritura diferida del inventario con los valores
+ * absolutos que escribió en product_stocks, un único evento por lote
+ *
+ */
+public class StockLevelsPersistedEvent {
+
+    private final List<StockLevel> levels;
+
+    public StockLevelsPersistedEvent(List<StockLevel> levels) {
+        this.levels = List.copyOf(levels);
+    }
+
+    public List<StockLevel> getLevels() { return levels; }
+}
@@ -0,0 +1,21 @@
+package com.miempresa.ecommerce.event;
+
+import java.util.List;
+
+import com.miempresa.ecommerce.inventory.StockLevel;
+
+/**
+ * Evento publicado al crear filas de product_stocks con su stock inicial, un único
+ * evento por alta (individual o por lotes)
+ *
+ */
+public class StockRowsCreatedEvent {
+
+    private final List<StockLevel> levels;
+
+    public StockRowsCreatedEvent(List<StockLevel> levels) {
+        this.levels = List.copyOf(levels);
+    }
+
+    public List<StockLevel> getLevels() { return levels; }
+}
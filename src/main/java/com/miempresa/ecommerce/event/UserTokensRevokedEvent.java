@@ -0,0 +1,17 @@
+package com.miempresa.ecommerce.event;
+
+/**
+ * Evento publicado al incrementar la versión de tokens de un usuario: los tokens
+ * emitidos antes dejan de valer
+ *
+ */
+public class UserTokensRevokedEvent {
+
+    private final Long userId;
+
+    public UserTokensRevokedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+}
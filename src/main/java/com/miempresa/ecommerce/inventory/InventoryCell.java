@@ -0,0 +1,22 @@
+package com.miempresa.ecommerce.inventory;
+
+/**
+ * Existencias en memoria de una fila de stock, tal como las usa el
+ * {@link InventoryEngine}: una {@link StockCell} o, para SKU calientes, una
+ * {@link ShardedStockCell}
+ *
+ */
+interface InventoryCell {
+
+    boolean reserve(int units);
+
+    boolean release(int units);
+
+    boolean commit(int units);
+
+    boolean adjust(int delta);
+
+    void apply(int quantityDelta, int reservedDelta);
+
+    StockLevel snapshot(StockKey key);
+}
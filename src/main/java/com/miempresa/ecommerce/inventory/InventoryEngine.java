@@ -0,0 +1,512 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductsCreatedEvent;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.exception.InsufficientStockException;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+/**
+ * Motor de inventario en memoria por (producto, depósito).
+ *
+ * Las reservas, liberaciones, confirmaciones y ajustes se resuelven con
+ * compareAndSet sobre cada {@link StockCell}, sin locks de fila ni conexiones del
+ * pool; las filas modificadas quedan marcadas y {@link InventoryWriteBehind} las persiste por lotes.
+ * Al arrancar se cargan todas las filas de product_stocks y, si llega una clave que
+ * todavía no está en memoria, se lee de la base de datos en el momento. Además se
+ * indexan los depósitos de cada producto, para leer la matriz de stock de un pedido
+ * sin consultar la base de datos. Cada operación se anota en el {@link StockLedger}.
+ * Las filas de un SKU caliente pueden repartirse en sub-buckets a pedido.
+ *
+ * Cada producto lleva en memoria su versión de stock, que parte de
+ * products.stock_version y avanza con cada operación: quien escribió recibe una
+ * versión que la escritura diferida persiste junto con las existencias que ya la
+ * incluyen, así que leer con esa versión mínima nunca devuelve un valor anterior.
+ *
+ */
+@Component
+public class InventoryEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryEngine.class);
+
+    private static final int MAX_SHARDS = 64;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Value("${inventory.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final Map<StockKey, InventoryCell> cells = new ConcurrentHashMap<>();
+    // Productos en modo SKU caliente: ID -> cantidad de sub-buckets
+    private final Map<Long, Integer> hotProducts = new ConcurrentHashMap<>();
+    private final Set<StockKey> dirty = ConcurrentHashMap.newKeySet();
+    // Solo productos con todas sus filas en memoria
+    private final Map<Long, Set<Long>> depositsByProduct = new ConcurrentHashMap<>();
+    // Versión de stock por producto, leída de la base de datos en su primera operación
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong failedUndos = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::loadAll, "inventory-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Leer las existencias actuales
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @return Existencias
+     */
+    public StockLevel get(Long productId, Long depositoId) {
+        StockKey key = new StockKey(productId, depositoId);
+        return cell(key).snapshot(key);
+    }
+
+    /**
+     * Leer las existencias de un producto en todos sus depósitos
+     * @param productId ID del producto
+     * @return Existencias por depósito (vacía si el producto no tiene stock registrado)
+     */
+    public List<StockLevel> levels(Long productId) {
+        Set<Long> deposits = depositsByProduct.get(productId);
+        if (deposits == null) {
+            preload(List.of(productId));
+            deposits = depositsByProduct.getOrDefault(productId, Set.of());
+        }
+        List<StockLevel> levels = new ArrayList<>(deposits.size());
+        for (Long depositoId : deposits) {
+            StockKey key = new StockKey(productId, depositoId);
+            InventoryCell cell = cells.get(key);
+            if (cell != null) {
+                levels.add(cell.snapshot(key));
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Cargar con una sola consulta todas las filas de los productos que todavía no están
+     * completos en memoria. Las celdas ya cargadas no se pisan
+     * @param productIds IDs de los productos
+     */
+    public void preload(Collection<Long> productIds) {
+        List<Long> missing = productIds.stream().filter(id -> !depositsByProduct.containsKey(id)).distinct().toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<Long>> loaded = new HashMap<>();
+        for (StockLevel level : productStockRepository.findStockLevels(missing)) {
+            cells.putIfAbsent(level.key(), newCell(level));
+            loaded.computeIfAbsent(level.productId(), id -> ConcurrentHashMap.newKeySet()).add(level.depositoId());
+        }
+        missing.forEach(productId -> depositsByProduct.putIfAbsent(productId, loaded.getOrDefault(productId, Set.of())));
+    }
+
+    /**
+     * Reservar unidades
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param units Unidades a reservar
+     * @return Existencias después de la reserva
+     */
+    public StockLevel reserve(Long productId, Long depositoId, int units) {
+        StockKey key = new StockKey(productId, depositoId);
+        InventoryCell cell = cell(key);
+        if (!cell.reserve(positive(units))) {
+            throw new InsufficientStockException(productId, units, cell.snapshot(key).availableQuantity());
+        }
+        return applied(key, cell, 0, units);
+    }
+
+    /**
+     * Liberar unidades reservadas
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param units Unidades a liberar
+     * @return Existencias después de liberar
+     */
+    public StockLevel release(Long productId, Long depositoId, int units) {
+        StockKey key = new StockKey(productId, depositoId);
+        InventoryCell cell = cell(key);
+        if (!cell.release(positive(units))) {
+            throw new BusinessException("INVALID_RELEASE", "No hay " + units + " unidades reservadas para liberar");
+        }
+        return applied(key, cell, 0, -units);
+    }
+
+    /**
+     * Confirmar unidades reservadas (venta): salen del stock físico
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param units Unidades a confirmar
+     * @return Existencias después de confirmar
+     */
+    public StockLevel commit(Long productId, Long depositoId, int units) {
+        StockKey key = new StockKey(productId, depositoId);
+        InventoryCell cell = cell(key);
+        if (!cell.commit(positive(units))) {
+            throw new BusinessException("INVALID_COMMIT", "No hay " + units + " unidades reservadas para confirmar");
+        }
+        return applied(key, cell, -units, -units);
+    }
+
+    /**
+     * Sumar o restar stock físico sin tocar las reservas (reposición, ajuste de
+     * inventario)
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param delta Unidades a sumar (negativo para restar)
+     * @return Existencias después del ajuste
+     */
+    public StockLevel adjust(Long productId, Long depositoId, int delta) {
+        StockKey key = new StockKey(productId, depositoId);
+        InventoryCell cell = cell(key);
+        if (delta == 0) {
+            throw new BusinessException("INVALID_QUANTITY", "El ajuste no puede ser cero");
+        }
+        if (!cell.adjust(delta)) {
+            throw new InsufficientStockException(productId, -delta, cell.snapshot(key).availableQuantity());
+        }
+        return applied(key, cell, delta, 0);
+    }
+
+    /**
+     * Versión de stock de un producto: la de su última operación en memoria, que el
+     * cliente puede enviar como versión mínima al leer el disponible
+     * @param productId ID del producto
+     * @return Versión de stock
+     */
+    public long stockVersion(Long productId) {
+        return version(productId).get();
+    }
+
+    /**
+     * Reservar una versión de stock nueva para un cambio de los totales hecho fuera del
+     * motor (conciliación, stock total sin filas por depósito). La versión no se vuelve a
+     * entregar y las operaciones siguientes reciben versiones mayores, así que nunca
+     * identifica dos estados distintos del producto
+     * @param productId ID del producto
+     * @return Versión reservada, que el llamador escribe en products.stock_version
+     */
+    public long nextStockVersion(Long productId) {
+        return version(productId).incrementAndGet();
+    }
+
+    /**
+     * Activar el modo SKU caliente: cada fila del producto se reparte en sub-buckets
+     * ({@link ShardedStockCell}) para que las reservas concurrentes no compitan por la
+     * misma celda. Si ya estaba activo con otra cantidad se vuelve a repartir
+     * @param productId ID del producto
+     * @param shards Cantidad de sub-buckets por fila
+     * @return Filas repartidas
+     */
+    public int enableHotMode(Long productId, int shards) {
+        if (shards < 2 || shards > MAX_SHARDS) {
+            throw new BusinessException("INVALID_SHARDS",
+                    "La cantidad de sub-buckets debe estar entre 2 y " + MAX_SHARDS);
+        }
+        List<StockLevel> levels = levels(productId);
+        if (levels.isEmpty()) {
+            throw new BusinessException("STOCK_NOT_FOUND", "No hay stock registrado para el producto " + productId);
+        }
+        hotProducts.put(productId, shards);
+        for (StockLevel level : levels) {
+            cells.computeIfPresent(level.key(), (key, cell) -> {
+                StockCell origin = cell instanceof ShardedStockCell sharded ? sharded.collapse() : (StockCell) cell;
+                return new ShardedStockCell(origin, shards);
+            });
+        }
+        logger.info("Modo SKU caliente activado para el producto {}: {} filas en {} sub-buckets",
+                productId, levels.size(), shards);
+        return levels.size();
+    }
+
+    /**
+     * Desactivar el modo SKU caliente: cada fila vuelve a una única celda
+     * @param productId ID del producto
+     * @return Filas reunidas
+     */
+    public int disableHotMode(Long productId) {
+        hotProducts.remove(productId);
+        int collapsed = 0;
+        for (Long depositoId : depositsByProduct.getOrDefault(productId, Set.of())) {
+            InventoryCell cell = cells.computeIfPresent(new StockKey(productId, depositoId),
+                    (key, current) -> current instanceof ShardedStockCell sharded ? sharded.collapse() : current);
+            collapsed += cell != null ? 1 : 0;
+        }
+        logger.info("Modo SKU caliente desactivado para el producto {}", productId);
+        return collapsed;
+    }
+
+    /**
+     * Cantidad de sub-buckets de un producto en modo SKU caliente
+     * @param productId ID del producto
+     * @return Sub-buckets, o null si el modo no está activo
+     */
+    public Integer hotShards(Long productId) {
+        return hotProducts.get(productId);
+    }
+
+    /**
+     * La baja de un producto es lógica: sus filas y sus retenciones activas siguen en la
+     * base de datos, así que las celdas, sus cambios pendientes y la versión de stock se
+     * conservan para que las confirmaciones y cancelaciones posteriores los encuentren.
+     * Solo se reúnen los sub-buckets y sale del índice de depósitos. Un producto nuevo
+     * también sale del índice, por si se consultó antes de confirmarse su stock
+     * @param event Evento de cambio de producto
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            if (hotProducts.containsKey(event.getProductId())) {
+                disableHotMode(event.getProductId());
+            }
+            depositsByProduct.remove(event.getProductId());
+        } else if (event.getType() == ProductChangedEvent.ChangeType.CREATED) {
+            depositsByProduct.remove(event.getProductId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        event.getProductIds().forEach(depositsByProduct::remove);
+    }
+
+    /**
+     * Tomar hasta max filas pendientes de persistir. Cada clave se desmarca antes de
+     * leer su valor: un cambio posterior la vuelve a marcar y no se pierde. La versión
+     * de cada producto se lee antes que sus celdas y se queda la menor: todo cambio
+     * hasta esa versión está en las existencias tomadas
+     * @param max Cantidad máxima de filas
+     * @return Existencias a persistir y versión de stock de cada producto
+     */
+    DirtyBatch drainDirty(int max) {
+        List<StockLevel> levels = new ArrayList<>();
+        Map<Long, Long> stockVersions = new HashMap<>();
+        Iterator<StockKey> iterator = dirty.iterator();
+        while (iterator.hasNext() && levels.size() < max) {
+            StockKey key = iterator.next();
+            iterator.remove();
+            AtomicLong version = versions.get(key.productId());
+            InventoryCell cell = cells.get(key);
+            if (cell != null && version != null) {
+                stockVersions.merge(key.productId(), version.get(), Math::min);
+                levels.add(cell.snapshot(key));
+            }
+        }
+        return new DirtyBatch(levels, stockVersions);
+    }
+
+    /**
+     * Volver a marcar filas cuya escritura falló
+     * @param keys Claves a reintentar
+     */
+    void markDirty(Collection<StockKey> keys) {
+        dirty.addAll(keys);
+    }
+
+    /**
+     * Cantidad de reversiones que no se pudieron aplicar porque las unidades ya estaban
+     * usadas por otra operación
+     * @return Reversiones fallidas desde el arranque
+     */
+    public long failedUndos() {
+        return failedUndos.get();
+    }
+
+    /**
+     * Cantidad de filas con cambios sin persistir
+     * @return Número de filas pendientes
+     */
+    public int pendingWrites() {
+        return dirty.size();
+    }
+
+    private InventoryCell cell(StockKey key) {
+        InventoryCell cell = cells.get(key);
+        if (cell != null) {
+            return cell;
+        }
+        cell = cells.computeIfAbsent(key, missing -> productStockRepository
+                .findStockLevel(missing.productId(), missing.depositoId())
+                .map(this::newCell)
+                .orElse(null));
+        if (cell == null) {
+            throw new BusinessException("STOCK_NOT_FOUND", String.format(
+                    "No hay stock registrado para el producto %d en el depósito %d", key.productId(), key.depositoId()));
+        }
+        return cell;
+    }
+
+    private InventoryCell newCell(StockLevel level) {
+        StockCell cell = new StockCell(level.quantity(), level.reservedQuantity());
+        Integer shards = hotProducts.get(level.productId());
+        return shards != null ? new ShardedStockCell(cell, shards) : cell;
+    }
+
+    /**
+     * Anotar una operación ya aplicada en la celda. Dentro de una transacción se deshace
+     * si la transacción se revierte: la memoria no conserva un cambio cuya reserva,
+     * confirmación o vencimiento la base de datos descartó
+     */
+    private StockLevel applied(StockKey key, InventoryCell cell, int quantityDelta, int reservedDelta) {
+        stockLedger.record(key.productId(), key.depositoId(), quantityDelta, reservedDelta);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        undo(key, quantityDelta, reservedDelta);
+                    }
+                }
+            });
+        }
+        return modified(key, cell);
+    }
+
+    /**
+     * La operación inversa pasa por las mismas comprobaciones que cualquier otra: entre
+     * la operación y la reversión otro comprador pudo haber reservado las unidades que
+     * liberó o que sumó un ajuste. En ese caso no se deshace, para no dejar la fila con
+     * disponible negativo; la fila conserva el cambio y el fallo queda registrado
+     */
+    private void undo(StockKey key, int quantityDelta, int reservedDelta) {
+        InventoryCell cell = cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        if (!compensate(cell, quantityDelta, reservedDelta)) {
+            failedUndos.incrementAndGet();
+            logger.error("No se pudo deshacer el movimiento revertido ({}, {}) del producto {} en el depósito {}: "
+                    + "las unidades ya se usaron. Existencias actuales: {}", quantityDelta, reservedDelta,
+                    key.productId(), key.depositoId(), cell.snapshot(key));
+            return;
+        }
+        stockLedger.record(key.productId(), key.depositoId(), -quantityDelta, -reservedDelta);
+        modified(key, cell);
+    }
+
+    private static boolean compensate(InventoryCell cell, int quantityDelta, int reservedDelta) {
+        if (quantityDelta == 0) {
+            return reservedDelta > 0 ? cell.release(reservedDelta) : cell.reserve(-reservedDelta);
+        }
+        if (reservedDelta == 0) {
+            return cell.adjust(-quantityDelta);
+        }
+        // Confirmación: las unidades vendidas vuelven a estar reservadas, lo disponible no cambia
+        cell.apply(-quantityDelta, -reservedDelta);
+        return true;
+    }
+
+    /**
+     * La versión avanza después del cambio de la celda y antes de marcar la fila: quien
+     * lea la versión antes de leer la celda ve todos los cambios hasta ella
+     */
+    private StockLevel modified(StockKey key, InventoryCell cell) {
+        version(key.productId()).incrementAndGet();
+        dirty.add(key);
+        return cell.snapshot(key);
+    }
+
+    private AtomicLong version(Long productId) {
+        return versions.computeIfAbsent(productId,
+                id -> new AtomicLong(productRepository.findStockVersion(id).orElse(0L)));
+    }
+
+    private static int positive(int units) {
+        if (units <= 0) {
+            throw new BusinessException("INVALID_QUANTITY", "La cantidad debe ser mayor que cero");
+        }
+        return units;
+    }
+
+    private void index(Long productId, Set<Long> deposits) {
+        Set<Long> concurrent = ConcurrentHashMap.newKeySet();
+        concurrent.addAll(deposits);
+        depositsByProduct.putIfAbsent(productId, concurrent);
+    }
+
+    void loadAll() {
+        long start = System.currentTimeMillis();
+        try {
+            Long lastProductId = 0L;
+            Long lastDepositoId = 0L;
+            Long indexedProductId = null;
+            Set<Long> productDeposits = new HashSet<>();
+            List<StockLevel> batch;
+            do {
+                batch = productStockRepository.findStockLevelsAfter(lastProductId, lastDepositoId,
+                        PageRequest.of(0, loadBatchSize));
+                for (StockLevel level : batch) {
+                    // Las claves ya leídas a demanda pueden tener cambios sin persistir: no se pisan
+                    cells.putIfAbsent(level.key(), newCell(level));
+                    // Las filas llegan en orden de producto: al cambiar de producto el anterior está completo
+                    if (!level.productId().equals(indexedProductId)) {
+                        if (indexedProductId != null) {
+                            index(indexedProductId, productDeposits);
+                        }
+                        indexedProductId = level.productId();
+                        productDeposits = new HashSet<>();
+                    }
+                    productDeposits.add(level.depositoId());
+                }
+                if (!batch.isEmpty()) {
+                    StockLevel last = batch.get(batch.size() - 1);
+                    lastProductId = last.productId();
+                    lastDepositoId = last.depositoId();
+                }
+            } while (batch.size() == loadBatchSize);
+            if (indexedProductId != null) {
+                index(indexedProductId, productDeposits);
+            }
+
+            logger.info("Inventario cargado en memoria: {} filas en {} ms",
+                    cells.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo precargar el inventario; las filas se leerán a demanda", ex);
+        }
+    }
+
+    /**
+     * Filas pendientes de persistir con la versión de stock de sus productos
+     */
+    record DirtyBatch(List<StockLevel> levels, Map<Long, Long> stockVersions) {
+
+        boolean isEmpty() {
+            return levels.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.StockLevelsPersistedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Persistencia diferida del {@link InventoryEngine}: cada intervalo escribe las filas
+ * modificadas con un UPDATE por lotes JDBC. Solo se escribe el último valor de cada
+ * fila, así que muchas reservas sobre el mismo producto terminan en un único UPDATE.
+ * En la misma transacción se suma a los totales del producto la diferencia entre el
+ * valor escrito y el que tenía la fila, y su stock_version avanza hasta la versión en
+ * memoria de las existencias escritas.
+ *
+ */
+@Component
+public class InventoryWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryWriteBehind.class);
+
+    // Bloquea las filas antes de leerlas: mismo orden de locks (stock y luego producto) que la conciliación
+    private static final String LOCK_SQL = "UPDATE product_stocks SET last_updated = ? WHERE product_id = ? AND deposito_id = ?";
+
+    private static final String PRODUCT_TOTALS_SQL = "UPDATE products SET "
+            + "stock_quantity = stock_quantity + ? - (SELECT ps.quantity FROM product_stocks ps WHERE ps.product_id = ? AND ps.deposito_id = ?), "
+            + "available_quantity = available_quantity + ? - (SELECT ps.quantity - ps.reserved_quantity FROM product_stocks ps "
+            + "WHERE ps.product_id = ? AND ps.deposito_id = ?), stock_version = GREATEST(COALESCE(stock_version, 0), ?), "
+            + "updated_at = ? WHERE id = ?";
+
+    private static final String UPDATE_SQL = "UPDATE product_stocks SET quantity = ?, reserved_quantity = ?, "
+            + "last_updated = ? WHERE product_id = ? AND deposito_id = ?";
+
+    private static final Comparator<StockLevel> KEY_ORDER =
+            Comparator.comparing(StockLevel::productId).thenComparing(StockLevel::depositoId);
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.write-behind.interval-ms:200}")
+    private long intervalMs;
+
+    @Value("${inventory.write-behind.batch-size:500}")
+    private int batchSize;
+
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Escribir en la base de datos todas las filas pendientes. Es sincronizado para que
+     * dos escrituras de la misma fila no se adelanten una a otra
+     * @return Cantidad de filas escritas
+     */
+    public synchronized int flush() {
+        int written = 0;
+        InventoryEngine.DirtyBatch batch;
+        while (!(batch = inventoryEngine.drainDirty(batchSize)).isEmpty()) {
+            write(batch);
+            written += batch.levels().size();
+        }
+        return written;
+    }
+
+    private void write(InventoryEngine.DirtyBatch batch) {
+        List<StockLevel> ordered = batch.levels().stream().sorted(KEY_ORDER).toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(LOCK_SQL, ordered.stream()
+                        .map(level -> new Object[] { now, level.productId(), level.depositoId() })
+                        .toList());
+                jdbcTemplate.batchUpdate(PRODUCT_TOTALS_SQL, ordered.stream()
+                        .map(level -> new Object[] {
+                            level.quantity(), level.productId(), level.depositoId(),
+                            level.availableQuantity(), level.productId(), level.depositoId(),
+                            batch.stockVersions().get(level.productId()), now, level.productId()
+                        })
+                        .toList());
+                jdbcTemplate.batchUpdate(UPDATE_SQL, ordered.stream()
+                        .map(level -> new Object[] {
+                            level.quantity(), level.reservedQuantity(), now, level.productId(), level.depositoId()
+                        })
+                        .toList());
+                eventPublisher.publishEvent(new StockLevelsPersistedEvent(ordered));
+                ordered.stream().map(StockLevel::productId).distinct().forEach(productId -> eventPublisher.publishEvent(
+                        new ProductChangedEvent(ProductChangedEvent.ChangeType.STOCK_UPDATED, productId, null)));
+            });
+        } catch (RuntimeException ex) {
+            inventoryEngine.markDirty(ordered.stream().map(StockLevel::key).toList());
+            throw ex;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            int written = flush();
+            if (written > 0) {
+                logger.debug("Inventario persistido: {} filas", written);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo persistir el inventario; se reintentará en el próximo ciclo", ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        // Última escritura para no perder los cambios en memoria al apagar
+        flushQuietly();
+    }
+}
@@ -0,0 +1,212 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+/**
+ * Segmento del {@link StockLedger}: un archivo de tamaño fijo mapeado en memoria con
+ * registros binarios de {@value #RECORD_SIZE} bytes.
+ *
+ * Un registro es secuencia, instante, producto, depósito, cantidad, reservado y tipo;
+ * la secuencia se escribe al final, así que un registro con secuencia 0 (el archivo
+ * nace en ceros) o fuera de orden marca el final del segmento. Se guardan en memoria
+ * los instantes mínimo y máximo y un bitmap de los productos del segmento, para
+ * descartar segmentos enteros en las consultas por producto y rango de tiempo. Un
+ * solo hilo agrega registros; los lectores solo leen hasta el último publicado.
+ *
+ */
+class LedgerSegment {
+
+    static final int RECORD_SIZE = 48;
+
+    private static final int SEQUENCE = 0;
+    private static final int TIMESTAMP = 8;
+    private static final int PRODUCT = 16;
+    private static final int DEPOSITO = 24;
+    private static final int QUANTITY = 32;
+    private static final int RESERVED = 36;
+    private static final int TYPE = 40;
+
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final Roaring64NavigableMap products = new Roaring64NavigableMap();
+
+    // Registros publicados: los lectores no pasan de aquí
+    private volatile int count;
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+
+    private LedgerSegment(Path path, long firstSequence, FileChannel channel, long size) throws IOException {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.capacity = (int) (size / RECORD_SIZE);
+    }
+
+    /**
+     * Crear un segmento vacío
+     * @param path Archivo
+     * @param firstSequence Secuencia del primer registro
+     * @param sizeBytes Tamaño del archivo
+     * @return Segmento
+     */
+    static LedgerSegment create(Path path, long firstSequence, long sizeBytes) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(RECORD_SIZE, sizeBytes - sizeBytes % RECORD_SIZE);
+            return new LedgerSegment(path, firstSequence, channel, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo crear el segmento " + path, ex);
+        }
+    }
+
+    /**
+     * Abrir un segmento existente y recorrerlo hasta el último registro válido
+     * @param path Archivo
+     * @param firstSequence Secuencia del primer registro
+     * @return Segmento
+     */
+    static LedgerSegment open(Path path, long firstSequence) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            LedgerSegment segment = new LedgerSegment(path, firstSequence, channel, channel.size());
+            int valid = 0;
+            while (valid < segment.capacity
+                    && segment.buffer.getLong(valid * RECORD_SIZE + SEQUENCE) == firstSequence + valid) {
+                segment.indexRecord(valid);
+                valid++;
+            }
+            segment.count = valid;
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo abrir el segmento " + path, ex);
+        }
+    }
+
+    /**
+     * Agregar un movimiento; su secuencia debe ser la siguiente del segmento
+     * @param movement Movimiento
+     * @return false si el segmento está lleno
+     */
+    boolean append(StockMovement movement) {
+        int index = count;
+        if (index >= capacity) {
+            return false;
+        }
+        int offset = index * RECORD_SIZE;
+        buffer.putLong(offset + TIMESTAMP, movement.timestamp());
+        buffer.putLong(offset + PRODUCT, movement.productId());
+        buffer.putLong(offset + DEPOSITO, movement.depositoId());
+        buffer.putInt(offset + QUANTITY, movement.quantity());
+        buffer.putInt(offset + RESERVED, movement.reservedQuantity());
+        buffer.put(offset + TYPE, (byte) movement.type().ordinal());
+        buffer.putLong(offset + SEQUENCE, movement.sequence());
+        indexRecord(index);
+        count = index + 1;
+        return true;
+    }
+
+    /**
+     * Recorrer los registros publicados en orden de secuencia
+     * @param consumer Destino de cada movimiento
+     */
+    void forEach(Consumer<StockMovement> consumer) {
+        ByteBuffer view = buffer.duplicate();
+        int published = count;
+        for (int index = 0; index < published; index++) {
+            consumer.accept(read(view, index));
+        }
+    }
+
+    /**
+     * Si el segmento puede tener movimientos de un producto en un rango de tiempo
+     * @param productId ID del producto
+     * @param fromMillis Desde (inclusive)
+     * @param toMillis Hasta (inclusive)
+     * @return false si seguro no los tiene
+     */
+    boolean mayContain(Long productId, long fromMillis, long toMillis) {
+        if (count == 0 || maxTimestamp < fromMillis || minTimestamp > toMillis) {
+            return false;
+        }
+        synchronized (products) {
+            return products.contains(productId);
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo cerrar el segmento " + path, ex);
+        }
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo borrar el segmento " + path, ex);
+        }
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Secuencia del último registro, o la anterior a la primera si está vacío
+     */
+    long lastSequence() {
+        return firstSequence + count - 1;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    int count() {
+        return count;
+    }
+
+    private void indexRecord(int index) {
+        int offset = index * RECORD_SIZE;
+        long timestamp = buffer.getLong(offset + TIMESTAMP);
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        synchronized (products) {
+            products.addLong(buffer.getLong(offset + PRODUCT));
+        }
+    }
+
+    private static StockMovement read(ByteBuffer view, int index) {
+        int offset = index * RECORD_SIZE;
+        return new StockMovement(
+                view.getLong(offset + SEQUENCE),
+                view.getLong(offset + TIMESTAMP),
+                StockMovement.Type.values()[view.get(offset + TYPE)],
+                view.getLong(offset + PRODUCT),
+                view.getLong(offset + DEPOSITO),
+                view.getInt(offset + QUANTITY),
+                view.getInt(offset + RESERVED));
+    }
+}
@@ -0,0 +1,188 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.miempresa.ecommerce.event.LowStockChangedEvent;
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductsCreatedEvent;
+import com.miempresa.ecommerce.event.StockLevelsPersistedEvent;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+/**
+ * Conjunto en memoria de las filas de stock con cantidad menor o igual a su stock
+ * mínimo.
+ *
+ * Se guarda la cantidad y el mínimo de cada fila para detectar los cruces del mínimo
+ * a partir de los valores absolutos que escribe la escritura diferida del
+ * inventario. Solo un cruce, en cualquier sentido, cambia
+ * el conjunto y publica un {@link LowStockChangedEvent}; consultar el stock bajo no
+ * recorre la tabla. Durante la carga inicial, o si llega una fila desconocida, se
+ * relee de la base de datos el stock del producto.
+ *
+ */
+@Component
+public class LowStockTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockTracker.class);
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final Map<StockKey, StockThreshold> rows = new ConcurrentHashMap<>();
+    private final Set<StockKey> low = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+
+    // Productos releídos mientras corre la carga inicial: la carga no debe pisarlos
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::loadAll, "low-stock-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Si el conjunto ya terminó la carga inicial
+     * @return true si está listo
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * IDs de los productos con al menos una fila en stock bajo
+     * @return IDs de producto
+     */
+    public Set<Long> lowStockProductIds() {
+        return low.stream().map(StockKey::productId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Si una fila está en stock bajo
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @return true si la cantidad es menor o igual al mínimo
+     */
+    public boolean isLow(Long productId, Long depositoId) {
+        return low.contains(new StockKey(productId, depositoId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelsPersisted(StockLevelsPersistedEvent event) {
+        for (StockLevel level : event.getLevels()) {
+            if (!ready || !rows.containsKey(level.key())) {
+                refresh(List.of(level.productId()));
+                continue;
+            }
+            update(level.key(), current -> current.withQuantity(level.quantity()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            rows.keySet().removeIf(key -> key.productId().equals(event.getProductId()));
+            low.removeIf(key -> key.productId().equals(event.getProductId()));
+        } else if (event.getType() == ProductChangedEvent.ChangeType.CREATED) {
+            refresh(List.of(event.getProductId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        refresh(event.getProductIds());
+    }
+
+    /**
+     * Releer de la base de datos las filas de varios productos
+     */
+    private void refresh(Collection<Long> productIds) {
+        if (!ready) {
+            touchedDuringLoad.addAll(productIds);
+        }
+        productStockRepository.findStockThresholds(productIds)
+                .forEach(threshold -> update(threshold.key(), current -> threshold));
+    }
+
+    private void update(StockKey key, UnaryOperator<StockThreshold> change) {
+        boolean[] crossed = new boolean[1];
+        // El conjunto se modifica dentro de compute: los cambios de una misma fila no se adelantan
+        StockThreshold updated = rows.compute(key, (ignored, current) -> {
+            StockThreshold next = change.apply(current);
+            boolean wasLow = current != null && current.low();
+            if (next.low() != wasLow) {
+                crossed[0] = true;
+                if (next.low()) {
+                    low.add(key);
+                } else {
+                    low.remove(key);
+                }
+            }
+            return next;
+        });
+        if (crossed[0]) {
+            logger.debug("Stock bajo {} para el producto {} en el depósito {}",
+                    updated.low() ? "alcanzado" : "superado", key.productId(), key.depositoId());
+            eventPublisher.publishEvent(new LowStockChangedEvent(key.productId(), key.depositoId(),
+                    updated.quantity(), updated.minStock(), updated.low()));
+        }
+    }
+
+    void loadAll() {
+        long start = System.currentTimeMillis();
+        try {
+            Long lastProductId = 0L;
+            Long lastDepositoId = 0L;
+            List<StockThreshold> batch;
+            do {
+                batch = productStockRepository.findStockThresholdsAfter(lastProductId, lastDepositoId,
+                        PageRequest.of(0, loadBatchSize));
+                for (StockThreshold threshold : batch) {
+                    if (touchedDuringLoad.contains(threshold.productId())) {
+                        continue;
+                    }
+                    if (rows.putIfAbsent(threshold.key(), threshold) == null && threshold.low()) {
+                        low.add(threshold.key());
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    StockThreshold last = batch.get(batch.size() - 1);
+                    lastProductId = last.productId();
+                    lastDepositoId = last.depositoId();
+                }
+            } while (batch.size() == loadBatchSize);
+
+            ready = true;
+            touchedDuringLoad.clear();
+            logger.info("Stock bajo cargado en memoria: {} de {} filas en {} ms",
+                    low.size(), rows.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo cargar el stock bajo; se seguirá consultando la base de datos", ex);
+        }
+    }
+}
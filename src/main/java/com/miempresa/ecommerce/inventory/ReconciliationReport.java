@@ -0,0 +1,12 @@
+package com.miempresa.ecommerce.inventory;
+
+/**
+ * Resultado de una conciliación de totales de stock
+ *
+ * @param chunks Rangos de productos procesados
+ * @param failedChunks Rangos que fallaron (se corrigen en la próxima ejecución)
+ * @param productsFixed Productos cuyos totales no coincidían y se corrigieron
+ * @param elapsedMillis Duración en milisegundos
+ */
+public record ReconciliationReport(int chunks, int failedChunks, int productsFixed, long elapsedMillis) {
+}
@@ -0,0 +1,282 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Existencias de una fila de stock caliente repartidas en varias {@link StockCell}
+ * (sub-buckets), para que las reservas concurrentes de un mismo SKU no compitan por
+ * un único compareAndSet.
+ *
+ * Cada operación prueba un bucket al azar y después los demás; solo si ninguno
+ * alcanza por sí solo toma el lock de rebalanceo, junta en un bucket lo disponible
+ * (o lo reservado) del resto y vuelve a repartir lo disponible en partes iguales. Los
+ * movimientos entre buckets no cambian lo disponible de la fila, pero sí la suma
+ * mientras están a medio hacer: se encierran en una versión impar (seqlock) y las
+ * lecturas, que suman los buckets, se repiten hasta leer una versión par sin cambios.
+ *
+ * El bucket 0 es la celda que tenía la fila antes de activar el modo, así que las
+ * operaciones que ya la tenían en mano siguen contando. Al desactivar se junta todo en
+ * él y la celda queda retirada: desde entonces delega en el bucket 0.
+ *
+ */
+final class ShardedStockCell implements InventoryCell {
+
+    // Clave cualquiera para leer un bucket: snapshot solo la copia al resultado
+    private static final StockKey ANY = new StockKey(0L, 0L);
+
+    private final StockCell[] buckets;
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean retired;
+
+    /**
+     * @param origin Celda actual de la fila; pasa a ser el bucket 0
+     * @param shards Cantidad de buckets
+     */
+    ShardedStockCell(StockCell origin, int shards) {
+        buckets = new StockCell[shards];
+        buckets[0] = origin;
+        for (int i = 1; i < shards; i++) {
+            buckets[i] = new StockCell(0, 0);
+        }
+        synchronized (this) {
+            beginMove();
+            try {
+                rebalance();
+            } finally {
+                endMove();
+            }
+        }
+    }
+
+    @Override
+    public boolean reserve(int units) {
+        int start = ThreadLocalRandom.current().nextInt(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[(start + i) % buckets.length].reserve(units)) {
+                return true;
+            }
+        }
+        synchronized (this) {
+            if (retired) {
+                return buckets[0].reserve(units);
+            }
+            // Ningún bucket alcanza solo: se junta lo disponible en uno
+            beginMove();
+            try {
+                StockCell target = buckets[start];
+                for (StockCell bucket : buckets) {
+                    if (bucket != target) {
+                        moveAvailable(bucket, target, Integer.MAX_VALUE);
+                    }
+                }
+                return target.reserve(units);
+            } finally {
+                rebalance();
+                endMove();
+            }
+        }
+    }
+
+    @Override
+    public boolean release(int units) {
+        int start = ThreadLocalRandom.current().nextInt(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[(start + i) % buckets.length].release(units)) {
+                return true;
+            }
+        }
+        synchronized (this) {
+            return retired ? buckets[0].release(units) : gatherReserved(buckets[start], units) && buckets[start].release(units);
+        }
+    }
+
+    @Override
+    public boolean commit(int units) {
+        int start = ThreadLocalRandom.current().nextInt(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[(start + i) % buckets.length].commit(units)) {
+                return true;
+            }
+        }
+        synchronized (this) {
+            return retired ? buckets[0].commit(units) : gatherReserved(buckets[start], units) && buckets[start].commit(units);
+        }
+    }
+
+    /**
+     * Se junta lo disponible en el bucket 0, se ajusta ahí y se vuelve a repartir: una
+     * baja solo falla si no alcanza lo disponible de toda la fila
+     */
+    @Override
+    public synchronized boolean adjust(int delta) {
+        if (retired) {
+            return buckets[0].adjust(delta);
+        }
+        beginMove();
+        try {
+            for (int i = 1; i < buckets.length; i++) {
+                moveAvailable(buckets[i], buckets[0], Integer.MAX_VALUE);
+            }
+            return buckets[0].adjust(delta);
+        } finally {
+            rebalance();
+            endMove();
+        }
+    }
+
+    /**
+     * Las diferencias ya validadas se aplican al bucket 0 y después se reparte de nuevo
+     * lo disponible
+     */
+    @Override
+    public synchronized void apply(int quantityDelta, int reservedDelta) {
+        buckets[0].apply(quantityDelta, reservedDelta);
+        if (!retired) {
+            beginMove();
+            try {
+                rebalance();
+            } finally {
+                endMove();
+            }
+        }
+    }
+
+    /**
+     * Suma de los buckets, calculada en cada lectura
+     */
+    @Override
+    public StockLevel snapshot(StockKey key) {
+        while (true) {
+            long before = version.get();
+            if ((before & 1) == 0) {
+                int quantity = 0;
+                int reserved = 0;
+                for (StockCell bucket : buckets) {
+                    StockLevel level = bucket.snapshot(key);
+                    quantity += level.quantity();
+                    reserved += level.reservedQuantity();
+                }
+                if (version.get() == before) {
+                    return new StockLevel(key.productId(), key.depositoId(), quantity, reserved);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Juntar todo en el bucket 0 y retirar la celda. Cada bucket se vacía con un único
+     * cambio: una reserva por el camino rápido entra antes, y se mueve con el resto, o
+     * encuentra el bucket vacío y pasa al camino con lock, que ya lo ve retirado
+     * @return Celda original con todas las existencias de la fila
+     */
+    synchronized StockCell collapse() {
+        beginMove();
+        try {
+            for (int i = 1; i < buckets.length; i++) {
+                StockLevel drained = buckets[i].drain(ANY);
+                buckets[0].apply(drained.quantity(), drained.reservedQuantity());
+            }
+            retired = true;
+        } finally {
+            endMove();
+        }
+        return buckets[0];
+    }
+
+    int shards() {
+        return buckets.length;
+    }
+
+    /**
+     * Juntar en un bucket las unidades reservadas que le faltan
+     */
+    private boolean gatherReserved(StockCell target, int units) {
+        beginMove();
+        try {
+            for (StockCell bucket : buckets) {
+                int missing = units - reserved(target);
+                if (missing <= 0) {
+                    break;
+                }
+                if (bucket != target) {
+                    moveReserved(bucket, target, missing);
+                }
+            }
+            return reserved(target) >= units;
+        } finally {
+            endMove();
+        }
+    }
+
+    /**
+     * Repartir lo disponible en partes iguales: de los que tienen de más a los que
+     * tienen de menos
+     */
+    private void rebalance() {
+        int total = 0;
+        for (StockCell bucket : buckets) {
+            total += Math.max(0, available(bucket));
+        }
+        int share = total / buckets.length;
+        for (StockCell poor : buckets) {
+            for (StockCell rich : buckets) {
+                int missing = share - available(poor);
+                if (missing <= 0) {
+                    break;
+                }
+                int surplus = available(rich) - share;
+                if (surplus > 0) {
+                    moveAvailable(rich, poor, Math.min(missing, surplus));
+                }
+            }
+        }
+    }
+
+    /**
+     * Mover unidades disponibles: lo disponible de la fila no cambia. Si una reserva
+     * concurrente se adelanta en el origen se mueve menos
+     */
+    private static void moveAvailable(StockCell from, StockCell to, int max) {
+        int units;
+        do {
+            units = Math.min(max, available(from));
+            if (units <= 0) {
+                return;
+            }
+        } while (!from.adjust(-units));
+        to.apply(units, 0);
+    }
+
+    /**
+     * Mover unidades reservadas junto con su stock físico: lo disponible de cada
+     * bucket no cambia
+     */
+    private static void moveReserved(StockCell from, StockCell to, int max) {
+        int units;
+        do {
+            units = Math.min(max, reserved(from));
+            if (units <= 0) {
+                return;
+            }
+        } while (!from.commit(units));
+        to.apply(units, units);
+    }
+
+    private void beginMove() {
+        version.incrementAndGet();
+    }
+
+    private void endMove() {
+        version.incrementAndGet();
+    }
+
+    private static int available(StockCell bucket) {
+        return bucket.snapshot(ANY).availableQuantity();
+    }
+
+    private static int reserved(StockCell bucket) {
+        return bucket.snapshot(ANY).reservedQuantity();
+    }
+}
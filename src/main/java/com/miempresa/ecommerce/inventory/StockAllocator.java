@@ -0,0 +1,333 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.exception.InsufficientStockException;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+
+/**
+ * Asignación de pedidos de varias líneas a depósitos sobre la matriz de stock en
+ * memoria del {@link InventoryEngine}, sin consultas por línea.
+ *
+ * Se busca el menor conjunto de depósitos (envíos) que cubre todas las líneas: con
+ * pocos depósitos candidatos se prueban los conjuntos de menor a mayor tamaño, en
+ * orden de preferencia (principal primero, luego los que cubren más productos), y
+ * con muchos se usa una aproximación voraz. Dentro del conjunto elegido cada línea
+ * sale de un solo depósito si es posible. La reserva es todo o nada: si otra
+ * reserva se adelanta en alguna celda se liberan las ya hechas y se recalcula.
+ *
+ */
+@Component
+public class StockAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockAllocator.class);
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    // Hasta este número de depósitos candidatos la búsqueda del mínimo es exacta
+    @Value("${inventory.allocation.exact-search-limit:12}")
+    private int exactSearchLimit;
+
+    @Value("${inventory.allocation.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${inventory.allocation.deposits-refresh-ms:60000}")
+    private long depositsRefreshMs;
+
+    // Depósitos activos: ID -> es principal
+    private volatile Map<Long, Boolean> activeDeposits = Map.of();
+    private volatile long depositsLoadedAt;
+
+    /**
+     * Asignar y reservar un pedido
+     * @param demand Unidades pedidas por producto
+     * @return Envíos por depósito
+     */
+    public Allocation allocate(Map<Long, Integer> demand) {
+        for (int attempt = 1; ; attempt++) {
+            Allocation allocation = plan(demand);
+            if (reserve(allocation)) {
+                return allocation;
+            }
+            if (attempt >= maxAttempts) {
+                throw new BusinessException("ALLOCATION_CONFLICT",
+                        "No se pudo reservar el pedido por reservas concurrentes; reintente");
+            }
+            logger.debug("Reserva concurrente durante la asignación; reintento {}", attempt);
+        }
+    }
+
+    /**
+     * Liberar todas las unidades de una asignación ya reservada
+     * @param allocation Asignación devuelta por {@link #allocate(Map)}
+     */
+    public void release(Allocation allocation) {
+        for (Shipment shipment : allocation.shipments()) {
+            shipment.items().forEach((productId, units) -> inventoryEngine.release(productId, shipment.depositoId(), units));
+        }
+    }
+
+    /**
+     * Cargar de una vez la matriz de stock de todos los productos de un lote de pedidos
+     * @param productIds IDs de los productos
+     */
+    public void preload(Collection<Long> productIds) {
+        inventoryEngine.preload(productIds);
+    }
+
+    /**
+     * Calcular la asignación sin reservar
+     * @param demand Unidades pedidas por producto
+     * @return Envíos por depósito
+     */
+    Allocation plan(Map<Long, Integer> demand) {
+        if (demand.isEmpty()) {
+            throw new BusinessException("INVALID_ORDER", "El pedido no tiene líneas");
+        }
+        Map<Long, Boolean> directory = activeDeposits(false);
+
+        // Matriz: depósito -> producto -> disponible, solo depósitos activos con disponible
+        boolean reloaded = false;
+        Map<Long, Map<Long, Integer>> matrix = new HashMap<>();
+        for (Map.Entry<Long, Integer> line : demand.entrySet()) {
+            int total = 0;
+            for (StockLevel level : inventoryEngine.levels(line.getKey())) {
+                if (level.availableQuantity() <= 0) {
+                    continue;
+                }
+                if (!directory.containsKey(level.depositoId()) && !reloaded) {
+                    // Depósito desconocido: puede ser nuevo, se relee el directorio una vez
+                    directory = activeDeposits(true);
+                    reloaded = true;
+                }
+                if (!directory.containsKey(level.depositoId())) {
+                    continue;
+                }
+                matrix.computeIfAbsent(level.depositoId(), id -> new HashMap<>()).put(line.getKey(), level.availableQuantity());
+                total += level.availableQuantity();
+            }
+            if (total < line.getValue()) {
+                throw new InsufficientStockException(line.getKey(), line.getValue(), total);
+            }
+        }
+
+        Map<Long, Boolean> mainFlags = directory;
+        List<Long> candidates = new ArrayList<>(matrix.keySet());
+        candidates.sort(Comparator.<Long, Boolean>comparing(id -> !isMain(mainFlags, id))
+                .thenComparing(id -> -covered(matrix.get(id), demand))
+                .thenComparing(id -> -units(matrix.get(id), demand))
+                .thenComparing(id -> id));
+
+        List<Long> chosen = candidates.size() <= exactSearchLimit
+                ? smallestCover(candidates, matrix, demand)
+                : greedyCover(candidates, matrix, demand);
+        return assign(chosen, matrix, demand, directory);
+    }
+
+    /**
+     * Conjuntos de tamaño creciente en orden lexicográfico sobre los candidatos ya
+     * ordenados por preferencia: el primero que cubre el pedido es mínimo y preferido
+     */
+    private static List<Long> smallestCover(List<Long> candidates, Map<Long, Map<Long, Integer>> matrix,
+                                            Map<Long, Integer> demand) {
+        int n = candidates.size();
+        for (int size = 1; size <= n; size++) {
+            int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = i;
+            }
+            while (true) {
+                List<Long> subset = new ArrayList<>(size);
+                for (int index : indexes) {
+                    subset.add(candidates.get(index));
+                }
+                if (covers(subset, matrix, demand)) {
+                    return subset;
+                }
+                // Siguiente combinación
+                int i = size - 1;
+                while (i >= 0 && indexes[i] == n - size + i) {
+                    i--;
+                }
+                if (i < 0) {
+                    break;
+                }
+                indexes[i]++;
+                for (int j = i + 1; j < size; j++) {
+                    indexes[j] = indexes[j - 1] + 1;
+                }
+            }
+        }
+        // No se llega: el total por producto ya se comprobó
+        return candidates;
+    }
+
+    /**
+     * Aproximación voraz: en cada paso el depósito que cubre más unidades pendientes
+     */
+    private static List<Long> greedyCover(List<Long> candidates, Map<Long, Map<Long, Integer>> matrix,
+                                          Map<Long, Integer> demand) {
+        Map<Long, Integer> pending = new HashMap<>(demand);
+        List<Long> remaining = new ArrayList<>(candidates);
+        List<Long> chosen = new ArrayList<>();
+        while (pending.values().stream().anyMatch(units -> units > 0)) {
+            Long best = null;
+            int bestUnits = 0;
+            for (Long depositoId : remaining) {
+                int units = units(matrix.get(depositoId), pending);
+                if (units > bestUnits) {
+                    best = depositoId;
+                    bestUnits = units;
+                }
+            }
+            chosen.add(best);
+            remaining.remove(best);
+            matrix.get(best).forEach((productId, available) ->
+                    pending.computeIfPresent(productId, (id, units) -> Math.max(0, units - available)));
+        }
+        return chosen;
+    }
+
+    /**
+     * Repartir cada línea entre los depósitos elegidos: de uno solo si alcanza
+     * (el principal primero), si no del que más tiene hacia abajo
+     */
+    private static Allocation assign(List<Long> chosen, Map<Long, Map<Long, Integer>> matrix,
+                                     Map<Long, Integer> demand, Map<Long, Boolean> directory) {
+        Map<Long, Map<Long, Integer>> shipments = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> line : demand.entrySet()) {
+            Long productId = line.getKey();
+            List<Long> sources = chosen.stream()
+                    .filter(id -> matrix.get(id).getOrDefault(productId, 0) > 0)
+                    .toList();
+            Long single = sources.stream()
+                    .filter(id -> matrix.get(id).get(productId) >= line.getValue())
+                    .findFirst()
+                    .orElse(null);
+            if (single != null) {
+                shipments.computeIfAbsent(single, id -> new LinkedHashMap<>()).put(productId, line.getValue());
+                continue;
+            }
+            int pending = line.getValue();
+            for (Long depositoId : sources.stream()
+                    .sorted(Comparator.comparing((Long id) -> -matrix.get(id).get(productId)))
+                    .toList()) {
+                int units = Math.min(pending, matrix.get(depositoId).get(productId));
+                shipments.computeIfAbsent(depositoId, id -> new LinkedHashMap<>()).put(productId, units);
+                pending -= units;
+                if (pending == 0) {
+                    break;
+                }
+            }
+        }
+        return new Allocation(shipments.entrySet().stream()
+                .map(entry -> new Shipment(entry.getKey(), isMain(directory, entry.getKey()), entry.getValue()))
+                .toList());
+    }
+
+    /**
+     * Reservar todas las celdas o ninguna
+     */
+    private boolean reserve(Allocation allocation) {
+        List<StockKey> reserved = new ArrayList<>();
+        try {
+            for (Shipment shipment : allocation.shipments()) {
+                for (Map.Entry<Long, Integer> item : shipment.items().entrySet()) {
+                    inventoryEngine.reserve(item.getKey(), shipment.depositoId(), item.getValue());
+                    reserved.add(new StockKey(item.getKey(), shipment.depositoId()));
+                }
+            }
+            return true;
+        } catch (InsufficientStockException ex) {
+            for (StockKey key : reserved) {
+                inventoryEngine.release(key.productId(), key.depositoId(),
+                        allocation.unitsOf(key.productId(), key.depositoId()));
+            }
+            return false;
+        }
+    }
+
+    private static boolean covers(List<Long> subset, Map<Long, Map<Long, Integer>> matrix, Map<Long, Integer> demand) {
+        for (Map.Entry<Long, Integer> line : demand.entrySet()) {
+            int available = 0;
+            for (Long depositoId : subset) {
+                available += matrix.get(depositoId).getOrDefault(line.getKey(), 0);
+            }
+            if (available < line.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int covered(Map<Long, Integer> stock, Map<Long, Integer> demand) {
+        return (int) demand.entrySet().stream()
+                .filter(line -> stock.getOrDefault(line.getKey(), 0) >= line.getValue())
+                .count();
+    }
+
+    private static int units(Map<Long, Integer> stock, Map<Long, Integer> demand) {
+        return demand.entrySet().stream()
+                .mapToInt(line -> Math.min(line.getValue(), stock.getOrDefault(line.getKey(), 0)))
+                .sum();
+    }
+
+    private static boolean isMain(Map<Long, Boolean> directory, Long depositoId) {
+        return Boolean.TRUE.equals(directory.get(depositoId));
+    }
+
+    /**
+     * Depósitos activos en memoria; la tabla es chica y cambia poco, se relee cada
+     * intervalo o cuando aparece un depósito desconocido
+     */
+    private Map<Long, Boolean> activeDeposits(boolean force) {
+        if (force || System.currentTimeMillis() - depositsLoadedAt > depositsRefreshMs) {
+            activeDeposits = depositoRepository.findByActiveTrueOrderByName().stream()
+                    .collect(Collectors.toUnmodifiableMap(Deposito::getId, deposito -> Boolean.TRUE.equals(deposito.getIsMain())));
+            depositsLoadedAt = System.currentTimeMillis();
+        }
+        return activeDeposits;
+    }
+
+    /**
+     * Asignación de un pedido
+     * @param shipments Envíos, uno por depósito
+     */
+    public record Allocation(List<Shipment> shipments) {
+
+        int unitsOf(Long productId, Long depositoId) {
+            return shipments.stream()
+                    .filter(shipment -> shipment.depositoId().equals(depositoId))
+                    .mapToInt(shipment -> shipment.items().getOrDefault(productId, 0))
+                    .sum();
+        }
+    }
+
+    /**
+     * Envío desde un depósito
+     * @param depositoId ID del depósito
+     * @param main Si es el depósito principal
+     * @param items Unidades por producto
+     */
+    public record Shipment(Long depositoId, boolean main, Map<Long, Integer> items) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Existencias en memoria de un producto en un depósito.
+ *
+ * Cantidad (32 bits altos) y reservado (32 bits bajos) se empaquetan en un único
+ * long, de modo que cada operación comprueba el invariante 0 <= reservado <= cantidad
+ * y actualiza ambos valores con un solo compareAndSet, sin locks.
+ *
+ */
+public final class StockCell implements InventoryCell {
+
+    private final AtomicLong state;
+
+    public StockCell(int quantity, int reservedQuantity) {
+        this.state = new AtomicLong(pack(quantity, reservedQuantity));
+    }
+
+    /**
+     * Reservar unidades si hay disponibles
+     * @param units Unidades a reservar
+     * @return false si la cantidad disponible no alcanza
+     */
+    @Override
+    public boolean reserve(int units) {
+        long current;
+        do {
+            current = state.get();
+            if (quantity(current) - reserved(current) < units) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, pack(quantity(current), reserved(current) + units)));
+        return true;
+    }
+
+    /**
+     * Liberar unidades reservadas sin venderlas
+     * @param units Unidades a liberar
+     * @return false si hay menos unidades reservadas
+     */
+    @Override
+    public boolean release(int units) {
+        long current;
+        do {
+            current = state.get();
+            if (reserved(current) < units) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, pack(quantity(current), reserved(current) - units)));
+        return true;
+    }
+
+    /**
+     * Confirmar unidades reservadas: salen del stock físico y de la reserva
+     * @param units Unidades a confirmar
+     * @return false si hay menos unidades reservadas
+     */
+    @Override
+    public boolean commit(int units) {
+        long current;
+        do {
+            current = state.get();
+            if (reserved(current) < units) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, pack(quantity(current) - units, reserved(current) - units)));
+        return true;
+    }
+
+    /**
+     * Sumar o restar stock físico sin afectar las reservas
+     * @param delta Unidades a sumar (negativo para restar)
+     * @return false si la cantidad quedaría por debajo de lo reservado
+     */
+    @Override
+    public boolean adjust(int delta) {
+        long current;
+        long quantity;
+        do {
+            current = state.get();
+            quantity = quantity(current) + (long) delta;
+            if (quantity < reserved(current) || quantity > Integer.MAX_VALUE) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, pack((int) quantity, reserved(current))));
+        return true;
+    }
+
+    /**
+     * Aplicar diferencias ya validadas en otro lado (movimientos entre sub-buckets,
+     * devolver a la reserva las unidades de una confirmación revertida)
+     * @param quantityDelta Diferencia de cantidad
+     * @param reservedDelta Diferencia de reservado
+     */
+    @Override
+    public void apply(int quantityDelta, int reservedDelta) {
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current,
+                pack(quantity(current) + quantityDelta, reserved(current) + reservedDelta)));
+    }
+
+    /**
+     * Vaciar la celda con un solo cambio: cantidad y reservado pasan a cero juntos, así
+     * ninguna operación concurrente puede quedar entre uno y otro
+     * @param key Clave de la fila
+     * @return Existencias que tenía
+     */
+    StockLevel drain(StockKey key) {
+        long previous = state.getAndSet(0L);
+        return new StockLevel(key.productId(), key.depositoId(), quantity(previous), reserved(previous));
+    }
+
+    /**
+     * Leer cantidad y reservado de forma consistente
+     * @param key Clave de la fila
+     * @return Existencias actuales
+     */
+    @Override
+    public StockLevel snapshot(StockKey key) {
+        long current = state.get();
+        return new StockLevel(key.productId(), key.depositoId(), quantity(current), reserved(current));
+    }
+
+    private static long pack(int quantity, int reserved) {
+        return ((long) quantity << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int quantity(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+}
@@ -0,0 +1,181 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.entity.StockHold;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.repository.StockHoldRepository;
+import com.miempresa.ecommerce.repository.StockHoldSchedule;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Vencimiento de reservas temporales con una {@link TimingWheel}: cada tic devuelve
+ * solo las reservas que vencen en él, sin recorrer la tabla. Las vencidas de un tic
+ * se procesan juntas: una consulta que las bloquea, el cambio de estado y una
+ * liberación por (producto, depósito) en el {@link InventoryEngine}, que valida lo
+ * reservado y la escritura diferida lleva a la base de datos. Al arrancar se vuelven
+ * a programar todas las reservas activas.
+ *
+ */
+@Component
+public class StockHoldExpiry {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldExpiry.class);
+
+    private static final Comparator<StockKey> KEY_ORDER =
+            Comparator.comparing(StockKey::productId).thenComparing(StockKey::depositoId);
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.holds.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${inventory.holds.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${inventory.holds.batch-size:500}")
+    private int batchSize;
+
+    private TimingWheel<String> wheel;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        wheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        logger.info("Reservas de stock activas reprogramadas: {}", rearm());
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Programar todas las reservas activas de la base de datos; las ya vencidas salen
+     * en el próximo tic
+     * @return Cantidad de reservas programadas
+     */
+    public int rearm() {
+        List<StockHoldSchedule> active = stockHoldRepository.findActiveSchedules();
+        active.forEach(hold -> schedule(hold.id(), hold.expiresAt()));
+        return active.size();
+    }
+
+    /**
+     * Programar el vencimiento de una reserva
+     * @param holdId ID de la reserva
+     * @param expiresAt Momento de vencimiento
+     */
+    public synchronized void schedule(String holdId, LocalDateTime expiresAt) {
+        wheel.schedule(holdId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Cantidad de vencimientos programados
+     * @return Reservas en la rueda
+     */
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    /**
+     * Avanzar la rueda hasta ahora y liberar lo vencido
+     * @return Cantidad de reservas vencidas
+     */
+    public int tick() {
+        List<String> due;
+        synchronized (this) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<String> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                expired += expire(batch);
+            } catch (RuntimeException ex) {
+                // Siguen ACTIVE: se reintentan en el próximo tic
+                logger.error("No se pudieron vencer {} reservas de stock", batch.size(), ex);
+                synchronized (this) {
+                    batch.forEach(holdId -> wheel.schedule(holdId, System.currentTimeMillis()));
+                }
+            }
+        }
+        if (expired > 0) {
+            logger.info("Reservas de stock vencidas: {}", expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Vencer un lote de reservas: las ya confirmadas o canceladas se ignoran
+     * @param holdIds IDs de las reservas
+     * @return Cantidad de reservas vencidas
+     */
+    int expire(Collection<String> holdIds) {
+        Integer expired = transactionTemplate.execute(status -> {
+            List<StockHold> holds = stockHoldRepository.findExpiredForUpdate(holdIds, LocalDateTime.now());
+            Map<StockKey, Integer> released = new TreeMap<>(KEY_ORDER);
+            for (StockHold hold : holds) {
+                hold.setStatus(StockHold.Status.EXPIRED);
+                released.merge(new StockKey(hold.getProduct().getId(), hold.getDeposito().getId()),
+                        hold.getQuantity(), Integer::sum);
+            }
+            released.forEach(this::release);
+            return holds.size();
+        });
+        return expired != null ? expired : 0;
+    }
+
+    /**
+     * Si lo reservado en memoria no cubre las reservas vencidas no se libera nada: la
+     * reserva queda vencida igual y el desvío queda en el log
+     */
+    private void release(StockKey key, int units) {
+        try {
+            inventoryEngine.release(key.productId(), key.depositoId(), units);
+        } catch (BusinessException ex) {
+            logger.warn("No se liberaron {} unidades vencidas del producto {} en el depósito {}: {}",
+                    units, key.productId(), key.depositoId(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
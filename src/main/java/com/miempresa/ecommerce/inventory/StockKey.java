@@ -0,0 +1,10 @@
+package com.miempresa.ecommerce.inventory;
+
+/**
+ * Clave de una fila de stock: producto en un depósito
+ * @param productId ID del producto
+ * @param depositoId ID del depósito
+ *
+ */
+public record StockKey(Long productId, Long depositoId) {
+}
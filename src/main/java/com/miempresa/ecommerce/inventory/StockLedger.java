@@ -0,0 +1,517 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.miempresa.ecommerce.event.StockRowsCreatedEvent;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Registro de auditoría de todos los movimientos de product_stocks, de solo
+ * agregado, en archivos segmentados mapeados en memoria ({@link LedgerSegment}).
+ *
+ * Agregar un movimiento es escribir 48 bytes en la página mapeada, sin E/S ni base de
+ * datos; el volcado a disco es periódico. Se registran las operaciones del
+ * {@link InventoryEngine} en el momento y los cambios directos en la base de datos al
+ * confirmarse su transacción. Cada cierto tiempo se escribe una instantánea con el
+ * estado de todas las filas y se borran los segmentos que ya cubre y que superan la
+ * retención. El estado de product_stocks se reconstruye con la última instantánea más
+ * los movimientos posteriores. Si el directorio está vacío se toma de la base de
+ * datos la instantánea inicial.
+ *
+ * Los movimientos no pasan por un monitor global: cada hilo los deja en una cola sin
+ * bloqueo y el que consigue el lock de escritura (tryLock, sin esperar) escribe los
+ * pendientes de todos, asignando las secuencias en orden de cola. Quien no lo consigue
+ * sigue de largo; el dueño del lock vuelve a mirar la cola al soltarlo, así ningún
+ * movimiento queda sin escribir. Los segmentos siguen teniendo un único escritor, y las
+ * lecturas, el volcado y las instantáneas toman el lock y escriben antes lo pendiente.
+ *
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final int SNAPSHOT_MAGIC = 0x534E4150;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Value("${inventory.ledger.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.ledger.dir:data/ledger}")
+    private Path dir;
+
+    @Value("${inventory.ledger.segment-size-bytes:67108864}")
+    private long segmentSizeBytes;
+
+    @Value("${inventory.ledger.force-interval-ms:1000}")
+    private long forceIntervalMs;
+
+    @Value("${inventory.ledger.snapshot-interval-minutes:60}")
+    private long snapshotIntervalMinutes;
+
+    @Value("${inventory.ledger.retention-days:30}")
+    private long retentionDays;
+
+    @Value("${inventory.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private final List<LedgerSegment> segments = new CopyOnWriteArrayList<>();
+    private final Queue<PendingMovement> pending = new ConcurrentLinkedQueue<>();
+    // Solo el dueño del lock escribe en el segmento activo y asigna secuencias
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile LedgerSegment active;
+    private long nextSequence = 1;
+    private volatile long snapshotSequence = -1;
+    private final Object snapshotLock = new Object();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(dir);
+        snapshotSequence = latestSnapshot().orElse(-1L);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .forEach(file -> segments.add(LedgerSegment.open(file, sequenceOf(file, SEGMENT_PREFIX))));
+        }
+        if (!segments.isEmpty()) {
+            active = segments.get(segments.size() - 1);
+            nextSequence = active.lastSequence() + 1;
+        } else if (snapshotSequence >= 0) {
+            nextSequence = snapshotSequence + 1;
+        } else {
+            writeSnapshot(0, baseline());
+            snapshotSequence = 0;
+        }
+        logger.info("Registro de movimientos de stock abierto en {}: {} segmentos, próxima secuencia {}",
+                dir, segments.size(), nextSequence);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-ledger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::force, forceIntervalMs, forceIntervalMs, TimeUnit.MILLISECONDS);
+        if (snapshotIntervalMinutes > 0) {
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMinutes, snapshotIntervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Registrar una diferencia de stock
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantityDelta Diferencia en la cantidad física
+     * @param reservedDelta Diferencia en lo reservado
+     */
+    public void record(Long productId, Long depositoId, int quantityDelta, int reservedDelta) {
+        append(StockMovement.Type.DELTA, productId, depositoId, quantityDelta, reservedDelta);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockRowsCreated(StockRowsCreatedEvent event) {
+        for (StockLevel level : event.getLevels()) {
+            append(StockMovement.Type.SET, level.productId(), level.depositoId(), level.quantity(), level.reservedQuantity());
+        }
+    }
+
+    private void append(StockMovement.Type type, Long productId, Long depositoId, int quantity, int reserved) {
+        if (!enabled) {
+            return;
+        }
+        pending.add(new PendingMovement(System.currentTimeMillis(), type, productId, depositoId, quantity, reserved));
+        combine();
+    }
+
+    /**
+     * Escribir lo pendiente si el lock está libre. Si lo tiene otro hilo, ese hilo
+     * revisa la cola al soltarlo y escribe lo que encuentre
+     */
+    private void combine() {
+        while (!pending.isEmpty() && writeLock.tryLock()) {
+            try {
+                writePending();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Tomar el lock esperando y escribir lo pendiente; se suelta con {@link #unlock()}
+     */
+    private void lock() {
+        writeLock.lock();
+        writePending();
+    }
+
+    private void unlock() {
+        writeLock.unlock();
+        combine();
+    }
+
+    // Requiere el lock de escritura
+    private void writePending() {
+        PendingMovement next;
+        while ((next = pending.poll()) != null) {
+            StockMovement movement = new StockMovement(nextSequence, next.timestamp(), next.type(), next.productId(),
+                    next.depositoId(), next.quantity(), next.reservedQuantity());
+            if (active == null || !active.append(movement)) {
+                roll();
+                active.append(movement);
+            }
+            nextSequence++;
+        }
+    }
+
+    private void roll() {
+        if (active != null) {
+            active.force();
+        }
+        active = LedgerSegment.create(dir.resolve(fileName(SEGMENT_PREFIX, nextSequence, ".log")), nextSequence,
+                segmentSizeBytes);
+        segments.add(active);
+    }
+
+    /**
+     * Movimientos de un producto en un rango de tiempo, en orden de secuencia
+     * @param productId ID del producto
+     * @param from Desde (inclusive); null sin límite
+     * @param to Hasta (inclusive); null sin límite
+     * @param limit Cantidad máxima de movimientos
+     * @return Movimientos
+     */
+    public List<StockMovement> movements(Long productId, LocalDateTime from, LocalDateTime to, int limit) {
+        // Lo encolado hasta ahora queda publicado en los segmentos antes de leer
+        lock();
+        unlock();
+        long fromMillis = from != null ? toMillis(from) : Long.MIN_VALUE;
+        long toMillis = to != null ? toMillis(to) : Long.MAX_VALUE;
+        List<StockMovement> result = new ArrayList<>();
+        for (LedgerSegment segment : segments) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (!segment.mayContain(productId, fromMillis, toMillis)) {
+                continue;
+            }
+            segment.forEach(movement -> {
+                if (result.size() < limit && movement.productId().equals(productId)
+                        && movement.timestamp() >= fromMillis && movement.timestamp() <= toMillis) {
+                    result.add(movement);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Reconstruir el estado de product_stocks: última instantánea más los movimientos
+     * posteriores
+     * @return Existencias por fila
+     */
+    public Map<StockKey, StockLevel> replay() {
+        // Una instantánea en curso no borra la anterior ni segmentos a mitad de la lectura
+        synchronized (snapshotLock) {
+            long upTo;
+            lock();
+            try {
+                upTo = nextSequence - 1;
+            } finally {
+                unlock();
+            }
+            return replay(upTo);
+        }
+    }
+
+    /**
+     * Escribir una instantánea del estado actual y compactar
+     * @return Secuencia hasta la que llega la instantánea
+     */
+    public long snapshot() {
+        synchronized (snapshotLock) {
+            long upTo;
+            lock();
+            try {
+                upTo = nextSequence - 1;
+            } finally {
+                unlock();
+            }
+            if (upTo > snapshotSequence) {
+                writeSnapshot(upTo, replay(upTo));
+                long previous = snapshotSequence;
+                snapshotSequence = upTo;
+                deleteSnapshot(previous);
+            }
+            compactSegments(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+            return snapshotSequence;
+        }
+    }
+
+    /**
+     * Borrar los segmentos cubiertos por la instantánea cuyo último movimiento es
+     * anterior a un instante. El segmento activo nunca se borra
+     * @param olderThan Límite de antigüedad
+     * @return Cantidad de segmentos borrados
+     */
+    int compact(Instant olderThan) {
+        synchronized (snapshotLock) {
+            return compactSegments(olderThan);
+        }
+    }
+
+    private int compactSegments(Instant olderThan) {
+        int deleted = 0;
+        for (LedgerSegment segment : segments) {
+            // El activo solo cambia al pasar a un segmento nuevo: uno que ya no lo es no vuelve a recibir escrituras
+            if (segment == active || segment.lastSequence() > snapshotSequence
+                    || segment.maxTimestamp() >= olderThan.toEpochMilli()) {
+                continue;
+            }
+            segments.remove(segment);
+            try {
+                segment.delete();
+                deleted++;
+            } catch (UncheckedIOException ex) {
+                logger.warn("No se pudo borrar el segmento de movimientos de stock", ex);
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Segmentos de movimientos de stock compactados: {}", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Cantidad de segmentos en disco
+     * @return Segmentos
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    private Map<StockKey, StockLevel> replay(long upTo) {
+        long from = snapshotSequence;
+        Map<StockKey, int[]> state = new HashMap<>();
+        readSnapshot(from).forEach((key, level) ->
+                state.put(key, new int[] { level.quantity(), level.reservedQuantity() }));
+        for (LedgerSegment segment : segments) {
+            if (segment.lastSequence() <= from || segment.firstSequence() > upTo) {
+                continue;
+            }
+            segment.forEach(movement -> {
+                if (movement.sequence() <= from || movement.sequence() > upTo) {
+                    return;
+                }
+                int[] row = state.computeIfAbsent(movement.key(), key -> new int[2]);
+                if (movement.type() == StockMovement.Type.SET) {
+                    row[0] = movement.quantity();
+                    row[1] = movement.reservedQuantity();
+                } else {
+                    row[0] += movement.quantity();
+                    row[1] += movement.reservedQuantity();
+                }
+            });
+        }
+        Map<StockKey, StockLevel> levels = new HashMap<>(state.size());
+        state.forEach((key, row) -> levels.put(key, new StockLevel(key.productId(), key.depositoId(), row[0], row[1])));
+        return levels;
+    }
+
+    /**
+     * Instantánea inicial: todas las filas de product_stocks por páginas de clave
+     */
+    private Map<StockKey, StockLevel> baseline() {
+        Map<StockKey, StockLevel> levels = new HashMap<>();
+        Long lastProductId = 0L;
+        Long lastDepositoId = 0L;
+        List<StockLevel> batch;
+        do {
+            batch = productStockRepository.findStockLevelsAfter(lastProductId, lastDepositoId,
+                    PageRequest.of(0, loadBatchSize));
+            batch.forEach(level -> levels.put(level.key(), level));
+            if (!batch.isEmpty()) {
+                StockLevel last = batch.get(batch.size() - 1);
+                lastProductId = last.productId();
+                lastDepositoId = last.depositoId();
+            }
+        } while (batch.size() == loadBatchSize);
+        return levels;
+    }
+
+    private void writeSnapshot(long sequence, Map<StockKey, StockLevel> levels) {
+        Path target = dir.resolve(fileName(SNAPSHOT_PREFIX, sequence, ".snap"));
+        Path temp = dir.resolve(fileName(SNAPSHOT_PREFIX, sequence, ".tmp"));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(levels.size());
+            for (StockLevel level : levels.values()) {
+                out.writeLong(level.productId());
+                out.writeLong(level.depositoId());
+                out.writeInt(level.quantity());
+                out.writeInt(level.reservedQuantity());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo escribir la instantánea " + target, ex);
+        }
+        try {
+            // Se publica entera o no se publica
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo publicar la instantánea " + target, ex);
+        }
+        logger.info("Instantánea de stock escrita hasta la secuencia {}: {} filas", sequence, levels.size());
+    }
+
+    private Map<StockKey, StockLevel> readSnapshot(long sequence) {
+        Map<StockKey, StockLevel> levels = new HashMap<>();
+        if (sequence < 0) {
+            return levels;
+        }
+        Path file = dir.resolve(fileName(SNAPSHOT_PREFIX, sequence, ".snap"));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readLong() != sequence) {
+                throw new IllegalStateException("Instantánea de stock inválida: " + file);
+            }
+            int rows = in.readInt();
+            for (int i = 0; i < rows; i++) {
+                StockLevel level = new StockLevel(in.readLong(), in.readLong(), in.readInt(), in.readInt());
+                levels.put(level.key(), level);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo leer la instantánea " + file, ex);
+        }
+        return levels;
+    }
+
+    private void deleteSnapshot(long sequence) {
+        if (sequence < 0) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(dir.resolve(fileName(SNAPSHOT_PREFIX, sequence, ".snap")));
+        } catch (IOException ex) {
+            logger.warn("No se pudo borrar la instantánea anterior de stock", ex);
+        }
+    }
+
+    private Optional<Long> latestSnapshot() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(".snap"))
+                    .map(name -> sequenceOf(dir.resolve(name), SNAPSHOT_PREFIX))
+                    .max(Comparator.naturalOrder());
+        }
+    }
+
+    private static String fileName(String prefix, long sequence, String extension) {
+        // Relleno con ceros: el orden alfabético es el orden de secuencia
+        return String.format("%s%020d%s", prefix, sequence, extension);
+    }
+
+    private static long sequenceOf(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.indexOf('.')));
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void force() {
+        lock();
+        try {
+            if (active != null) {
+                active.force();
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo escribir la instantánea de stock; se reintentará en el próximo ciclo", ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        lock();
+        try {
+            segments.forEach(segment -> {
+                segment.force();
+                segment.close();
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Movimiento encolado, todavía sin secuencia; el instante se toma al encolarlo
+     */
+    private record PendingMovement(long timestamp, StockMovement.Type type, Long productId, Long depositoId,
+                                   int quantity, int reservedQuantity) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.inventory;
+
+/**
+ * Existencias de un producto en un depósito en un momento dado
+ * @param productId ID del producto
+ * @param depositoId ID del depósito
+ * @param quantity Cantidad física
+ * @param reservedQuantity Cantidad reservada
+ *
+ */
+public record StockLevel(Long productId, Long depositoId, Integer quantity, Integer reservedQuantity) {
+
+    /**
+     * Cantidad que todavía se puede reservar
+     * @return Cantidad menos reservado
+     */
+    public int availableQuantity() {
+        return quantity - reservedQuantity;
+    }
+
+    public StockKey key() {
+        return new StockKey(productId, depositoId);
+    }
+}
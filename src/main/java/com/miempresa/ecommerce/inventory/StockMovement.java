@@ -0,0 +1,24 @@
+package com.miempresa.ecommerce.inventory;
+
+/**
+ * Movimiento de stock registrado en el {@link StockLedger}
+ * @param sequence Número de secuencia, creciente y sin huecos
+ * @param timestamp Instante del movimiento en milisegundos
+ * @param type DELTA suma las cantidades a la fila; SET las fija (alta de la fila)
+ * @param productId ID del producto
+ * @param depositoId ID del depósito
+ * @param quantity Cantidad física (diferencia o valor)
+ * @param reservedQuantity Cantidad reservada (diferencia o valor)
+ *
+ */
+public record StockMovement(long sequence, long timestamp, Type type, Long productId, Long depositoId,
+                            int quantity, int reservedQuantity) {
+
+    public enum Type {
+        DELTA, SET
+    }
+
+    public StockKey key() {
+        return new StockKey(productId, depositoId);
+    }
+}
@@ -0,0 +1,33 @@
+package com.miempresa.ecommerce.inventory;
+
+/**
+ * Cantidad física y stock mínimo de un producto en un depósito
+ * @param productId ID del producto
+ * @param depositoId ID del depósito
+ * @param quantity Cantidad física
+ * @param minStock Stock mínimo
+ *
+ */
+public record StockThreshold(Long productId, Long depositoId, Integer quantity, Integer minStock) {
+
+    /**
+     * Si la fila está en stock bajo (cantidad menor o igual al mínimo)
+     * @return true si está en stock bajo
+     */
+    public boolean low() {
+        return quantity <= minStock;
+    }
+
+    public StockKey key() {
+        return new StockKey(productId, depositoId);
+    }
+
+    /**
+     * Misma fila con otra cantidad física
+     * @param newQuantity Nueva cantidad
+     * @return Umbral con la cantidad actualizada
+     */
+    public StockThreshold withQuantity(int newQuantity) {
+        return new StockThreshold(productId, depositoId, newQuantity, minStock);
+    }
+}
@@ -0,0 +1,234 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.exception.BusinessException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Conciliación de products.stock_quantity y available_quantity con la suma de
+ * product_stocks. Los totales se mantienen por diferencias en cada cambio de stock;
+ * esta tarea detecta y corrige desvíos (cargas manuales, datos anteriores a la
+ * columna de disponible).
+ *
+ * Los productos se recorren en rangos de ID que se procesan en paralelo, cada uno en
+ * su propia transacción: primero se bloquean las filas de stock del rango (mismo
+ * orden de locks que la escritura diferida) y luego se corrigen solo los productos cuyo
+ * total no coincide. Los productos sin stock por depósito conservan su stock_quantity
+ * y solo se completa su disponible. La stock_version de cada producto corregido es una
+ * versión nueva del {@link InventoryEngine}, nunca un incremento hecho solo en la base.
+ *
+ */
+@Component
+public class StockTotalsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockTotalsReconciler.class);
+
+    private static final String LOCK_SQL = "SELECT id FROM product_stocks WHERE product_id BETWEEN ? AND ? "
+            + "ORDER BY product_id, deposito_id FOR UPDATE";
+
+    private static final String TOTAL_SUBQUERY =
+            "(SELECT COALESCE(SUM(ps.quantity), 0) FROM product_stocks ps WHERE ps.product_id = p.id)";
+
+    private static final String AVAILABLE_SUBQUERY =
+            "(SELECT COALESCE(SUM(ps.quantity - ps.reserved_quantity), 0) FROM product_stocks ps WHERE ps.product_id = p.id)";
+
+    private static final String DRIFT_CONDITION = "EXISTS (SELECT 1 FROM product_stocks ps WHERE ps.product_id = p.id) "
+            + "AND (p.available_quantity IS NULL OR p.stock_quantity <> " + TOTAL_SUBQUERY
+            + " OR p.available_quantity <> " + AVAILABLE_SUBQUERY + ")";
+
+    private static final String DRIFT_WITHOUT_STOCKS_CONDITION =
+            "NOT EXISTS (SELECT 1 FROM product_stocks ps WHERE ps.product_id = p.id) "
+            + "AND (p.available_quantity IS NULL OR p.available_quantity <> p.stock_quantity)";
+
+    private static final String DRIFTED_SQL = "SELECT p.id FROM products p WHERE p.id BETWEEN ? AND ? AND "
+            + DRIFT_CONDITION + " ORDER BY p.id";
+
+    private static final String DRIFTED_WITHOUT_STOCKS_SQL = "SELECT p.id FROM products p WHERE p.id BETWEEN ? AND ? AND "
+            + DRIFT_WITHOUT_STOCKS_CONDITION + " ORDER BY p.id";
+
+    // La condición se repite: entre la búsqueda y el bloqueo la escritura diferida pudo corregir el desvío
+    private static final String FIX_SQL = "UPDATE products p SET stock_quantity = " + TOTAL_SUBQUERY
+            + ", available_quantity = " + AVAILABLE_SUBQUERY + ", stock_version = GREATEST(COALESCE(p.stock_version, 0), ?), "
+            + "updated_at = ? WHERE p.id = ? AND " + DRIFT_CONDITION;
+
+    private static final String FIX_WITHOUT_STOCKS_SQL = "UPDATE products p SET available_quantity = p.stock_quantity, "
+            + "stock_version = GREATEST(COALESCE(p.stock_version, 0), ?), updated_at = ? WHERE p.id = ? AND "
+            + DRIFT_WITHOUT_STOCKS_CONDITION;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.reconcile.chunk-size:1000}")
+    private long chunkSize;
+
+    @Value("${inventory.reconcile.parallelism:4}")
+    private int parallelism;
+
+    // 0 desactiva la ejecución periódica; sigue disponible a demanda
+    @Value("${inventory.reconcile.interval-minutes:0}")
+    private long intervalMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (intervalMinutes <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemon("stock-totals-reconciler"));
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Conciliar todos los productos
+     * @return Resumen de la ejecución
+     */
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("RECONCILIATION_RUNNING", "Ya hay una conciliación de stock en curso");
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, daemon("stock-totals-chunk"));
+        try {
+            List<Callable<Integer>> chunks = new ArrayList<>();
+            long[] bounds = idBounds();
+            for (long from = bounds[0]; from <= bounds[1]; from += chunkSize) {
+                long lower = from;
+                long upper = Math.min(from + chunkSize - 1, bounds[1]);
+                chunks.add(() -> reconcileRange(lower, upper));
+            }
+
+            int fixed = 0;
+            int failed = 0;
+            for (Future<Integer> result : workers.invokeAll(chunks)) {
+                try {
+                    fixed += result.get();
+                } catch (ExecutionException ex) {
+                    failed++;
+                    logger.error("No se pudo conciliar un rango de productos", ex.getCause());
+                }
+            }
+
+            ReconciliationReport report = new ReconciliationReport(chunks.size(), failed, fixed,
+                    System.currentTimeMillis() - start);
+            logger.info("Conciliación de stock: {} productos corregidos en {} rangos ({} fallidos) en {} ms",
+                    report.productsFixed(), report.chunks(), report.failedChunks(), report.elapsedMillis());
+            return report;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("RECONCILIATION_INTERRUPTED", "La conciliación de stock fue interrumpida");
+        } finally {
+            workers.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Conciliar un rango de IDs de producto en una transacción. La nueva stock_version de
+     * cada producto desviado se pide al {@link InventoryEngine} para que no repita una
+     * versión ya entregada, y antes de escribirla se vuelcan las filas pendientes: así los
+     * totales corregidos incluyen todas las operaciones con versión menor
+     * @param fromId Primer ID del rango
+     * @param toId Último ID del rango
+     * @return Productos corregidos
+     */
+    int reconcileRange(long fromId, long toId) {
+        List<Long> drifted = jdbcTemplate.queryForList(DRIFTED_SQL, Long.class, fromId, toId);
+        List<Long> driftedWithoutStocks = jdbcTemplate.queryForList(DRIFTED_WITHOUT_STOCKS_SQL, Long.class, fromId, toId);
+        if (drifted.isEmpty() && driftedWithoutStocks.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        drifted.forEach(id -> versions.put(id, inventoryEngine.nextStockVersion(id)));
+        driftedWithoutStocks.forEach(id -> versions.put(id, inventoryEngine.nextStockVersion(id)));
+        if (!drifted.isEmpty()) {
+            writeBehind.flush();
+        }
+
+        Integer fixed = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForList(LOCK_SQL, Long.class, fromId, toId);
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            return updated(jdbcTemplate.batchUpdate(FIX_SQL, fixArgs(drifted, versions, now)))
+                    + updated(jdbcTemplate.batchUpdate(FIX_WITHOUT_STOCKS_SQL, fixArgs(driftedWithoutStocks, versions, now)));
+        });
+        return fixed != null ? fixed : 0;
+    }
+
+    private static List<Object[]> fixArgs(List<Long> ids, Map<Long, Long> versions, Timestamp now) {
+        return ids.stream().map(id -> new Object[] { versions.get(id), now, id }).toList();
+    }
+
+    private static int updated(int[] counts) {
+        return Arrays.stream(counts).map(count -> Math.max(count, 0)).sum();
+    }
+
+    private long[] idBounds() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM products", (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            // Tabla vacía: rango vacío
+            return rs.wasNull() ? new long[] { 1, 0 } : new long[] { min, rs.getLong(2) };
+        });
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo conciliar el stock; se reintentará en el próximo ciclo", ex);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+}
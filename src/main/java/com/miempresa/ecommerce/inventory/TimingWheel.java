@@ -0,0 +1,90 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Rueda de tiempo con hash (Varghese y Lauck) para vencimientos.
+ *
+ * El tiempo se divide en tics de duración fija y cada tic cae en una de las ranuras
+ * de la rueda (tic módulo tamaño). Programar un vencimiento es agregarlo a su ranura
+ * y cada tic revisa solo la ranura actual: las entradas de vueltas posteriores
+ * quedan en ella hasta que llegue su tic. No es segura para varios hilos por sí
+ * sola; quien la usa sincroniza el acceso.
+ *
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final List<List<Entry<T>>> slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis Duración de un tic
+     * @param wheelSize Cantidad de ranuras
+     * @param startMillis Instante del tic 0
+     */
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Programar un vencimiento. Los vencimientos ya pasados salen en el próximo tic
+     * @param item Elemento a devolver al vencer
+     * @param deadlineMillis Instante de vencimiento
+     */
+    public void schedule(T item, long deadlineMillis) {
+        // Se redondea hacia arriba: nunca vence antes de tiempo
+        long tick = Math.max(currentTick + 1, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+        slots.get(slot(tick)).add(new Entry<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Avanzar la rueda hasta un instante y devolver lo vencido. Si se avanzó más de una
+     * vuelta completa, cada ranura se revisa una sola vez
+     * @param nowMillis Instante actual
+     * @return Elementos vencidos
+     */
+    public List<T> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        long steps = Math.min(target - currentTick, slots.size());
+        for (long step = 1; step <= steps; step++) {
+            Iterator<Entry<T>> iterator = slots.get(slot(currentTick + step)).iterator();
+            while (iterator.hasNext()) {
+                Entry<T> entry = iterator.next();
+                if (entry.tick() <= target) {
+                    iterator.remove();
+                    expired.add(entry.item());
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+        size -= expired.size();
+        return expired;
+    }
+
+    /**
+     * Cantidad de vencimientos pendientes
+     * @return Número de entradas en la rueda
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.miempresa.ecommerce.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.miempresa.ecommerce.entity.CategoryClosure;
+
+/**
+ * Repositorio de la tabla de clausura de categorías. Las altas y los movimientos se
+ * resuelven con INSERT ... SELECT y DELETE sobre la misma tabla, sin cargar filas
+ *
+ */
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+    /**
+     * Agregar la fila de una categoría nueva consigo misma; si tiene padre se completa
+     * con {@link #attachSubtree}
+     * @param categoryId ID de la categoría nueva
+     * @return Cantidad de filas agregadas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) VALUES (:categoryId, :categoryId, 0)",
+            nativeQuery = true)
+    int insertSelf(@Param("categoryId") Long categoryId);
+
+    /**
+     * Quitar los caminos que unen un subárbol con sus ancestros de fuera; las filas
+     * internas del subárbol se conservan
+     * @param categoryId ID de la raíz del subárbol
+     * @return Cantidad de filas borradas
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM category_closure"
+            + " WHERE descendant_id IN (SELECT s.descendant_id FROM category_closure s WHERE s.ancestor_id = :categoryId)"
+            + " AND ancestor_id NOT IN (SELECT s.descendant_id FROM category_closure s WHERE s.ancestor_id = :categoryId)",
+            nativeQuery = true)
+    int detachSubtree(@Param("categoryId") Long categoryId);
+
+    /**
+     * Colgar un subárbol (o una categoría nueva) de un padre: cada ancestro del padre
+     * con cada categoría del subárbol
+     * @param categoryId ID de la raíz del subárbol
+     * @param parentId ID del padre nuevo
+     * @return Cantidad de filas agregadas
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth)"
+            + " SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1"
+            + " FROM category_closure a CROSS JOIN category_closure d"
+            + " WHERE a.descendant_id = :parentId AND d.ancestor_id = :categoryId",
+            nativeQuery = true)
+    int attachSubtree(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+
+    /**
+     * Verificar si hay categorías sin filas en la tabla (anteriores a ella o creadas por fuera del servicio)
+     * @return true si hay al menos una
+     */
+    @Query(value = "SELECT COUNT(*) > 0 FROM categories c WHERE NOT EXISTS"
+            + " (SELECT 1 FROM category_closure cc WHERE cc.ancestor_id = c.id AND cc.descendant_id = c.id)",
+            nativeQuery = true)
+    boolean existsMissingCategories();
+
+    /**
+     * Borrar toda la tabla antes de reconstruirla
+     * @return Cantidad de filas borradas
+     */
+    @Modifying
+    @Query(value = "DELETE FROM category_closure", nativeQuery = true)
+    int deleteAllRows();
+
+    /**
+     * Reconstrucción, paso inicial: cada categoría consigo misma
+     * @return Cantidad de filas agregadas
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) SELECT c.id, c.id, 0 FROM categories c",
+            nativeQuery = true)
+    int insertSelfRows();
+
+    /**
+     * Reconstrucción, un nivel más: los ancestros a distancia depth del padre lo son a
+     * depth + 1 de sus hijos
+     * @param depth Profundidad ya completa
+     * @return Cantidad de filas agregadas; 0 cuando no quedan niveles
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth)"
+            + " SELECT cc.ancestor_id, c.id, cc.depth + 1 FROM categories c"
+            + " JOIN category_closure cc ON cc.descendant_id = c.parent_id WHERE cc.depth = :depth",
+            nativeQuery = true)
+    int insertNextLevel(@Param("depth") int depth);
+}
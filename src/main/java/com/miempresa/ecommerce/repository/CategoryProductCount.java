@@ -0,0 +1,9 @@
+package com.miempresa.ecommerce.repository;
+
+/**
+ * Cantidad de productos activos asignados directamente a una categoría
+ * @param categoryId ID de la categoría
+ * @param count Cantidad de productos
+ */
+public record CategoryProductCount(Long categoryId, Long count) {
+}
@@ -3,11 +3,13 @@ package com.miempresa.ecommerce.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.miempresa.ecommerce.cache.CategoryRow;
 import com.miempresa.ecommerce.entity.Category;
 
 /**
@@ -24,10 +26,27 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     Optional<Category> findBySlugAndActiveTrue(String slug);
 
+    /**
+     * Encontrar categoría por slug cargando su padre y sus hijos en la misma consulta
+     * @param slug Slug de la categoría
+     * @return Optional de la categoría
+     */
+    @EntityGraph(Category.WITH_PARENT_AND_CHILDREN)
+    Optional<Category> findWithParentAndChildrenBySlugAndActiveTrue(String slug);
+
+    /**
+     * Encontrar categoría por ID cargando su padre y sus hijos en la misma consulta
+     * @param id ID de la categoría
+     * @return Optional de la categoría
+     */
+    @EntityGraph(Category.WITH_PARENT_AND_CHILDREN)
+    Optional<Category> findWithParentAndChildrenById(Long id);
+
     /**
      * Encontrar categorías raíz (sin padre)
      * @return Lista de categorías raíz activas
      */
+    @EntityGraph(Category.WITH_PARENT_AND_CHILDREN)
     @Query("SELECT c FROM Category c WHERE c.parent IS NULL AND c.active = true ORDER BY c.sortOrder, c.name")
     List<Category> findRootCategories();
 
@@ -36,6 +55,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      * @param parentId ID de la categoría padre
      * @return Lista de subcategorías activas
      */
+    @EntityGraph(Category.WITH_PARENT_AND_CHILDREN)
     @Query("SELECT c FROM Category c WHERE c.parent.id = :parentId AND c.active = true ORDER BY c.sortOrder, c.name")
     List<Category> findByParentId(@Param("parentId") Long parentId);
 
@@ -46,9 +66,35 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     boolean existsBySlug(String slug);
 
+    /**
+     * Verificar si otra categoría usa el slug
+     * @param slug Slug
+     * @param id ID de la categoría que se excluye
+     * @return true si existe
+     */
+    boolean existsBySlugAndIdNot(String slug, Long id);
+
+    /**
+     * Verificar si una categoría tiene subcategorías activas
+     * @param parentId ID de la categoría padre
+     * @return true si tiene al menos una
+     */
+    boolean existsByParentIdAndActiveTrue(Long parentId);
+
     /**
      * Encontrar todas las categorías activas
      * @return Lista de categorías activas ordenadas
      */
+    @EntityGraph(Category.WITH_PARENT_AND_CHILDREN)
     List<Category> findByActiveTrueOrderBySortOrderAscNameAsc();
+
+    /**
+     * Leer todas las categorías activas como filas planas, sin cargar entidades ni
+     * asociaciones, para armar el árbol en memoria con una sola consulta
+     * @return Filas ordenadas por sortOrder y nombre
+     */
+    @Query("SELECT new com.miempresa.ecommerce.cache.CategoryRow(c.id, p.id, c.name, c.slug, c.description,"
+            + " c.imageUrl, c.sortOrder, c.createdAt, c.updatedAt)"
+            + " FROM Category c LEFT JOIN c.parent p WHERE c.active = true ORDER BY c.sortOrder, c.name")
+    List<CategoryRow> findActiveTreeRows();
 }
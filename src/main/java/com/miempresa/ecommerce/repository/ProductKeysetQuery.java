@@ -0,0 +1,18 @@
+package com.miempresa.ecommerce.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Criterios de una consulta de productos activos paginada por keyset
+ * @param categoryId Filtrar por categoría (opcional)
+ * @param keyword Filtrar por palabra clave en nombre o descripción (opcional)
+ * @param sortField Campo de ordenación
+ * @param direction Dirección de ordenación
+ * @param afterValue Valor del campo en el último elemento ya entregado (null en la primera página)
+ * @param afterId ID del último elemento ya entregado (null en la primera página)
+ * @param limit Cantidad máxima de filas
+ *
+ */
+public record ProductKeysetQuery(Long categoryId, String keyword, ProductSortField sortField,
+                                 Sort.Direction direction, Object afterValue, Long afterId, int limit) {
+}
@@ -0,0 +1,13 @@
+package com.miempresa.ecommerce.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión de un listado de productos: última modificación y cantidad de filas.
+ * Cambia cuando se crea, modifica o da de baja cualquier producto del filtro
+ *
+ * @param lastUpdated Máximo updatedAt del listado (null si está vacío)
+ * @param count Cantidad de productos del listado
+ */
+public record ProductListingVersion(LocalDateTime lastUpdated, Long count) {
+}
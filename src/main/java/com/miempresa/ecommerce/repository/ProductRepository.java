@@ -1,23 +1,53 @@
 package com.miempresa.ecommerce.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.miempresa.ecommerce.cache.ProductCategoryPlacement;
+import com.miempresa.ecommerce.cache.StockAvailability;
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
 import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.search.ProductFacetDocument;
+import com.miempresa.ecommerce.search.ProductSearchDocument;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Interfaz de repositorio para operaciones de entidades de producto
  * 
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /**
+     * Proyección directa a ProductResponseDTO: solo las columnas de la respuesta y el
+     * nombre de la categoría por join, sin cargar entidades en el contexto de persistencia
+     */
+    String PRODUCT_DTO_SELECT = "SELECT new com.miempresa.ecommerce.dto.response.ProductResponseDTO("
+            + "p.id, p.name, p.description, p.price, p.stockQuantity, p.availableQuantity, p.sku, c.name, c.id, p.imageUrl, "
+            + "p.active, p.createdAt, p.updatedAt) FROM Product p LEFT JOIN p.category c";
+
+    /** Proyección a los valores que usa el índice de facetas */
+    String FACET_DOCUMENT_SELECT = "SELECT new com.miempresa.ecommerce.search.ProductFacetDocument("
+            + "p.id, c.id, p.price, p.stockQuantity) FROM Product p LEFT JOIN p.category c";
+
+    /** Proyección a la categoría de un producto, para el conteo por categoría */
+    String CATEGORY_PLACEMENT_SELECT = "SELECT new com.miempresa.ecommerce.cache.ProductCategoryPlacement("
+            + "p.id, c.id) FROM Product p JOIN p.category c";
 
     /**
      * Buscar producto por SKU
@@ -26,13 +56,154 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findBySku(String sku);
 
+    /**
+     * Buscar producto por ID cargando su categoría en la misma consulta
+     * @param id Product ID
+     * @return Optional Product
+     */
+    @EntityGraph(Product.WITH_CATEGORY)
+    Optional<Product> findWithCategoryById(Long id);
+
+    /**
+     * Buscar producto por SKU cargando su categoría en la misma consulta
+     * @param sku Product SKU
+     * @return Optional Product
+     */
+    @EntityGraph(Product.WITH_CATEGORY)
+    Optional<Product> findWithCategoryBySku(String sku);
+
+    /**
+     * Buscar producto por ID cargando su categoría y su stock por depósito
+     * @param id Product ID
+     * @return Optional Product
+     */
+    @EntityGraph(Product.WITH_STOCKS)
+    Optional<Product> findWithStocksById(Long id);
+
+    /**
+     * Obtener la respuesta de varios productos por IDs en una sola consulta
+     * @param ids IDs de los productos
+     * @return Lista de productos (sin orden garantizado)
+     */
+    @Query(PRODUCT_DTO_SELECT + " WHERE p.id IN :ids")
+    List<ProductResponseDTO> findProductDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtener los campos indexables de los productos activos con ID mayor al dado
+     * @param afterId Último ID procesado
+     * @param pageable Tamaño del lote
+     * @return Lote de documentos ordenados por ID
+     */
+    @Query("SELECT new com.miempresa.ecommerce.search.ProductSearchDocument(p.id, p.name, p.description) FROM Product p WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Obtener los campos indexables de un producto activo
+     * @param id ID del producto
+     * @return Optional del documento (vacío si no existe o está inactivo)
+     */
+    @Query("SELECT new com.miempresa.ecommerce.search.ProductSearchDocument(p.id, p.name, p.description) FROM Product p WHERE p.id = :id AND p.active = true")
+    Optional<ProductSearchDocument> findSearchDocument(@Param("id") Long id);
+
+    /**
+     * Obtener los campos indexables de varios productos activos
+     * @param ids IDs de los productos
+     * @return Documentos de los productos activos encontrados
+     */
+    @Query("SELECT new com.miempresa.ecommerce.search.ProductSearchDocument(p.id, p.name, p.description) FROM Product p WHERE p.id IN :ids AND p.active = true")
+    List<ProductSearchDocument> findSearchDocuments(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtener los valores de faceta de los productos activos con ID mayor al dado
+     * @param afterId Último ID procesado
+     * @param pageable Tamaño del lote
+     * @return Lote de documentos ordenados por ID
+     */
+    @Query(FACET_DOCUMENT_SELECT + " WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductFacetDocument> findFacetDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Obtener los valores de faceta de un producto activo
+     * @param id ID del producto
+     * @return Optional del documento (vacío si no existe o está inactivo)
+     */
+    @Query(FACET_DOCUMENT_SELECT + " WHERE p.id = :id AND p.active = true")
+    Optional<ProductFacetDocument> findFacetDocument(@Param("id") Long id);
+
+    /**
+     * Obtener la categoría de los productos activos con ID mayor al dado
+     * @param afterId Último ID procesado
+     * @param pageable Tamaño del lote
+     * @return Lote ordenado por ID; sin los productos que no tienen categoría
+     */
+    @Query(CATEGORY_PLACEMENT_SELECT + " WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductCategoryPlacement> findCategoryPlacementsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Obtener la categoría de varios productos activos
+     * @param ids IDs de los productos
+     * @return Productos activos con categoría entre los pedidos
+     */
+    @Query(CATEGORY_PLACEMENT_SELECT + " WHERE p.id IN :ids AND p.active = true")
+    List<ProductCategoryPlacement> findCategoryPlacements(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Contar los productos activos de cada categoría, para verificar el conteo en memoria
+     * @return Un conteo por categoría con al menos un producto activo
+     */
+    @Query("SELECT new com.miempresa.ecommerce.repository.CategoryProductCount(c.id, COUNT(p))"
+            + " FROM Product p JOIN p.category c WHERE p.active = true GROUP BY c.id")
+    List<CategoryProductCount> countActiveByCategory();
+
+    /**
+     * Obtener los valores de faceta de varios productos activos
+     * @param ids IDs de los productos
+     * @return Documentos de los productos activos encontrados
+     */
+    @Query(FACET_DOCUMENT_SELECT + " WHERE p.id IN :ids AND p.active = true")
+    List<ProductFacetDocument> findFacetDocuments(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recorrer los productos activos con ID mayor al dado, en orden de ID, con un cursor
+     * de solo avance. Debe consumirse dentro de una transacción y cerrarse al terminar
+     * @param afterId Último ID ya procesado (0 para empezar)
+     * @return Stream de productos proyectados a la respuesta
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(PRODUCT_DTO_SELECT + " WHERE p.active = true AND p.id > :afterId ORDER BY p.id")
+    Stream<ProductResponseDTO> streamActiveProductDTOsAfter(@Param("afterId") Long afterId);
+
     /**
      * Encuentra todos los productos activos
      * @param pageable Informacion de Paginacion
      * @return Page de los productos activos
      */
+    @EntityGraph(Product.WITH_CATEGORY)
     Page<Product> findByActiveTrue(Pageable pageable);
 
+    /**
+     * Encuentra todos los productos activos, proyectados a la respuesta
+     * @param pageable Informacion de Paginacion
+     * @return Page de los productos activos
+     */
+    @Query(value = PRODUCT_DTO_SELECT + " WHERE p.active = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true")
+    Page<ProductResponseDTO> findActiveProductDTOs(Pageable pageable);
+
+    /**
+     * Encuentra productos activos proyectados, sin consulta de conteo
+     * @param pageable Informacion de Paginacion
+     * @return Slice de los productos activos
+     */
+    @Query(PRODUCT_DTO_SELECT + " WHERE p.active = true")
+    Slice<ProductResponseDTO> findActiveProductDTOSlice(Pageable pageable);
+
+    /**
+     * Contar productos activos
+     * @return Cantidad de productos activos
+     */
+    long countByActiveTrue();
+
     /**
      * Encuentra productos por categoría
      * @param category Categoria de producto 
@@ -46,21 +217,39 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param threshold Stock threshold
      * @return List de productos con bajo stock
      */
+    @EntityGraph(Product.WITH_CATEGORY)
     @Query("SELECT p FROM Product p WHERE p.active = true AND p.stockQuantity <= :threshold")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
 
+    /**
+     * Encuentra productos con bajo stock, proyectados a la respuesta
+     * @param threshold Stock threshold
+     * @return List de productos con bajo stock
+     */
+    @Query(PRODUCT_DTO_SELECT + " WHERE p.active = true AND p.stockQuantity <= :threshold")
+    List<ProductResponseDTO> findLowStockProductDTOs(@Param("threshold") Integer threshold);
+
     /**
      * Comprobar si existe el SKU
      * @param sku Product SKU
      * @return true si existe, falso en caso contrario
      */
     boolean existsBySku(String sku);
+
+    /**
+     * Obtener cuáles de los SKU dados ya existen, en una sola consulta
+     * @param skus SKUs a comprobar
+     * @return SKUs existentes
+     */
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
     
     
     /**
      * Encontrar productos con stock bajo usando ProductStock
      * @return Lista de productos con stock bajo
      */
+    @EntityGraph(Product.WITH_CATEGORY)
     @Query("SELECT DISTINCT p FROM Product p JOIN ProductStock ps ON p.id = ps.product.id WHERE ps.quantity <= ps.minStock AND p.active = true")
     List<Product> findProductsWithLowStock();
 
@@ -70,24 +259,152 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable Información de paginación
      * @return Page de productos que coinciden
      */
+    @EntityGraph(Product.WITH_CATEGORY)
     @Query("SELECT p FROM Product p WHERE p.active = true AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Product> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * Buscar productos por nombre o descripción, proyectados a la respuesta
+     * @param keyword Palabra clave
+     * @param pageable Información de paginación
+     * @return Page de productos que coinciden
+     */
+    @Query(value = PRODUCT_DTO_SELECT + " WHERE p.active = true AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<ProductResponseDTO> searchProductDTOsByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * Buscar productos por nombre o descripción, proyectados y sin consulta de conteo
+     * @param keyword Palabra clave
+     * @param pageable Información de paginación
+     * @return Slice de productos que coinciden
+     */
+    @Query(PRODUCT_DTO_SELECT + " WHERE p.active = true AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Slice<ProductResponseDTO> searchProductDTOSliceByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * Contar productos activos cuyo nombre o descripción contienen la palabra clave
+     * @param keyword Palabra clave
+     * @return Cantidad de productos
+     */
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.active = true AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    long countActiveByKeyword(@Param("keyword") String keyword);
+
     /**
      * Encontrar productos por categoría
      * @param categoryId ID de la categoría
      * @param pageable Información de paginación
      * @return Page de productos en la categoría
      */
+    @EntityGraph(Product.WITH_CATEGORY)
     @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.active = true")
     Page<Product> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 
+    /**
+     * Encontrar productos por categoría, proyectados a la respuesta
+     * @param categoryId ID de la categoría
+     * @param pageable Información de paginación
+     * @return Page de productos en la categoría
+     */
+    @Query(value = PRODUCT_DTO_SELECT + " WHERE c.id = :categoryId AND p.active = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.active = true")
+    Page<ProductResponseDTO> findProductDTOsByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    /**
+     * Encontrar productos por categoría, proyectados y sin consulta de conteo
+     * @param categoryId ID de la categoría
+     * @param pageable Información de paginación
+     * @return Slice de productos en la categoría
+     */
+    @Query(PRODUCT_DTO_SELECT + " WHERE c.id = :categoryId AND p.active = true")
+    Slice<ProductResponseDTO> findProductDTOSliceByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    /**
+     * Encontrar productos de una categoría y de todas sus subcategorías, con una sola
+     * igualdad sobre la tabla de clausura en lugar de recorrer Category.parent
+     * @param categoryId ID de la categoría raíz del subárbol
+     * @param pageable Paginación
+     * @return Page de productos del subárbol
+     */
+    @Query(value = PRODUCT_DTO_SELECT + " JOIN CategoryClosure cc ON cc.descendantId = c.id"
+                   + " WHERE cc.ancestorId = :categoryId AND p.active = true",
+           countQuery = "SELECT COUNT(p) FROM Product p JOIN CategoryClosure cc ON cc.descendantId = p.category.id"
+                   + " WHERE cc.ancestorId = :categoryId AND p.active = true")
+    Page<ProductResponseDTO> findProductDTOsByCategorySubtree(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    /**
+     * Contar productos activos de una categoría
+     * @param categoryId ID de la categoría
+     * @return Cantidad de productos
+     */
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.active = true")
+    long countActiveByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Obtener la versión del listado de productos activos
+     * @return Máximo updatedAt y cantidad de productos activos
+     */
+    @Query("SELECT new com.miempresa.ecommerce.repository.ProductListingVersion(MAX(p.updatedAt), COUNT(p)) FROM Product p WHERE p.active = true")
+    ProductListingVersion findActiveListingVersion();
+
+    /**
+     * Obtener la versión del listado de productos activos de una categoría
+     * @param categoryId ID de la categoría
+     * @return Máximo updatedAt y cantidad de productos de la categoría
+     */
+    @Query("SELECT new com.miempresa.ecommerce.repository.ProductListingVersion(MAX(p.updatedAt), COUNT(p)) FROM Product p WHERE p.category.id = :categoryId AND p.active = true")
+    ProductListingVersion findListingVersionByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Obtener la versión del listado de productos activos de una categoría y sus subcategorías
+     * @param categoryId ID de la categoría raíz del subárbol
+     * @return Máximo updatedAt y cantidad de productos del subárbol
+     */
+    @Query("SELECT new com.miempresa.ecommerce.repository.ProductListingVersion(MAX(p.updatedAt), COUNT(p)) FROM Product p"
+            + " JOIN CategoryClosure cc ON cc.descendantId = p.category.id WHERE cc.ancestorId = :categoryId AND p.active = true")
+    ProductListingVersion findListingVersionByCategorySubtree(@Param("categoryId") Long categoryId);
+
+    /**
+     * Fijar el stock total de un producto sin stock por depósito. El disponible se mueve
+     * en la misma diferencia, calculada sobre la fila ya bloqueada por el UPDATE
+     * @param productId ID del producto
+     * @param quantity Stock total
+     * @param stockVersion Versión de stock reservada en el inventario en memoria
+     * @return Filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.availableQuantity = COALESCE(p.availableQuantity, p.stockQuantity) + :quantity - p.stockQuantity,"
+            + " p.stockQuantity = :quantity, p.stockVersion = GREATEST(COALESCE(p.stockVersion, 0), :stockVersion),"
+            + " p.updatedAt = LOCAL_DATETIME WHERE p.id = :productId")
+    int setStockTotal(@Param("productId") Long productId, @Param("quantity") int quantity,
+            @Param("stockVersion") long stockVersion);
+
+    /**
+     * Leer el disponible y la versión de stock de varios productos activos
+     * @param ids IDs de los productos
+     * @return Disponible por producto
+     */
+    @Query("SELECT new com.miempresa.ecommerce.cache.StockAvailability(p.id,"
+            + " COALESCE(p.availableQuantity, p.stockQuantity), COALESCE(p.stockVersion, 0L))"
+            + " FROM Product p WHERE p.id IN :ids AND p.active = true")
+    List<StockAvailability> findStockAvailability(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Versión de stock actual de un producto
+     * @param productId ID del producto
+     * @return Versión (0 si nunca cambió)
+     */
+    @Query("SELECT COALESCE(p.stockVersion, 0L) FROM Product p WHERE p.id = :productId")
+    Optional<Long> findStockVersion(@Param("productId") Long productId);
+
     /**
      * Encontrar productos activos con stock disponible
      * @param pageable Información de paginación
      * @return Page de productos con stock
      */
-    @Query("SELECT DISTINCT p FROM Product p JOIN ProductStock ps ON p.id = ps.product.id WHERE p.active = true AND ps.quantity > 0")
+    @EntityGraph(Product.WITH_CATEGORY)
+    @Query(value = "SELECT DISTINCT p FROM Product p JOIN ProductStock ps ON p.id = ps.product.id WHERE p.active = true AND ps.quantity > 0",
+           countQuery = "SELECT COUNT(DISTINCT p) FROM Product p JOIN ProductStock ps ON p.id = ps.product.id WHERE p.active = true AND ps.quantity > 0")
     Page<Product> findActiveProductsWithStock(Pageable pageable);
 
 }
@@ -0,0 +1,20 @@
+package com.miempresa.ecommerce.repository;
+
+import java.util.List;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+
+/**
+ * Consultas de producto que no se pueden expresar como métodos derivados
+ *
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Buscar productos activos a partir de una posición (keyset), sin OFFSET:
+     * WHERE (sortKey, id) > (:valor, :id) ORDER BY sortKey, id
+     * @param query Criterios de la consulta
+     * @return Productos proyectados a la respuesta, sin cargar entidades
+     */
+    List<ProductResponseDTO> findActiveByKeyset(ProductKeysetQuery query);
+}
@@ -0,0 +1,56 @@
+package com.miempresa.ecommerce.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Implementación de las consultas personalizadas de ProductRepository
+ *
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductResponseDTO> findActiveByKeyset(ProductKeysetQuery query) {
+        String expression = query.sortField().getExpression();
+        boolean ascending = query.direction() == Sort.Direction.ASC;
+
+        StringBuilder jpql = new StringBuilder(ProductRepository.PRODUCT_DTO_SELECT).append(" WHERE p.active = true");
+        if (query.categoryId() != null) {
+            jpql.append(" AND c.id = :categoryId");
+        }
+        if (query.keyword() != null) {
+            jpql.append(" AND (LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+                .append(" OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))");
+        }
+        if (query.afterId() != null) {
+            // Comparación por tuplas: el índice (sortKey, id) resuelve el salto sin recorrer las filas previas
+            jpql.append(" AND (").append(expression).append(", p.id) ")
+                .append(ascending ? ">" : "<").append(" (:afterValue, :afterId)");
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        jpql.append(" ORDER BY ").append(expression).append(direction).append(", p.id").append(direction);
+
+        TypedQuery<ProductResponseDTO> typedQuery = entityManager.createQuery(jpql.toString(), ProductResponseDTO.class);
+        if (query.categoryId() != null) {
+            typedQuery.setParameter("categoryId", query.categoryId());
+        }
+        if (query.keyword() != null) {
+            typedQuery.setParameter("keyword", query.keyword());
+        }
+        if (query.afterId() != null) {
+            typedQuery.setParameter("afterValue", query.afterValue());
+            typedQuery.setParameter("afterId", query.afterId());
+        }
+        return typedQuery.setMaxResults(query.limit()).getResultList();
+    }
+}
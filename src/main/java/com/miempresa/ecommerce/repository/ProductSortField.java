@@ -0,0 +1,73 @@
+package com.miempresa.ecommerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.exception.BusinessException;
+
+/**
+ * Campos por los que se pueden ordenar los listados de productos en modo cursor.
+ * Cada campo sabe cómo expresarse en JPQL, cómo leerse de la respuesta y cómo
+ * reconstruir su valor a partir del cursor
+ *
+ */
+public enum ProductSortField {
+
+    ID("id", "p.id", Long::valueOf, ProductResponseDTO::getId),
+    NAME("name", "p.name", value -> value, ProductResponseDTO::getName),
+    PRICE("price", "p.price", Double::valueOf, ProductResponseDTO::getPrice),
+    STOCK_QUANTITY("stockQuantity", "p.stockQuantity", Integer::valueOf, ProductResponseDTO::getStockQuantity),
+    // El SKU es opcional: se ordena como cadena vacía para que la comparación por tuplas no reciba NULL
+    SKU("sku", "COALESCE(p.sku, '')", value -> value, dto -> dto.getSku() != null ? dto.getSku() : ""),
+    CREATED_AT("createdAt", "p.createdAt", LocalDateTime::parse, ProductResponseDTO::getCreatedAt),
+    UPDATED_AT("updatedAt", "p.updatedAt", LocalDateTime::parse, ProductResponseDTO::getUpdatedAt);
+
+    private final String property;
+    private final String expression;
+    private final Function<String, Object> parser;
+    private final Function<ProductResponseDTO, Object> extractor;
+
+    ProductSortField(String property, String expression, Function<String, Object> parser,
+                     Function<ProductResponseDTO, Object> extractor) {
+        this.property = property;
+        this.expression = expression;
+        this.parser = parser;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Resolver el campo a partir del parámetro sortBy
+     * @param property Nombre de la propiedad
+     * @return Campo de ordenación
+     */
+    public static ProductSortField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("INVALID_SORT", "Campo de ordenación no soportado: " + property));
+    }
+
+    public String getProperty() { return property; }
+
+    public String getExpression() { return expression; }
+
+    /**
+     * Convertir el valor serializado en el cursor al tipo del campo
+     * @param value Valor como texto
+     * @return Valor tipado
+     */
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * Obtener el valor del campo de un producto ya mapeado
+     * @param product Producto
+     * @return Valor de ordenación
+     */
+    public Object extract(ProductResponseDTO product) {
+        return extractor.apply(product);
+    }
+}
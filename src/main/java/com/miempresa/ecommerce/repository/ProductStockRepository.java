@@ -1,14 +1,20 @@
 package com.miempresa.ecommerce.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.inventory.StockLevel;
+import com.miempresa.ecommerce.inventory.StockThreshold;
 
 /**
  * Repositorio para operaciones de stock de productos
@@ -17,6 +23,14 @@ import com.miempresa.ecommerce.entity.ProductStock;
 @Repository
 public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
 
+    /** Proyección a las existencias de una fila, sin cargar producto ni depósito */
+    String STOCK_LEVEL_SELECT = "SELECT new com.miempresa.ecommerce.inventory.StockLevel("
+            + "ps.product.id, ps.deposito.id, ps.quantity, ps.reservedQuantity) FROM ProductStock ps";
+
+    /** Proyección a cantidad y stock mínimo de una fila */
+    String STOCK_THRESHOLD_SELECT = "SELECT new com.miempresa.ecommerce.inventory.StockThreshold("
+            + "ps.product.id, ps.deposito.id, ps.quantity, ps.minStock) FROM ProductStock ps";
+
     /**
      * Encontrar stock por producto y depósito
      * @param productId ID del producto
@@ -32,6 +46,7 @@ public interface ProductStockRepository extends JpaRepository<ProductStock, Long
      * @param productId ID del producto
      * @return Lista de stocks del producto
      */
+    @EntityGraph(attributePaths = "deposito")
     @Query("SELECT ps FROM ProductStock ps WHERE ps.product.id = :productId")
     List<ProductStock> findByProductId(@Param("productId") Long productId);
 
@@ -39,22 +54,58 @@ public interface ProductStockRepository extends JpaRepository<ProductStock, Long
      * Encontrar stocks con bajo inventario
      * @return Lista de stocks con cantidad <= stock mínimo
      */
+    @EntityGraph(attributePaths = { "product", "deposito" })
     @Query("SELECT ps FROM ProductStock ps WHERE ps.quantity <= ps.minStock")
     List<ProductStock> findLowStockItems();
 
     /**
-     * Calcular stock total de un producto
+     * Leer cantidad y reservado de una fila de stock, sin cargar la entidad
      * @param productId ID del producto
-     * @return Stock total
+     * @param depositoId ID del depósito
+     * @return Optional de las existencias
      */
-    @Query("SELECT COALESCE(SUM(ps.quantity), 0) FROM ProductStock ps WHERE ps.product.id = :productId")
-    Integer getTotalStockByProductId(@Param("productId") Long productId);
+    @Query(STOCK_LEVEL_SELECT + " WHERE ps.product.id = :productId AND ps.deposito.id = :depositoId")
+    Optional<StockLevel> findStockLevel(@Param("productId") Long productId, @Param("depositoId") Long depositoId);
 
     /**
-     * Calcular stock disponible total de un producto
-     * @param productId ID del producto
-     * @return Stock disponible total
+     * Leer las existencias de todos los depósitos de varios productos
+     * @param productIds IDs de los productos
+     * @return Existencias por producto y depósito
+     */
+    @Query(STOCK_LEVEL_SELECT + " WHERE ps.product.id IN :productIds")
+    List<StockLevel> findStockLevels(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Leer las existencias posteriores a una clave (producto, depósito), en orden de
+     * clave, para recorrer la tabla por lotes usando el índice único
+     * @param productId ID de producto de la última fila leída
+     * @param depositoId ID de depósito de la última fila leída
+     * @param pageable Tamaño del lote
+     * @return Lote de existencias
+     */
+    @Query(STOCK_LEVEL_SELECT + " WHERE ps.product.id > :productId OR (ps.product.id = :productId AND ps.deposito.id > :depositoId)"
+            + " ORDER BY ps.product.id, ps.deposito.id")
+    List<StockLevel> findStockLevelsAfter(@Param("productId") Long productId, @Param("depositoId") Long depositoId,
+                                          Pageable pageable);
+
+    /**
+     * Leer cantidad y stock mínimo de las filas posteriores a una clave (producto,
+     * depósito), en orden de clave
+     * @param productId ID de producto de la última fila leída
+     * @param depositoId ID de depósito de la última fila leída
+     * @param pageable Tamaño del lote
+     * @return Lote de umbrales
+     */
+    @Query(STOCK_THRESHOLD_SELECT + " WHERE ps.product.id > :productId OR (ps.product.id = :productId AND ps.deposito.id > :depositoId)"
+            + " ORDER BY ps.product.id, ps.deposito.id")
+    List<StockThreshold> findStockThresholdsAfter(@Param("productId") Long productId, @Param("depositoId") Long depositoId,
+                                                  Pageable pageable);
+
+    /**
+     * Leer cantidad y stock mínimo de todas las filas de varios productos
+     * @param productIds IDs de los productos
+     * @return Umbrales de las filas
      */
-    @Query("SELECT COALESCE(SUM(ps.quantity - ps.reservedQuantity), 0) FROM ProductStock ps WHERE ps.product.id = :productId")
-    Integer getAvailableStockByProductId(@Param("productId") Long productId);
+    @Query(STOCK_THRESHOLD_SELECT + " WHERE ps.product.id IN :productIds")
+    List<StockThreshold> findStockThresholds(@Param("productIds") Collection<Long> productIds);
 }
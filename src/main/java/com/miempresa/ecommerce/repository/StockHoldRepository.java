@@ -0,0 +1,53 @@
+package com.miempresa.ecommerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.miempresa.ecommerce.entity.StockHold;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repositorio para operaciones de reservas temporales de stock
+ *
+ */
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, String> {
+
+    /**
+     * Cambiar el estado de una reserva solo si sigue en el estado esperado, para que
+     * confirmar, cancelar y vencer no se pisen entre sí
+     * @param id ID de la reserva
+     * @param from Estado esperado
+     * @param to Estado nuevo
+     * @return Filas actualizadas (0 si la reserva ya cambió de estado)
+     */
+    @Modifying
+    @Query("UPDATE StockHold h SET h.status = :to, h.updatedAt = LOCAL_DATETIME WHERE h.id = :id AND h.status = :from")
+    int updateStatus(@Param("id") String id, @Param("from") StockHold.Status from, @Param("to") StockHold.Status to);
+
+    /**
+     * Bloquear las reservas activas vencidas de un lote de IDs
+     * @param ids IDs candidatos
+     * @param now Momento de corte
+     * @return Reservas activas con vencimiento anterior al corte
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM StockHold h WHERE h.id IN :ids AND h.status = 'ACTIVE' AND h.expiresAt <= :now")
+    List<StockHold> findExpiredForUpdate(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Obtener el vencimiento de todas las reservas activas, para reprogramarlas al arrancar
+     * @return Pares (ID, vencimiento)
+     */
+    @Query("SELECT new com.miempresa.ecommerce.repository.StockHoldSchedule(h.id, h.expiresAt) FROM StockHold h WHERE h.status = 'ACTIVE'")
+    List<StockHoldSchedule> findActiveSchedules();
+}
@@ -0,0 +1,12 @@
+package com.miempresa.ecommerce.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vencimiento de una reserva activa
+ * @param id ID de la reserva
+ * @param expiresAt Momento de vencimiento
+ *
+ */
+public record StockHoldSchedule(String id, LocalDateTime expiresAt) {
+}
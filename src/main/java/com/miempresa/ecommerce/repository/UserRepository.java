@@ -3,6 +3,7 @@ package com.miempresa.ecommerce.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -52,4 +53,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true si existe, falso en caso contrario
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Versión vigente de los tokens de un usuario, sin cargar la entidad ni sus roles
+     * @param id ID del usuario
+     * @return Optional con la versión
+     */
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findTokenVersionById(@Param("id") Long id);
+
+    /**
+     * Incrementar la versión de los tokens: los emitidos hasta ahora dejan de valer
+     * @param id ID del usuario
+     * @return Cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
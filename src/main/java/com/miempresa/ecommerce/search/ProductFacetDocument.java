@@ -0,0 +1,12 @@
+package com.miempresa.ecommerce.search;
+
+/**
+ * Campos de un producto activo que alimentan el índice de facetas
+ * @param id ID del producto
+ * @param categoryId ID de la categoría (null si no tiene)
+ * @param price Precio
+ * @param stockQuantity Stock disponible
+ *
+ */
+public record ProductFacetDocument(Long id, Long categoryId, Double price, Integer stockQuantity) {
+}
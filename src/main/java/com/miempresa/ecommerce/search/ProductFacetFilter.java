@@ -0,0 +1,19 @@
+package com.miempresa.ecommerce.search;
+
+import java.util.Set;
+
+/**
+ * Filtros de un listado con facetas. Dentro de una misma faceta los valores se
+ * combinan con OR y entre facetas con AND; una faceta vacía o null no filtra
+ * @param categoryIds IDs de categoría
+ * @param priceBands Etiquetas de rango de precio (por ejemplo "25-50" o "500+")
+ * @param inStock true solo con stock, false solo sin stock, null ambos
+ *
+ */
+public record ProductFacetFilter(Set<Long> categoryIds, Set<String> priceBands, Boolean inStock) {
+
+    public ProductFacetFilter {
+        categoryIds = categoryIds != null ? Set.copyOf(categoryIds) : Set.of();
+        priceBands = priceBands != null ? Set.copyOf(priceBands) : Set.of();
+    }
+}
@@ -0,0 +1,255 @@
+package com.miempresa.ecommerce.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.miempresa.ecommerce.exception.BusinessException;
+
+/**
+ * Índice de facetas en memoria sobre los productos activos.
+ *
+ * Cada valor de faceta (categoría, rango de precio, con stock) guarda un bitmap
+ * comprimido con los IDs de los productos que lo tienen: filtrar es intersecar
+ * bitmaps y contar una faceta es la cardinalidad de una intersección, sin tocar la
+ * base de datos. Los conteos de cada faceta ignoran el filtro de esa misma faceta,
+ * para que el cliente pueda ofrecer las demás opciones con su cantidad.
+ *
+ */
+@Component
+public class ProductFacetIndex {
+
+    private final double[] bandBounds;
+    private final String[] bandLabels;
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final RoaringBitmap[] byPriceBand;
+    /** ID del producto -> valores indexados, para moverlo de bitmap al cambiar */
+    private final Map<Integer, IndexedFacets> entries = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param bandBounds Límites entre rangos de precio; n límites forman n + 1 rangos
+     */
+    public ProductFacetIndex(@Value("${search.facets.price-bands:25,50,100,250,500}") double[] bandBounds) {
+        this.bandBounds = bandBounds.clone();
+        Arrays.sort(this.bandBounds);
+
+        int bands = this.bandBounds.length + 1;
+        this.bandLabels = new String[bands];
+        this.byPriceBand = new RoaringBitmap[bands];
+        for (int i = 0; i < bands; i++) {
+            String lower = format(i == 0 ? 0 : this.bandBounds[i - 1]);
+            bandLabels[i] = i < this.bandBounds.length ? lower + "-" + format(this.bandBounds[i]) : lower + "+";
+            byPriceBand[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * Indexar o reindexar un producto activo
+     * @param document Datos del producto
+     */
+    public void index(ProductFacetDocument document) {
+        int key = key(document.id());
+        IndexedFacets facets = new IndexedFacets(document.categoryId(), band(document.price()),
+                document.stockQuantity() != null && document.stockQuantity() > 0);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+            all.add(key);
+            if (facets.categoryId() != null) {
+                byCategory.computeIfAbsent(facets.categoryId(), id -> new RoaringBitmap()).add(key);
+            }
+            byPriceBand[facets.band()].add(key);
+            if (facets.inStock()) {
+                inStock.add(key);
+            }
+            entries.put(key, facets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quitar un producto del índice
+     * @param productId ID del producto
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filtrar productos y contar las facetas del resultado
+     * @param filter Filtros por faceta
+     * @param offset Posición del primer resultado
+     * @param limit Cantidad máxima de resultados
+     * @return Total, IDs de la página en orden de ID y conteos por faceta
+     */
+    public FacetResult query(ProductFacetFilter filter, long offset, int limit) {
+        int[] bands = filter.priceBands().stream().mapToInt(this::bandOf).toArray();
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categoryMask = filter.categoryIds().isEmpty() ? null
+                    : RoaringBitmap.or(filter.categoryIds().stream()
+                            .map(id -> byCategory.getOrDefault(id, new RoaringBitmap()))
+                            .iterator());
+            RoaringBitmap bandMask = bands.length == 0 ? null
+                    : RoaringBitmap.or(Arrays.stream(bands).mapToObj(band -> byPriceBand[band]).iterator());
+            RoaringBitmap stockMask = filter.inStock() == null ? null
+                    : filter.inStock() ? inStock : RoaringBitmap.andNot(all, inStock);
+
+            RoaringBitmap matches = intersect(categoryMask, bandMask, stockMask);
+
+            RoaringBitmap withoutCategory = intersect(bandMask, stockMask);
+            Map<Long, Long> categoryCounts = new HashMap<>();
+            byCategory.forEach((categoryId, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(withoutCategory, bitmap);
+                if (count > 0) {
+                    categoryCounts.put(categoryId, count);
+                }
+            });
+
+            RoaringBitmap withoutBand = intersect(categoryMask, stockMask);
+            Map<String, Long> priceBandCounts = new LinkedHashMap<>();
+            for (int i = 0; i < byPriceBand.length; i++) {
+                priceBandCounts.put(bandLabels[i], (long) RoaringBitmap.andCardinality(withoutBand, byPriceBand[i]));
+            }
+
+            RoaringBitmap withoutStock = intersect(categoryMask, bandMask);
+            long inStockCount = RoaringBitmap.andCardinality(withoutStock, inStock);
+
+            return new FacetResult(matches.getLongCardinality(), page(matches, offset, limit), categoryCounts,
+                    priceBandCounts, inStockCount, withoutStock.getLongCardinality() - inStockCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Etiquetas de los rangos de precio, de menor a mayor
+     * @return Etiquetas aceptadas como filtro
+     */
+    public List<String> getPriceBands() {
+        return List.of(bandLabels);
+    }
+
+    /**
+     * Cantidad de productos indexados
+     * @return Número de productos
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return all.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap intersect(RoaringBitmap... masks) {
+        RoaringBitmap result = all;
+        for (RoaringBitmap mask : masks) {
+            if (mask != null) {
+                result = RoaringBitmap.and(result, mask);
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> page(RoaringBitmap matches, long offset, int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (offset >= matches.getLongCardinality()) {
+            return ids;
+        }
+        // select salta directo a la posición sin recorrer los IDs anteriores
+        PeekableIntIterator iterator = matches.getIntIterator();
+        iterator.advanceIfNeeded(matches.select((int) offset));
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    private void removeInternal(int key) {
+        IndexedFacets previous = entries.remove(key);
+        if (previous == null) {
+            return;
+        }
+        all.remove(key);
+        inStock.remove(key);
+        byPriceBand[previous.band()].remove(key);
+        if (previous.categoryId() != null) {
+            RoaringBitmap bitmap = byCategory.get(previous.categoryId());
+            bitmap.remove(key);
+            if (bitmap.isEmpty()) {
+                byCategory.remove(previous.categoryId());
+            }
+        }
+    }
+
+    private int band(Double price) {
+        if (price == null) {
+            return 0;
+        }
+        int band = 0;
+        while (band < bandBounds.length && price >= bandBounds[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private int bandOf(String label) {
+        for (int i = 0; i < bandLabels.length; i++) {
+            if (bandLabels[i].equals(label)) {
+                return i;
+            }
+        }
+        throw new BusinessException("INVALID_PRICE_BAND", "Rango de precio no soportado: " + label);
+    }
+
+    private static int key(Long productId) {
+        // Los bitmaps trabajan con enteros de 32 bits
+        return Math.toIntExact(productId);
+    }
+
+    private static String format(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private record IndexedFacets(Long categoryId, int band, boolean inStock) {
+    }
+
+    /**
+     * Resultado de un listado con facetas
+     * @param totalHits Total de productos que cumplen todos los filtros
+     * @param productIds IDs de la página solicitada, en orden de ID
+     * @param categoryCounts Productos por categoría (sin aplicar el filtro de categoría)
+     * @param priceBandCounts Productos por rango de precio (sin aplicar el filtro de precio)
+     * @param inStockCount Productos con stock (sin aplicar el filtro de stock)
+     * @param outOfStockCount Productos sin stock (sin aplicar el filtro de stock)
+     */
+    public record FacetResult(long totalHits, List<Long> productIds, Map<Long, Long> categoryCounts,
+                              Map<String, Long> priceBandCounts, long inStockCount, long outOfStockCount) {
+    }
+}
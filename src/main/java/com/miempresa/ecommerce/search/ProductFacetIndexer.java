@@ -0,0 +1,133 @@
+package com.miempresa.ecommerce.search;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductsCreatedEvent;
+import com.miempresa.ecommerce.event.StockLevelsPersistedEvent;
+import com.miempresa.ecommerce.inventory.StockLevel;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Mantiene el {@link ProductFacetIndex} sincronizado con la base de datos: carga
+ * inicial en segundo plano al arrancar y actualización incremental tras cada commit.
+ * Los cambios de stock llegan por lote desde la escritura diferida del inventario y
+ * se reindexan con una sola consulta por lote; STOCK_UPDATED se ignora porque la
+ * escritura diferida lo publica además por cada producto del lote
+ *
+ */
+@Component
+public class ProductFacetIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndexer.class);
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${search.index.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private volatile boolean ready;
+
+    // Productos modificados mientras corre la carga inicial: la carga no debe pisarlos
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::loadAll, "product-facet-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Indica si la carga inicial terminó y el índice puede responder
+     * @return true si el índice está listo
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_UPDATED) {
+            return;
+        }
+        if (!ready) {
+            touchedDuringLoad.add(event.getProductId());
+        }
+
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            facetIndex.remove(event.getProductId());
+            return;
+        }
+        productRepository.findFacetDocument(event.getProductId())
+                .ifPresentOrElse(facetIndex::index, () -> facetIndex.remove(event.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        if (!ready) {
+            touchedDuringLoad.addAll(event.getProductIds());
+        }
+        productRepository.findFacetDocuments(event.getProductIds()).forEach(facetIndex::index);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelsPersisted(StockLevelsPersistedEvent event) {
+        Set<Long> productIds = event.getLevels().stream().map(StockLevel::productId).collect(Collectors.toSet());
+        if (!ready) {
+            touchedDuringLoad.addAll(productIds);
+        }
+
+        // Los que no vuelven están inactivos o borrados
+        Set<Long> stale = new HashSet<>(productIds);
+        for (ProductFacetDocument document : productRepository.findFacetDocuments(productIds)) {
+            facetIndex.index(document);
+            stale.remove(document.id());
+        }
+        stale.forEach(facetIndex::remove);
+    }
+
+    void loadAll() {
+        long start = System.currentTimeMillis();
+        try {
+            Long lastId = 0L;
+            List<ProductFacetDocument> batch;
+            do {
+                batch = productRepository.findFacetDocumentsAfter(lastId, PageRequest.of(0, loadBatchSize));
+                for (ProductFacetDocument document : batch) {
+                    if (!touchedDuringLoad.contains(document.id())) {
+                        facetIndex.index(document);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == loadBatchSize);
+
+            ready = true;
+            touchedDuringLoad.clear();
+            logger.info("Índice de facetas cargado: {} productos en {} ms",
+                    facetIndex.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo cargar el índice de facetas; el listado con facetas no estará disponible", ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.miempresa.ecommerce.search;
+
+/**
+ * Campos de un producto que alimentan el índice de búsqueda
+ * @param id ID del producto
+ * @param name Nombre
+ * @param description Descripción
+ *
+ */
+public record ProductSearchDocument(Long id, String name, String description) {
+}
@@ -0,0 +1,246 @@
+package com.miempresa.ecommerce.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice invertido en memoria sobre nombre y descripción de los productos activos.
+ *
+ * Cada término apunta a los productos que lo contienen junto con su frecuencia en
+ * cada campo; los resultados se ordenan por relevancia con BM25F (el nombre pesa
+ * más que la descripción). Las altas, cambios y bajas se aplican por producto, sin
+ * reconstruir el índice.
+ *
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    /** término -> (productId -> frecuencias empaquetadas: nombre en los 16 bits altos) */
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexar o reindexar un producto
+     * @param document Datos indexables del producto
+     */
+    public void index(ProductSearchDocument document) {
+        List<String> nameTerms = SpanishAnalyzer.analyze(document.name());
+        List<String> descriptionTerms = SpanishAnalyzer.analyze(document.description());
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        nameTerms.forEach(term -> frequencies.merge(term, 1 << 16, Integer::sum));
+        descriptionTerms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.id());
+            frequencies.forEach((term, packed) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.id(), packed));
+            documents.put(document.id(), new IndexedDocument(
+                    frequencies.keySet().toArray(new String[0]), nameTerms.size(), descriptionTerms.size()));
+            totalNameLength += nameTerms.size();
+            totalDescriptionLength += descriptionTerms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quitar un producto del índice
+     * @param productId ID del producto
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Buscar productos que contengan todos los términos de la consulta
+     * @param query Texto de búsqueda
+     * @param offset Posición del primer resultado
+     * @param limit Cantidad máxima de resultados
+     * @return Resultado con el total de coincidencias y los IDs de la página, por relevancia
+     */
+    public SearchResult search(String query, long offset, int limit) {
+        long keep = offset + limit;
+        PriorityQueue<ScoredId> top = new PriorityQueue<>(ScoredId.WORST_FIRST);
+        long total = forEachMatch(query, (productId, score) -> {
+            ScoredId candidate = new ScoredId(productId, score);
+            if (top.size() < keep) {
+                top.add(candidate);
+            } else if (keep > 0 && ScoredId.WORST_FIRST.compare(candidate, top.peek()) > 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        });
+
+        List<Long> page = best(top).stream()
+                .skip(offset)
+                .map(ScoredId::productId)
+                .toList();
+        return new SearchResult(total, page);
+    }
+
+    /**
+     * Buscar la página siguiente a una posición (relevancia, ID) ya entregada,
+     * sin volver a ordenar los resultados anteriores
+     * @param query Texto de búsqueda
+     * @param afterScore Relevancia del último resultado entregado (null en la primera página)
+     * @param afterId ID del último resultado entregado (null en la primera página)
+     * @param limit Cantidad máxima de resultados
+     * @return Resultados de la página, por relevancia
+     */
+    public List<ScoredId> searchAfter(String query, Double afterScore, Long afterId, int limit) {
+        ScoredId after = afterId != null ? new ScoredId(afterId, afterScore) : null;
+        PriorityQueue<ScoredId> top = new PriorityQueue<>(ScoredId.WORST_FIRST);
+        forEachMatch(query, (productId, score) -> {
+            ScoredId candidate = new ScoredId(productId, score);
+            if (after != null && ScoredId.WORST_FIRST.compare(candidate, after) >= 0) {
+                return;
+            }
+            if (top.size() < limit) {
+                top.add(candidate);
+            } else if (ScoredId.WORST_FIRST.compare(candidate, top.peek()) > 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        });
+        return best(top);
+    }
+
+    private long forEachMatch(String query, MatchConsumer consumer) {
+        Set<String> terms = new LinkedHashSet<>(SpanishAnalyzer.analyze(query));
+        if (terms.isEmpty()) {
+            return 0;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> termPostings = new ArrayList<>();
+            for (String term : terms) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list == null) {
+                    return 0;
+                }
+                termPostings.add(list);
+            }
+            // Recorrer la lista más corta y comprobar el resto
+            termPostings.sort(Comparator.comparingInt(Map::size));
+
+            int docCount = documents.size();
+            double avgName = Math.max(1.0, (double) totalNameLength / docCount);
+            double avgDescription = Math.max(1.0, (double) totalDescriptionLength / docCount);
+            double[] idf = termPostings.stream()
+                    .mapToDouble(list -> Math.log(1 + (docCount - list.size() + 0.5) / (list.size() + 0.5)))
+                    .toArray();
+
+            long total = 0;
+            candidates:
+            for (Long productId : termPostings.get(0).keySet()) {
+                IndexedDocument document = documents.get(productId);
+                double score = 0;
+                for (int i = 0; i < termPostings.size(); i++) {
+                    Integer packed = termPostings.get(i).get(productId);
+                    if (packed == null) {
+                        continue candidates;
+                    }
+                    double tf = NAME_WEIGHT * (packed >>> 16) / (1 - B + B * document.nameLength() / avgName)
+                            + DESCRIPTION_WEIGHT * (packed & 0xFFFF) / (1 - B + B * document.descriptionLength() / avgDescription);
+                    score += idf[i] * tf / (K1 + tf);
+                }
+                total++;
+                consumer.accept(productId, score);
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<ScoredId> best(PriorityQueue<ScoredId> top) {
+        List<ScoredId> ranked = new ArrayList<>(top);
+        ranked.sort(ScoredId.WORST_FIRST.reversed());
+        return ranked;
+    }
+
+    /**
+     * Cantidad de productos indexados
+     * @return Número de documentos
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long productId) {
+        IndexedDocument previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(productId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalNameLength -= previous.nameLength();
+        totalDescriptionLength -= previous.descriptionLength();
+    }
+
+    /**
+     * Resultado de una búsqueda
+     * @param totalHits Total de productos que coinciden
+     * @param productIds IDs de la página solicitada, ordenados por relevancia
+     */
+    public record SearchResult(long totalHits, List<Long> productIds) {
+    }
+
+    private record IndexedDocument(String[] terms, int nameLength, int descriptionLength) {
+    }
+
+    @FunctionalInterface
+    private interface MatchConsumer {
+        void accept(Long productId, double score);
+    }
+
+    /**
+     * Producto encontrado con su relevancia
+     * @param productId ID del producto
+     * @param score Relevancia (BM25F)
+     */
+    public record ScoredId(Long productId, double score) {
+        /** Menor relevancia primero; a igual relevancia, el ID mayor es "peor" */
+        static final Comparator<ScoredId> WORST_FIRST = Comparator.comparingDouble(ScoredId::score)
+                .thenComparing(ScoredId::productId, Comparator.reverseOrder());
+    }
+}
@@ -0,0 +1,110 @@
+package com.miempresa.ecommerce.search;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductsCreatedEvent;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Mantiene el {@link ProductSearchIndex} sincronizado con la base de datos: carga
+ * inicial en segundo plano al arrancar y actualización incremental tras cada commit
+ *
+ */
+@Component
+public class ProductSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexer.class);
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${search.index.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    private volatile boolean ready;
+
+    // Productos modificados mientras corre la carga inicial: la carga no debe pisarlos
+    private final Set<Long> touchedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::loadAll, "product-search-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Indica si la carga inicial terminó y el índice puede responder búsquedas
+     * @return true si el índice está listo
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.ChangeType.STOCK_UPDATED) {
+            return;
+        }
+        if (!ready) {
+            touchedDuringLoad.add(event.getProductId());
+        }
+
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED) {
+            searchIndex.remove(event.getProductId());
+            return;
+        }
+        productRepository.findSearchDocument(event.getProductId())
+                .ifPresentOrElse(searchIndex::index, () -> searchIndex.remove(event.getProductId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        if (!ready) {
+            touchedDuringLoad.addAll(event.getProductIds());
+        }
+        productRepository.findSearchDocuments(event.getProductIds()).forEach(searchIndex::index);
+    }
+
+    void loadAll() {
+        long start = System.currentTimeMillis();
+        try {
+            Long lastId = 0L;
+            List<ProductSearchDocument> batch;
+            do {
+                batch = productRepository.findSearchDocumentsAfter(lastId, PageRequest.of(0, loadBatchSize));
+                for (ProductSearchDocument document : batch) {
+                    if (!touchedDuringLoad.contains(document.id())) {
+                        searchIndex.index(document);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == loadBatchSize);
+
+            ready = true;
+            touchedDuringLoad.clear();
+            logger.info("Índice de búsqueda cargado: {} productos en {} ms",
+                    searchIndex.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException ex) {
+            logger.error("No se pudo cargar el índice de búsqueda; se seguirá usando la consulta SQL", ex);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.miempresa.ecommerce.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Analizador de texto en español para el índice de búsqueda: minúsculas, plegado
+ * de acentos, eliminación de palabras vacías y stemming ligero
+ *
+ */
+public final class SpanishAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "es", "la", "las", "lo", "los",
+            "o", "para", "por", "que", "se", "sin", "su", "sus", "un", "una", "unos",
+            "unas", "y", "e", "u", "mas", "muy", "sobre", "entre", "como");
+
+    /** Longitud mínima de la raíz que deja el stemmer */
+    private static final int MIN_STEM_LENGTH = 2;
+
+    private SpanishAnalyzer() {
+        throw new UnsupportedOperationException("Esta es una clase de utilidad y no se puede instanciar");
+    }
+
+    /**
+     * Convertir un texto en la lista de términos indexables (con repeticiones)
+     * @param text Texto libre
+     * @return Lista de términos normalizados
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+
+        for (String token : NON_ALPHANUMERIC.split(fold(text))) {
+            if (token.isEmpty() || STOPWORDS.contains(token)) {
+                continue;
+            }
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    /**
+     * Pasar a minúsculas y eliminar diacríticos ("Canción" -> "cancion")
+     * @param text Texto
+     * @return Texto plegado
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * Stemmer ligero para español (plurales y género), basado en el algoritmo
+     * "light" de J. Savoy. Las reglas se aplican igual a cualquier longitud para
+     * que singular y plural compartan raíz ("mesa"/"mesas"); solo se descarta un
+     * recorte que dejaría menos de {@value #MIN_STEM_LENGTH} caracteres ("mes", "dos")
+     * @param term Término plegado
+     * @return Raíz del término
+     */
+    static String stem(String term) {
+        int len = term.length();
+        if (len <= MIN_STEM_LENGTH || Character.isDigit(term.charAt(len - 1))) {
+            return term;
+        }
+
+        char last = term.charAt(len - 1);
+        switch (last) {
+            case 'o':
+            case 'a':
+            case 'e':
+                return term.substring(0, len - 1);
+            case 's':
+                if (term.endsWith("eses") && len - 2 >= MIN_STEM_LENGTH) {
+                    return term.substring(0, len - 2);
+                }
+                if (term.endsWith("ces") && len - 3 >= MIN_STEM_LENGTH) {
+                    return term.substring(0, len - 3) + "z";
+                }
+                char previous = term.charAt(len - 2);
+                if ((previous == 'o' || previous == 'a' || previous == 'e') && len - 2 >= MIN_STEM_LENGTH) {
+                    return term.substring(0, len - 2);
+                }
+                return term;
+            default:
+                return term;
+        }
+    }
+}
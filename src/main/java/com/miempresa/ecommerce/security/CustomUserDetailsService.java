@@ -56,11 +56,20 @@ public class CustomUserDetailsService implements UserDetailsService {
         private boolean accountNonExpired;
         private boolean accountNonLocked;
         private boolean credentialsNonExpired;
+        private long tokenVersion;
 
         public UserPrincipal(Long id, String username, String email, String password,
                            Collection<? extends GrantedAuthority> authorities,
                            boolean enabled, boolean accountNonExpired,
                            boolean accountNonLocked, boolean credentialsNonExpired) {
+            this(id, username, email, password, authorities, enabled, accountNonExpired, accountNonLocked,
+                    credentialsNonExpired, 0L);
+        }
+
+        public UserPrincipal(Long id, String username, String email, String password,
+                           Collection<? extends GrantedAuthority> authorities,
+                           boolean enabled, boolean accountNonExpired,
+                           boolean accountNonLocked, boolean credentialsNonExpired, long tokenVersion) {
             this.id = id;
             this.username = username;
             this.email = email;
@@ -70,6 +79,7 @@ public class CustomUserDetailsService implements UserDetailsService {
             this.accountNonExpired = accountNonExpired;
             this.accountNonLocked = accountNonLocked;
             this.credentialsNonExpired = credentialsNonExpired;
+            this.tokenVersion = tokenVersion;
         }
 
         public static UserPrincipal create(User user) {
@@ -84,7 +94,34 @@ public class CustomUserDetailsService implements UserDetailsService {
                     user.getEnabled(),
                     user.getAccountNonExpired(),
                     user.getAccountNonLocked(),
-                    user.getCredentialsNonExpired()
+                    user.getCredentialsNonExpired(),
+                    user.getTokenVersion() != null ? user.getTokenVersion() : 0L
+            );
+        }
+
+        /**
+         * Principal armado con las claims de un token ya verificado, sin consultar la base
+         * de datos. No lleva contraseña ni email; los estados de la cuenta se dan por
+         * vigentes porque deshabilitar o bloquear a un usuario debe revocar sus tokens
+         * @param id ID del usuario
+         * @param username Nombre de usuario
+         * @param authorities Autoridades (ROLE_...)
+         * @param tokenVersion Versión de tokens con la que se emitió
+         * @return Principal
+         */
+        public static UserPrincipal fromClaims(Long id, String username, Collection<String> authorities,
+                                               long tokenVersion) {
+            return new UserPrincipal(
+                    id,
+                    username,
+                    null,
+                    null,
+                    authorities.stream().map(SimpleGrantedAuthority::new).toList(),
+                    true,
+                    true,
+                    true,
+                    true,
+                    tokenVersion
             );
         }
 
@@ -97,6 +134,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         // Getters
         public Long getId() { return id; }
         public String getEmail() { return email; }
+        public long getTokenVersion() { return tokenVersion; }
 
         @Override
         public String getUsername() { return username; }
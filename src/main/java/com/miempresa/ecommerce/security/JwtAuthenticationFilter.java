@@ -1,6 +1,7 @@
 package com.miempresa.ecommerce.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,12 +9,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.miempresa.ecommerce.security.CustomUserDetailsService.UserPrincipal;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +23,9 @@ import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Filtro de autenticación JWT (JWT Authentication Filter)
+ *
+ * El principal se arma con las claims del token verificado; la única comprobación
+ * contra el estado del usuario es la versión de tokens, servida desde memoria
  * 
  */
 @Component
@@ -32,7 +37,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private TokenVersionCache tokenVersionCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
@@ -42,15 +47,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (StringUtils.hasText(jwt)) {
+                Optional<UserPrincipal> principal = jwtUtil.getPrincipalFromToken(jwt);
+                if (principal.isPresent()
+                        && tokenVersionCache.isCurrent(principal.get().getId(), principal.get().getTokenVersion())) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(principal.get(), null, principal.get().getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else if (principal.isPresent()) {
+                    log.debug("Token revocado del usuario {}", principal.get().getId());
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
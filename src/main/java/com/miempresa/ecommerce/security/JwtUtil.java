@@ -2,7 +2,9 @@ package com.miempresa.ecommerce.security;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
@@ -10,9 +12,12 @@ import javax.crypto.SecretKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.miempresa.ecommerce.security.CustomUserDetailsService.UserPrincipal;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
@@ -29,6 +34,11 @@ public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    /** Claims con las que se arma el principal sin consultar la base de datos */
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -39,12 +49,18 @@ public class JwtUtil {
     private String jwtIssuer;
 
     /**
-     * Generar JWT token for user
+     * Generar JWT token for user. Lleva las autoridades y, si es un {@link UserPrincipal},
+     * el ID del usuario y su versión de tokens
      * @param userDetails User details
      * @return JWT token
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        if (userDetails instanceof UserPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+            claims.put(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -87,6 +103,26 @@ public class JwtUtil {
         return getClaimFromToken(token, Claims::getSubject);
     }
 
+    /**
+     * Armar el principal con las claims de un token, verificando firma y vencimiento
+     * una sola vez y sin consultar la base de datos
+     * @param token JWT token
+     * @return Principal, o vacío si el token no es válido o no lleva el ID de usuario
+     */
+    public Optional<UserPrincipal> getPrincipalFromToken(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null || claims.get(CLAIM_USER_ID) == null) {
+            return Optional.empty();
+        }
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return Optional.of(UserPrincipal.fromClaims(
+                ((Number) claims.get(CLAIM_USER_ID)).longValue(),
+                claims.getSubject(),
+                roles != null ? roles.stream().map(Object::toString).toList() : List.of(),
+                tokenVersion != null ? tokenVersion.longValue() : 0L));
+    }
+
     /**
      * Obtener la fecha de vencimiento del token JWT
      * @param token JWT token
@@ -148,23 +184,28 @@ public class JwtUtil {
      * @return verdadero si es válido, falso en caso contrario
      */
     public Boolean validateToken(String token) {
+        return parseClaims(token) != null;
+    }
+
+    /**
+     * Verificar el token y leer sus claims
+     * @param token JWT token
+     * @return Claims, o null si el token no es válido
+     */
+    private Claims parseClaims(String token) {
         try {
-            Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token);
-        return true;
-    } catch (MalformedJwtException e) {
-        logger.error("Invalid JWT token: {}", e.getMessage());
-    } catch (ExpiredJwtException e) {
-        logger.error("JWT token is expired: {}", e.getMessage());
-    } catch (UnsupportedJwtException e) {
-        logger.error("JWT token is unsupported: {}", e.getMessage());
-    } catch (IllegalArgumentException e) {
-        logger.error("JWT claims string is empty: {}", e.getMessage());
+            return getAllClaimsFromToken(token);
+        } catch (MalformedJwtException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            logger.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.error("JWT claims string is empty: {}", e.getMessage());
+        }
+        return null;
     }
-    return false;
-}
 
     /**
      * Obtener la clave de firma para JWT
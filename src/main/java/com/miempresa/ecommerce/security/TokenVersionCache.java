@@ -0,0 +1,58 @@
+package com.miempresa.ecommerce.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miempresa.ecommerce.event.UserTokensRevokedEvent;
+import com.miempresa.ecommerce.repository.UserRepository;
+
+/**
+ * Versión vigente de los tokens por usuario, para revocar tokens sin buscar al usuario
+ * en cada solicitud.
+ *
+ * Un token vale si su claim de versión coincide con users.token_version. Un fallo lee
+ * solo esa columna; un usuario inexistente también se guarda, para que un token de un
+ * usuario borrado no consulte en cada solicitud. Las revocaciones confirmadas en esta
+ * instancia invalidan la entrada; las de otras instancias se ven a más tardar al vencer
+ * el TTL.
+ *
+ */
+@Component
+public class TokenVersionCache {
+
+    // Ningún token lleva una versión negativa
+    private static final long NO_USER = -1L;
+
+    private final Cache<Long, Long> versions;
+    private final UserRepository userRepository;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${security.token-version.maximum-size:100000}") long maximumSize,
+                             @Value("${security.token-version.ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Si un token emitido con una versión sigue vigente
+     * @param userId ID del usuario
+     * @param tokenVersion Versión del token
+     * @return true si es la versión actual del usuario
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        return versions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(NO_USER)) == tokenVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserTokensRevoked(UserTokensRevokedEvent event) {
+        versions.invalidate(event.getUserId());
+    }
+}
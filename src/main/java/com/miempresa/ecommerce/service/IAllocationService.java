@@ -0,0 +1,29 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.List;
+
+import com.miempresa.ecommerce.dto.request.OrderAllocationRequestDTO;
+import com.miempresa.ecommerce.dto.response.BatchAllocationResultDTO;
+import com.miempresa.ecommerce.dto.response.OrderAllocationResultDTO;
+
+/**
+ * Interfaz de servicio para asignar pedidos a depósitos
+ *
+ */
+public interface IAllocationService {
+
+    /**
+     * Asignar un pedido al menor número de depósitos y reservar sus unidades
+     * @param request Líneas del pedido
+     * @return Envíos por depósito
+     */
+    OrderAllocationResultDTO allocate(OrderAllocationRequestDTO request);
+
+    /**
+     * Asignar un lote de pedidos en orden de llegada; un pedido que no se puede
+     * asignar no detiene a los demás
+     * @param requests Pedidos del lote
+     * @return Resultado de cada pedido
+     */
+    BatchAllocationResultDTO allocateBatch(List<OrderAllocationRequestDTO> requests);
+}
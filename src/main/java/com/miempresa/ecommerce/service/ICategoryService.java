@@ -0,0 +1,62 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.List;
+
+import com.miempresa.ecommerce.dto.request.CategoryCreateRequestDTO;
+import com.miempresa.ecommerce.dto.response.CategoryResponseDTO;
+import com.miempresa.ecommerce.dto.response.CategoryTreeNodeDTO;
+
+/**
+ * Interfaz de servicio para operaciones de categorías
+ *
+ */
+public interface ICategoryService {
+
+    /**
+     * Obtener el árbol completo de categorías activas desde memoria
+     * @return Categorías raíz con sus subcategorías anidadas
+     */
+    List<CategoryTreeNodeDTO> getCategoryTree();
+
+    /**
+     * Obtener categoría por ID
+     * @param id ID de la categoría
+     * @return Respuesta de la categoría con sus hijos directos
+     */
+    CategoryResponseDTO getCategoryById(Long id);
+
+    /**
+     * Obtener categoría por slug
+     * @param slug Slug de la categoría
+     * @return Respuesta de la categoría con sus hijos directos
+     */
+    CategoryResponseDTO getCategoryBySlug(String slug);
+
+    /**
+     * Crear una nueva categoría
+     * @param request Solicitud de creación
+     * @return Respuesta de la categoría creada
+     */
+    CategoryResponseDTO createCategory(CategoryCreateRequestDTO request);
+
+    /**
+     * Modificar una categoría; parentId null la convierte en raíz
+     * @param id ID de la categoría
+     * @param request Datos completos de la categoría
+     * @return Respuesta de la categoría modificada
+     */
+    CategoryResponseDTO updateCategory(Long id, CategoryCreateRequestDTO request);
+
+    /**
+     * Eliminar una categoría (eliminación lógica); no debe tener subcategorías activas
+     * @param id ID de la categoría
+     */
+    void deleteCategory(Long id);
+
+    /**
+     * Reconstruir desde categories.parent_id la tabla de clausura (pares
+     * ancestro-descendiente) que usan las consultas de productos por subárbol
+     * @return Cantidad de filas de la tabla
+     */
+    int rebuildClosure();
+}
@@ -0,0 +1,98 @@
+package com.miempresa.ecommerce.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.miempresa.ecommerce.dto.response.HotSkuResponseDTO;
+import com.miempresa.ecommerce.dto.response.LedgerVerificationResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockLevelResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockMovementDTO;
+import com.miempresa.ecommerce.dto.response.StockReconciliationResponseDTO;
+
+/**
+ * Interfaz de servicio para reservas de inventario en memoria
+ *
+ */
+public interface IInventoryService {
+
+    /**
+     * Obtener las existencias de un producto en un depósito
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @return Existencias actuales
+     */
+    StockLevelResponseDTO getStock(Long productId, Long depositoId);
+
+    /**
+     * Reservar unidades
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a reservar
+     * @return Existencias después de la reserva
+     */
+    StockLevelResponseDTO reserve(Long productId, Long depositoId, Integer quantity);
+
+    /**
+     * Liberar unidades reservadas
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a liberar
+     * @return Existencias después de liberar
+     */
+    StockLevelResponseDTO release(Long productId, Long depositoId, Integer quantity);
+
+    /**
+     * Confirmar unidades reservadas (venta)
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a confirmar
+     * @return Existencias después de confirmar
+     */
+    StockLevelResponseDTO commit(Long productId, Long depositoId, Integer quantity);
+
+    /**
+     * Versión de stock de un producto después de sus operaciones en memoria
+     * @param productId ID del producto
+     * @return Versión de stock, para leer el disponible con versión mínima
+     */
+    long stockVersion(Long productId);
+
+    /**
+     * Conciliar los totales de stock de los productos con la suma por depósito
+     * @return Resumen con la cantidad de productos corregidos
+     */
+    StockReconciliationResponseDTO reconcileTotals();
+
+    /**
+     * Movimientos de stock de un producto en un rango de tiempo
+     * @param productId ID del producto
+     * @param from Desde (inclusive); null sin límite
+     * @param to Hasta (inclusive); null sin límite
+     * @param limit Cantidad máxima de movimientos
+     * @return Movimientos en orden de secuencia
+     */
+    List<StockMovementDTO> getMovements(Long productId, LocalDateTime from, LocalDateTime to, Integer limit);
+
+    /**
+     * Reconstruir product_stocks desde el registro de movimientos y compararlo con la
+     * base de datos
+     * @return Resumen con las filas que no coinciden
+     */
+    LedgerVerificationResponseDTO verifyLedger();
+
+    /**
+     * Activar el modo SKU caliente: el stock del producto en cada depósito se reparte en
+     * sub-buckets en memoria
+     * @param productId ID del producto
+     * @param shards Sub-buckets por fila; null para el valor configurado
+     * @return Estado del modo
+     */
+    HotSkuResponseDTO enableHotMode(Long productId, Integer shards);
+
+    /**
+     * Desactivar el modo SKU caliente
+     * @param productId ID del producto
+     * @return Estado del modo
+     */
+    HotSkuResponseDTO disableHotMode(Long productId);
+}
@@ -0,0 +1,22 @@
+package com.miempresa.ecommerce.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Interfaz de servicio para las notificaciones de stock bajo
+ *
+ */
+public interface ILowStockService {
+
+    /**
+     * Suscribirse a los cruces del stock mínimo
+     * @return Emisor de Server-Sent Events
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Cantidad de suscriptores conectados
+     * @return Número de suscriptores
+     */
+    int subscribers();
+}
@@ -0,0 +1,22 @@
+package com.miempresa.ecommerce.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interfaz de servicio para la exportación masiva del catálogo
+ *
+ */
+public interface IProductExportService {
+
+    /**
+     * Escribir todos los productos activos en orden de ID, fila a fila, sin cargar el
+     * catálogo en memoria
+     * @param format Formato de salida
+     * @param afterId Último ID recibido en una exportación anterior (null para empezar)
+     * @param out Destino; no se cierra
+     * @return Cantidad de productos escritos
+     * @throws IOException Si falla la escritura (p. ej. el cliente cortó la conexión)
+     */
+    long exportActiveProducts(ProductExportFormat format, Long afterId, OutputStream out) throws IOException;
+}
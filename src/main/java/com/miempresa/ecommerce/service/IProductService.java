@@ -1,5 +1,6 @@
 package com.miempresa.ecommerce.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -7,7 +8,14 @@ import org.springframework.data.domain.Pageable;
 
 import com.miempresa.ecommerce.dto.request.ProductCreateRequestDTO;
 import com.miempresa.ecommerce.dto.request.ProductUpdateRequestDTO;
+import com.miempresa.ecommerce.dto.response.BulkProductResultDTO;
+import com.miempresa.ecommerce.dto.response.CursorPageResponseDTO;
+import com.miempresa.ecommerce.dto.response.FacetedPageResponseDTO;
 import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.dto.response.SliceResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockAvailabilityResponseDTO;
+import com.miempresa.ecommerce.repository.ProductListingVersion;
+import com.miempresa.ecommerce.search.ProductFacetFilter;
 
 /**
  * Interfaz de servicio para la lógica de negocio del producto
@@ -22,6 +30,14 @@ public interface IProductService {
      */
     ProductResponseDTO createProduct(ProductCreateRequestDTO productRequest);
 
+    /**
+     * Crear productos en bloque. Cada lote se guarda en su propia transacción con
+     * inserciones JDBC agrupadas; un elemento inválido no impide crear los demás
+     * @param productRequests Solicitudes de creación
+     * @return Resultado por elemento
+     */
+    BulkProductResultDTO createProducts(List<ProductCreateRequestDTO> productRequests);
+
     /**
      * Obtener producto por ID
      * @param id ID del producto
@@ -46,10 +62,11 @@ public interface IProductService {
     /**
      * Obtener productos por categoría con paginación
      * @param category Categoría del producto
+     * @param includeSubcategories Incluir los productos de todas las subcategorías
      * @param pageable Información de paginación
      * @return Page de respuestas del producto
      */
-    Page<ProductResponseDTO> getProductsByCategory(String category, Pageable pageable);
+    Page<ProductResponseDTO> getProductsByCategory(String category, boolean includeSubcategories, Pageable pageable);
 
     /**
      * Buscar productos por keyword 
@@ -59,6 +76,90 @@ public interface IProductService {
      */
     Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable);
 
+    /**
+     * Obtener productos activos paginados por cursor (keyset, sin OFFSET)
+     * @param cursor Token de la página anterior (vacío o null para la primera)
+     * @param size Tamaño de página
+     * @param sortBy Campo de ordenación (se ignora si viene en el cursor)
+     * @param sortDir Dirección de ordenación (se ignora si viene en el cursor)
+     * @return Página con el token de la siguiente
+     */
+    CursorPageResponseDTO<ProductResponseDTO> getAllActiveProductsByCursor(String cursor, int size, String sortBy, String sortDir);
+
+    /**
+     * Obtener productos por categoría paginados por cursor
+     * @param category Categoría del producto
+     * @param cursor Token de la página anterior (vacío o null para la primera)
+     * @param size Tamaño de página
+     * @param sortBy Campo de ordenación (se ignora si viene en el cursor)
+     * @param sortDir Dirección de ordenación (se ignora si viene en el cursor)
+     * @return Página con el token de la siguiente
+     */
+    CursorPageResponseDTO<ProductResponseDTO> getProductsByCategoryByCursor(String category, String cursor, int size,
+                                                                           String sortBy, String sortDir);
+
+    /**
+     * Buscar productos por keyword paginados por cursor, ordenados por relevancia
+     * @param keyword Buscar keyword
+     * @param cursor Token de la página anterior (vacío o null para la primera)
+     * @param size Tamaño de página
+     * @return Página con el token de la siguiente
+     */
+    CursorPageResponseDTO<ProductResponseDTO> searchProductsByCursor(String keyword, String cursor, int size);
+
+    /**
+     * Obtener productos activos sin conteo exacto (Slice), con total aproximado en caché
+     * @param pageable Información de paginación
+     * @return Slice de respuestas del producto
+     */
+    SliceResponseDTO<ProductResponseDTO> getAllActiveProductsSlice(Pageable pageable);
+
+    /**
+     * Obtener productos activos filtrados por facetas, con los conteos de cada faceta.
+     * Se resuelve con el índice de bitmaps en memoria y el resultado se ordena por ID
+     * @param filter Filtros por categoría, rango de precio y stock
+     * @param pageable Información de paginación
+     * @return Página con facetas
+     */
+    FacetedPageResponseDTO<ProductResponseDTO> getActiveProductsFaceted(ProductFacetFilter filter, Pageable pageable);
+
+    /**
+     * Obtener productos por categoría sin conteo exacto (Slice)
+     * @param category Categoría del producto
+     * @param pageable Información de paginación
+     * @return Slice de respuestas del producto
+     */
+    SliceResponseDTO<ProductResponseDTO> getProductsByCategorySlice(String category, Pageable pageable);
+
+    /**
+     * Buscar productos por keyword sin conteo exacto (Slice)
+     * @param keyword Buscar keyword
+     * @param pageable Información de paginación
+     * @return Slice de respuestas de productos coincidentes
+     */
+    SliceResponseDTO<ProductResponseDTO> searchProductsSlice(String keyword, Pageable pageable);
+
+    /**
+     * Obtener la última modificación del árbol de categorías, que también versiona
+     * la ruta de categorías incluida en cada producto
+     * @return Fecha, o null si no hay categorías
+     */
+    LocalDateTime getCategoriesLastUpdated();
+
+    /**
+     * Obtener la versión del listado de productos activos, para respuestas condicionales
+     * @return Versión del listado
+     */
+    ProductListingVersion getActiveProductsVersion();
+
+    /**
+     * Obtener la versión del listado de productos de una categoría
+     * @param category Categoría del producto
+     * @param includeSubcategories Incluir los productos de todas las subcategorías
+     * @return Versión del listado
+     */
+    ProductListingVersion getProductsByCategoryVersion(String category, boolean includeSubcategories);
+
     /**
      * Actualizar producto
      * @param id ID del producto
@@ -74,8 +175,9 @@ public interface IProductService {
     void deleteProduct(Long id);
 
     /**
-     * Obtener productos con poco stock
-     * @param umbral Umbral de stock
+     * Obtener productos con poco stock. Sin umbral, los productos con alguna fila de
+     * stock en o por debajo de su mínimo, desde el conjunto en memoria
+     * @param umbral Umbral de stock total (opcional)
      * @return Lista de productos con poco stock
      */
     List<ProductResponseDTO> getLowStockProducts(Integer threshold);
@@ -87,4 +189,20 @@ public interface IProductService {
      * @return Respuesta actualizada del producto
      */
     ProductResponseDTO updateStock(Long id, Integer quantity);
+
+    /**
+     * Obtener el disponible de un producto desde la caché de disponibilidad
+     * @param id ID del producto
+     * @param minVersion Versión de stock mínima aceptable (opcional): la recibida al escribir
+     * @return Disponible y versión de stock
+     */
+    StockAvailabilityResponseDTO getAvailability(Long id, Long minVersion);
+
+    /**
+     * Obtener el disponible de varios productos desde la caché de disponibilidad
+     * @param ids IDs de los productos
+     * @param minVersions Versiones mínimas como "productId:versión" (opcional)
+     * @return Disponible de los productos activos encontrados, en el orden pedido
+     */
+    List<StockAvailabilityResponseDTO> getAvailability(List<Long> ids, List<String> minVersions);
 }
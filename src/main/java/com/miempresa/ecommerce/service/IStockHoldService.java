@@ -0,0 +1,51 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.List;
+
+import com.miempresa.ecommerce.dto.request.StockHoldRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockHoldResponseDTO;
+
+/**
+ * Interfaz de servicio para reservas temporales de stock
+ *
+ */
+public interface IStockHoldService {
+
+    /**
+     * Crear una reserva: las unidades pasan a reservedQuantity hasta confirmar,
+     * cancelar o vencer
+     * @param request Producto, depósito, cantidad y duración
+     * @return Reserva creada con su ID y vencimiento
+     */
+    StockHoldResponseDTO createHold(StockHoldRequestDTO request);
+
+    /**
+     * Crear reservas por unidades que ya están reservadas en el inventario en memoria
+     * (asignación de pedidos): no se vuelve a reservar, solo se registran con su
+     * vencimiento para poder confirmarlas, cancelarlas o dejarlas vencer
+     * @param requests Producto, depósito, cantidad y duración de cada reserva
+     * @return Reservas creadas, en el mismo orden
+     */
+    List<StockHoldResponseDTO> createHoldsForReserved(List<StockHoldRequestDTO> requests);
+
+    /**
+     * Obtener una reserva
+     * @param holdId ID de la reserva
+     * @return Reserva
+     */
+    StockHoldResponseDTO getHold(String holdId);
+
+    /**
+     * Confirmar una reserva activa: las unidades salen del stock físico
+     * @param holdId ID de la reserva
+     * @return Reserva confirmada
+     */
+    StockHoldResponseDTO confirmHold(String holdId);
+
+    /**
+     * Cancelar una reserva activa: las unidades vuelven a estar disponibles
+     * @param holdId ID de la reserva
+     * @return Reserva cancelada
+     */
+    StockHoldResponseDTO cancelHold(String holdId);
+}
@@ -0,0 +1,38 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.List;
+
+import com.miempresa.ecommerce.dto.request.StockAdjustmentRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockAdjustmentResultDTO;
+
+/**
+ * Interfaz de servicio para movimientos de stock sobre el inventario en memoria
+ *
+ */
+public interface IStockService {
+
+    /**
+     * Descontar unidades del stock físico de un depósito, solo si hay disponibles
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a descontar
+     * @return Versión de stock del producto después del cambio
+     */
+    long decrementStock(Long productId, Long depositoId, Integer quantity);
+
+    /**
+     * Reservar unidades en un depósito, solo si hay disponibles
+     * @param productId ID del producto
+     * @param depositoId ID del depósito
+     * @param quantity Unidades a reservar
+     * @return Versión de stock del producto después del cambio
+     */
+    long reserveStock(Long productId, Long depositoId, Integer quantity);
+
+    /**
+     * Aplicar un lote de ajustes de stock en una sola transacción: todos o ninguno
+     * @param adjustments Diferencias por producto y depósito
+     * @return Existencias resultantes de las filas modificadas y versiones de stock de sus productos
+     */
+    StockAdjustmentResultDTO adjustStock(List<StockAdjustmentRequestDTO> adjustments);
+}
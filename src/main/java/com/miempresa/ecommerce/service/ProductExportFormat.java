@@ -0,0 +1,39 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.Arrays;
+
+import com.miempresa.ecommerce.exception.BusinessException;
+
+/**
+ * Formatos de exportación del catálogo
+ *
+ */
+public enum ProductExportFormat {
+
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    ProductExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Resolver el formato a partir del parámetro de la petición
+     * @param value Valor del parámetro (ndjson o csv)
+     * @return Formato de exportación
+     */
+    public static ProductExportFormat fromParameter(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("INVALID_FORMAT", "Formato de exportación no soportado: " + value));
+    }
+
+    public String getExtension() { return extension; }
+
+    public String getContentType() { return contentType; }
+}
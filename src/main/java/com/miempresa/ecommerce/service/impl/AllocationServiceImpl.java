@@ -0,0 +1,163 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.miempresa.ecommerce.dto.request.OrderAllocationRequestDTO;
+import com.miempresa.ecommerce.dto.request.OrderLineRequestDTO;
+import com.miempresa.ecommerce.dto.request.StockHoldRequestDTO;
+import com.miempresa.ecommerce.dto.response.AllocatedItemDTO;
+import com.miempresa.ecommerce.dto.response.BatchAllocationResultDTO;
+import com.miempresa.ecommerce.dto.response.OrderAllocationResultDTO;
+import com.miempresa.ecommerce.dto.response.ShipmentDTO;
+import com.miempresa.ecommerce.dto.response.StockHoldResponseDTO;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.inventory.StockAllocator;
+import com.miempresa.ecommerce.service.IAllocationService;
+import com.miempresa.ecommerce.service.IStockHoldService;
+
+/**
+ * Implementación de la asignación de pedidos sobre el {@link StockAllocator}: como
+ * el resto del inventario en memoria no abre transacciones, las reservas se
+ * persisten con la escritura diferida. Cada producto de cada envío queda retenido por
+ * una reserva temporal (StockHold) con vencimiento, que se confirma o se cancela con
+ * su ID; si las reservas no se pueden registrar se liberan las unidades asignadas
+ *
+ */
+@Service
+public class AllocationServiceImpl implements IAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AllocationServiceImpl.class);
+
+    @Autowired
+    private StockAllocator stockAllocator;
+
+    @Autowired
+    private IStockHoldService stockHoldService;
+
+    @Value("${inventory.allocation.batch-max-orders:5000}")
+    private int batchMaxOrders;
+
+    @Override
+    public OrderAllocationResultDTO allocate(OrderAllocationRequestDTO request) {
+        Map<Long, Integer> demand = toDemand(request);
+        logger.debug("Asignar pedido {} con {} productos", request.getOrderRef(), demand.size());
+
+        StockAllocator.Allocation allocation = stockAllocator.allocate(demand);
+        Iterator<StockHoldResponseDTO> holds = hold(List.of(allocation)).iterator();
+        return OrderAllocationResultDTO.allocated(0, request.getOrderRef(), toShipments(allocation, holds));
+    }
+
+    /**
+     * Los pedidos se asignan de a uno en el orden recibido, de modo que uno anterior
+     * nunca pierde stock frente a uno posterior del mismo lote; la matriz de stock de
+     * todos los productos del lote se carga antes con una sola consulta y las reservas
+     * temporales de todos los pedidos asignados se registran juntas al final
+     */
+    @Override
+    public BatchAllocationResultDTO allocateBatch(List<OrderAllocationRequestDTO> requests) {
+        logger.info("Asignación de un lote de {} pedidos", requests.size());
+
+        if (requests.size() > batchMaxOrders) {
+            throw new BusinessException("BATCH_TOO_LARGE",
+                    "La asignación por lotes admite como máximo " + batchMaxOrders + " pedidos por solicitud");
+        }
+
+        Set<Long> productIds = new TreeSet<>();
+        requests.stream()
+                .filter(request -> request != null && request.getLines() != null)
+                .flatMap(request -> request.getLines().stream())
+                .filter(line -> line != null && line.getProductId() != null)
+                .forEach(line -> productIds.add(line.getProductId()));
+        stockAllocator.preload(productIds);
+
+        List<OrderAllocationResultDTO> results = new ArrayList<>(requests.size());
+        Map<Integer, StockAllocator.Allocation> allocations = new LinkedHashMap<>();
+        for (int index = 0; index < requests.size(); index++) {
+            OrderAllocationRequestDTO request = requests.get(index);
+            String orderRef = request != null ? request.getOrderRef() : null;
+            try {
+                allocations.put(index, stockAllocator.allocate(toDemand(request)));
+                results.add(null);
+            } catch (BusinessException ex) {
+                results.add(OrderAllocationResultDTO.failed(index, orderRef, ex.getErrorCode(), ex.getMessage()));
+            }
+        }
+
+        Iterator<StockHoldResponseDTO> holds = hold(allocations.values()).iterator();
+        allocations.forEach((index, allocation) -> results.set(index,
+                OrderAllocationResultDTO.allocated(index, requests.get(index).getOrderRef(), toShipments(allocation, holds))));
+
+        int allocated = (int) results.stream()
+                .filter(result -> result.getStatus() == OrderAllocationResultDTO.Status.ALLOCATED)
+                .count();
+        logger.info("Asignación por lotes terminada: {} asignados, {} con error", allocated, results.size() - allocated);
+        return new BatchAllocationResultDTO(results.size(), allocated, results.size() - allocated, results);
+    }
+
+    /**
+     * Unidades por producto; las líneas repetidas de un producto se suman. En el lote
+     * no pasa por @Valid, por eso se valida aquí
+     */
+    private static Map<Long, Integer> toDemand(OrderAllocationRequestDTO request) {
+        if (request == null || request.getLines() == null || request.getLines().isEmpty()) {
+            throw new BusinessException("INVALID_ORDER", "El pedido no tiene líneas");
+        }
+        Map<Long, Integer> demand = new LinkedHashMap<>();
+        for (OrderLineRequestDTO line : request.getLines()) {
+            if (line == null || line.getProductId() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new BusinessException("INVALID_ORDER", "Cada línea requiere producto y una cantidad mayor que cero");
+            }
+            demand.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return demand;
+    }
+
+    /**
+     * Registrar una reserva temporal por producto de cada envío, en el orden de las
+     * asignaciones y sus envíos; si falla se liberan todas las unidades asignadas
+     */
+    private List<StockHoldResponseDTO> hold(Collection<StockAllocator.Allocation> allocations) {
+        List<StockHoldRequestDTO> requests = new ArrayList<>();
+        for (StockAllocator.Allocation allocation : allocations) {
+            for (StockAllocator.Shipment shipment : allocation.shipments()) {
+                shipment.items().forEach((productId, units) ->
+                        requests.add(new StockHoldRequestDTO(productId, shipment.depositoId(), units, null)));
+            }
+        }
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return stockHoldService.createHoldsForReserved(requests);
+        } catch (RuntimeException ex) {
+            allocations.forEach(stockAllocator::release);
+            throw ex;
+        }
+    }
+
+    private static List<ShipmentDTO> toShipments(StockAllocator.Allocation allocation, Iterator<StockHoldResponseDTO> holds) {
+        List<ShipmentDTO> shipments = new ArrayList<>(allocation.shipments().size());
+        for (StockAllocator.Shipment shipment : allocation.shipments()) {
+            List<AllocatedItemDTO> items = new ArrayList<>(shipment.items().size());
+            shipment.items().forEach((productId, units) -> {
+                StockHoldResponseDTO hold = holds.next();
+                items.add(new AllocatedItemDTO(productId, units, hold.getId(), hold.getExpiresAt()));
+            });
+            shipments.add(new ShipmentDTO(shipment.depositoId(), shipment.main(), items));
+        }
+        return shipments;
+    }
+}
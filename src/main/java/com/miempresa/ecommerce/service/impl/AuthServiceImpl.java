@@ -3,6 +3,7 @@ package com.miempresa.ecommerce.service.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -11,8 +12,10 @@ import org.springframework.transaction.annotation.Transactional;
 import com.miempresa.ecommerce.dto.request.AuthRequestDTO;
 import com.miempresa.ecommerce.dto.response.AuthResponseDTO;
 import com.miempresa.ecommerce.entity.User;
+import com.miempresa.ecommerce.event.UserTokensRevokedEvent;
 import com.miempresa.ecommerce.exception.BusinessException;
 import com.miempresa.ecommerce.repository.UserRepository;
+import com.miempresa.ecommerce.security.CustomUserDetailsService.UserPrincipal;
 import com.miempresa.ecommerce.security.JwtUtil;
 import com.miempresa.ecommerce.service.IAuthService;
 
@@ -38,6 +41,9 @@ public class AuthServiceImpl implements IAuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public AuthResponseDTO register(AuthRequestDTO authRequest) {
         logger.info("Registrar nuevo usuario con nombre de usuario: {}", authRequest.getUsername());
@@ -87,10 +93,12 @@ public class AuthServiceImpl implements IAuthService {
     @Override
     public void logout(String token) {
         logger.info("Cerrar sesión de usuario");
-        
-        // TODO: Implementar la lógica de cierre de sesión (lista negra de tokens)
-    
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        // Sin lista negra: incrementar la versión revoca este token y todos los anteriores del usuario
+        UserPrincipal principal = jwtUtil.getPrincipalFromToken(token)
+                .orElseThrow(() -> new BusinessException("INVALID_TOKEN", "Token inválido"));
+        userRepository.incrementTokenVersion(principal.getId());
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(principal.getId()));
     }
 
     @Override
@@ -0,0 +1,223 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.miempresa.ecommerce.cache.CategoryNode;
+import com.miempresa.ecommerce.cache.CategoryProductCounts;
+import com.miempresa.ecommerce.cache.CategoryTree;
+import com.miempresa.ecommerce.cache.CategoryTreeCache;
+import com.miempresa.ecommerce.dto.request.CategoryCreateRequestDTO;
+import com.miempresa.ecommerce.dto.response.CategoryResponseDTO;
+import com.miempresa.ecommerce.dto.response.CategorySummaryResponseDTO;
+import com.miempresa.ecommerce.dto.response.CategoryTreeNodeDTO;
+import com.miempresa.ecommerce.entity.Category;
+import com.miempresa.ecommerce.event.CategoryChangedEvent;
+import com.miempresa.ecommerce.event.CategoryChangedEvent.ChangeType;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.exception.CategoryNotFoundException;
+import com.miempresa.ecommerce.repository.CategoryClosureRepository;
+import com.miempresa.ecommerce.repository.CategoryRepository;
+import com.miempresa.ecommerce.service.ICategoryService;
+import com.miempresa.ecommerce.util.MapperUtil;
+
+/**
+ * Implementación del servicio de categorías: las lecturas salen de la instantánea en
+ * memoria ({@link CategoryTreeCache}) y de los conteos de productos en memoria
+ * ({@link CategoryProductCounts}) sin consultas; las escrituras van a la base de
+ * datos y, al confirmarse, publican el evento que reemplaza la instantánea
+ *
+ */
+@Service
+@Transactional
+public class CategoryServiceImpl implements ICategoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryServiceImpl.class);
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryClosureRepository categoryClosureRepository;
+
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
+    @Autowired
+    private CategoryProductCounts categoryProductCounts;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<CategoryTreeNodeDTO> getCategoryTree() {
+        logger.debug("Obteniendo árbol de categorías");
+
+        return categoryTreeCache.tree().roots().stream()
+                .map(this::toTreeNodeDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CategoryResponseDTO getCategoryById(Long id) {
+        logger.debug("Obteniendo categoría con ID: {}", id);
+
+        CategoryTree tree = categoryTreeCache.tree();
+        return tree.byId(id)
+                .map(node -> toResponseDTO(node, tree))
+                .orElseThrow(() -> new CategoryNotFoundException(id));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CategoryResponseDTO getCategoryBySlug(String slug) {
+        logger.debug("Obteniendo categoría con slug: {}", slug);
+
+        CategoryTree tree = categoryTreeCache.tree();
+        return tree.bySlug(slug)
+                .map(node -> toResponseDTO(node, tree))
+                .orElseThrow(() -> new CategoryNotFoundException("slug", slug));
+    }
+
+    @Override
+    public CategoryResponseDTO createCategory(CategoryCreateRequestDTO request) {
+        logger.info("Creando categoría: {}", request.getName());
+
+        Category category = MapperUtil.toCategoryEntity(request);
+        category.setSlug(slugOf(request));
+        if (categoryRepository.existsBySlug(category.getSlug())) {
+            throw new BusinessException("DUPLICATE_SLUG", "Ya existe una categoría con slug " + category.getSlug());
+        }
+        category.setActive(!Boolean.FALSE.equals(request.getActive()));
+        category.setSortOrder(Objects.requireNonNullElse(request.getSortOrder(), 0));
+        category.setParent(request.getParentId() != null ? findActive(request.getParentId()) : null);
+
+        Category saved = categoryRepository.save(category);
+        categoryClosureRepository.insertSelf(saved.getId());
+        if (saved.getParent() != null) {
+            categoryClosureRepository.attachSubtree(saved.getId(), saved.getParent().getId());
+        }
+        eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.CREATED, saved.getId()));
+        return MapperUtil.toCategoryResponseDTO(saved);
+    }
+
+    @Override
+    public CategoryResponseDTO updateCategory(Long id, CategoryCreateRequestDTO request) {
+        logger.info("Modificando categoría con ID: {}", id);
+
+        Category category = findActive(id);
+        Long currentParentId = category.getParent() != null ? category.getParent().getId() : null;
+        boolean moved = !Objects.equals(currentParentId, request.getParentId());
+        if (moved && request.getParentId() != null
+                && categoryTreeCache.tree().isInSubtree(id, request.getParentId())) {
+            throw new BusinessException("INVALID_PARENT",
+                    "Una categoría no puede moverse debajo de sí misma ni de sus subcategorías");
+        }
+
+        if (StringUtils.hasText(request.getSlug()) && !request.getSlug().equals(category.getSlug())) {
+            if (categoryRepository.existsBySlugAndIdNot(request.getSlug(), id)) {
+                throw new BusinessException("DUPLICATE_SLUG", "Ya existe una categoría con slug " + request.getSlug());
+            }
+            category.setSlug(request.getSlug());
+        }
+        category.setName(request.getName());
+        category.setDescription(request.getDescription());
+        category.setImageUrl(request.getImageUrl());
+        category.setSortOrder(Objects.requireNonNullElse(request.getSortOrder(), 0));
+        if (moved) {
+            category.setParent(request.getParentId() != null ? findActive(request.getParentId()) : null);
+        }
+
+        Category saved = categoryRepository.save(category);
+        if (moved) {
+            // El subárbol conserva sus caminos internos: solo cambian los que van a los ancestros
+            categoryClosureRepository.detachSubtree(id);
+            if (request.getParentId() != null) {
+                categoryClosureRepository.attachSubtree(id, request.getParentId());
+            }
+        }
+        eventPublisher.publishEvent(new CategoryChangedEvent(moved ? ChangeType.MOVED : ChangeType.UPDATED, id));
+        return MapperUtil.toCategoryResponseDTO(saved);
+    }
+
+    @Override
+    public void deleteCategory(Long id) {
+        logger.info("Eliminar categoría con ID: {}", id);
+
+        Category category = findActive(id);
+        if (categoryRepository.existsByParentIdAndActiveTrue(id)) {
+            throw new BusinessException("CATEGORY_HAS_CHILDREN",
+                    "La categoría tiene subcategorías activas; elimínelas o muévalas antes");
+        }
+        category.setActive(false);
+        categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(ChangeType.DELETED, id));
+    }
+
+    @Override
+    public int rebuildClosure() {
+        logger.info("Reconstruyendo la tabla de clausura de categorías");
+
+        categoryClosureRepository.deleteAllRows();
+        int rows = categoryClosureRepository.insertSelfRows();
+        for (int depth = 0, added = rows; added > 0; depth++) {
+            added = categoryClosureRepository.insertNextLevel(depth);
+            rows += added;
+        }
+        return rows;
+    }
+
+    /**
+     * Al iniciar, reconstruir la tabla de clausura si hay categorías sin sus filas
+     * (anteriores a la tabla o dadas de alta por fuera del servicio)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildClosureIfIncomplete() {
+        if (categoryClosureRepository.existsMissingCategories()) {
+            logger.info("Tabla de clausura de categorías reconstruida: {} filas", rebuildClosure());
+        }
+    }
+
+    private Category findActive(Long id) {
+        return categoryRepository.findById(id)
+                .filter(category -> Boolean.TRUE.equals(category.getActive()))
+                .orElseThrow(() -> new CategoryNotFoundException(id));
+    }
+
+    private static String slugOf(CategoryCreateRequestDTO request) {
+        return StringUtils.hasText(request.getSlug()) ? request.getSlug() : Category.generateSlug(request.getName());
+    }
+
+    private CategoryTreeNodeDTO toTreeNodeDTO(CategoryNode node) {
+        return new CategoryTreeNodeDTO(node.id(), node.name(), node.slug(), node.imageUrl(), node.sortOrder(),
+                categoryProductCounts.directCount(node.id()), categoryProductCounts.subtreeCount(node.id()),
+                node.children().stream().map(this::toTreeNodeDTO).toList());
+    }
+
+    private CategoryResponseDTO toResponseDTO(CategoryNode node, CategoryTree tree) {
+        String parentName = node.parentId() != null
+                ? tree.byId(node.parentId()).map(CategoryNode::name).orElse(null)
+                : null;
+        List<CategorySummaryResponseDTO> children = node.children().stream()
+                .map(child -> new CategorySummaryResponseDTO(child.id(), child.name(), child.slug(), child.imageUrl(),
+                        true, child.sortOrder(), child.hasChildren(),
+                        categoryProductCounts.directCount(child.id()), categoryProductCounts.subtreeCount(child.id())))
+                .toList();
+        return new CategoryResponseDTO(node.id(), node.name(), node.description(), node.slug(), node.imageUrl(),
+                true, node.sortOrder(), node.parentId(), parentName, children.isEmpty() ? null : children,
+                node.createdAt(), node.updatedAt());
+    }
+}
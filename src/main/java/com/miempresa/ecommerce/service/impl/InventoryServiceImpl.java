@@ -0,0 +1,211 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.miempresa.ecommerce.dto.response.HotSkuResponseDTO;
+import com.miempresa.ecommerce.dto.response.LedgerMismatchDTO;
+import com.miempresa.ecommerce.dto.response.LedgerVerificationResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockLevelResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockMovementDTO;
+import com.miempresa.ecommerce.dto.response.StockReconciliationResponseDTO;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.inventory.ReconciliationReport;
+import com.miempresa.ecommerce.inventory.StockKey;
+import com.miempresa.ecommerce.inventory.StockLedger;
+import com.miempresa.ecommerce.inventory.StockLevel;
+import com.miempresa.ecommerce.inventory.StockMovement;
+import com.miempresa.ecommerce.inventory.StockTotalsReconciler;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+import com.miempresa.ecommerce.service.IInventoryService;
+
+/**
+ * Implementación del servicio de inventario sobre el motor en memoria: no abre
+ * transacciones, la persistencia la hace la escritura diferida
+ *
+ */
+@Service
+public class InventoryServiceImpl implements IInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    private static final int DEFAULT_MOVEMENTS = 100;
+    private static final int MAX_MOVEMENTS = 1000;
+    private static final int MAX_MISMATCHES = 100;
+    private static final int VERIFY_BATCH_SIZE = 5000;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private StockTotalsReconciler stockTotalsReconciler;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Value("${inventory.hot-sku.default-shards:8}")
+    private int defaultShards;
+
+    @Override
+    public StockLevelResponseDTO getStock(Long productId, Long depositoId) {
+        return toResponse(inventoryEngine.get(productId, depositoId));
+    }
+
+    @Override
+    public StockLevelResponseDTO reserve(Long productId, Long depositoId, Integer quantity) {
+        logger.debug("Reservar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        return toResponse(inventoryEngine.reserve(productId, depositoId, required(quantity)));
+    }
+
+    @Override
+    public StockLevelResponseDTO release(Long productId, Long depositoId, Integer quantity) {
+        logger.debug("Liberar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        return toResponse(inventoryEngine.release(productId, depositoId, required(quantity)));
+    }
+
+    @Override
+    public StockLevelResponseDTO commit(Long productId, Long depositoId, Integer quantity) {
+        logger.debug("Confirmar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        return toResponse(inventoryEngine.commit(productId, depositoId, required(quantity)));
+    }
+
+    @Override
+    public long stockVersion(Long productId) {
+        return inventoryEngine.stockVersion(productId);
+    }
+
+    @Override
+    public StockReconciliationResponseDTO reconcileTotals() {
+        logger.info("Conciliar totales de stock de los productos");
+
+        ReconciliationReport report = stockTotalsReconciler.reconcile();
+        return new StockReconciliationResponseDTO(report.chunks(), report.failedChunks(), report.productsFixed(),
+                report.elapsedMillis());
+    }
+
+    @Override
+    public List<StockMovementDTO> getMovements(Long productId, LocalDateTime from, LocalDateTime to, Integer limit) {
+        int max = limit != null ? Math.min(Math.max(limit, 1), MAX_MOVEMENTS) : DEFAULT_MOVEMENTS;
+        return stockLedger.movements(productId, from, to, max).stream()
+                .map(InventoryServiceImpl::toMovementDTO)
+                .toList();
+    }
+
+    /**
+     * Se persisten antes los cambios en memoria pendientes, para comparar la base de
+     * datos con todo lo registrado. Con escrituras en curso puede informar diferencias
+     * transitorias
+     */
+    @Override
+    public LedgerVerificationResponseDTO verifyLedger() {
+        logger.info("Verificar el registro de movimientos de stock contra la base de datos");
+
+        long start = System.currentTimeMillis();
+        writeBehind.flush();
+        Map<StockKey, StockLevel> ledger = new HashMap<>(stockLedger.replay());
+
+        int rows = 0;
+        int mismatched = 0;
+        List<LedgerMismatchDTO> mismatches = new ArrayList<>();
+        Long lastProductId = 0L;
+        Long lastDepositoId = 0L;
+        List<StockLevel> batch;
+        do {
+            batch = productStockRepository.findStockLevelsAfter(lastProductId, lastDepositoId,
+                    PageRequest.of(0, VERIFY_BATCH_SIZE));
+            for (StockLevel database : batch) {
+                rows++;
+                StockLevel recorded = ledger.remove(database.key());
+                if (recorded == null || !Objects.equals(recorded.quantity(), database.quantity())
+                        || !Objects.equals(recorded.reservedQuantity(), database.reservedQuantity())) {
+                    mismatched++;
+                    if (mismatches.size() < MAX_MISMATCHES) {
+                        mismatches.add(toMismatch(database.key(), recorded, database));
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                StockLevel last = batch.get(batch.size() - 1);
+                lastProductId = last.productId();
+                lastDepositoId = last.depositoId();
+            }
+        } while (batch.size() == VERIFY_BATCH_SIZE);
+
+        // Filas del registro que ya no están en la base de datos
+        for (Map.Entry<StockKey, StockLevel> remaining : ledger.entrySet()) {
+            rows++;
+            mismatched++;
+            if (mismatches.size() < MAX_MISMATCHES) {
+                mismatches.add(toMismatch(remaining.getKey(), remaining.getValue(), null));
+            }
+        }
+        logger.info("Registro de movimientos verificado: {} de {} filas con diferencias", mismatched, rows);
+        return new LedgerVerificationResponseDTO(rows, mismatched, mismatches, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public HotSkuResponseDTO enableHotMode(Long productId, Integer shards) {
+        int buckets = shards != null ? shards : defaultShards;
+        logger.info("Activar modo SKU caliente para el producto {} con {} sub-buckets", productId, buckets);
+
+        int rows = inventoryEngine.enableHotMode(productId, buckets);
+        return new HotSkuResponseDTO(productId, true, buckets, rows);
+    }
+
+    @Override
+    public HotSkuResponseDTO disableHotMode(Long productId) {
+        logger.info("Desactivar modo SKU caliente para el producto {}", productId);
+
+        int rows = inventoryEngine.disableHotMode(productId);
+        return new HotSkuResponseDTO(productId, false, null, rows);
+    }
+
+    private static LedgerMismatchDTO toMismatch(StockKey key, StockLevel recorded, StockLevel database) {
+        return new LedgerMismatchDTO(key.productId(), key.depositoId(),
+                recorded != null ? recorded.quantity() : null, recorded != null ? recorded.reservedQuantity() : null,
+                database != null ? database.quantity() : null, database != null ? database.reservedQuantity() : null);
+    }
+
+    private static StockMovementDTO toMovementDTO(StockMovement movement) {
+        return new StockMovementDTO(movement.sequence(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(movement.timestamp()), ZoneId.systemDefault()),
+                movement.type().name(), movement.productId(), movement.depositoId(), movement.quantity(),
+                movement.reservedQuantity());
+    }
+
+    private static int required(Integer quantity) {
+        if (quantity == null) {
+            throw new BusinessException("INVALID_QUANTITY", "La cantidad es requerida");
+        }
+        return quantity;
+    }
+
+    private static StockLevelResponseDTO toResponse(StockLevel level) {
+        return new StockLevelResponseDTO(level.productId(), level.depositoId(), level.quantity(),
+                level.reservedQuantity(), level.availableQuantity());
+    }
+}
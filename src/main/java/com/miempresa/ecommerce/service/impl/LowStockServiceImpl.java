@@ -0,0 +1,172 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.miempresa.ecommerce.dto.response.LowStockEventDTO;
+import com.miempresa.ecommerce.event.LowStockChangedEvent;
+import com.miempresa.ecommerce.service.ILowStockService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementación de las notificaciones de stock bajo: cada cruce del mínimo se envía
+ * a todos los suscriptores como evento "low" o "recovered".
+ *
+ * El evento llega desde la escritura diferida del inventario, así que aquí solo se
+ * encola: cada suscriptor tiene su cola y un pool aparte hace los envíos, en orden y
+ * de a uno por suscriptor. Un cliente lento no frena la persistencia ni a los demás;
+ * si acumula demasiados eventos sin enviar se lo desconecta
+ *
+ */
+@Service
+public class LowStockServiceImpl implements ILowStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockServiceImpl.class);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Value("${inventory.low-stock.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${inventory.low-stock.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${inventory.low-stock.max-pending-per-subscriber:1000}")
+    private int maxPendingPerSubscriber;
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-sse-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(streamTimeoutMs));
+    }
+
+    /**
+     * Registrar un emisor como suscriptor
+     * @param emitter Emisor SSE
+     * @return El mismo emisor
+     */
+    SseEmitter register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        logger.debug("Nuevo suscriptor de stock bajo ({} conectados)", subscribers.size());
+        return emitter;
+    }
+
+    @Override
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onLowStockChanged(LowStockChangedEvent event) {
+        LowStockEventDTO payload = new LowStockEventDTO(event.getProductId(), event.getDepositoId(),
+                event.getQuantity(), event.getMinStock(), event.isLow());
+        String name = event.isLow() ? "low" : "recovered";
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(name, payload);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Suscriptor con su cola de eventos pendientes. Como mucho una tarea de envío por
+     * suscriptor está en el pool, así los eventos salen en el orden en que llegaron
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(String name, LowStockEventDTO payload) {
+            if (pendingCount.incrementAndGet() > maxPendingPerSubscriber) {
+                drop(new IllegalStateException("El suscriptor acumuló más de " + maxPendingPerSubscriber
+                        + " eventos sin enviar"));
+                return;
+            }
+            // Un builder por suscriptor: build() acumula sobre el propio builder
+            pending.add(SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON));
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // El servicio se está deteniendo
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder message;
+                while ((message = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(message);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Cliente desconectado: se descarta sin afectar al resto
+                drop(ex);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // Un evento encolado después de vaciar la cola pudo no encontrar lugar en el pool
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void drop(Exception cause) {
+            if (subscribers.remove(this)) {
+                pending.clear();
+                emitter.completeWithError(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.service.IProductExportService;
+import com.miempresa.ecommerce.service.ProductExportFormat;
+
+/**
+ * Implementación de la exportación del catálogo.
+ *
+ * Las filas se leen con un cursor de solo avance (fetch size acotado) proyectado
+ * directamente a DTO, por lo que el contexto de persistencia no acumula entidades y
+ * la memoria usada no depende del tamaño del catálogo.
+ *
+ */
+@Service
+public class ProductExportServiceImpl implements IProductExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportServiceImpl.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] CSV_HEADER = {
+        "id", "name", "description", "price", "stockQuantity", "sku", "category",
+        "imageUrl", "active", "createdAt", "updatedAt"
+    };
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportActiveProducts(ProductExportFormat format, Long afterId, OutputStream out) throws IOException {
+        logger.info("Exportando productos activos en formato {} desde el ID {}", format, afterId);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = format == ProductExportFormat.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+
+        long count = 0;
+        try (Stream<ProductResponseDTO> products = productRepository.streamActiveProductDTOsAfter(
+                afterId != null ? afterId : 0L)) {
+            Iterator<ProductResponseDTO> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                rows.write(iterator.next());
+                count++;
+            }
+        }
+        writer.flush();
+
+        logger.info("Exportación terminada: {} productos", count);
+        return count;
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) throws IOException {
+        // Un generador para toda la salida; su flush solo vuelca al buffer, no al cliente
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        ObjectWriter jsonWriter = objectMapper.writerFor(ProductResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.CLOSE_CLOSEABLE);
+        return product -> {
+            jsonWriter.writeValue(generator, product);
+            generator.writeRaw('\n');
+            generator.flush();
+        };
+    }
+
+    private RowWriter csvWriter(Writer writer) throws IOException {
+        writeCsvLine(writer, (Object[]) CSV_HEADER);
+        return product -> writeCsvLine(writer,
+                product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStockQuantity(), product.getSku(), product.getCategory(), product.getImageUrl(),
+                product.getActive(), product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    private static void writeCsvLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Escapar un campo según RFC 4180: entre comillas si contiene separador, comillas
+     * o saltos de línea, duplicando las comillas internas
+     */
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ProductResponseDTO product) throws IOException;
+    }
+}
@@ -1,21 +1,91 @@
 package com.miempresa.ecommerce.service.impl;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import com.miempresa.ecommerce.cache.CategoryTree;
+import com.miempresa.ecommerce.cache.CategoryTreeCache;
+import com.miempresa.ecommerce.cache.ProductCache;
+import com.miempresa.ecommerce.cache.ProductCountCache;
+import com.miempresa.ecommerce.cache.StockAvailability;
+import com.miempresa.ecommerce.cache.StockAvailabilityCache;
 import com.miempresa.ecommerce.dto.request.ProductCreateRequestDTO;
 import com.miempresa.ecommerce.dto.request.ProductUpdateRequestDTO;
+import com.miempresa.ecommerce.dto.response.BulkProductItemResultDTO;
+import com.miempresa.ecommerce.dto.response.BulkProductResultDTO;
+import com.miempresa.ecommerce.dto.response.CategoryBreadcrumbDTO;
+import com.miempresa.ecommerce.dto.response.CursorPageResponseDTO;
+import com.miempresa.ecommerce.dto.response.FacetValueDTO;
+import com.miempresa.ecommerce.dto.response.FacetedPageResponseDTO;
+import com.miempresa.ecommerce.dto.response.ProductFacetsDTO;
 import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.dto.response.SliceResponseDTO;
+import com.miempresa.ecommerce.dto.response.StockAvailabilityResponseDTO;
+import com.miempresa.ecommerce.entity.Category;
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductChangedEvent.ChangeType;
+import com.miempresa.ecommerce.event.ProductsCreatedEvent;
+import com.miempresa.ecommerce.event.StockRowsCreatedEvent;
 import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.exception.CategoryNotFoundException;
+import com.miempresa.ecommerce.exception.InsufficientStockException;
+import com.miempresa.ecommerce.exception.ProductNotFoundException;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.LowStockTracker;
+import com.miempresa.ecommerce.inventory.StockLevel;
+import com.miempresa.ecommerce.repository.CategoryRepository;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductKeysetQuery;
+import com.miempresa.ecommerce.repository.ProductListingVersion;
 import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductSortField;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+import com.miempresa.ecommerce.search.ProductFacetFilter;
+import com.miempresa.ecommerce.search.ProductFacetIndex;
+import com.miempresa.ecommerce.search.ProductFacetIndex.FacetResult;
+import com.miempresa.ecommerce.search.ProductFacetIndexer;
+import com.miempresa.ecommerce.search.ProductSearchIndex;
+import com.miempresa.ecommerce.search.ProductSearchIndex.ScoredId;
+import com.miempresa.ecommerce.search.ProductSearchIndex.SearchResult;
+import com.miempresa.ecommerce.search.ProductSearchIndexer;
 import com.miempresa.ecommerce.service.IProductService;
+import com.miempresa.ecommerce.util.Constants;
+import com.miempresa.ecommerce.util.MapperUtil;
+import com.miempresa.ecommerce.util.ProductCursor;
+import com.miempresa.ecommerce.validation.SkuValidator;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 /**
  * Implementación de la lógica de negocio del servicio de producto
@@ -27,9 +97,77 @@ public class ProductServiceImpl implements IProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
 
+    /**
+     * Propiedades validadas una a una en el alta masiva: el SKU queda fuera porque
+     * {@link SkuValidator} consulta la unicidad por producto
+     */
+    private static final String[] BULK_VALIDATED_PROPERTIES = {
+        "name", "description", "price", "stockQuantity", "imageUrl", "minStock"
+    };
+
+    /** Orden de los cursores de búsqueda servidos por el índice */
+    private static final String RELEVANCE = "relevance";
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductCountCache productCountCache;
+
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
+    @Autowired
+    private StockAvailabilityCache availabilityCache;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductSearchIndexer searchIndexer;
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private ProductFacetIndexer facetIndexer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${products.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${products.bulk.max-items:10000}")
+    private int bulkMaxItems;
+
+    @Value("${products.availability.max-ids:500}")
+    private int availabilityMaxIds;
+
     @Override
     public ProductResponseDTO createProduct(ProductCreateRequestDTO productRequest) {
         logger.info("Creando un nuevo producto con nombre: {}", productRequest.getName());
@@ -39,105 +177,678 @@ public class ProductServiceImpl implements IProductService {
             throw new BusinessException("El producto con SKU " + productRequest.getSku() + " ya existe");
         }
 
-        // TODO: Implementar la lógica de creación de productos
-        // - Convertir DTO en Entidad
-        // - Guardar en la base de datos
-        // - Convertir Entidad en DTO de Respuesta
-        // - Devolver respuesta
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+        Product product = MapperUtil.toProductEntity(productRequest);
+        if (product.getActive() == null) {
+            product.setActive(true);
+        }
+        if (productRequest.getCategoryId() != null) {
+            product.setCategory(findCategory(productRequest.getCategoryId()));
+        }
+
+        Product saved = productRepository.save(product);
+
+        // Stock inicial en el depósito principal, si existe
+        depositoRepository.findByIsMainTrueAndActiveTrue().ifPresent(deposito -> {
+            ProductStock stock = new ProductStock();
+            stock.setProduct(saved);
+            stock.setDeposito(deposito);
+            stock.setQuantity(saved.getStockQuantity());
+            stock.setMinStock(productRequest.getMinStock() != null ? productRequest.getMinStock() : 0);
+            productStockRepository.save(stock);
+            eventPublisher.publishEvent(new StockRowsCreatedEvent(List.of(toStockLevel(stock))));
+        });
+
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.CREATED, saved));
+        return withBreadcrumb(MapperUtil.toProductResponseDTO(saved));
     }
 
+    /**
+     * Alta masiva por lotes: cada lote valida, comprueba los SKU con una sola consulta
+     * y se guarda en su propia transacción, de modo que un lote fallido no deshace los
+     * anteriores
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkProductResultDTO createProducts(List<ProductCreateRequestDTO> productRequests) {
+        logger.info("Alta masiva de {} productos", productRequests.size());
+
+        if (productRequests.size() > bulkMaxItems) {
+            throw new BusinessException("BULK_TOO_LARGE",
+                    "El alta masiva admite como máximo " + bulkMaxItems + " productos por solicitud");
+        }
+
+        List<BulkProductItemResultDTO> results = new ArrayList<>(productRequests.size());
+        Set<String> requestSkus = new HashSet<>();
+        for (int from = 0; from < productRequests.size(); from += bulkChunkSize) {
+            int to = Math.min(from + bulkChunkSize, productRequests.size());
+            results.addAll(createChunk(productRequests.subList(from, to), from, requestSkus));
+        }
+
+        int created = (int) results.stream()
+                .filter(result -> result.getStatus() == BulkProductItemResultDTO.Status.CREATED)
+                .count();
+        logger.info("Alta masiva terminada: {} creados, {} con error", created, results.size() - created);
+        return new BulkProductResultDTO(results.size(), created, results.size() - created, results);
+    }
+
+    /**
+     * Lectura a través de la caché: sin transacción propia, para que un acierto
+     * no ocupe una conexión del pool
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponseDTO getProductById(Long id) {
         logger.info("Obteniendo producto con ID: {}", id);
-        
-        // TODO: Implementar la lógica de obtención de producto por ID
-        // - Buscar producto por ID
-        // - Lanzar una excepción si no se encuentra
-        // - Convertir entidad en DTO de respuesta
-        // - Devolver respuesta
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        return productCache.getById(id, key -> productRepository.findWithCategoryById(key)
+                        .map(MapperUtil::toProductResponseDTO))
+                .map(this::withBreadcrumb)
+                .orElseThrow(() -> new ProductNotFoundException(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponseDTO getProductBySku(String sku) {
         logger.info("Obteniendo producto con SKU: {}", sku);
-        
-        // TODO: Implement get product by SKU logic
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        return productCache.getBySku(sku, () -> productRepository.findWithCategoryBySku(sku)
+                        .map(MapperUtil::toProductResponseDTO))
+                .map(this::withBreadcrumb)
+                .orElseThrow(() -> new ProductNotFoundException("SKU", sku));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponseDTO> getAllActiveProducts(Pageable pageable) {
         logger.info("Obteniendo todos los productos activos con paginación");
-        
-        // TODO: Implementar la lógica de obtención de todos los productos activos
 
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+        return withBreadcrumbs(productRepository.findActiveProductDTOs(pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductResponseDTO> getProductsByCategory(String category, Pageable pageable) {
-        logger.info("Obtener productos por categoría: {}", category);
-        
-        // TODO: Implementar la lógica de obtención de productos por categoría
+    public Page<ProductResponseDTO> getProductsByCategory(String category, boolean includeSubcategories, Pageable pageable) {
+        logger.info("Obtener productos por categoría: {} (subcategorías: {})", category, includeSubcategories);
 
-        throw new UnsupportedOperationException("Método aún no implementado");
+        Category found = categoryRepository.findBySlugAndActiveTrue(category)
+                .orElseThrow(() -> new CategoryNotFoundException("slug", category));
+        return withBreadcrumbs(includeSubcategories
+                ? productRepository.findProductDTOsByCategorySubtree(found.getId(), pageable)
+                : productRepository.findProductDTOsByCategoryId(found.getId(), pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductResponseDTO> searchProducts(String keyword, Pageable pageable) {
         logger.info("Búsqueda de productos con palabras clave: {}", keyword);
-        
-        // TODO: Implementar la lógica de búsqueda de productos
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        // Mientras el índice carga se mantiene la búsqueda SQL como respaldo
+        if (!searchIndexer.isReady()) {
+            return withBreadcrumbs(productRepository.searchProductDTOsByKeyword(keyword, pageable));
+        }
+
+        SearchResult result = searchIndex.search(keyword, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(findInOrder(result.productIds()), pageable, result.totalHits());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<ProductResponseDTO> getAllActiveProductsByCursor(String cursor, int size,
+                                                                                  String sortBy, String sortDir) {
+        logger.info("Obteniendo productos activos por cursor");
+
+        return findByKeyset(null, null, cursor, size, sortBy, sortDir);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<ProductResponseDTO> getProductsByCategoryByCursor(String category, String cursor, int size,
+                                                                                   String sortBy, String sortDir) {
+        logger.info("Obtener productos por categoría con cursor: {}", category);
+
+        Category found = categoryRepository.findBySlugAndActiveTrue(category)
+                .orElseThrow(() -> new CategoryNotFoundException("slug", category));
+        return findByKeyset(found.getId(), null, cursor, size, sortBy, sortDir);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<ProductResponseDTO> searchProductsByCursor(String keyword, String cursor, int size) {
+        logger.info("Búsqueda de productos por cursor con palabras clave: {}", keyword);
+
+        ProductCursor after = StringUtils.hasText(cursor) ? ProductCursor.decode(cursor) : null;
+        boolean byRelevance = after != null ? RELEVANCE.equals(after.getSortBy()) : searchIndexer.isReady();
+        if (!byRelevance) {
+            // Índice aún cargando: keyset por ID sobre la consulta SQL
+            return findByKeyset(null, keyword, cursor, size, ProductSortField.ID.getProperty(), Sort.Direction.ASC.name());
+        }
+
+        int pageSize = pageSize(size);
+        List<ScoredId> hits = searchIndex.searchAfter(keyword,
+                after != null ? parseCursorValue(after, Double::valueOf) : null,
+                after != null ? after.getLastId() : null,
+                pageSize + 1);
+        boolean hasNext = hits.size() > pageSize;
+        List<ScoredId> page = hasNext ? hits.subList(0, pageSize) : hits;
+
+        List<ProductResponseDTO> content = findInOrder(page.stream().map(ScoredId::productId).toList());
+
+        String next = null;
+        if (hasNext) {
+            ScoredId last = page.get(page.size() - 1);
+            next = new ProductCursor(RELEVANCE, Sort.Direction.DESC.name(), last.productId(), last.score()).encode();
+        }
+        return new CursorPageResponseDTO<>(content, content.size(), hasNext, next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponseDTO<ProductResponseDTO> getAllActiveProductsSlice(Pageable pageable) {
+        logger.info("Obteniendo productos activos sin conteo exacto");
+
+        return toSliceResponse(productRepository.findActiveProductDTOSlice(pageable),
+                productCountCache.activeProducts());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponseDTO<ProductResponseDTO> getProductsByCategorySlice(String category, Pageable pageable) {
+        logger.info("Obtener productos por categoría sin conteo exacto: {}", category);
+
+        Category found = categoryRepository.findBySlugAndActiveTrue(category)
+                .orElseThrow(() -> new CategoryNotFoundException("slug", category));
+        return toSliceResponse(productRepository.findProductDTOSliceByCategoryId(found.getId(), pageable),
+                productCountCache.byCategory(found.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponseDTO<ProductResponseDTO> searchProductsSlice(String keyword, Pageable pageable) {
+        logger.info("Búsqueda de productos sin conteo exacto con palabras clave: {}", keyword);
+
+        if (!searchIndexer.isReady()) {
+            String normalized = ProductCountCache.normalizeKeyword(keyword);
+            return toSliceResponse(productRepository.searchProductDTOSliceByKeyword(normalized, pageable),
+                    productCountCache.byKeyword(normalized));
+        }
+
+        // El índice ya conoce el total de coincidencias sin costo adicional
+        SearchResult result = searchIndex.search(keyword, pageable.getOffset(), pageable.getPageSize());
+        boolean hasNext = pageable.getOffset() + pageable.getPageSize() < result.totalHits();
+        return new SliceResponseDTO<>(findInOrder(result.productIds()), pageable.getPageNumber(),
+                pageable.getPageSize(), hasNext, result.totalHits());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedPageResponseDTO<ProductResponseDTO> getActiveProductsFaceted(ProductFacetFilter filter, Pageable pageable) {
+        logger.info("Obteniendo productos activos con facetas");
+
+        if (!facetIndexer.isReady()) {
+            throw new BusinessException("FACETS_NOT_READY", "El índice de facetas todavía se está cargando");
+        }
+        FacetResult result = facetIndex.query(filter, pageable.getOffset(), pageable.getPageSize());
+
+        Map<Long, String> categoryNames = categoryRepository.findAllById(result.categoryCounts().keySet()).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        List<FacetValueDTO> categories = result.categoryCounts().entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new FacetValueDTO(entry.getKey().toString(), categoryNames.get(entry.getKey()), entry.getValue()))
+                .toList();
+        List<FacetValueDTO> priceBands = result.priceBandCounts().entrySet().stream()
+                .map(entry -> new FacetValueDTO(entry.getKey(), entry.getKey(), entry.getValue()))
+                .toList();
+        List<FacetValueDTO> availability = List.of(
+                new FacetValueDTO("true", "Con stock", result.inStockCount()),
+                new FacetValueDTO("false", "Sin stock", result.outOfStockCount()));
+
+        boolean hasNext = pageable.getOffset() + pageable.getPageSize() < result.totalHits();
+        return new FacetedPageResponseDTO<>(findInOrder(result.productIds()), pageable.getPageNumber(),
+                pageable.getPageSize(), result.totalHits(), hasNext,
+                new ProductFacetsDTO(categories, priceBands, availability));
+    }
+
+    @Override
+    public LocalDateTime getCategoriesLastUpdated() {
+        return categoryTreeCache.tree().lastUpdated();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductListingVersion getActiveProductsVersion() {
+        return withCategoriesVersion(productRepository.findActiveListingVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductListingVersion getProductsByCategoryVersion(String category, boolean includeSubcategories) {
+        Category found = categoryRepository.findBySlugAndActiveTrue(category)
+                .orElseThrow(() -> new CategoryNotFoundException("slug", category));
+        return withCategoriesVersion(includeSubcategories
+                ? productRepository.findListingVersionByCategorySubtree(found.getId())
+                : productRepository.findListingVersionByCategoryId(found.getId()));
     }
 
     @Override
     public ProductResponseDTO updateProduct(Long id, ProductUpdateRequestDTO productRequest) {
         logger.info("Actualizar producto con ID: {}", id);
-        
-        // TODO: Implementar la lógica de actualización del producto
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        Product product = findProduct(id);
+        // Primero el stock: si no alcanza, no se guarda ningún otro cambio
+        if (productRequest.getStockQuantity() != null) {
+            setTotalStock(product, productRequest.getStockQuantity());
+        }
+        if (productRequest.getName() != null) {
+            product.setName(productRequest.getName());
+        }
+        if (productRequest.getDescription() != null) {
+            product.setDescription(productRequest.getDescription());
+        }
+        if (productRequest.getPrice() != null) {
+            product.setPrice(productRequest.getPrice());
+        }
+        if (productRequest.getCategoryId() != null) {
+            product.setCategory(findCategory(productRequest.getCategoryId()));
+        }
+        if (productRequest.getImageUrl() != null) {
+            product.setImageUrl(productRequest.getImageUrl());
+        }
+        if (productRequest.getActive() != null) {
+            product.setActive(productRequest.getActive());
+        }
+
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.UPDATED, saved));
+        return withBreadcrumb(MapperUtil.toProductResponseDTO(saved));
     }
 
     @Override
     public void deleteProduct(Long id) {
         logger.info("Eliminar producto con ID: {}", id);
-        
-        // TODO: Implementar la lógica de eliminación temporal de productos
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        Product product = findProduct(id);
+        product.setActive(false);
+        productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.DELETED, product));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ProductResponseDTO> getLowStockProducts(Integer threshold) {
         logger.info("Recuperación de productos con bajo stock (threshold: {})", threshold);
-        
-        // TODO: Implement get low stock products logic
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        if (threshold != null) {
+            return withBreadcrumbs(productRepository.findLowStockProductDTOs(threshold));
+        }
+        if (!lowStockTracker.isReady()) {
+            return withBreadcrumbs(productRepository.findProductsWithLowStock().stream()
+                    .map(MapperUtil::toProductResponseDTO)
+                    .toList());
+        }
+        Set<Long> ids = lowStockTracker.lowStockProductIds();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return withBreadcrumbs(productRepository.findProductDTOsByIdIn(ids).stream()
+                .filter(product -> Boolean.TRUE.equals(product.getActive()))
+                .sorted(Comparator.comparing(ProductResponseDTO::getId))
+                .toList());
     }
 
     @Override
     public ProductResponseDTO updateStock(Long id, Integer quantity) {
         logger.info("Actualización de stock para el ID del producto: {} to quantity: {}", id, quantity);
-        
-        // TODO: Implementar la lógica de actualización de stock
-        
-        throw new UnsupportedOperationException("Método aún no implementado");
+
+        if (quantity == null || quantity < 0) {
+            throw new BusinessException("La cantidad de stock no puede ser negativa");
+        }
+
+        Product product = findProduct(id);
+        boolean writtenToProduct = setTotalStock(product, quantity);
+
+        Product saved = productRepository.save(product);
+        // Sin stock por depósito cambió la propia fila del producto y no habrá lote de la escritura diferida
+        eventPublisher.publishEvent(ProductChangedEvent.of(writtenToProduct ? ChangeType.UPDATED : ChangeType.STOCK_UPDATED, saved));
+        return withBreadcrumb(MapperUtil.toProductResponseDTO(saved));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public StockAvailabilityResponseDTO getAvailability(Long id, Long minVersion) {
+        logger.debug("Obteniendo disponible del producto {} (versión mínima {})", id, minVersion);
+
+        Map<Long, Long> minVersions = minVersion != null ? Map.of(id, minVersion) : Map.of();
+        StockAvailability availability = availabilityCache.getAll(List.of(id), minVersions).get(id);
+        if (availability == null) {
+            throw new ProductNotFoundException(id);
+        }
+        return toAvailabilityDTO(availability);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<StockAvailabilityResponseDTO> getAvailability(List<Long> ids, List<String> minVersions) {
+        logger.debug("Obteniendo disponible de {} productos", ids.size());
+
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > availabilityMaxIds) {
+            throw new BusinessException("BATCH_TOO_LARGE",
+                    "Se admiten como máximo " + availabilityMaxIds + " productos por consulta");
+        }
+        return availabilityCache.getAll(distinct, parseMinVersions(minVersions)).values().stream()
+                .map(ProductServiceImpl::toAvailabilityDTO)
+                .toList();
+    }
+
+    /**
+     * Versiones mínimas con formato productId:versión
+     */
+    private static Map<Long, Long> parseMinVersions(List<String> minVersions) {
+        if (minVersions == null || minVersions.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> parsed = new HashMap<>();
+        for (String minVersion : minVersions) {
+            String[] parts = minVersion.split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException(minVersion);
+                }
+                parsed.merge(Long.valueOf(parts[0].trim()), Long.valueOf(parts[1].trim()), Math::max);
+            } catch (NumberFormatException ex) {
+                throw new BusinessException("INVALID_VERSION",
+                        "Versión mínima inválida: " + minVersion + " (formato productId:versión)");
+            }
+        }
+        return parsed;
+    }
+
+    private static StockAvailabilityResponseDTO toAvailabilityDTO(StockAvailability availability) {
+        return new StockAvailabilityResponseDTO(availability.productId(), availability.availableQuantity(),
+                availability.stockVersion());
+    }
+
+    /**
+     * Fijar el stock total de un producto. Si tiene stock por depósito, la diferencia con
+     * la suma de sus filas se ajusta en el inventario en memoria sobre la fila del
+     * depósito principal, que no puede quedar por debajo de lo reservado; la escritura
+     * diferida lleva la fila y los totales del producto a la base de datos. Sin stock
+     * por depósito se fija el total con un único UPDATE y una versión de stock reservada
+     * en el motor, para no repetir una versión ya entregada. El producto en memoria se
+     * actualiza solo para la respuesta: sus columnas de stock no se guardan con él
+     * @return true si el total se escribió directamente en el producto
+     */
+    private boolean setTotalStock(Product product, int quantity) {
+        List<StockLevel> levels = inventoryEngine.levels(product.getId());
+        if (levels.isEmpty()) {
+            productRepository.setStockTotal(product.getId(), quantity, inventoryEngine.nextStockVersion(product.getId()));
+            int delta = quantity - product.getStockQuantity();
+            product.setAvailableQuantity(Objects.requireNonNullElse(product.getAvailableQuantity(), quantity - delta) + delta);
+            product.setStockQuantity(quantity);
+            return true;
+        }
+        int total = levels.stream().mapToInt(StockLevel::quantity).sum();
+        int delta = quantity - total;
+        if (delta == 0) {
+            return false;
+        }
+        Long mainDepositoId = productStockRepository.findByProductId(product.getId()).stream()
+                .filter(stock -> Boolean.TRUE.equals(stock.getDeposito().getIsMain()))
+                .map(stock -> stock.getDeposito().getId())
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("NO_MAIN_DEPOSIT_STOCK",
+                        "El stock del producto se gestiona por depósito y no tiene fila en el depósito principal"));
+        try {
+            inventoryEngine.adjust(product.getId(), mainDepositoId, delta);
+        } catch (InsufficientStockException ex) {
+            throw new BusinessException("STOCK_BELOW_RESERVED",
+                    "El depósito principal no tiene " + -delta + " unidades sin reservar", ex);
+        }
+        int available = levels.stream().mapToInt(StockLevel::availableQuantity).sum();
+        product.setStockQuantity(quantity);
+        product.setAvailableQuantity(available + delta);
+        return false;
+    }
+
+    /**
+     * Paginación por keyset: pide una fila de más para saber si hay página siguiente
+     * y arma el cursor con la clave (valor de ordenación, ID) de la última fila
+     */
+    private CursorPageResponseDTO<ProductResponseDTO> findByKeyset(Long categoryId, String keyword, String cursor,
+                                                                  int size, String sortBy, String sortDir) {
+        ProductCursor after = StringUtils.hasText(cursor) ? ProductCursor.decode(cursor) : null;
+        ProductSortField sortField = ProductSortField.fromProperty(after != null ? after.getSortBy() : sortBy);
+        Sort.Direction direction = Sort.Direction.fromOptionalString(after != null ? after.getDirection() : sortDir)
+                .orElseThrow(() -> new BusinessException("INVALID_SORT", "Dirección de ordenación inválida: " + sortDir));
+
+        int pageSize = pageSize(size);
+        List<ProductResponseDTO> rows = withBreadcrumbs(productRepository.findActiveByKeyset(new ProductKeysetQuery(
+                categoryId, keyword, sortField, direction,
+                after != null ? parseCursorValue(after, sortField::parse) : null,
+                after != null ? after.getLastId() : null,
+                pageSize + 1)));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductResponseDTO> content = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String next = null;
+        if (hasNext) {
+            ProductResponseDTO last = content.get(content.size() - 1);
+            next = new ProductCursor(sortField.getProperty(), direction.name(), last.getId(), sortField.extract(last)).encode();
+        }
+        return new CursorPageResponseDTO<>(content, content.size(), hasNext, next);
+    }
+
+    private List<BulkProductItemResultDTO> createChunk(List<ProductCreateRequestDTO> chunk, int offset,
+                                                       Set<String> requestSkus) {
+        BulkProductItemResultDTO[] results = new BulkProductItemResultDTO[chunk.size()];
+
+        // Validaciones que no requieren base de datos
+        for (int i = 0; i < chunk.size(); i++) {
+            ProductCreateRequestDTO request = chunk.get(i);
+            List<String> errors = validationErrors(request);
+            if (!errors.isEmpty()) {
+                results[i] = BulkProductItemResultDTO.failed(offset + i, request.getSku(), "VALIDATION_ERROR",
+                        String.join("; ", errors));
+            } else if (request.getSku() != null && !requestSkus.add(request.getSku())) {
+                results[i] = BulkProductItemResultDTO.failed(offset + i, request.getSku(), "DUPLICATE_SKU",
+                        "El SKU " + request.getSku() + " está repetido en la solicitud");
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveChunk(chunk, offset, results));
+        } catch (DataAccessException ex) {
+            logger.warn("No se pudo guardar el lote que empieza en la posición {}", offset, ex);
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null || results[i].getStatus() == BulkProductItemResultDTO.Status.CREATED) {
+                    results[i] = BulkProductItemResultDTO.failed(offset + i, chunk.get(i).getSku(), "BATCH_FAILED",
+                            "No se pudo guardar el lote: " + ex.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private List<String> validationErrors(ProductCreateRequestDTO request) {
+        List<String> errors = new ArrayList<>();
+        for (String property : BULK_VALIDATED_PROPERTIES) {
+            validator.validateProperty(request, property).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .forEach(errors::add);
+        }
+        if (StringUtils.hasText(request.getSku())) {
+            String skuError = SkuValidator.formatError(request.getSku());
+            if (skuError != null) {
+                errors.add(skuError);
+            }
+        }
+        return errors;
+    }
+
+    private void saveChunk(List<ProductCreateRequestDTO> chunk, int offset, BulkProductItemResultDTO[] results) {
+        Set<String> skus = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                if (chunk.get(i).getSku() != null) {
+                    skus.add(chunk.get(i).getSku());
+                }
+                if (chunk.get(i).getCategoryId() != null) {
+                    categoryIds.add(chunk.get(i).getCategoryId());
+                }
+            }
+        }
+        Set<String> existingSkus = skus.isEmpty() ? Set.of() : new HashSet<>(productRepository.findExistingSkus(skus));
+        Map<Long, Category> categories = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Optional<Deposito> mainDeposito = depositoRepository.findByIsMainTrueAndActiveTrue();
+
+        List<Product> products = new ArrayList<>();
+        List<ProductStock> stocks = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            ProductCreateRequestDTO request = chunk.get(i);
+            if (request.getSku() != null && existingSkus.contains(request.getSku())) {
+                results[i] = BulkProductItemResultDTO.failed(offset + i, request.getSku(), "DUPLICATE_SKU",
+                        "El producto con SKU " + request.getSku() + " ya existe");
+                continue;
+            }
+            if (request.getCategoryId() != null && !categories.containsKey(request.getCategoryId())) {
+                results[i] = BulkProductItemResultDTO.failed(offset + i, request.getSku(), "CATEGORY_NOT_FOUND",
+                        "Categoría no encontrada con ID: " + request.getCategoryId());
+                continue;
+            }
+
+            Product product = MapperUtil.toProductEntity(request);
+            if (product.getActive() == null) {
+                product.setActive(true);
+            }
+            product.setCategory(request.getCategoryId() != null ? categories.get(request.getCategoryId()) : null);
+            products.add(product);
+            positions.add(i);
+            mainDeposito.ifPresent(deposito -> {
+                ProductStock stock = new ProductStock();
+                stock.setProduct(product);
+                stock.setDeposito(deposito);
+                stock.setQuantity(product.getStockQuantity());
+                stock.setMinStock(request.getMinStock() != null ? request.getMinStock() : 0);
+                stocks.add(stock);
+            });
+        }
+
+        // Los IDs salen de la secuencia en memoria: los INSERT se envían en lotes al hacer flush
+        productRepository.saveAll(products);
+        productStockRepository.saveAll(stocks);
+        productRepository.flush();
+
+        for (int k = 0; k < products.size(); k++) {
+            int i = positions.get(k);
+            results[i] = BulkProductItemResultDTO.created(offset + i, products.get(k).getSku(), products.get(k).getId());
+        }
+        if (!products.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsCreatedEvent(products.stream().map(Product::getId).toList()));
+        }
+        if (!stocks.isEmpty()) {
+            eventPublisher.publishEvent(new StockRowsCreatedEvent(stocks.stream().map(ProductServiceImpl::toStockLevel).toList()));
+        }
+    }
+
+    private static StockLevel toStockLevel(ProductStock stock) {
+        return new StockLevel(stock.getProduct().getId(), stock.getDeposito().getId(), stock.getQuantity(),
+                stock.getReservedQuantity());
+    }
+
+    private SliceResponseDTO<ProductResponseDTO> toSliceResponse(Slice<ProductResponseDTO> slice, long approximateTotal) {
+        return new SliceResponseDTO<>(withBreadcrumbs(slice.getContent()), slice.getNumber(), slice.getSize(),
+                slice.hasNext(), approximateTotal);
+    }
+
+    /**
+     * El producto puede venir de ProductCache, donde la misma instancia la comparten
+     * todos los lectores: se decora una copia y la cacheada no se toca
+     */
+    private ProductResponseDTO withBreadcrumb(ProductResponseDTO product) {
+        ProductResponseDTO copy = new ProductResponseDTO(product.getId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getStockQuantity(), product.getAvailableQuantity(), product.getSku(),
+                product.getCategory(), product.getCategoryId(), product.getImageUrl(), product.getActive(),
+                product.getCreatedAt(), product.getUpdatedAt(), null);
+        addBreadcrumb(copy, categoryTreeCache.tree());
+        return copy;
+    }
+
+    /**
+     * Completar la ruta de categorías desde la instantánea del árbol, sin consultas.
+     * Solo para productos recién leídos de la base, que no comparte nadie más
+     */
+    private <T extends Iterable<ProductResponseDTO>> T withBreadcrumbs(T products) {
+        CategoryTree tree = categoryTreeCache.tree();
+        products.forEach(product -> addBreadcrumb(product, tree));
+        return products;
+    }
+
+    /**
+     * La ruta es una lista inmutable compartida por la instantánea. El nombre de la
+     * categoría también sale de ahí, para que un renombrado alcance a los productos
+     * que ya estaban en la caché
+     */
+    private static void addBreadcrumb(ProductResponseDTO product, CategoryTree tree) {
+        List<CategoryBreadcrumbDTO> breadcrumb = tree.breadcrumb(product.getCategoryId());
+        product.setBreadcrumb(breadcrumb);
+        if (!breadcrumb.isEmpty()) {
+            product.setCategory(breadcrumb.get(breadcrumb.size() - 1).getName());
+        }
+    }
+
+    /**
+     * Las respuestas incluyen la ruta de categorías: un renombrado o un movimiento de
+     * categoría también cambia la versión del listado
+     */
+    private ProductListingVersion withCategoriesVersion(ProductListingVersion version) {
+        LocalDateTime categoriesUpdated = categoryTreeCache.tree().lastUpdated();
+        if (categoriesUpdated == null
+                || (version.lastUpdated() != null && !categoriesUpdated.isAfter(version.lastUpdated()))) {
+            return version;
+        }
+        return new ProductListingVersion(categoriesUpdated, version.count());
+    }
+
+    /**
+     * Proyectar los productos de una página del índice respetando el orden por relevancia
+     */
+    private List<ProductResponseDTO> findInOrder(List<Long> ids) {
+        Map<Long, ProductResponseDTO> products = productRepository.findProductDTOsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductResponseDTO::getId, Function.identity()));
+        return withBreadcrumbs(ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+    }
+
+    private static <T> T parseCursorValue(ProductCursor cursor, Function<String, T> parser) {
+        try {
+            return parser.apply(cursor.getLastValue());
+        } catch (RuntimeException ex) {
+            throw new BusinessException("INVALID_CURSOR", "Cursor de paginación inválido", ex);
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), Constants.MAX_PAGE_SIZE);
+    }
+
+    private Product findProduct(Long id) {
+        // La respuesta se mapea con la categoría: cargarla en la misma consulta
+        return productRepository.findWithCategoryById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+    }
+
+    private Category findCategory(Long categoryId) {
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new CategoryNotFoundException(categoryId));
     }
 
 }
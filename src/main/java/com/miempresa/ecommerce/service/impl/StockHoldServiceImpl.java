@@ -0,0 +1,165 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.miempresa.ecommerce.dto.request.StockHoldRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockHoldResponseDTO;
+import com.miempresa.ecommerce.entity.StockHold;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.StockHoldExpiry;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.StockHoldRepository;
+import com.miempresa.ecommerce.service.IStockHoldService;
+import com.miempresa.ecommerce.service.IStockService;
+
+/**
+ * Implementación de las reservas temporales de stock. Los cambios de estado son
+ * UPDATE condicionados al estado ACTIVE, así confirmar, cancelar y vencer no pueden
+ * aplicarse dos veces sobre la misma reserva. Las unidades se confirman y se liberan
+ * en el {@link InventoryEngine}, que valida lo reservado y deshace el cambio si la
+ * transacción se revierte
+ *
+ */
+@Service
+@Transactional
+public class StockHoldServiceImpl implements IStockHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockHoldServiceImpl.class);
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private IStockService stockService;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private StockHoldExpiry stockHoldExpiry;
+
+    @Value("${inventory.holds.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${inventory.holds.max-ttl-seconds:3600}")
+    private long maxTtlSeconds;
+
+    @Override
+    public StockHoldResponseDTO createHold(StockHoldRequestDTO request) {
+        logger.info("Crear reserva de {} unidades del producto {} en el depósito {}",
+                request.getQuantity(), request.getProductId(), request.getDepositoId());
+
+        StockHold hold = newHold(request);
+        stockService.reserveStock(request.getProductId(), request.getDepositoId(), request.getQuantity());
+        StockHold saved = stockHoldRepository.save(hold);
+
+        // Si la transacción no se confirma, el vencimiento no encuentra la reserva y no hace nada
+        stockHoldExpiry.schedule(saved.getId(), saved.getExpiresAt());
+        return toResponse(saved, saved.getStatus());
+    }
+
+    @Override
+    public List<StockHoldResponseDTO> createHoldsForReserved(List<StockHoldRequestDTO> requests) {
+        logger.info("Registrar {} reservas de unidades ya reservadas", requests.size());
+
+        List<StockHold> saved = stockHoldRepository.saveAll(requests.stream().map(this::newHold).toList());
+        saved.forEach(hold -> stockHoldExpiry.schedule(hold.getId(), hold.getExpiresAt()));
+        return saved.stream().map(hold -> toResponse(hold, hold.getStatus())).toList();
+    }
+
+    private StockHold newHold(StockHoldRequestDTO request) {
+        long ttl = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        if (ttl <= 0 || ttl > maxTtlSeconds) {
+            throw new BusinessException("INVALID_TTL", "La duración de la reserva debe estar entre 1 y " + maxTtlSeconds + " segundos");
+        }
+        StockHold hold = new StockHold();
+        hold.setId(UUID.randomUUID().toString());
+        hold.setProduct(productRepository.getReferenceById(request.getProductId()));
+        hold.setDeposito(depositoRepository.getReferenceById(request.getDepositoId()));
+        hold.setQuantity(request.getQuantity());
+        hold.setExpiresAt(LocalDateTime.now().plusSeconds(ttl));
+        return hold;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockHoldResponseDTO getHold(String holdId) {
+        StockHold hold = findHold(holdId);
+        return toResponse(hold, hold.getStatus());
+    }
+
+    @Override
+    public StockHoldResponseDTO confirmHold(String holdId) {
+        logger.info("Confirmar reserva de stock: {}", holdId);
+
+        StockHold hold = activate(holdId, StockHold.Status.CONFIRMED);
+        try {
+            inventoryEngine.commit(hold.getProduct().getId(), hold.getDeposito().getId(), hold.getQuantity());
+        } catch (BusinessException ex) {
+            throw reservationMismatch(holdId, ex);
+        }
+        return toResponse(hold, StockHold.Status.CONFIRMED);
+    }
+
+    @Override
+    public StockHoldResponseDTO cancelHold(String holdId) {
+        logger.info("Cancelar reserva de stock: {}", holdId);
+
+        StockHold hold = activate(holdId, StockHold.Status.CANCELLED);
+        try {
+            inventoryEngine.release(hold.getProduct().getId(), hold.getDeposito().getId(), hold.getQuantity());
+        } catch (BusinessException ex) {
+            throw reservationMismatch(holdId, ex);
+        }
+        return toResponse(hold, StockHold.Status.CANCELLED);
+    }
+
+    /**
+     * Pasar una reserva activa y no vencida al estado final indicado
+     */
+    private StockHold activate(String holdId, StockHold.Status to) {
+        StockHold hold = findHold(holdId);
+        if (hold.getStatus() == StockHold.Status.ACTIVE && hold.getExpiresAt().isBefore(LocalDateTime.now())) {
+            // Vencida pero todavía no procesada por la rueda
+            throw new BusinessException("HOLD_EXPIRED", "La reserva " + holdId + " está vencida");
+        }
+        if (stockHoldRepository.updateStatus(holdId, StockHold.Status.ACTIVE, to) == 0) {
+            throw new BusinessException("HOLD_NOT_ACTIVE", "La reserva " + holdId + " ya no está activa");
+        }
+        return hold;
+    }
+
+    /**
+     * La excepción revierte también el cambio de estado de la reserva
+     */
+    private static BusinessException reservationMismatch(String holdId, BusinessException cause) {
+        return new BusinessException("RESERVATION_MISMATCH", "El stock reservado no cubre la reserva " + holdId, cause);
+    }
+
+    private StockHold findHold(String holdId) {
+        return stockHoldRepository.findById(holdId)
+                .orElseThrow(() -> new BusinessException("HOLD_NOT_FOUND", "No existe la reserva " + holdId));
+    }
+
+    private static StockHoldResponseDTO toResponse(StockHold hold, StockHold.Status status) {
+        return new StockHoldResponseDTO(hold.getId(), hold.getProduct().getId(), hold.getDeposito().getId(),
+                hold.getQuantity(), status.name(), hold.getExpiresAt());
+    }
+}
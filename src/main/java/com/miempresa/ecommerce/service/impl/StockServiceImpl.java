@@ -0,0 +1,137 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.miempresa.ecommerce.dto.request.StockAdjustmentRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockAdjustmentResultDTO;
+import com.miempresa.ecommerce.dto.response.StockLevelResponseDTO;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.exception.InsufficientStockException;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.StockKey;
+import com.miempresa.ecommerce.inventory.StockLevel;
+import com.miempresa.ecommerce.service.IStockService;
+
+/**
+ * Implementación de los movimientos de stock sobre el {@link InventoryEngine}, único
+ * dueño de las existencias: la comprobación de disponibilidad y el cambio son un solo
+ * compareAndSet en memoria, que ve también las reservas todavía no persistidas. La
+ * escritura diferida lleva las filas y los totales del producto a la base de datos y
+ * cada movimiento devuelve la versión de stock que la incluye
+ *
+ */
+@Service
+@Transactional
+public class StockServiceImpl implements IStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockServiceImpl.class);
+
+    private static final Comparator<StockKey> KEY_ORDER =
+            Comparator.comparing(StockKey::productId).thenComparing(StockKey::depositoId);
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Value("${stock.adjustments.max-items:1000}")
+    private int adjustmentsMaxItems;
+
+    @Override
+    public long decrementStock(Long productId, Long depositoId, Integer quantity) {
+        logger.debug("Descontar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        inventoryEngine.adjust(productId, depositoId, -positive(quantity));
+        return inventoryEngine.stockVersion(productId);
+    }
+
+    @Override
+    public long reserveStock(Long productId, Long depositoId, Integer quantity) {
+        logger.debug("Reservar {} unidades del producto {} en el depósito {}", quantity, productId, depositoId);
+
+        inventoryEngine.reserve(productId, depositoId, positive(quantity));
+        return inventoryEngine.stockVersion(productId);
+    }
+
+    /**
+     * Los ajustes de una misma fila se suman y se aplican en el {@link InventoryEngine},
+     * que no deja ninguna fila por debajo de lo reservado; la escritura diferida los
+     * lleva a la base de datos. Antes de cambiar nada se comprueba el lote completo
+     * contra las celdas: que existan todas las filas y que cada baja tenga unidades sin
+     * reservar. Un lote que no entra se rechaza así sin tocar ninguna celda.
+     *
+     * El lote no es atómico para los demás lectores: las celdas se cambian de a una, así
+     * que una reserva concurrente o la escritura diferida pueden ver una parte aplicada.
+     * Si entre la comprobación y el cambio otra reserva toma las unidades de una baja,
+     * esa baja falla, la transacción se revierte y el motor deshace las bajas ya
+     * aplicadas sumando de nuevo sus unidades; las bajas van antes que las altas para que
+     * solo pueda fallar una baja
+     */
+    @Override
+    public StockAdjustmentResultDTO adjustStock(List<StockAdjustmentRequestDTO> adjustments) {
+        logger.info("Ajuste de stock por lotes: {} ajustes", adjustments.size());
+
+        if (adjustments.isEmpty()) {
+            throw new BusinessException("INVALID_ADJUSTMENT", "El lote no tiene ajustes");
+        }
+        if (adjustments.size() > adjustmentsMaxItems) {
+            throw new BusinessException("BATCH_TOO_LARGE",
+                    "El ajuste por lotes admite como máximo " + adjustmentsMaxItems + " ajustes por solicitud");
+        }
+
+        Map<StockKey, Integer> deltas = new TreeMap<>(KEY_ORDER);
+        for (StockAdjustmentRequestDTO adjustment : adjustments) {
+            if (adjustment == null || adjustment.getProductId() == null || adjustment.getDepositoId() == null
+                    || adjustment.getDelta() == null) {
+                throw new BusinessException("INVALID_ADJUSTMENT", "Cada ajuste requiere producto, depósito y cantidad");
+            }
+            deltas.merge(new StockKey(adjustment.getProductId(), adjustment.getDepositoId()),
+                    adjustment.getDelta(), Integer::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return new StockAdjustmentResultDTO(adjustments.size(), 0, List.of(), Map.of());
+        }
+
+        deltas.forEach((key, delta) -> {
+            StockLevel level = inventoryEngine.get(key.productId(), key.depositoId());
+            if (delta < 0 && level.availableQuantity() < -delta) {
+                throw new InsufficientStockException(key.productId(), -delta, level.availableQuantity());
+            }
+        });
+        Map<StockKey, StockLevel> adjusted = new TreeMap<>(KEY_ORDER);
+        deltas.forEach((key, delta) -> {
+            if (delta < 0) {
+                adjusted.put(key, inventoryEngine.adjust(key.productId(), key.depositoId(), delta));
+            }
+        });
+        deltas.forEach((key, delta) -> {
+            if (delta > 0) {
+                adjusted.put(key, inventoryEngine.adjust(key.productId(), key.depositoId(), delta));
+            }
+        });
+
+        List<StockLevelResponseDTO> levels = adjusted.values().stream()
+                .map(level -> new StockLevelResponseDTO(level.productId(), level.depositoId(), level.quantity(),
+                        level.reservedQuantity(), level.availableQuantity()))
+                .toList();
+        Map<Long, Long> versions = new TreeMap<>();
+        deltas.keySet().forEach(key -> versions.computeIfAbsent(key.productId(), inventoryEngine::stockVersion));
+        return new StockAdjustmentResultDTO(adjustments.size(), deltas.size(), levels, versions);
+    }
+
+    private static int positive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new BusinessException("INVALID_QUANTITY", "La cantidad debe ser mayor que cero");
+        }
+        return quantity;
+    }
+}
@@ -9,6 +9,9 @@ public final class Constants {
     // Constantes de Seguridad
     public static final String JWT_TOKEN_PREFIX = "Bearer ";
     public static final String JWT_HEADER_NAME = "Authorization";
+
+    // Versión de stock del producto después de una escritura, para leer el disponible sin retroceder
+    public static final String STOCK_VERSION_HEADER = "X-Stock-Version";
     
     // Constantes de Paginacion 
     public static final int DEFAULT_PAGE_SIZE = 20;
@@ -0,0 +1,80 @@
+package com.miempresa.ecommerce.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.Collectors;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.repository.ProductListingVersion;
+
+/**
+ * Utilidades para construir validadores HTTP (ETag / Last-Modified) a partir de la
+ * versión de los datos, sin serializar la respuesta
+ *
+ */
+public final class ETagUtil {
+
+    private ETagUtil() {
+        throw new UnsupportedOperationException("Esta es una clase de utilidad y no se puede instanciar");
+    }
+
+    /**
+     * ETag fuerte de un producto: cambia con cada actualización (updatedAt) y con cada
+     * cambio del árbol de categorías, que puede mover o renombrar su ruta sin tocar el producto
+     * @param product Producto
+     * @param categoriesUpdated Última modificación del árbol de categorías (puede ser null)
+     * @return ETag entre comillas
+     */
+    public static String strong(ProductResponseDTO product, LocalDateTime categoriesUpdated) {
+        String etag = product.getId() + "-" + Long.toHexString(epochNanos(product.getUpdatedAt()))
+                + "-" + Long.toHexString(epochNanos(categoriesUpdated));
+        // Desactivar una categoría la saca del árbol sin adelantar su fecha: la ruta también cuenta
+        if (product.getBreadcrumb() != null && !product.getBreadcrumb().isEmpty()) {
+            String path = product.getBreadcrumb().stream()
+                    .map(category -> category.getId() + ":" + category.getName() + ":" + category.getSlug())
+                    .collect(Collectors.joining("/"));
+            etag += "-" + Integer.toHexString(path.hashCode());
+        }
+        return "\"" + etag + "\"";
+    }
+
+    /**
+     * Last-Modified de un producto: la más reciente entre su actualización y la del
+     * árbol de categorías
+     * @param product Producto
+     * @param categoriesUpdated Última modificación del árbol de categorías (puede ser null)
+     * @return Instante, o null si no hay ninguna fecha
+     */
+    public static Instant lastModified(ProductResponseDTO product, LocalDateTime categoriesUpdated) {
+        LocalDateTime updatedAt = product.getUpdatedAt();
+        if (updatedAt == null || (categoriesUpdated != null && categoriesUpdated.isAfter(updatedAt))) {
+            updatedAt = categoriesUpdated;
+        }
+        return toInstant(updatedAt);
+    }
+
+    /**
+     * ETag débil de un listado: equivalente semánticamente mientras no cambien la
+     * última modificación ni la cantidad de filas
+     * @param version Versión del listado
+     * @return ETag débil (W/"...")
+     */
+    public static String weak(ProductListingVersion version) {
+        return "W/\"" + version.count() + "-" + Long.toHexString(epochNanos(version.lastUpdated())) + "\"";
+    }
+
+    /**
+     * Convertir una fecha de la base de datos (hora local del servidor) para Last-Modified
+     * @param dateTime Fecha local
+     * @return Instante, o null si no hay fecha
+     */
+    public static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+
+    private static long epochNanos(LocalDateTime dateTime) {
+        Instant instant = toInstant(dateTime);
+        return instant != null ? instant.getEpochSecond() * 1_000_000_000L + instant.getNano() : 0L;
+    }
+}
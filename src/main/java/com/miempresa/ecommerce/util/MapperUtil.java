@@ -34,8 +34,10 @@ public final class MapperUtil {
         dto.setDescription(product.getDescription());
         dto.setPrice(product.getPrice());
         dto.setStockQuantity(product.getStockQuantity());
+        dto.setAvailableQuantity(product.getAvailableQuantity());
         dto.setSku(product.getSku());
         dto.setCategory(product.getCategory() != null ? product.getCategory().getName() : null);
+        dto.setCategoryId(product.getCategory() != null ? product.getCategory().getId() : null);
         dto.setImageUrl(product.getImageUrl());
         dto.setActive(product.getActive());
         dto.setCreatedAt(product.getCreatedAt());
@@ -119,7 +121,9 @@ public final class MapperUtil {
             category.getImageUrl(),
             category.getActive(),
             category.getSortOrder(),
-            category.hasChildren()
+            category.hasChildren(),
+            null,
+            null
         );
     }
 
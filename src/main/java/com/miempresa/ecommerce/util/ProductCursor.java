@@ -0,0 +1,65 @@
+package com.miempresa.ecommerce.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.miempresa.ecommerce.exception.BusinessException;
+
+/**
+ * Cursor opaco de paginación por keyset: guarda el criterio de orden y la clave
+ * (valor de ordenación, ID) del último elemento entregado
+ *
+ */
+public final class ProductCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final String sortBy;
+    private final String direction;
+    private final Long lastId;
+    private final String lastValue;
+
+    public ProductCursor(String sortBy, String direction, Long lastId, Object lastValue) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = String.valueOf(lastValue);
+    }
+
+    /**
+     * Serializar el cursor como token Base64 URL-safe
+     * @return Token opaco
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortBy, direction, String.valueOf(lastId), lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reconstruir un cursor a partir del token recibido del cliente
+     * @param token Token opaco
+     * @return Cursor
+     */
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // El valor va al final y puede contener el separador
+            String[] parts = raw.split("\\" + SEPARATOR, 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Formato de cursor desconocido");
+            }
+            return new ProductCursor(parts[1], parts[2], Long.valueOf(parts[3]), parts[4]);
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("INVALID_CURSOR", "Cursor de paginación inválido", ex);
+        }
+    }
+
+    public String getSortBy() { return sortBy; }
+
+    public String getDirection() { return direction; }
+
+    public Long getLastId() { return lastId; }
+
+    public String getLastValue() { return lastValue; }
+}
@@ -9,7 +9,7 @@ import jakarta.validation.ConstraintValidatorContext;
  * Validador para precio
  * 
  */
-public class PriceValidator implements ConstraintValidator<ValidPrice, BigDecimal> {
+public class PriceValidator implements ConstraintValidator<ValidPrice, Number> {
 
     @Override
     public void initialize(ValidPrice constraintAnnotation) {
@@ -17,11 +17,14 @@ public class PriceValidator implements ConstraintValidator<ValidPrice, BigDecima
     }
 
     @Override
-    public boolean isValid(BigDecimal price, ConstraintValidatorContext context) {
-        if (price == null) {
+    public boolean isValid(Number value, ConstraintValidatorContext context) {
+        if (value == null) {
             return true; // Permitir null, será manejado por @NotNull si es requerido
         }
 
+        // Admite BigDecimal y Double (los DTO usan Double); toString conserva la escala decimal
+        BigDecimal price = value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+
         // Validar que sea mayor a 0
         if (price.compareTo(BigDecimal.ZERO) <= 0) {
             context.disableDefaultConstraintViolation();
@@ -29,18 +29,11 @@ public class SkuValidator implements ConstraintValidator<ValidSku, String> {
             return true; // Permitir SKU vacío, será manejado por @NotBlank si es requerido
         }
 
-        // Validar formato del SKU (letras, números, guiones)
-        if (!sku.matches("^[A-Za-z0-9-]+$")) {
-            context.disableDefaultConstraintViolation();
-            context.buildConstraintViolationWithTemplate("El SKU solo puede contener letras, números y guiones")
-                   .addConstraintViolation();
-            return false;
-        }
-
-        // Validar longitud
-        if (sku.length() < 3 || sku.length() > 50) {
+        // Validar formato y longitud
+        String formatError = formatError(sku);
+        if (formatError != null) {
             context.disableDefaultConstraintViolation();
-            context.buildConstraintViolationWithTemplate("El SKU debe tener entre 3 y 50 caracteres")
+            context.buildConstraintViolationWithTemplate(formatError)
                    .addConstraintViolation();
             return false;
         }
@@ -55,4 +48,23 @@ public class SkuValidator implements ConstraintValidator<ValidSku, String> {
 
         return true;
     }
+
+    /**
+     * Validar solo el formato del SKU, sin consultar la base de datos (el alta masiva
+     * comprueba la unicidad de todo el lote con una sola consulta)
+     * @param sku SKU no vacío
+     * @return Mensaje de error, o null si el formato es válido
+     */
+    public static String formatError(String sku) {
+        // Validar formato del SKU (letras, números, guiones)
+        if (!sku.matches("^[A-Za-z0-9-]+$")) {
+            return "El SKU solo puede contener letras, números y guiones";
+        }
+
+        // Validar longitud
+        if (sku.length() < 3 || sku.length() > 50) {
+            return "El SKU debe tener entre 3 y 50 caracteres";
+        }
+        return null;
+    }
 }
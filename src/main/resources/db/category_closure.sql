@@ -0,0 +1,16 @@
+-- Tabla category_closure (pares ancestro/descendiente del árbol de categorías, incluido
+-- cada categoría consigo misma con profundidad 0).
+--
+-- Ejecutar una vez sobre una base existente (PostgreSQL) antes de desplegar la versión
+-- con listados por subárbol: con ddl-auto=validate la aplicación no arranca sin ella.
+-- No hace falta cargar filas: al arrancar, si la tabla no cubre todas las categorías,
+-- se reconstruye completa a partir de categories.parent_id.
+
+CREATE TABLE IF NOT EXISTS category_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_category_closure_descendant ON category_closure (descendant_id);
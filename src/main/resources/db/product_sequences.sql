@@ -0,0 +1,26 @@
+-- Secuencias de products y product_stocks (ids con GenerationType.SEQUENCE, allocationSize = 50).
+--
+-- Ejecutar una vez sobre una base existente (PostgreSQL) antes de desplegar la versión
+-- con secuencias; con ddl-auto=validate la aplicación no arranca sin ellas y con
+-- ddl-auto=update Hibernate las crearía empezando en 1, por debajo de los ids actuales.
+--
+-- Hibernate usa el optimizador pooled: cada nextval es el extremo superior de un bloque
+-- de 50 ids, así que el primer valor debe superar MAX(id) en el tamaño del bloque.
+-- Si la secuencia ya existe solo se adelanta, nunca retrocede.
+
+DO $$
+DECLARE
+    next_id BIGINT;
+BEGIN
+    SELECT COALESCE(MAX(id), 0) + 50 INTO next_id FROM products;
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS products_seq START WITH %s INCREMENT BY 50', next_id);
+    IF (SELECT last_value FROM products_seq) < next_id THEN
+        PERFORM setval('products_seq', next_id, false);
+    END IF;
+
+    SELECT COALESCE(MAX(id), 0) + 50 INTO next_id FROM product_stocks;
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS product_stocks_seq START WITH %s INCREMENT BY 50', next_id);
+    IF (SELECT last_value FROM product_stocks_seq) < next_id THEN
+        PERFORM setval('product_stocks_seq', next_id, false);
+    END IF;
+END $$;
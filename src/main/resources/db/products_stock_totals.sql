@@ -0,0 +1,17 @@
+-- Columnas products.available_quantity y products.stock_version (totales de stock
+-- mantenidos por diferencias y versión que el cliente envía como mínima al leer).
+--
+-- Ejecutar una vez sobre una base existente (PostgreSQL) antes de desplegar la versión
+-- con inventario en memoria: con ddl-auto=validate la aplicación no arranca sin ellas.
+-- El disponible se completa con la suma de product_stocks o, sin stock por depósito,
+-- con stock_quantity; la conciliación de totales corrige después cualquier desvío.
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS available_quantity INTEGER;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS stock_version BIGINT DEFAULT 0;
+
+UPDATE products p SET stock_version = 0 WHERE p.stock_version IS NULL;
+
+UPDATE products p SET available_quantity = COALESCE(
+        (SELECT SUM(ps.quantity - ps.reserved_quantity) FROM product_stocks ps WHERE ps.product_id = p.id),
+        p.stock_quantity)
+WHERE p.available_quantity IS NULL;
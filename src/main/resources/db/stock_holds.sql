@@ -0,0 +1,17 @@
+-- Tabla stock_holds (reservas de stock con vencimiento del checkout).
+--
+-- Ejecutar una vez sobre una base existente (PostgreSQL) antes de desplegar la versión
+-- con reservas temporales: con ddl-auto=validate la aplicación no arranca sin ella.
+
+CREATE TABLE IF NOT EXISTS stock_holds (
+    id VARCHAR(36) PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products (id),
+    deposito_id BIGINT NOT NULL REFERENCES deposito (id),
+    quantity INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_holds_status ON stock_holds (status, expires_at);
@@ -0,0 +1,8 @@
+-- Columna users.token_version (versión de los tokens JWT emitidos; incrementarla revoca
+-- los anteriores).
+--
+-- Ejecutar una vez sobre una base existente (PostgreSQL) antes de desplegar la versión
+-- con claims de token: con ddl-auto=validate la aplicación no arranca sin ella. El
+-- valor por defecto completa las filas existentes, cuyos tokens quedan en la versión 0.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version BIGINT NOT NULL DEFAULT 0;
@@ -34,4 +34,13 @@ class ActuatorIntegrationTest {
         mockMvc.perform(get("/actuator/info"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void testInfoEndpoint_ShouldExposeProductCacheCounters() throws Exception {
+        mockMvc.perform(get("/actuator/info"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productCache.l1.hits").exists())
+                .andExpect(jsonPath("$.productCache.l1.evictions").exists())
+                .andExpect(jsonPath("$.productCache.l2.enabled").value(false));
+    }
 }
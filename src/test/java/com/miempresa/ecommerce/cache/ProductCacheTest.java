@@ -0,0 +1,107 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductChangedEvent.ChangeType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tests unitarios para ProductCache
+ *
+ */
+class ProductCacheTest {
+
+    private InMemoryProductL2Cache l2;
+    private ProductCache productCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        l2 = new InMemoryProductL2Cache();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("l2", l2);
+        productCache = new ProductCache(100, Duration.ofMinutes(5),
+                beanFactory.getBeanProvider(ProductL2Cache.class),
+                beanFactory.getBeanProvider(MeterRegistry.class));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGetById_SecondCall_ShouldBeServedFromL1() {
+        // Cuando
+        productCache.getById(1L, this::load);
+        Optional<ProductResponseDTO> result = productCache.getById(1L, this::load);
+
+        // Entonces
+        assertTrue(result.isPresent());
+        assertEquals(1, loads.get());
+        assertEquals(1, productCache.l1Stats().hitCount());
+    }
+
+    @Test
+    void testGetBySku_AfterLoadById_ShouldNotHitLoader() {
+        // Dado
+        productCache.getById(1L, this::load);
+
+        // Cuando
+        Optional<ProductResponseDTO> result = productCache.getBySku("SKU-1", () -> load(1L));
+
+        // Entonces
+        assertEquals("SKU-1", result.get().getSku());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testProductChanged_ShouldEvictBothTiersByIdAndSku() {
+        // Dado
+        productCache.getById(1L, this::load);
+
+        // Cuando
+        productCache.onProductChanged(new ProductChangedEvent(ChangeType.UPDATED, 1L, "SKU-1"));
+
+        // Entonces
+        assertFalse(l2.getById(1L).isPresent());
+        assertFalse(l2.getIdBySku("SKU-1").isPresent());
+        productCache.getBySku("SKU-1", () -> load(1L));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetById_WithL1Miss_ShouldFallBackToL2() {
+        // Dado
+        l2.put(product(2L));
+
+        // Cuando
+        Optional<ProductResponseDTO> result = productCache.getById(2L, this::load);
+
+        // Entonces
+        assertTrue(result.isPresent());
+        assertEquals(0, loads.get());
+        assertEquals(1, productCache.l2Hits());
+    }
+
+    private Optional<ProductResponseDTO> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(product(id));
+    }
+
+    private ProductResponseDTO product(Long id) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(id);
+        dto.setSku("SKU-" + id);
+        dto.setName("Producto " + id);
+        return dto;
+    }
+}
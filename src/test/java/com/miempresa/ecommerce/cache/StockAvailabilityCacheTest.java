@@ -0,0 +1,113 @@
+package com.miempresa.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Tests unitarios para StockAvailabilityCache
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+class StockAvailabilityCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryWriteBehind writeBehind;
+
+    private StockAvailabilityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StockAvailabilityCache(productRepository, writeBehind, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testGetAll_ShouldLoadMissesInOneQueryAndServeHitsFromMemory() {
+        // Dado
+        when(productRepository.findStockAvailability(anyCollection())).thenReturn(List.of(
+                new StockAvailability(1L, 5, 3L), new StockAvailability(2L, 8, 1L)));
+
+        // Cuando
+        cache.getAll(List.of(1L, 2L, 3L), Map.of());
+        Map<Long, StockAvailability> result = cache.getAll(List.of(2L, 1L), Map.of());
+
+        // Entonces: el inexistente no se cachea y el orden es el pedido
+        assertEquals(List.of(2L, 1L), List.copyOf(result.keySet()));
+        assertEquals(5, result.get(1L).availableQuantity());
+        assertEquals(2, cache.hitCount());
+        assertEquals(3, cache.missCount());
+        verify(productRepository, times(1)).findStockAvailability(anyCollection());
+    }
+
+    @Test
+    void testGetAll_WithNewerMinVersion_ShouldReadThrough() {
+        // Dado: versión 3 en memoria
+        when(productRepository.findStockAvailability(anyCollection()))
+                .thenReturn(List.of(new StockAvailability(1L, 5, 3L)))
+                .thenReturn(List.of(new StockAvailability(1L, 4, 4L)));
+        cache.getAll(List.of(1L), Map.of());
+
+        // Cuando: quien escribió pide la versión 4
+        StockAvailability fresh = cache.getAll(List.of(1L), Map.of(1L, 4L)).get(1L);
+
+        // Entonces: se lee de la base de datos y queda en memoria para los demás
+        assertEquals(4, fresh.availableQuantity());
+        assertEquals(4L, cache.getAll(List.of(1L), Map.of()).get(1L).stockVersion());
+        assertEquals(4L, cache.getAll(List.of(1L), Map.of(1L, 3L)).get(1L).stockVersion());
+        verify(productRepository, times(2)).findStockAvailability(anyCollection());
+    }
+
+    @Test
+    void testInvalidationDuringLoad_ShouldNotCacheLoadedValue() {
+        // Dado: un cambio de stock se confirma mientras la lectura está en curso
+        when(productRepository.findStockAvailability(anyCollection())).thenAnswer(invocation -> {
+            cache.evict(1L);
+            return List.of(new StockAvailability(1L, 5, 3L));
+        }).thenReturn(List.of(new StockAvailability(1L, 4, 4L)));
+
+        // Cuando
+        cache.getAll(List.of(1L), Map.of());
+        StockAvailability next = cache.getAll(List.of(1L), Map.of()).get(1L);
+
+        // Entonces: la segunda lectura no recibe el valor previo al cambio
+        assertEquals(4L, next.stockVersion());
+        assertEquals(0, cache.hitCount());
+        verify(productRepository, times(2)).findStockAvailability(anyCollection());
+    }
+
+    @Test
+    void testGetAll_WithVersionNotYetPersisted_ShouldFlushAndReadAgain() {
+        // Dado: la versión 4 solo está en el inventario en memoria
+        when(productRepository.findStockAvailability(anyCollection()))
+                .thenReturn(List.of(new StockAvailability(1L, 5, 3L)))
+                .thenReturn(List.of(new StockAvailability(1L, 4, 4L)));
+        // El flush periódico ya la escribió mientras este esperaba su turno
+        when(writeBehind.flush()).thenReturn(0);
+
+        // Cuando
+        StockAvailability fresh = cache.getAll(List.of(1L), Map.of(1L, 4L)).get(1L);
+
+        // Entonces: se adelanta la escritura diferida y se lee el valor que la incluye
+        assertEquals(4, fresh.availableQuantity());
+        assertEquals(4L, fresh.stockVersion());
+        verify(writeBehind, times(1)).flush();
+        verify(productRepository, times(2)).findStockAvailability(anyCollection());
+    }
+}
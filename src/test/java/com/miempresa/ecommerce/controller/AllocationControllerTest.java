@@ -0,0 +1,248 @@
+package com.miempresa.ecommerce.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+/**
+ * Tests de integración de la asignación de pedidos a depósitos
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class AllocationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Deposito main;
+    private Deposito north;
+    private Deposito south;
+    private Product shirt;
+    private Product cap;
+    private final List<ProductStock> stocks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        main = deposito("Depósito central", true);
+        north = deposito("Depósito norte", false);
+        south = deposito("Depósito sur", false);
+
+        // Remera: central 5, norte 10, sur 10. Gorra: central 0, norte 3, sur 4
+        shirt = product("ALLOC-SHIRT", 25);
+        cap = product("ALLOC-CAP", 7);
+        stock(shirt, main, 5);
+        stock(shirt, north, 10);
+        stock(shirt, south, 10);
+        stock(cap, main, 0);
+        stock(cap, north, 3);
+        stock(cap, south, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        jdbcTemplate.update("DELETE FROM stock_holds WHERE product_id IN (?, ?)", shirt.getId(), cap.getId());
+        productStockRepository.deleteAll(stocks);
+        stocks.clear();
+        productRepository.deleteAll(List.of(shirt, cap));
+        depositoRepository.deleteAll(List.of(main, north, south));
+    }
+
+    @Test
+    void testAllocate_WhenMainDepositCoversOrder_ShouldShipFromMain() throws Exception {
+        mockMvc.perform(post("/api/v1/allocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(order("web-1", shirt.getId(), 3)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("ALLOCATED"))
+                .andExpect(jsonPath("$.orderRef").value("web-1"))
+                .andExpect(jsonPath("$.shipments", hasSize(1)))
+                .andExpect(jsonPath("$.shipments[0].depositoId").value(main.getId()))
+                .andExpect(jsonPath("$.shipments[0].main").value(true));
+
+        assertEquals(3, inventoryEngine.get(shirt.getId(), main.getId()).reservedQuantity());
+    }
+
+    @Test
+    void testAllocate_ShouldPreferSingleShipmentOverMainDeposit() throws Exception {
+        // Dado: el central no tiene gorras; el norte cubre las dos líneas
+        String body = "{\"orderRef\":\"web-2\",\"lines\":["
+                + "{\"productId\":" + shirt.getId() + ",\"quantity\":3},"
+                + "{\"productId\":" + cap.getId() + ",\"quantity\":2}]}";
+
+        // Cuando / Entonces
+        mockMvc.perform(post("/api/v1/allocations").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.shipments", hasSize(1)))
+                .andExpect(jsonPath("$.shipments[0].depositoId").value(north.getId()))
+                .andExpect(jsonPath("$.shipments[0].items", hasSize(2)));
+    }
+
+    @Test
+    void testAllocate_WhenNoDepositCoversLine_ShouldSplitAcrossFewestDeposits() throws Exception {
+        // Cuando: 12 remeras, ningún depósito tiene tantas
+        mockMvc.perform(post("/api/v1/allocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(order("web-3", shirt.getId(), 12)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.shipments", hasSize(2)));
+
+        // Entonces: el central entra en el par elegido y el resto sale del que más tiene
+        assertEquals(2, inventoryEngine.get(shirt.getId(), main.getId()).reservedQuantity());
+        assertEquals(10, inventoryEngine.get(shirt.getId(), north.getId()).reservedQuantity());
+        assertEquals(0, inventoryEngine.get(shirt.getId(), south.getId()).reservedQuantity());
+    }
+
+    @Test
+    void testAllocate_WithoutEnoughStock_ShouldReturnBadRequestAndReserveNothing() throws Exception {
+        String body = "{\"lines\":["
+                + "{\"productId\":" + shirt.getId() + ",\"quantity\":1},"
+                + "{\"productId\":" + cap.getId() + ",\"quantity\":8}]}";
+
+        mockMvc.perform(post("/api/v1/allocations").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INSUFFICIENT_STOCK"));
+
+        assertEquals(0, inventoryEngine.get(shirt.getId(), main.getId()).reservedQuantity());
+    }
+
+    @Test
+    void testAllocateBatch_ShouldServeOrdersInArrivalOrder() throws Exception {
+        // Dado: dos pedidos de 4 gorras, solo el sur tiene 4
+        String body = "[" + order("first", cap.getId(), 4) + "," + order("second", cap.getId(), 4)
+                + ",{\"orderRef\":\"empty\",\"lines\":[]}]";
+
+        // Cuando / Entonces
+        mockMvc.perform(post("/api/v1/allocations/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.allocated").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("ALLOCATED"))
+                .andExpect(jsonPath("$.items[0].shipments[0].depositoId").value(south.getId()))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[1].errorCode").value("INSUFFICIENT_STOCK"))
+                .andExpect(jsonPath("$.items[2].errorCode").value("INVALID_ORDER"));
+
+        assertEquals(4, inventoryEngine.get(cap.getId(), south.getId()).reservedQuantity());
+    }
+
+    @Test
+    void testAllocate_ShouldHoldEachItemUntilTheHoldIsCancelled() throws Exception {
+        // Dado
+        MvcResult result = mockMvc.perform(post("/api/v1/allocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(order("web-4", shirt.getId(), 3)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.shipments[0].items[0].holdId", notNullValue()))
+                .andExpect(jsonPath("$.shipments[0].items[0].holdExpiresAt", notNullValue()))
+                .andReturn();
+        JsonNode item = objectMapper.readTree(result.getResponse().getContentAsString()).at("/shipments/0/items/0");
+
+        // Cuando
+        mockMvc.perform(post("/api/v1/stock/holds/{id}/cancel", item.get("holdId").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"))
+                .andExpect(jsonPath("$.quantity").value(3));
+
+        // Entonces
+        assertEquals(0, inventoryEngine.get(shirt.getId(), main.getId()).reservedQuantity());
+    }
+
+    @Test
+    @WithMockUser
+    void testAllocate_WithoutAdminRole_ShouldBeForbiddenAndReserveNothing() throws Exception {
+        mockMvc.perform(post("/api/v1/allocations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(order("web-5", shirt.getId(), 1)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/allocations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + order("web-6", shirt.getId(), 1) + "]"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(0, inventoryEngine.get(shirt.getId(), main.getId()).reservedQuantity());
+    }
+
+    private static String order(String orderRef, Long productId, int quantity) {
+        return "{\"orderRef\":\"" + orderRef + "\",\"lines\":[{\"productId\":" + productId
+                + ",\"quantity\":" + quantity + "}]}";
+    }
+
+    private Deposito deposito(String name, boolean isMain) {
+        Deposito deposito = new Deposito();
+        deposito.setName(name);
+        deposito.setIsMain(isMain);
+        return depositoRepository.save(deposito);
+    }
+
+    private Product product(String sku, int quantity) {
+        Product product = new Product();
+        product.setName(sku);
+        product.setPrice(10.0);
+        product.setStockQuantity(quantity);
+        product.setSku(sku);
+        return productRepository.save(product);
+    }
+
+    private void stock(Product product, Deposito deposito, int quantity) {
+        ProductStock stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(quantity);
+        stocks.add(productStockRepository.save(stock));
+    }
+}
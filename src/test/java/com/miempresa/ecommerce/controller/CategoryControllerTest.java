@@ -0,0 +1,304 @@
+package com.miempresa.ecommerce.controller;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.miempresa.ecommerce.cache.CategoryProductCounts;
+import com.miempresa.ecommerce.cache.CategoryTreeCache;
+import com.miempresa.ecommerce.dto.request.CategoryCreateRequestDTO;
+import com.miempresa.ecommerce.dto.request.ProductCreateRequestDTO;
+import com.miempresa.ecommerce.entity.CategoryClosure;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.repository.CategoryClosureRepository;
+import com.miempresa.ecommerce.repository.CategoryRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.service.ICategoryService;
+import com.miempresa.ecommerce.service.IProductService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests de integración del árbol de categorías en memoria
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class CategoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ICategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryClosureRepository categoryClosureRepository;
+
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
+    @Autowired
+    private CategoryProductCounts categoryProductCounts;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> created = new ArrayList<>();
+    private final List<Long> products = new ArrayList<>();
+    private Long electronics;
+    private Long phones;
+    private Long android;
+
+    @BeforeEach
+    void setUp() {
+        // Electrónica > Teléfonos > Android
+        electronics = create("Electrónica", "tree-electronics", null);
+        phones = create("Teléfonos", "tree-phones", electronics);
+        android = create("Android", "tree-android", phones);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllById(products);
+        products.clear();
+        for (int i = created.size() - 1; i >= 0; i--) {
+            categoryRepository.deleteById(created.get(i));
+        }
+        created.clear();
+        categoryService.rebuildClosure();
+        categoryTreeCache.refresh();
+    }
+
+    @Test
+    void testGetTree_ShouldBeServedWithoutQueries() throws Exception {
+        // Dado
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Cuando / Entonces
+        mockMvc.perform(get("/api/v1/categories/tree"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + electronics + ")].children[0].slug").value(contains("tree-phones")))
+                .andExpect(jsonPath("$[?(@.id == " + electronics + ")].children[0].children[0].name").value(contains("Android")));
+        mockMvc.perform(get("/api/v1/categories/slug/{slug}", "tree-phones"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parentName").value("Electrónica"))
+                .andExpect(jsonPath("$.children[0].id").value(android));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testUpdate_ShouldSwapSnapshotAndRejectCycles() throws Exception {
+        // Cuando: Android pasa a ser raíz y Teléfonos se renombra
+        mockMvc.perform(put("/api/v1/categories/{id}", android)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Android\",\"slug\":\"tree-android\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/categories/{id}", phones)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Celulares\",\"parentId\":" + electronics + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slug").value("tree-phones"));
+
+        // Entonces: la lectura siguiente ya ve la instantánea nueva
+        mockMvc.perform(get("/api/v1/categories/{id}", phones))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Celulares"))
+                .andExpect(jsonPath("$.children").doesNotExist());
+        mockMvc.perform(get("/api/v1/categories/tree"))
+                .andExpect(jsonPath("$[?(@.id == " + android + ")].name").value(contains("Android")));
+
+        // Una categoría no puede quedar debajo de su propio subárbol
+        mockMvc.perform(put("/api/v1/categories/{id}", electronics)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Electrónica\",\"parentId\":" + phones + "}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_PARENT"));
+    }
+
+    @Test
+    void testDelete_ShouldRequireNoActiveChildrenAndHideCategory() throws Exception {
+        mockMvc.perform(delete("/api/v1/categories/{id}", phones))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("CATEGORY_HAS_CHILDREN"));
+
+        mockMvc.perform(delete("/api/v1/categories/{id}", android))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/categories/{id}", android))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("CATEGORY_NOT_FOUND"));
+        mockMvc.perform(get("/api/v1/categories/tree"))
+                .andExpect(jsonPath("$[?(@.id == " + electronics + ")].children[0].children[*]").value(empty()));
+    }
+
+    @Test
+    void testSubtreeProducts_ShouldFollowClosureRowsAcrossMoves() throws Exception {
+        // Dado
+        product("SUB-PHONES", phones);
+        product("SUB-ANDROID", android);
+        assertTrue(categoryClosureRepository.existsById(new CategoryClosure.Key(electronics, android)));
+
+        // Entonces: sin el parámetro solo la categoría exacta, con él todo el subárbol
+        mockMvc.perform(get("/api/v1/products/category/{category}", "tree-electronics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(get("/api/v1/products/category/{category}", "tree-electronics")
+                        .param("includeSubcategories", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2));
+
+        // Cuando: Teléfonos pasa a ser raíz con todo su subárbol
+        mockMvc.perform(put("/api/v1/categories/{id}", phones)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Teléfonos\",\"slug\":\"tree-phones\"}"))
+                .andExpect(status().isOk());
+
+        // Entonces
+        assertFalse(categoryClosureRepository.existsById(new CategoryClosure.Key(electronics, android)));
+        assertEquals(1, categoryClosureRepository.findById(new CategoryClosure.Key(phones, android)).orElseThrow().getDepth());
+        mockMvc.perform(get("/api/v1/products/category/{category}", "tree-electronics")
+                        .param("includeSubcategories", "true"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(get("/api/v1/products/category/{category}", "tree-phones")
+                        .param("includeSubcategories", "true"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void testProductCounts_ShouldFollowProductAndCategoryChanges() throws Exception {
+        // Dado
+        for (int i = 0; i < 100 && !categoryProductCounts.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(categoryProductCounts.isReady());
+        // Las bajas directas de los tests anteriores no pasan por los eventos
+        categoryProductCounts.verify();
+        Long phone = product("CNT-PHONES", phones);
+        Long androidPhone = product("CNT-ANDROID", android);
+
+        // Entonces: directos y del subárbol
+        mockMvc.perform(get("/api/v1/categories/tree"))
+                .andExpect(jsonPath("$[?(@.id == " + electronics + ")].productCount").value(contains(0)))
+                .andExpect(jsonPath("$[?(@.id == " + electronics + ")].totalProductCount").value(contains(2)));
+        mockMvc.perform(get("/api/v1/categories/{id}", electronics))
+                .andExpect(jsonPath("$.children[0].productCount").value(1))
+                .andExpect(jsonPath("$.children[0].totalProductCount").value(2));
+
+        // Cuando: baja de un producto y Teléfonos pasa a ser raíz
+        productService.deleteProduct(androidPhone);
+        mockMvc.perform(put("/api/v1/categories/{id}", phones)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Teléfonos\",\"slug\":\"tree-phones\"}"))
+                .andExpect(status().isOk());
+
+        // Entonces
+        assertEquals(0L, categoryProductCounts.subtreeCount(electronics));
+        assertEquals(1L, categoryProductCounts.subtreeCount(phones));
+        assertEquals(0, categoryProductCounts.verify());
+
+        // Un cambio por fuera de los servicios desvía el conteo hasta la verificación
+        Product changed = productRepository.findById(phone).orElseThrow();
+        changed.setActive(false);
+        productRepository.save(changed);
+        assertEquals(1L, categoryProductCounts.directCount(phones));
+        assertEquals(1, categoryProductCounts.verify());
+        assertEquals(0L, categoryProductCounts.directCount(phones));
+        assertEquals(0L, categoryProductCounts.subtreeCount(phones));
+    }
+
+    @Test
+    void testProductBreadcrumb_ShouldComeFromSnapshotAndFollowRenames() throws Exception {
+        // Dado: el detalle ya está en la caché de productos
+        Long androidPhone = product("CRUMB-ANDROID", android);
+        mockMvc.perform(get("/api/v1/products/{id}", androidPhone)).andExpect(status().isOk());
+        String etag = mockMvc.perform(get("/api/v1/products/{id}", androidPhone))
+                .andReturn().getResponse().getHeader("ETag");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Entonces: la ruta completa sin consultas adicionales
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/products/{id}", androidPhone))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryId").value(android))
+                .andExpect(jsonPath("$.breadcrumb[*].id").value(contains(
+                        electronics.intValue(), phones.intValue(), android.intValue())))
+                .andExpect(jsonPath("$.breadcrumb[1].slug").value("tree-phones"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Cuando: Teléfonos se renombra
+        mockMvc.perform(put("/api/v1/categories/{id}", phones)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Celulares\",\"parentId\":" + electronics + "}"))
+                .andExpect(status().isOk());
+
+        // Entonces: el detalle cacheado y los listados ya muestran el nombre nuevo
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/products/{id}", androidPhone).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.breadcrumb[1].name").value("Celulares"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        mockMvc.perform(get("/api/v1/products/category/{category}", "tree-electronics")
+                        .param("includeSubcategories", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].category").value("Android"))
+                .andExpect(jsonPath("$.content[0].breadcrumb[*].name").value(contains("Electrónica", "Celulares", "Android")));
+    }
+
+    private Long product(String sku, Long categoryId) {
+        ProductCreateRequestDTO request = new ProductCreateRequestDTO();
+        request.setName(sku);
+        request.setPrice(10.0);
+        request.setStockQuantity(1);
+        request.setSku(sku);
+        request.setCategoryId(categoryId);
+        Long id = productService.createProduct(request).getId();
+        products.add(id);
+        return id;
+    }
+
+    private Long create(String name, String slug, Long parentId) {
+        CategoryCreateRequestDTO request = new CategoryCreateRequestDTO();
+        request.setName(name);
+        request.setSlug(slug);
+        request.setParentId(parentId);
+        Long id = categoryService.createCategory(request).getId();
+        created.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,211 @@
+package com.miempresa.ecommerce.controller;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+import com.miempresa.ecommerce.util.Constants;
+
+/**
+ * Tests de integración de las reservas de inventario en memoria
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class InventoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    private Product product;
+    private Deposito deposito;
+    private ProductStock stock;
+
+    @BeforeEach
+    void setUp() {
+        deposito = new Deposito();
+        deposito.setName("Depósito inventario");
+        deposito = depositoRepository.save(deposito);
+
+        product = new Product();
+        product.setName("Inventariado");
+        product.setPrice(10.0);
+        product.setStockQuantity(10);
+        product.setSku("INV-1");
+        product = productRepository.save(product);
+
+        stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(10);
+        stock = productStockRepository.save(stock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        productStockRepository.delete(stock);
+        productRepository.delete(product);
+        depositoRepository.delete(deposito);
+    }
+
+    @Test
+    void testReserveAndCommit_ShouldUpdateMemoryAndPersistOnFlush() throws Exception {
+        // Cuando
+        mockMvc.perform(post(path("reserve")).param("quantity", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservedQuantity").value(4))
+                .andExpect(jsonPath("$.availableQuantity").value(6));
+        mockMvc.perform(post(path("commit")).param("quantity", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(7))
+                .andExpect(jsonPath("$.reservedQuantity").value(1));
+
+        // Entonces: la base de datos se entera en la escritura diferida
+        writeBehind.flush();
+        ProductStock persisted = productStockRepository.findById(stock.getId()).orElseThrow();
+        assertEquals(7, persisted.getQuantity());
+        assertEquals(1, persisted.getReservedQuantity());
+    }
+
+    @Test
+    void testReserve_ShouldReturnVersionThatAvailabilityReadsHonor() throws Exception {
+        // Dado: el disponible ya está en la caché
+        mockMvc.perform(get("/api/v1/products/{id}/availability", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity").value(10));
+
+        // Cuando: la reserva solo está en memoria
+        String version = mockMvc.perform(post(path("reserve")).param("quantity", "4"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(Constants.STOCK_VERSION_HEADER);
+
+        // Entonces: con esa versión mínima se lee la reserva aunque no se haya persistido todavía
+        mockMvc.perform(get("/api/v1/products/{id}/availability", product.getId()).param("minVersion", version))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableQuantity").value(6))
+                .andExpect(jsonPath("$.stockVersion").value(Long.parseLong(version)));
+    }
+
+    @Test
+    void testReserve_WithoutEnoughStock_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post(path("reserve")).param("quantity", "11"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INSUFFICIENT_STOCK"));
+        mockMvc.perform(post(path("release")).param("quantity", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_RELEASE"));
+        mockMvc.perform(get("/api/v1/inventory/{productId}/deposits/{depositoId}", product.getId(), 999999L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("STOCK_NOT_FOUND"));
+    }
+
+    @Test
+    @WithMockUser
+    void testReserveReleaseAndCommit_WithoutAdminRole_ShouldBeForbidden() throws Exception {
+        // Cuando / Entonces: un comprador no mueve reservas ajenas
+        for (String operation : List.of("reserve", "release", "commit")) {
+            mockMvc.perform(post(path(operation)).param("quantity", "1"))
+                    .andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/api/v1/inventory/{productId}/deposits/{depositoId}", product.getId(), deposito.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservedQuantity").value(0));
+    }
+
+    @Test
+    void testHotMode_ShouldKeepStockAcrossEnableAndDisable() throws Exception {
+        // Dado: una reserva antes de activar el modo
+        mockMvc.perform(post(path("reserve")).param("quantity", "2"))
+                .andExpect(status().isOk());
+
+        // Cuando: modo SKU caliente con 4 sub-buckets
+        mockMvc.perform(put("/api/v1/inventory/{productId}/hot", product.getId()).param("shards", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hot").value(true))
+                .andExpect(jsonPath("$.shards").value(4))
+                .andExpect(jsonPath("$.rows").value(1));
+
+        // Entonces: se puede reservar más de lo que tiene cada sub-bucket
+        mockMvc.perform(post(path("reserve")).param("quantity", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservedQuantity").value(9))
+                .andExpect(jsonPath("$.availableQuantity").value(1));
+        mockMvc.perform(post(path("commit")).param("quantity", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(5));
+        mockMvc.perform(delete("/api/v1/inventory/{productId}/hot", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hot").value(false));
+        mockMvc.perform(put("/api/v1/inventory/{productId}/hot", product.getId()).param("shards", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_SHARDS"));
+
+        writeBehind.flush();
+        ProductStock persisted = productStockRepository.findById(stock.getId()).orElseThrow();
+        assertEquals(5, persisted.getQuantity());
+        assertEquals(4, persisted.getReservedQuantity());
+    }
+
+    @Test
+    void testProductSoftDelete_ShouldKeepUnflushedReservationsAndVersion() throws Exception {
+        // Dado: una reserva que solo está en memoria
+        String version = mockMvc.perform(post(path("reserve")).param("quantity", "4"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(Constants.STOCK_VERSION_HEADER);
+
+        // Cuando: baja lógica del producto antes de la escritura diferida
+        mockMvc.perform(delete("/api/v1/products/{id}", product.getId()))
+                .andExpect(status().isNoContent());
+
+        // Entonces: la reserva llega a la base de datos, se puede liberar y la versión no retrocede
+        writeBehind.flush();
+        assertEquals(4, productStockRepository.findById(stock.getId()).orElseThrow().getReservedQuantity());
+        String released = mockMvc.perform(post(path("release")).param("quantity", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservedQuantity").value(0))
+                .andReturn().getResponse().getHeader(Constants.STOCK_VERSION_HEADER);
+        assertTrue(Long.parseLong(released) > Long.parseLong(version));
+    }
+
+    private String path(String action) {
+        return "/api/v1/inventory/" + product.getId() + "/deposits/" + deposito.getId() + "/" + action;
+    }
+}
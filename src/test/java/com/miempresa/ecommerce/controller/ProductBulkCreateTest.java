@@ -0,0 +1,145 @@
+package com.miempresa.ecommerce.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miempresa.ecommerce.dto.request.ProductCreateRequestDTO;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests de integración del alta masiva de productos
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductBulkCreateTest {
+
+    private static final int ITEMS = 300;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Product existing;
+
+    @BeforeEach
+    void setUp() {
+        existing = new Product();
+        existing.setName("Existente");
+        existing.setPrice(1.0);
+        existing.setStockQuantity(1);
+        existing.setSku("BULK-EXISTS");
+        existing = productRepository.save(existing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll(productRepository.findAll().stream()
+                .filter(product -> product.getSku() != null && product.getSku().startsWith("BULK-"))
+                .toList());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testCreateProducts_ShouldReportPerItemResults() throws Exception {
+        // Dado
+        List<ProductCreateRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            requests.add(request("Granel " + i, "BULK-" + i, null));
+        }
+        requests.add(request("Repetido", "BULK-0", null));
+        requests.add(request("Ya existe", "BULK-EXISTS", null));
+        requests.add(request("", "BULK-INVALID", null));
+        requests.add(request("Sin categoría", "BULK-NOCAT", 999_999L));
+
+        // Cuando / Entonces
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(ITEMS + 4))
+                .andExpect(jsonPath("$.created").value(ITEMS))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[" + ITEMS + "].errorCode").value("DUPLICATE_SKU"))
+                .andExpect(jsonPath("$.items[" + (ITEMS + 1) + "].errorCode").value("DUPLICATE_SKU"))
+                .andExpect(jsonPath("$.items[" + (ITEMS + 2) + "].errorCode").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.items[" + (ITEMS + 3) + "].errorCode").value("CATEGORY_NOT_FOUND"));
+
+        assertTrue(productRepository.existsBySku("BULK-" + (ITEMS - 1)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testCreateProducts_ShouldQueryPerChunkAndInsertInJdbcBatches() throws Exception {
+        // Dado
+        List<ProductCreateRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            requests.add(request("Lote " + i, "BULK-" + i, null));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Cuando
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk());
+
+        // Entonces: consultas por lote (SKU, categorías, depósito, stock bajo, conteo por categoría) y no por producto
+        assertEquals(ITEMS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getQueryExecutionCount() <= 6,
+                "consultas ejecutadas: " + statistics.getQueryExecutionCount());
+        assertEquals("50", String.valueOf(entityManagerFactory.getProperties().get("hibernate.jdbc.batch_size")));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testCreateProducts_WithoutAdminRole_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/products/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static ProductCreateRequestDTO request(String name, String sku, Long categoryId) {
+        ProductCreateRequestDTO request = new ProductCreateRequestDTO();
+        request.setName(name);
+        request.setPrice(9.99);
+        request.setStockQuantity(5);
+        request.setSku(sku);
+        request.setCategoryId(categoryId);
+        return request;
+    }
+}
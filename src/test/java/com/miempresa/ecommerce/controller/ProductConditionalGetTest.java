@@ -0,0 +1,167 @@
+package com.miempresa.ecommerce.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.miempresa.ecommerce.cache.CategoryTreeCache;
+import com.miempresa.ecommerce.entity.Category;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.event.ProductChangedEvent;
+import com.miempresa.ecommerce.event.ProductChangedEvent.ChangeType;
+import com.miempresa.ecommerce.repository.CategoryRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Tests de integración de las respuestas condicionales (ETag / Last-Modified)
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Product product;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setName("Condicional");
+        product.setPrice(12.5);
+        product.setStockQuantity(3);
+        product.setSku("ETAG-1");
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.DELETED, product));
+        if (category != null) {
+            categoryRepository.delete(category);
+            categoryTreeCache.refresh();
+        }
+    }
+
+    @Test
+    void testGetProductById_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Dado
+        String etag = mockMvc.perform(get("/api/v1/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("\""));
+
+        // Cuando / Entonces
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/v1/products/sku/{sku}", "ETAG-1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetProductById_AfterUpdate_ShouldChangeETag() throws Exception {
+        // Dado
+        String etag = mockMvc.perform(get("/api/v1/products/{id}", product.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Cuando
+        product.setPrice(15.0);
+        product = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.UPDATED, product));
+
+        // Entonces
+        MvcResult result = mockMvc.perform(get("/api/v1/products/{id}", product.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, result.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testGetAllActiveProducts_WithMatchingWeakETag_ShouldReturnNotModified() throws Exception {
+        // Dado
+        MvcResult first = mockMvc.perform(get("/api/v1/products").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("W/"));
+
+        // Cuando / Entonces
+        mockMvc.perform(get("/api/v1/products").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        product.setActive(false);
+        productRepository.save(product);
+        String changed = mockMvc.perform(get("/api/v1/products").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void testGetProductById_AfterCategoryRename_ShouldAdvanceLastModified() throws Exception {
+        // Dado
+        category = new Category();
+        category.setName("Iluminación");
+        category.setSlug("etag-iluminacion");
+        category = categoryRepository.save(category);
+        categoryTreeCache.refresh();
+        product.setCategory(category);
+        product = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.UPDATED, product));
+        String lastModified = mockMvc.perform(get("/api/v1/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(lastModified);
+
+        // Cuando: Last-Modified tiene precisión de segundos
+        Thread.sleep(1100);
+        category.setName("Lámparas");
+        category = categoryRepository.save(category);
+        categoryTreeCache.refresh();
+
+        // Entonces
+        MvcResult result = mockMvc.perform(get("/api/v1/products/{id}", product.getId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category").value("Lámparas"))
+                .andReturn();
+        assertNotEquals(lastModified, result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,118 @@
+package com.miempresa.ecommerce.controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Tests de integración de la paginación por cursor (keyset) de productos
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductCursorPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        products = new ArrayList<>();
+        // Precios repetidos para forzar el desempate por ID
+        for (int i = 0; i < 7; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice((double) (i % 3 + 1));
+            product.setStockQuantity(i);
+            product.setSku("CUR-" + i);
+            products.add(productRepository.save(product));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll(products);
+    }
+
+    @Test
+    void testCursorPagination_ShouldVisitEveryProductOnceInSortOrder() throws Exception {
+        // Dado
+        List<Long> expected = products.stream()
+                .sorted(Comparator.comparing(Product::getPrice).reversed()
+                        .thenComparing(Product::getId, Comparator.reverseOrder()))
+                .map(Product::getId)
+                .toList();
+
+        // Cuando
+        List<Long> visited = new ArrayList<>();
+        String cursor = "";
+        do {
+            String body = mockMvc.perform(get("/api/v1/products")
+                            .param("cursor", cursor)
+                            .param("size", "3")
+                            .param("sortBy", "price")
+                            .param("sortDir", "desc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(product -> visited.add(product.get("id").asLong()));
+            cursor = page.get("hasNext").asBoolean() ? page.get("next").asText() : null;
+        } while (cursor != null);
+
+        // Entonces
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void testCursorPagination_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_CURSOR"));
+    }
+
+    @Test
+    void testSlicePagination_ShouldReportHasNextAndApproximateTotal() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("slice", "true").param("page", "2").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        mockMvc.perform(get("/api/v1/products").param("slice", "true").param("size", "3"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.approximateTotal").isNumber());
+    }
+
+    @Test
+    void testOffsetPagination_WithoutCursor_ShouldKeepPageResponse() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(products.size()));
+    }
+}
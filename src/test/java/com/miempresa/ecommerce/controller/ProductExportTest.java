@@ -0,0 +1,129 @@
+package com.miempresa.ecommerce.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Tests de integración de la exportación del catálogo
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Product> products = new ArrayList<>();
+    private long beforeFirstId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Product product = new Product();
+            product.setName(i == 0 ? "Mesa \"roble\", 2 m" : "Exportado " + i);
+            product.setPrice(100.0 + i);
+            product.setStockQuantity(i);
+            product.setSku("EXP-" + i);
+            product.setActive(i != 4);
+            products.add(productRepository.save(product));
+        }
+        beforeFirstId = products.get(0).getId() - 1;
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll(products);
+    }
+
+    @Test
+    void testExportNdjson_ShouldStreamActiveProductsInIdOrder() throws Exception {
+        // Cuando
+        List<String> lines = export("ndjson", beforeFirstId, false);
+
+        // Entonces
+        assertEquals(4, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(products.get(i).getId(), objectMapper.readTree(lines.get(i)).get("id").asLong());
+        }
+    }
+
+    @Test
+    void testExport_WithAfterId_ShouldResumeAfterLastSeenProduct() throws Exception {
+        // Cuando
+        List<String> lines = export("ndjson", products.get(1).getId(), false);
+
+        // Entonces
+        assertEquals(2, lines.size());
+        assertEquals(products.get(2).getId(), objectMapper.readTree(lines.get(0)).get("id").asLong());
+    }
+
+    @Test
+    void testExportCsv_WithGzip_ShouldCompressAndEscapeFields() throws Exception {
+        // Cuando
+        List<String> lines = export("csv", beforeFirstId, true);
+
+        // Entonces
+        assertEquals(5, lines.size());
+        assertEquals("id,name,description,price,stockQuantity,sku,category,imageUrl,active,createdAt,updatedAt",
+                lines.get(0));
+        assertEquals(products.get(0).getId() + ",\"Mesa \"\"roble\"\", 2 m\",,100.0,0,EXP-0,,,true",
+                lines.get(1).substring(0, lines.get(1).indexOf(",true") + 5));
+    }
+
+    @Test
+    void testExport_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<String> export(String format, long afterId, boolean gzip) throws Exception {
+        var request = get("/api/v1/products/export").param("format", format).param("afterId", String.valueOf(afterId));
+        if (gzip) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        }
+        MockHttpServletResponse response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertTrue(response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+
+        byte[] body = gzip ? gunzip(response.getContentAsByteArray()) : response.getContentAsByteArray();
+        return new String(body, StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.miempresa.ecommerce.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.entity.Category;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.event.StockLevelsPersistedEvent;
+import com.miempresa.ecommerce.inventory.StockLevel;
+import com.miempresa.ecommerce.repository.CategoryRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.search.ProductFacetDocument;
+import com.miempresa.ecommerce.search.ProductFacetFilter;
+import com.miempresa.ecommerce.search.ProductFacetIndex;
+import com.miempresa.ecommerce.search.ProductFacetIndexer;
+import com.miempresa.ecommerce.search.ProductSearchDocument;
+import com.miempresa.ecommerce.search.ProductSearchIndex;
+import com.miempresa.ecommerce.search.ProductSearchIndexer;
+import com.miempresa.ecommerce.util.MapperUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cantidad exacta de sentencias SQL por endpoint de listado: el resultado no debe
+ * depender del número de filas de la página (sin N+1)
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductListQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductSearchIndexer searchIndexer;
+
+    @Autowired
+    private ProductFacetIndex facetIndex;
+
+    @Autowired
+    private ProductFacetIndexer facetIndexer;
+
+    private Statistics statistics;
+    private Category category;
+    private Category child;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // La carga inicial del índice corre en otro hilo y también cuenta sentencias
+        for (int i = 0; i < 100 && !(searchIndexer.isReady() && facetIndexer.isReady()); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(searchIndexer.isReady());
+        assertTrue(facetIndexer.isReady());
+
+        category = new Category();
+        category.setName("Conteo");
+        category.setSlug("conteo");
+        category = categoryRepository.save(category);
+
+        child = new Category();
+        child.setName("Conteo hijo");
+        child.setSlug("conteo-hijo");
+        child.setParent(category);
+        child = categoryRepository.save(child);
+
+        for (int i = 0; i < 4; i++) {
+            Product product = new Product();
+            product.setName("Contador " + i);
+            product.setPrice(5.0 + i);
+            product.setStockQuantity(i);
+            product.setSku("CNT-" + i);
+            product.setCategory(i < 3 ? category : null);
+            product = productRepository.save(product);
+            products.add(product);
+            searchIndex.index(new ProductSearchDocument(product.getId(), product.getName(), null));
+            facetIndex.index(new ProductFacetDocument(product.getId(),
+                    i < 3 ? category.getId() : null, product.getPrice(), product.getStockQuantity()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        products.forEach(product -> {
+            searchIndex.remove(product.getId());
+            facetIndex.remove(product.getId());
+        });
+        productRepository.deleteAll(products);
+        categoryRepository.delete(child);
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void testActiveProducts_ShouldRunVersionSelectAndCount() throws Exception {
+        assertStatements(3, get("/api/v1/products").param("size", "2"));
+        assertStatements(1, get("/api/v1/products").param("cursor", "").param("size", "2"));
+    }
+
+    @Test
+    void testProductsByCategory_ShouldRunCategoryLookupPlusPage() throws Exception {
+        // Versión del listado (categoría + agregado) y luego la página (categoría + datos + conteo)
+        assertStatements(5, get("/api/v1/products/category/conteo").param("size", "2"));
+        assertStatements(2, get("/api/v1/products/category/conteo").param("cursor", "").param("size", "2"));
+    }
+
+    @Test
+    void testFacets_ShouldOnlyHydratePageAndCategoryNames() throws Exception {
+        // Filtros y conteos salen del índice: nombres de categoría + datos de la página
+        assertStatements(2, get("/api/v1/products").param("facets", "true")
+                .param("categoryId", category.getId().toString()).param("inStock", "true").param("size", "2"));
+    }
+
+    @Test
+    void testSearch_ShouldHydrateIndexHitsInOneQuery() throws Exception {
+        assertStatements(1, get("/api/v1/products/search").param("keyword", "contador").param("size", "2"));
+        assertStatements(1, get("/api/v1/products/search").param("keyword", "contador").param("cursor", "").param("size", "2"));
+    }
+
+    @Test
+    void testSlices_WithCachedTotals_ShouldSkipCountQuery() throws Exception {
+        // La primera lectura de cada filtro calcula el total; las siguientes lo toman de caché
+        mockMvc.perform(get("/api/v1/products").param("slice", "true").param("size", "2"));
+        mockMvc.perform(get("/api/v1/products/category/conteo").param("slice", "true").param("size", "2"));
+
+        assertStatements(1, get("/api/v1/products").param("slice", "true").param("size", "2"));
+        assertStatements(2, get("/api/v1/products/category/conteo").param("slice", "true").param("size", "2"));
+        assertStatements(1, get("/api/v1/products/search").param("keyword", "contador").param("slice", "true").param("size", "2"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testLowStock_ShouldRunSingleQuery() throws Exception {
+        assertStatements(1, get("/api/v1/products/low-stock").param("threshold", "2"));
+    }
+
+    @Test
+    void testStockLevelsPersisted_ShouldReindexFacetsOfTheWholeBatchInOneQuery() {
+        // Dado: el producto sin stock recibe unidades en la base de datos
+        transactionTemplate.executeWithoutResult(status -> productRepository.setStockTotal(products.get(0).getId(), 3, 1L));
+        List<StockLevel> levels = products.stream().map(product -> new StockLevel(product.getId(), 1L, 3, 0)).toList();
+
+        // Cuando
+        long statements = countStatements(() -> facetIndexer.onStockLevelsPersisted(new StockLevelsPersistedEvent(levels)));
+
+        // Entonces
+        assertEquals(1, statements);
+        assertEquals(3, facetIndex.query(new ProductFacetFilter(Set.of(category.getId()), null, true), 0, 10).totalHits());
+    }
+
+    @Test
+    void testEntityListing_WithFetchPlan_ShouldNotLazyLoadCategories() {
+        long statements = countStatements(() -> productRepository
+                .findByCategoryId(category.getId(), PageRequest.of(0, 2))
+                .map(MapperUtil::toProductResponseDTO)
+                .forEach(dto -> assertEquals("Conteo", dto.getCategory())));
+
+        assertEquals(2, statements);
+    }
+
+    @Test
+    void testCategoryTree_WithFetchPlanAndBatchSize_ShouldNotLoadChildrenPerRow() {
+        // Raíces con padre e hijos en una consulta; los nietos en un único lote
+        long statements = countStatements(() -> categoryRepository.findRootCategories()
+                .forEach(MapperUtil::toCategoryResponseDTO));
+
+        assertEquals(2, statements);
+    }
+
+    private void assertStatements(long expected, RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
+    private long countStatements(Runnable work) {
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> work.run());
+        return statistics.getPrepareStatementCount();
+    }
+}
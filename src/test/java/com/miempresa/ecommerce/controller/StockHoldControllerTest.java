@@ -0,0 +1,208 @@
+package com.miempresa.ecommerce.controller;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miempresa.ecommerce.dto.request.StockHoldRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockHoldResponseDTO;
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.entity.StockHold;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.inventory.StockHoldExpiry;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+import com.miempresa.ecommerce.repository.StockHoldRepository;
+
+/**
+ * Tests de integración de las reservas temporales de stock
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class StockHoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StockHoldExpiry stockHoldExpiry;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    private Product product;
+    private Deposito deposito;
+    private ProductStock stock;
+
+    @BeforeEach
+    void setUp() {
+        deposito = new Deposito();
+        deposito.setName("Depósito reservas");
+        deposito = depositoRepository.save(deposito);
+
+        product = new Product();
+        product.setName("Reservable");
+        product.setPrice(10.0);
+        product.setStockQuantity(10);
+        product.setSku("HOLD-1");
+        product = productRepository.save(product);
+
+        stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(10);
+        stock = productStockRepository.save(stock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        stockHoldRepository.deleteAll();
+        productStockRepository.delete(stock);
+        productRepository.delete(product);
+        depositoRepository.delete(deposito);
+    }
+
+    @Test
+    void testConfirmHold_ShouldConsumeReservedStockOnce() throws Exception {
+        // Dado
+        StockHoldResponseDTO hold = createHold(4, null);
+        assertStock(10, 4);
+
+        // Cuando
+        mockMvc.perform(post("/api/v1/stock/holds/{id}/confirm", hold.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"));
+
+        // Entonces
+        assertStock(6, 0);
+        assertTotals(6, 6);
+        mockMvc.perform(post("/api/v1/stock/holds/{id}/cancel", hold.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("HOLD_NOT_ACTIVE"));
+    }
+
+    @Test
+    void testCancelHold_ShouldReleaseReservedStock() throws Exception {
+        StockHoldResponseDTO hold = createHold(3, null);
+
+        mockMvc.perform(post("/api/v1/stock/holds/{id}/cancel", hold.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+
+        assertStock(10, 0);
+    }
+
+    @Test
+    void testCreateHold_WithoutEnoughStock_ShouldFail() throws Exception {
+        createHold(8, null);
+
+        mockMvc.perform(post("/api/v1/stock/holds").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new StockHoldRequestDTO(product.getId(), deposito.getId(), 3, null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INSUFFICIENT_STOCK"));
+    }
+
+    @Test
+    void testExpiredHolds_ShouldBeReleasedByTheWheel() throws Exception {
+        // Dado: una reserva corta y otra que sobrevivió a un reinicio ya vencida
+        StockHoldResponseDTO shortHold = createHold(2, 1L);
+        StockHoldResponseDTO restored = createHold(3, null);
+        StockHold stored = stockHoldRepository.findById(restored.getId()).orElseThrow();
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        stockHoldRepository.save(stored);
+        stockHoldExpiry.rearm();
+
+        // Cuando
+        Thread.sleep(2_100);
+        stockHoldExpiry.tick();
+
+        // Entonces
+        assertStock(10, 0);
+        assertTotals(10, 10);
+        assertEquals(StockHold.Status.EXPIRED, stockHoldRepository.findById(shortHold.getId()).orElseThrow().getStatus());
+        assertEquals(StockHold.Status.EXPIRED, stockHoldRepository.findById(restored.getId()).orElseThrow().getStatus());
+        mockMvc.perform(post("/api/v1/stock/holds/{id}/confirm", shortHold.getId()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("HOLD_NOT_ACTIVE"));
+    }
+
+    @Test
+    void testExpiredHold_WithoutReservedStock_ShouldExpireWithoutRelease() throws Exception {
+        // Dado: lo reservado de la reserva ya no está en memoria
+        StockHoldResponseDTO hold = createHold(3, 1L);
+        inventoryEngine.release(product.getId(), deposito.getId(), 3);
+
+        // Cuando
+        Thread.sleep(2_100);
+        stockHoldExpiry.tick();
+
+        // Entonces: vence sin dejar lo reservado por debajo de cero
+        assertStock(10, 0);
+        assertEquals(StockHold.Status.EXPIRED, stockHoldRepository.findById(hold.getId()).orElseThrow().getStatus());
+    }
+
+    private StockHoldResponseDTO createHold(int quantity, Long ttlSeconds) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/stock/holds").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new StockHoldRequestDTO(product.getId(), deposito.getId(), quantity, ttlSeconds))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, StockHoldResponseDTO.class);
+    }
+
+    private void assertTotals(int stockQuantity, int availableQuantity) {
+        writeBehind.flush();
+        Product current = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(stockQuantity, current.getStockQuantity());
+        assertEquals(availableQuantity, current.getAvailableQuantity());
+    }
+
+    private void assertStock(int quantity, int reserved) {
+        writeBehind.flush();
+        ProductStock current = productStockRepository.findById(stock.getId()).orElseThrow();
+        assertEquals(quantity, current.getQuantity());
+        assertEquals(reserved, current.getReservedQuantity());
+    }
+}
@@ -0,0 +1,140 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+/**
+ * Benchmark de contención: de 1 a 64 hilos reservan y liberan sobre un único SKU,
+ * con el motor en memoria frente a la lectura-modificación-escritura con JPA.
+ *
+ * Se ejecuta solo a pedido:
+ * mvn test -Dtest=InventoryContentionBenchmark -Dbenchmark=true [-Dbenchmark.seconds=2]
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InventoryContentionBenchmark {
+
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareInMemoryEngineWithJpaReadModifyWrite() throws InterruptedException {
+        long seconds = Long.getLong("benchmark.seconds", 2);
+        ProductStock stock = hotSku();
+        Long productId = stock.getProduct().getId();
+        Long depositoId = stock.getDeposito().getId();
+
+        System.out.printf("%-8s %16s %16s %14s%n", "hilos", "motor (op/s)", "jpa (op/s)", "jpa perdidas");
+        for (int threads : THREADS) {
+            double engine = throughput(threads, seconds, () -> {
+                inventoryEngine.reserve(productId, depositoId, 1);
+                inventoryEngine.release(productId, depositoId, 1);
+            });
+            writeBehind.flush();
+
+            // Cada operación suma y resta una unidad: al final la reserva debería volver a 0
+            double jpa = throughput(threads, seconds, () -> {
+                readModifyWrite(stock.getId(), 1);
+                readModifyWrite(stock.getId(), -1);
+            });
+            int lost = productStockRepository.findById(stock.getId()).orElseThrow().getReservedQuantity();
+            transactionTemplate.executeWithoutResult(status -> productStockRepository.findById(stock.getId())
+                    .orElseThrow().setReservedQuantity(0));
+
+            System.out.printf("%-8d %16.0f %16.0f %14d%n", threads, engine, jpa, lost);
+        }
+    }
+
+    private void readModifyWrite(Long stockId, int delta) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ProductStock row = productStockRepository.findById(stockId).orElseThrow();
+            row.setReservedQuantity(Math.max(0, row.getReservedQuantity() + delta));
+        });
+    }
+
+    private ProductStock hotSku() {
+        Deposito deposito = new Deposito();
+        deposito.setName("Depósito benchmark");
+        deposito = depositoRepository.save(deposito);
+
+        Product product = new Product();
+        product.setName("SKU caliente");
+        product.setPrice(1.0);
+        product.setStockQuantity(1_000_000);
+        product.setSku("HOT-SKU");
+        product = productRepository.save(product);
+
+        ProductStock stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(1_000_000);
+        return productStockRepository.save(stock);
+    }
+
+    private static double throughput(int threads, long seconds, Runnable operation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LongAdder completed = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        List<Runnable> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (System.nanoTime() < deadline) {
+                    operation.run();
+                    completed.increment();
+                }
+            });
+        }
+        workers.forEach(executor::execute);
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+        return completed.sum() / ((System.nanoTime() - begin) / 1_000_000_000.0);
+    }
+}
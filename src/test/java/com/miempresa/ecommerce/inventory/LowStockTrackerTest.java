@@ -0,0 +1,174 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.miempresa.ecommerce.dto.request.StockAdjustmentRequestDTO;
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.event.LowStockChangedEvent;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+import com.miempresa.ecommerce.service.IStockService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests de integración del conjunto de stock bajo y su stream de eventos
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@WithMockUser(roles = "ADMIN")
+class LowStockTrackerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private IStockService stockService;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Product product;
+    private Deposito deposito;
+    private ProductStock stock;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        for (int i = 0; i < 100 && !lowStockTracker.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(lowStockTracker.isReady());
+
+        deposito = new Deposito();
+        deposito.setName("Depósito mínimo");
+        deposito = depositoRepository.save(deposito);
+
+        product = new Product();
+        product.setName("Con mínimo");
+        product.setPrice(10.0);
+        product.setStockQuantity(10);
+        product.setSku("LOW-1");
+        product = productRepository.save(product);
+
+        stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(10);
+        stock.setMinStock(5);
+        stock = productStockRepository.save(stock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        productStockRepository.delete(stock);
+        productRepository.delete(product);
+        depositoRepository.delete(deposito);
+    }
+
+    @Test
+    void testCrossings_ShouldUpdateSetOnlyAtTheBoundary() {
+        // Cuando: 10 -> 7 no cruza, 7 -> 4 entra en stock bajo
+        stockService.decrementStock(product.getId(), deposito.getId(), 3);
+        writeBehind.flush();
+        assertFalse(lowStockTracker.isLow(product.getId(), deposito.getId()));
+        stockService.decrementStock(product.getId(), deposito.getId(), 3);
+        writeBehind.flush();
+
+        // Entonces
+        assertTrue(lowStockTracker.isLow(product.getId(), deposito.getId()));
+        assertTrue(lowStockTracker.lowStockProductIds().contains(product.getId()));
+
+        // Cuando: reposición 4 -> 8 sale del stock bajo
+        stockService.adjustStock(List.of(new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), 4)));
+        writeBehind.flush();
+
+        // Entonces: un evento por cruce, ninguno por los cambios dentro del mismo lado
+        assertFalse(lowStockTracker.isLow(product.getId(), deposito.getId()));
+        assertEquals(2, events.stream(LowStockChangedEvent.class)
+                .filter(event -> event.getProductId().equals(product.getId()))
+                .count());
+    }
+
+    @Test
+    void testLowStockEndpoint_WithoutThreshold_ShouldReadOnlyListedProducts() throws Exception {
+        // Dado
+        stockService.decrementStock(product.getId(), deposito.getId(), 6);
+        writeBehind.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Cuando / Entonces: sin recorrer product_stocks, una consulta por ID
+        mockMvc.perform(get("/api/v1/products/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + product.getId() + ")]").exists());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testLowStockStream_ShouldPushCrossings() throws Exception {
+        // Dado
+        MvcResult stream = mockMvc.perform(get("/api/v1/products/low-stock/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Cuando
+        stockService.decrementStock(product.getId(), deposito.getId(), 6);
+        writeBehind.flush();
+
+        // Entonces: el envío sale del pool de SSE, no del hilo que persistió
+        String body = stream.getResponse().getContentAsString();
+        for (int i = 0; i < 100 && !body.contains("\"productId\":" + product.getId()); i++) {
+            Thread.sleep(50);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("event:low"), body);
+        assertTrue(body.contains("\"productId\":" + product.getId()), body);
+    }
+}
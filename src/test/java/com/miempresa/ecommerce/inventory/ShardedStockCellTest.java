@@ -0,0 +1,146 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para ShardedStockCell
+ *
+ */
+class ShardedStockCellTest {
+
+    private static final StockKey KEY = new StockKey(1L, 1L);
+
+    @Test
+    void testReserve_WhenNoBucketHasEnough_ShouldGatherAvailable() {
+        // Dado: 10 unidades repartidas en 4 buckets (ninguno tiene más de 3)
+        ShardedStockCell cell = new ShardedStockCell(new StockCell(10, 0), 4);
+
+        // Cuando / Entonces
+        assertTrue(cell.reserve(9));
+        assertFalse(cell.reserve(2));
+        assertTrue(cell.reserve(1));
+        assertEquals(new StockLevel(1L, 1L, 10, 10), cell.snapshot(KEY));
+
+        // Se libera y confirma más de lo que tiene reservado cualquier bucket
+        assertTrue(cell.release(4));
+        assertTrue(cell.commit(6));
+        assertFalse(cell.commit(1));
+        assertEquals(new StockLevel(1L, 1L, 4, 0), cell.snapshot(KEY));
+    }
+
+    @Test
+    void testAdjust_ShouldUseAvailableOfTheWholeRow() {
+        // Dado: 10 unidades en 4 buckets con 4 reservadas
+        ShardedStockCell cell = new ShardedStockCell(new StockCell(10, 0), 4);
+        assertTrue(cell.reserve(4));
+
+        // Cuando / Entonces: se puede bajar todo lo disponible, pero no por debajo de lo reservado
+        assertFalse(cell.adjust(-7));
+        assertTrue(cell.adjust(-6));
+        assertTrue(cell.adjust(3));
+        assertEquals(new StockLevel(1L, 1L, 7, 4), cell.snapshot(KEY));
+    }
+
+    @Test
+    void testCollapse_ShouldFoldEverythingIntoOriginalCell() {
+        // Dado
+        StockCell origin = new StockCell(20, 0);
+        ShardedStockCell cell = new ShardedStockCell(origin, 8);
+        cell.reserve(3);
+        cell.reserve(3);
+        cell.apply(5, 0);
+
+        // Cuando
+        StockCell collapsed = cell.collapse();
+
+        // Entonces: la celda original tiene todo y la retirada delega en ella
+        assertSame(origin, collapsed);
+        assertEquals(new StockLevel(1L, 1L, 25, 6), origin.snapshot(KEY));
+        assertTrue(cell.reserve(19));
+        assertFalse(cell.reserve(1));
+        assertEquals(new StockLevel(1L, 1L, 25, 25), origin.snapshot(KEY));
+    }
+
+    @Test
+    void testReserveRelease_UnderContention_ShouldNeverOversellNorLoseUnits() throws Exception {
+        // Dado
+        ShardedStockCell cell = new ShardedStockCell(new StockCell(1_000, 0), 8);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Cuando: 16 hilos reservan 200 unidades de a una, y la mitad libera cada tercera
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            boolean releases = t % 2 == 0;
+            results.add(executor.submit(() -> {
+                int held = 0;
+                for (int i = 0; i < 200; i++) {
+                    if (cell.reserve(1)) {
+                        held++;
+                        if (releases && i % 3 == 0 && cell.release(1)) {
+                            held--;
+                        }
+                    }
+                    // La suma de los buckets nunca supera el stock de la fila
+                    assertTrue(cell.snapshot(KEY).reservedQuantity() <= 1_000);
+                }
+                return held;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+
+        // Entonces
+        StockLevel level = cell.snapshot(KEY);
+        assertEquals(1_000, level.quantity());
+        assertEquals(total, level.reservedQuantity());
+        assertTrue(total <= 1_000);
+    }
+
+    @Test
+    void testCollapse_WithConcurrentReserves_ShouldNotLoseReservations() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            // Dado: reservas por el camino rápido mientras se retira la celda
+            StockCell origin = new StockCell(10_000, 0);
+            ShardedStockCell cell = new ShardedStockCell(origin, 8);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int held = 0;
+                    for (int i = 0; i < 200; i++) {
+                        held += cell.reserve(1) ? 1 : 0;
+                    }
+                    return held;
+                }));
+            }
+
+            // Cuando
+            start.countDown();
+            cell.collapse();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            executor.shutdown();
+
+            // Entonces: toda reserva confirmada está en la celda original
+            assertEquals(new StockLevel(1L, 1L, 10_000, total), origin.snapshot(KEY));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para StockCell
+ *
+ */
+class StockCellTest {
+
+    private static final StockKey KEY = new StockKey(1L, 1L);
+
+    @Test
+    void testReserveReleaseCommit_ShouldKeepReservedWithinQuantity() {
+        // Dado
+        StockCell cell = new StockCell(10, 0);
+
+        // Cuando / Entonces
+        assertTrue(cell.reserve(7));
+        assertFalse(cell.reserve(4));
+        assertTrue(cell.release(2));
+        assertFalse(cell.release(6));
+        assertTrue(cell.commit(5));
+        assertFalse(cell.adjust(-6));
+        assertTrue(cell.adjust(3));
+        assertEquals(new StockLevel(1L, 1L, 8, 0), cell.snapshot(KEY));
+    }
+
+    @Test
+    void testReserve_UnderContention_ShouldNeverOversell() throws Exception {
+        // Dado
+        StockCell cell = new StockCell(1_000, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // Cuando: 16 hilos intentan reservar 200 unidades cada uno
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            results.add(executor.submit(() -> {
+                int reserved = 0;
+                for (int i = 0; i < 200; i++) {
+                    if (cell.reserve(1)) {
+                        reserved++;
+                    }
+                }
+                return reserved;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+
+        // Entonces
+        assertEquals(1_000, total);
+        assertEquals(new StockLevel(1L, 1L, 1_000, 1_000), cell.snapshot(KEY));
+    }
+}
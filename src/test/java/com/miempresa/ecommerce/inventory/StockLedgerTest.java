@@ -0,0 +1,184 @@
+package com.miempresa.ecommerce.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.miempresa.ecommerce.dto.request.ProductCreateRequestDTO;
+import com.miempresa.ecommerce.dto.request.StockAdjustmentRequestDTO;
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+import com.miempresa.ecommerce.service.IProductService;
+import com.miempresa.ecommerce.service.IStockService;
+
+/**
+ * Tests de integración del registro de movimientos de stock
+ *
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+class StockLedgerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private IStockService stockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    private Deposito deposito;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        deposito = new Deposito();
+        deposito.setName("Depósito registro");
+        deposito.setIsMain(true);
+        deposito = depositoRepository.save(deposito);
+
+        ProductCreateRequestDTO request = new ProductCreateRequestDTO();
+        request.setName("Registrado");
+        request.setPrice(10.0);
+        request.setStockQuantity(10);
+        request.setSku("LEDGER-1");
+        productId = productService.createProduct(request).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        productStockRepository.deleteAll(productStockRepository.findByProductId(productId));
+        productRepository.deleteById(productId);
+        depositoRepository.delete(deposito);
+    }
+
+    @Test
+    void testMovements_ShouldRecordEveryChangeInOrder() throws Exception {
+        // Cuando: cambios directos en la base de datos y en el motor en memoria
+        stockService.decrementStock(productId, deposito.getId(), 2);
+        inventoryEngine.reserve(productId, deposito.getId(), 3);
+        stockService.adjustStock(List.of(new StockAdjustmentRequestDTO(productId, deposito.getId(), 5)));
+        inventoryEngine.commit(productId, deposito.getId(), 1);
+
+        // Entonces: alta de la fila y una diferencia por cambio
+        List<StockMovement> movements = stockLedger.movements(productId, null, null, 100);
+        assertEquals(List.of(StockMovement.Type.SET, StockMovement.Type.DELTA, StockMovement.Type.DELTA,
+                StockMovement.Type.DELTA, StockMovement.Type.DELTA), movements.stream().map(StockMovement::type).toList());
+        assertEquals(List.of(10, -2, 0, 5, -1), movements.stream().map(StockMovement::quantity).toList());
+        assertEquals(List.of(0, 0, 3, 0, -1), movements.stream().map(StockMovement::reservedQuantity).toList());
+        assertTrue(stockLedger.movements(productId, LocalDateTime.now().plusHours(1), null, 100).isEmpty());
+
+        writeBehind.flush();
+        StockLevel database = productStockRepository.findStockLevel(productId, deposito.getId()).orElseThrow();
+        assertEquals(database, stockLedger.replay().get(database.key()));
+        assertEquals(12, database.quantity());
+        assertEquals(2, database.reservedQuantity());
+
+        mockMvc.perform(get("/api/v1/inventory/{productId}/movements", productId).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].type").value("SET"))
+                .andExpect(jsonPath("$[1].quantity").value(-2));
+    }
+
+    @Test
+    void testMovements_FromManyThreads_ShouldGetGaplessSequences() throws Exception {
+        // Cuando: reservas y liberaciones concurrentes que atraviesan varios segmentos
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    inventoryEngine.reserve(productId, deposito.getId(), 1);
+                    inventoryEngine.release(productId, deposito.getId(), 1);
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // Entonces: ningún movimiento perdido ni secuencia repetida
+        List<StockMovement> movements = stockLedger.movements(productId, null, null, 10_000);
+        assertEquals(1 + 8 * 200 * 2, movements.size());
+        for (int i = 1; i < movements.size(); i++) {
+            assertTrue(movements.get(i).sequence() > movements.get(i - 1).sequence());
+        }
+        writeBehind.flush();
+        StockLevel database = productStockRepository.findStockLevel(productId, deposito.getId()).orElseThrow();
+        assertEquals(database, stockLedger.replay().get(database.key()));
+    }
+
+    @Test
+    void testSnapshotAndCompaction_ShouldKeepReplayEqualToDatabase() throws Exception {
+        // Dado: varios segmentos de movimientos (100 por segmento en los tests)
+        for (int i = 0; i < 150; i++) {
+            inventoryEngine.reserve(productId, deposito.getId(), 2);
+            inventoryEngine.release(productId, deposito.getId(), 2);
+        }
+        int segments = stockLedger.segmentCount();
+        assertTrue(segments >= 3);
+
+        // Cuando: instantánea, compactación de todo lo cubierto y más movimientos
+        stockLedger.snapshot();
+        assertTrue(stockLedger.compact(Instant.now().plusSeconds(60)) > 0);
+        inventoryEngine.reserve(productId, deposito.getId(), 1);
+
+        // Entonces
+        assertTrue(stockLedger.segmentCount() < segments);
+        writeBehind.flush();
+        StockLevel database = productStockRepository.findStockLevel(productId, deposito.getId()).orElseThrow();
+        assertEquals(1, database.reservedQuantity());
+        assertEquals(database, stockLedger.replay().get(database.key()));
+
+        mockMvc.perform(post("/api/v1/inventory/ledger/verify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mismatches[?(@.productId == " + productId + ")]").isEmpty());
+    }
+}
@@ -0,0 +1,149 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+/**
+ * Tests de integración de la conciliación de totales de stock
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockTotalsReconcilerTest {
+
+    @Autowired
+    private StockTotalsReconciler reconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    private Deposito north;
+    private Deposito south;
+    private Product withStocks;
+    private Product withoutStocks;
+
+    @BeforeEach
+    void setUp() {
+        north = depositoRepository.save(deposito("Norte"));
+        south = depositoRepository.save(deposito("Sur"));
+        withStocks = productRepository.save(product("REC-1", 9));
+        withoutStocks = productRepository.save(product("REC-2", 4));
+        productStockRepository.save(stock(withStocks, north, 6, 2));
+        productStockRepository.save(stock(withStocks, south, 3, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productStockRepository.deleteAll(productStockRepository.findByProductId(withStocks.getId()));
+        productRepository.deleteAll(List.of(withStocks, withoutStocks));
+        depositoRepository.deleteAll(List.of(north, south));
+    }
+
+    @Test
+    void testReconcile_ShouldRepairDriftedTotalsOnly() {
+        // Dado: totales desviados y un disponible sin completar
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 100, available_quantity = 100 WHERE id = ?", withStocks.getId());
+        jdbcTemplate.update("UPDATE products SET available_quantity = NULL WHERE id = ?", withoutStocks.getId());
+
+        // Cuando
+        ReconciliationReport report = reconciler.reconcile();
+
+        // Entonces
+        assertTrue(report.productsFixed() >= 2);
+        assertEquals(0, report.failedChunks());
+        Product fixed = productRepository.findById(withStocks.getId()).orElseThrow();
+        assertEquals(9, fixed.getStockQuantity());
+        assertEquals(7, fixed.getAvailableQuantity());
+        Product standalone = productRepository.findById(withoutStocks.getId()).orElseThrow();
+        assertEquals(4, standalone.getStockQuantity());
+        assertEquals(4, standalone.getAvailableQuantity());
+        assertEquals(0, reconciler.reconcile().productsFixed());
+    }
+
+    @Test
+    void testReconcileRange_ShouldOnlyTouchItsRange() {
+        // Dado
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 1 WHERE id = ?", withStocks.getId());
+
+        // Cuando
+        int outside = reconciler.reconcileRange(withStocks.getId() + 1_000_000, withStocks.getId() + 2_000_000);
+        int inside = reconciler.reconcileRange(withStocks.getId(), withStocks.getId());
+
+        // Entonces
+        assertEquals(0, outside);
+        assertEquals(1, inside);
+        assertEquals(9, productRepository.findById(withStocks.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void testReconcileRange_ShouldTakeANewVersionFromTheEngine() {
+        // Dado: una reserva en memoria sin volcar y totales desviados
+        inventoryEngine.reserve(withStocks.getId(), north.getId(), 1);
+        long reservedVersion = inventoryEngine.stockVersion(withStocks.getId());
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 1 WHERE id = ?", withStocks.getId());
+
+        // Cuando
+        int fixed = reconciler.reconcileRange(withStocks.getId(), withStocks.getId());
+
+        // Entonces: la versión escrita es nueva y los totales ya incluyen la reserva
+        assertEquals(1, fixed);
+        Product reconciled = productRepository.findById(withStocks.getId()).orElseThrow();
+        assertTrue(reconciled.getStockVersion() > reservedVersion);
+        assertEquals(9, reconciled.getStockQuantity());
+        assertEquals(6, reconciled.getAvailableQuantity());
+        inventoryEngine.release(withStocks.getId(), north.getId(), 1);
+        assertTrue(inventoryEngine.stockVersion(withStocks.getId()) > reconciled.getStockVersion());
+    }
+
+    private static Deposito deposito(String name) {
+        Deposito deposito = new Deposito();
+        deposito.setName("Depósito " + name);
+        return deposito;
+    }
+
+    private static Product product(String sku, int stockQuantity) {
+        Product product = new Product();
+        product.setName("Conciliable " + sku);
+        product.setPrice(5.0);
+        product.setStockQuantity(stockQuantity);
+        product.setSku(sku);
+        return product;
+    }
+
+    private static ProductStock stock(Product product, Deposito deposito, int quantity, int reserved) {
+        ProductStock stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(quantity);
+        stock.setReservedQuantity(reserved);
+        return stock;
+    }
+}
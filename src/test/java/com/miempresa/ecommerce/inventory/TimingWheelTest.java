@@ -0,0 +1,58 @@
+package com.miempresa.ecommerce.inventory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para TimingWheel
+ *
+ */
+class TimingWheelTest {
+
+    @Test
+    void testAdvance_ShouldReturnOnlyDueEntriesAcrossRounds() {
+        // Dado: 4 ranuras de 100 ms, así 150 y 550 caen en la misma ranura en vueltas distintas
+        TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 550);
+        wheel.schedule("c", 300);
+
+        // Cuando / Entonces
+        assertTrue(wheel.advance(199).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(200));
+        assertEquals(List.of("c"), wheel.advance(350));
+        assertTrue(wheel.advance(550).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(600));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_AfterLongPause_ShouldExpireEverythingDueOnce() {
+        // Dado
+        TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+        wheel.schedule("a", 100);
+        wheel.schedule("b", 900);
+        wheel.schedule("c", 5_000);
+
+        // Cuando: más de dos vueltas sin tics
+        List<String> expired = wheel.advance(1_000);
+
+        // Entonces
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b")));
+        assertEquals(List.of("c"), wheel.advance(5_000));
+    }
+
+    @Test
+    void testSchedule_InThePast_ShouldExpireOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.advance(500);
+        wheel.schedule("late", 100);
+
+        assertTrue(wheel.advance(550).isEmpty());
+        assertEquals(List.of("late"), wheel.advance(600));
+    }
+}
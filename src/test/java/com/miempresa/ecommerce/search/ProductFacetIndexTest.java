@@ -0,0 +1,95 @@
+package com.miempresa.ecommerce.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.search.ProductFacetIndex.FacetResult;
+
+/**
+ * Tests unitarios para ProductFacetIndex
+ *
+ */
+class ProductFacetIndexTest {
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(new double[] {50, 100});
+        index.index(new ProductFacetDocument(1L, 10L, 20.0, 5));
+        index.index(new ProductFacetDocument(2L, 10L, 75.0, 0));
+        index.index(new ProductFacetDocument(3L, 20L, 150.0, 3));
+        index.index(new ProductFacetDocument(4L, 20L, 50.0, 1));
+        index.index(new ProductFacetDocument(5L, null, 10.0, 2));
+    }
+
+    @Test
+    void testQuery_WithoutFilters_ShouldCountEveryFacet() {
+        // Cuando
+        FacetResult result = index.query(new ProductFacetFilter(null, null, null), 0, 10);
+
+        // Entonces
+        assertEquals(5, result.totalHits());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), result.productIds());
+        assertEquals(Map.of(10L, 2L, 20L, 2L), result.categoryCounts());
+        assertEquals(List.of("0-50", "50-100", "100+"), index.getPriceBands());
+        assertEquals(Map.of("0-50", 2L, "50-100", 2L, "100+", 1L), result.priceBandCounts());
+        assertEquals(4, result.inStockCount());
+        assertEquals(1, result.outOfStockCount());
+    }
+
+    @Test
+    void testQuery_WithFilters_ShouldIntersectAndExcludeOwnFacetFromCounts() {
+        // Dado
+        ProductFacetFilter filter = new ProductFacetFilter(Set.of(10L), Set.of("50-100", "100+"), true);
+
+        // Cuando
+        FacetResult result = index.query(filter, 0, 10);
+
+        // Entonces: solo el 2 cumple categoría y precio, pero no tiene stock
+        assertEquals(0, result.totalHits());
+        // Categorías con los filtros de precio y stock: 3 (cat. 20, 150) y 4 (cat. 20, 50)
+        assertEquals(Map.of(20L, 2L), result.categoryCounts());
+        // Precios con los filtros de categoría y stock: solo el 1
+        assertEquals(Map.of("0-50", 1L, "50-100", 0L, "100+", 0L), result.priceBandCounts());
+        // Disponibilidad con los filtros de categoría y precio: solo el 2
+        assertEquals(0, result.inStockCount());
+        assertEquals(1, result.outOfStockCount());
+    }
+
+    @Test
+    void testQuery_ShouldPageInIdOrder() {
+        FacetResult result = index.query(new ProductFacetFilter(null, null, true), 2, 2);
+
+        assertEquals(4, result.totalHits());
+        assertEquals(List.of(4L, 5L), result.productIds());
+        assertEquals(List.of(), index.query(new ProductFacetFilter(null, null, true), 4, 2).productIds());
+    }
+
+    @Test
+    void testIndex_UpdateAndRemove_ShouldMoveBetweenBitmaps() {
+        // Cuando
+        index.index(new ProductFacetDocument(2L, 20L, 75.0, 4));
+        index.remove(1L);
+
+        // Entonces
+        FacetResult result = index.query(new ProductFacetFilter(Set.of(20L), null, null), 0, 10);
+        assertEquals(List.of(2L, 3L, 4L), result.productIds());
+        assertEquals(Map.of(20L, 3L), result.categoryCounts());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testQuery_WithUnknownPriceBand_ShouldThrow() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> index.query(new ProductFacetFilter(null, Set.of("1-2"), null), 0, 10));
+        assertEquals("INVALID_PRICE_BAND", ex.getErrorCode());
+    }
+}
@@ -0,0 +1,100 @@
+package com.miempresa.ecommerce.search;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+/**
+ * Benchmark: índice invertido frente a la consulta JPQL con LIKE de searchByKeyword.
+ *
+ * Se ejecuta solo a pedido:
+ * mvn test -Dtest=ProductSearchBenchmark -Dbenchmark=true [-Dbenchmark.sizes=100000,1000000,5000000]
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "zapato", "camiseta", "pantalón", "lámpara", "escritorio", "cuero", "algodón", "deportivo",
+        "elegante", "mesa", "silla", "reloj", "teléfono", "cargador", "auriculares", "mochila",
+        "botella", "cafetera", "sartén", "almohada", "sábana", "toalla", "cámara", "teclado"
+    };
+    private static final String[] QUERIES = { "zapato cuero", "lámpara", "cafetera elegante", "auriculares" };
+    private static final int BATCH_SIZE = 10_000;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void compareInvertedIndexWithJpqlLikeQuery() {
+        String sizes = System.getProperty("benchmark.sizes", "100000,1000000,5000000");
+        System.out.printf("%-10s %-20s %12s %12s%n", "productos", "consulta", "jpql (ms)", "índice (ms)");
+
+        for (String size : sizes.split(",")) {
+            int count = Integer.parseInt(size.trim());
+            ProductSearchIndex index = populate(count);
+
+            for (String query : QUERIES) {
+                double jpql = averageMillis(() -> productRepository.searchByKeyword(query, PageRequest.of(0, 20)));
+                double inverted = averageMillis(() -> index.search(query, 0, 20));
+                System.out.printf("%-10d %-20s %12.3f %12.3f%n", count, query, jpql, inverted);
+            }
+        }
+    }
+
+    private ProductSearchIndex populate(int count) {
+        jdbcTemplate.update("DELETE FROM products");
+        ProductSearchIndex index = new ProductSearchIndex();
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= count; id++) {
+            String name = words(random, 3);
+            String description = words(random, 12);
+            batch.add(new Object[] { id, name, description, 10.0, 5, "SKU-" + id, true, now, now });
+            index.index(new ProductSearchDocument(id, name, description));
+
+            if (batch.size() == BATCH_SIZE || id == count) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (id, name, description, price, stock_quantity, sku, active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return index;
+    }
+
+    private static String words(Random random, int count) {
+        String[] picked = new String[count];
+        Arrays.setAll(picked, i -> WORDS[random.nextInt(WORDS.length)]);
+        return String.join(" ", picked);
+    }
+
+    private static double averageMillis(Runnable action) {
+        action.run(); // calentamiento
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+}
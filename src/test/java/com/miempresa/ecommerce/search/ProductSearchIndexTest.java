@@ -0,0 +1,73 @@
+package com.miempresa.ecommerce.search;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.miempresa.ecommerce.search.ProductSearchIndex.SearchResult;
+
+/**
+ * Tests unitarios para ProductSearchIndex y SpanishAnalyzer
+ *
+ */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(new ProductSearchDocument(1L, "Zapatos de cuero", "Calzado elegante para oficina"));
+        index.index(new ProductSearchDocument(2L, "Camiseta deportiva", "Ideal para correr, incluye zapato de regalo"));
+        index.index(new ProductSearchDocument(3L, "Lámpara de escritorio", "Luces LED regulables"));
+    }
+
+    @Test
+    void testAnalyze_ShouldFoldAccentsRemoveStopwordsAndStem() {
+        assertEquals(List.of("lampar", "escritori"), SpanishAnalyzer.analyze("Lámpara de Escritorio"));
+        assertEquals(List.of("luz"), SpanishAnalyzer.analyze("luces"));
+        assertEquals(SpanishAnalyzer.analyze("zapato"), SpanishAnalyzer.analyze("ZAPATOS"));
+    }
+
+    @Test
+    void testSearch_ShouldRankNameMatchesAboveDescriptionMatches() {
+        // Cuando
+        SearchResult result = index.search("zapatos", 0, 10);
+
+        // Entonces
+        assertEquals(2, result.totalHits());
+        assertEquals(List.of(1L, 2L), result.productIds());
+    }
+
+    @Test
+    void testSearch_ShouldMatchWithoutAccentsAndRequireAllTerms() {
+        assertEquals(List.of(3L), index.search("lampara escritorio", 0, 10).productIds());
+        assertEquals(0, index.search("lampara cuero", 0, 10).totalHits());
+    }
+
+    @Test
+    void testIndex_UpdateAndRemove_ShouldApplyIncrementally() {
+        // Cuando
+        index.index(new ProductSearchDocument(3L, "Lámpara de pie", "Luz cálida"));
+        index.remove(1L);
+
+        // Entonces
+        assertEquals(0, index.search("escritorio", 0, 10).totalHits());
+        assertEquals(List.of(2L), index.search("zapato", 0, 10).productIds());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testSearch_WithOffset_ShouldReturnRequestedPage() {
+        // Cuando
+        SearchResult result = index.search("zapato", 1, 1);
+
+        // Entonces
+        assertEquals(2, result.totalHits());
+        assertEquals(List.of(2L), result.productIds());
+        assertTrue(index.search("", 0, 10).productIds().isEmpty());
+    }
+}
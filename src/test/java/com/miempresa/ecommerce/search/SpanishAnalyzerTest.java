@@ -0,0 +1,47 @@
+package com.miempresa.ecommerce.search;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para SpanishAnalyzer
+ *
+ */
+class SpanishAnalyzerTest {
+
+    @Test
+    void testStem_ShortWords_ShouldShareRootWithTheirPlural() {
+        // Dado
+        List<List<String>> pairs = List.of(
+                List.of("mesa", "mesas"),
+                List.of("rojo", "rojos"),
+                List.of("casa", "casas"),
+                List.of("taza", "tazas"),
+                List.of("cafe", "cafés"),
+                List.of("ojo", "ojos"));
+
+        for (List<String> pair : pairs) {
+            // Cuando
+            List<String> singular = SpanishAnalyzer.analyze(pair.get(0));
+            List<String> plural = SpanishAnalyzer.analyze(pair.get(1));
+
+            // Entonces
+            assertEquals(singular, plural, pair.get(0) + " / " + pair.get(1));
+        }
+        assertEquals(List.of("mes"), SpanishAnalyzer.analyze("mesas"));
+        assertEquals(List.of("caf"), SpanishAnalyzer.analyze("Café"));
+    }
+
+    @Test
+    void testStem_ShouldNotCutBelowMinimumRootLength() {
+        // Cuando / Entonces
+        assertEquals("mes", SpanishAnalyzer.stem("mes"));
+        assertEquals("mes", SpanishAnalyzer.stem("meses"));
+        assertEquals("dos", SpanishAnalyzer.stem("dos"));
+        assertEquals("te", SpanishAnalyzer.stem("te"));
+        assertEquals("luz", SpanishAnalyzer.stem("luces"));
+        assertEquals("xl2", SpanishAnalyzer.stem("xl2"));
+    }
+}
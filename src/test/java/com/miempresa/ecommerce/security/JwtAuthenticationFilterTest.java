@@ -1,14 +1,17 @@
 package com.miempresa.ecommerce.security;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -17,10 +20,11 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.miempresa.ecommerce.security.CustomUserDetailsService.UserPrincipal;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -38,7 +42,7 @@ class JwtAuthenticationFilterTest {
     private JwtUtil jwtUtil;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private TokenVersionCache tokenVersionCache;
 
     @Mock
     private HttpServletRequest request;
@@ -52,41 +56,39 @@ class JwtAuthenticationFilterTest {
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
-    private UserDetails userDetails;
+    private UserPrincipal principal;
 
     @BeforeEach
     void setUp() {
         SecurityContextHolder.clearContext();
-        
-        userDetails = User.builder()
-                .username("testuser")
-                .password("password")
-                .authorities(new ArrayList<>())
-                .build();
+
+        principal = UserPrincipal.fromClaims(7L, "testuser", List.of("ROLE_USER", "ROLE_ADMIN"), 3L);
     }
 
     @Test
-    void testDoFilterInternal_WithValidToken_ShouldSetAuthentication() throws ServletException, IOException {
+    void testDoFilterInternal_WithValidToken_ShouldSetAuthenticationFromClaims() throws ServletException, IOException {
         // Dado
         String token = "valid.jwt.token";
         String bearerToken = "Bearer " + token;
         
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtil.validateToken(token)).thenReturn(true);
-        when(jwtUtil.getUsernameFromToken(token)).thenReturn("testuser");
-        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtUtil.getPrincipalFromToken(token)).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.isCurrent(7L, 3L)).thenReturn(true);
 
         // Cuando
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        // Entonces
-        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
-        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        // Entonces: el principal sale del token, sin buscar al usuario
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("testuser", authentication.getName());
+        assertSame(principal, authentication.getPrincipal());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
         
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).validateToken(token);
-        verify(jwtUtil).getUsernameFromToken(token);
-        verify(userDetailsService).loadUserByUsername("testuser");
+        verify(jwtUtil).getPrincipalFromToken(token);
+        verify(tokenVersionCache).isCurrent(7L, 3L);
     }
 
     @Test
@@ -96,7 +98,7 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer " + token;
         
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtil.validateToken(token)).thenReturn(false);
+        when(jwtUtil.getPrincipalFromToken(token)).thenReturn(Optional.empty());
 
         // Cuando
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -105,9 +107,26 @@ class JwtAuthenticationFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).validateToken(token);
-        verify(jwtUtil, never()).getUsernameFromToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(jwtUtil).getPrincipalFromToken(token);
+        verify(tokenVersionCache, never()).isCurrent(anyLong(), anyLong());
+    }
+
+    @Test
+    void testDoFilterInternal_WithRevokedToken_ShouldNotSetAuthentication() throws ServletException, IOException {
+        // Dado: la versión del token ya no es la vigente
+        String token = "revoked.jwt.token";
+        String bearerToken = "Bearer " + token;
+
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(jwtUtil.getPrincipalFromToken(token)).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.isCurrent(7L, 3L)).thenReturn(false);
+
+        // Cuando
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Entonces
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
     }
 
     @Test
@@ -122,8 +141,8 @@ class JwtAuthenticationFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).validateToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(jwtUtil, never()).getPrincipalFromToken(anyString());
+        verify(tokenVersionCache, never()).isCurrent(anyLong(), anyLong());
     }
 
     @Test
@@ -138,8 +157,7 @@ class JwtAuthenticationFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).validateToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(jwtUtil, never()).getPrincipalFromToken(anyString());
     }
 
     @Test
@@ -154,8 +172,7 @@ class JwtAuthenticationFilterTest {
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).validateToken(anyString());
-        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(jwtUtil, never()).getPrincipalFromToken(anyString());
     }
 
     @Test
@@ -165,7 +182,7 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer " + token;
         
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtil.validateToken(token)).thenThrow(new RuntimeException("Token processing error"));
+        when(jwtUtil.getPrincipalFromToken(token)).thenThrow(new RuntimeException("Token processing error"));
 
         // Cuando
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -176,16 +193,14 @@ class JwtAuthenticationFilterTest {
     }
 
     @Test
-    void testDoFilterInternal_WithUserDetailsServiceException_ShouldContinueFilterChain() throws ServletException, IOException {
+    void testDoFilterInternal_WithTokenVersionLookupException_ShouldContinueFilterChain() throws ServletException, IOException {
         // Dado
         String token = "valid.jwt.token";
         String bearerToken = "Bearer " + token;
         
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtil.validateToken(token)).thenReturn(true);
-        when(jwtUtil.getUsernameFromToken(token)).thenReturn("testuser");
-        when(userDetailsService.loadUserByUsername("testuser"))
-                .thenThrow(new RuntimeException("User not found"));
+        when(jwtUtil.getPrincipalFromToken(token)).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.isCurrent(7L, 3L)).thenThrow(new RuntimeException("Database unavailable"));
 
         // Cuando
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -202,13 +217,11 @@ class JwtAuthenticationFilterTest {
         String bearerToken = "Bearer " + token;
         
         // Set existing authentication
-        SecurityContextHolder.getContext().setAuthentication(
-                mock(org.springframework.security.core.Authentication.class));
+        SecurityContextHolder.getContext().setAuthentication(mock(Authentication.class));
         
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtUtil.validateToken(token)).thenReturn(true);
-        when(jwtUtil.getUsernameFromToken(token)).thenReturn("testuser");
-        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtUtil.getPrincipalFromToken(token)).thenReturn(Optional.of(principal));
+        when(tokenVersionCache.isCurrent(7L, 3L)).thenReturn(true);
 
         // Cuando
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -3,21 +3,27 @@ package com.miempresa.ecommerce.security;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.miempresa.ecommerce.security.CustomUserDetailsService.UserPrincipal;
+
 /**
  * Tests unitarios para JwtUtil
  * 
@@ -194,4 +200,30 @@ class JwtUtilTest {
         // Entonces
         assertTrue(expirationDate.after(new Date()));
     }
+
+    @Test
+    void testGetPrincipalFromToken_WithUserPrincipal_ShouldRestoreIdRolesAndVersion() {
+        // Dado
+        UserPrincipal user = new UserPrincipal(42L, "admin", "admin@example.com", "secret",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER")),
+                true, true, true, true, 5L);
+
+        // Cuando
+        UserPrincipal principal = jwtUtil.getPrincipalFromToken(jwtUtil.generateToken(user)).orElseThrow();
+
+        // Entonces: todo sale de las claims, sin contraseña
+        assertEquals(42L, principal.getId());
+        assertEquals("admin", principal.getUsername());
+        assertEquals(5L, principal.getTokenVersion());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    void testGetPrincipalFromToken_WithoutUserId_ShouldReturnEmpty() {
+        // Token sin ID de usuario (no revocable) o expirado
+        assertTrue(jwtUtil.getPrincipalFromToken(validToken).isEmpty());
+        assertTrue(jwtUtil.getPrincipalFromToken(expiredToken).isEmpty());
+    }
 }
@@ -0,0 +1,73 @@
+package com.miempresa.ecommerce.security;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.miempresa.ecommerce.event.UserTokensRevokedEvent;
+import com.miempresa.ecommerce.repository.UserRepository;
+
+/**
+ * Tests unitarios para TokenVersionCache
+ *
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenVersionCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TokenVersionCache(userRepository, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testIsCurrent_ShouldReadVersionOnceAndServeFromMemory() {
+        // Dado
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(2L));
+
+        // Cuando / Entonces
+        assertTrue(cache.isCurrent(1L, 2L));
+        assertTrue(cache.isCurrent(1L, 2L));
+        assertFalse(cache.isCurrent(1L, 1L));
+        verify(userRepository, times(1)).findTokenVersionById(1L);
+    }
+
+    @Test
+    void testIsCurrent_WithUnknownUser_ShouldRejectAndRememberIt() {
+        // Dado
+        when(userRepository.findTokenVersionById(9L)).thenReturn(Optional.empty());
+
+        // Cuando / Entonces
+        assertFalse(cache.isCurrent(9L, 0L));
+        assertFalse(cache.isCurrent(9L, 0L));
+        verify(userRepository, times(1)).findTokenVersionById(9L);
+    }
+
+    @Test
+    void testOnUserTokensRevoked_ShouldRejectPreviousTokens() {
+        // Dado
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0L), Optional.of(1L));
+        assertTrue(cache.isCurrent(1L, 0L));
+
+        // Cuando
+        cache.onUserTokensRevoked(new UserTokensRevokedEvent(1L));
+
+        // Entonces
+        assertFalse(cache.isCurrent(1L, 0L));
+        assertTrue(cache.isCurrent(1L, 1L));
+    }
+}
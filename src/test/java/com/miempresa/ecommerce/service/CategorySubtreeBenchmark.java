@@ -0,0 +1,194 @@
+package com.miempresa.ecommerce.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.entity.Category;
+import com.miempresa.ecommerce.repository.CategoryClosureRepository;
+import com.miempresa.ecommerce.repository.CategoryRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Benchmark: productos de una categoría y todas sus subcategorías con la tabla de
+ * clausura (una igualdad sobre ancestor_id) frente a recorrer Category.parent nivel
+ * por nivel y filtrar por la lista de IDs. Árbol de 8 niveles y 50.000 categorías;
+ * también mide la reconstrucción de la tabla y el costo de mover un subárbol.
+ *
+ * Se ejecuta solo a pedido:
+ * mvn test -Dtest=CategorySubtreeBenchmark -Dbenchmark=true [-Dbenchmark.products=100000]
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CategorySubtreeBenchmark {
+
+    // Categorías por nivel: 8 niveles, 50.000 en total
+    private static final int[] LEVELS = { 10, 40, 160, 640, 2_560, 8_000, 16_000, 22_590 };
+    private static final int BATCH_SIZE = 10_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryClosureRepository categoryClosureRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ICategoryService categoryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void compareClosureTableWithRecursiveWalk() {
+        int products = Integer.getInteger("benchmark.products", 100_000);
+        List<List<Long>> levels = populate(products);
+        long start = System.nanoTime();
+        int rows = categoryService.rebuildClosure();
+        System.out.printf("tabla de clausura: %d filas en %.3f ms%n", rows, (System.nanoTime() - start) / 1_000_000.0);
+
+        System.out.printf("%-7s %14s %12s %14s %14s%n", "nivel", "descendientes", "productos", "recorrido (ms)", "clausura (ms)");
+        for (int level : new int[] { 0, 2, 4, 6 }) {
+            Long categoryId = levels.get(level).get(0);
+
+            List<Long> subtree = walk(categoryId);
+            long walked = countByIds(subtree);
+            long byClosure = subtreePage(categoryId).getTotalElements();
+            if (walked != byClosure) {
+                throw new IllegalStateException("Resultados distintos: " + walked + " / " + byClosure);
+            }
+
+            double walkMillis = averageMillis(() -> countByIds(walk(categoryId)));
+            double closureMillis = averageMillis(() -> subtreePage(categoryId).getTotalElements());
+            System.out.printf("%-7d %14d %12d %14.3f %14.3f%n", level + 1, subtree.size() - 1, byClosure, walkMillis, closureMillis);
+        }
+
+        // Mover un subárbol del nivel 2 a otra raíz: un DELETE y un INSERT ... SELECT
+        Long moved = levels.get(1).get(0);
+        Long target = levels.get(0).get(LEVELS[0] - 1);
+        int size = walk(moved).size();
+        start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Category category = categoryRepository.findById(moved).orElseThrow();
+            category.setParent(categoryRepository.getReferenceById(target));
+            categoryClosureRepository.detachSubtree(moved);
+            categoryClosureRepository.attachSubtree(moved, target);
+        });
+        System.out.printf("mover subárbol: %d categorías en %.3f ms%n", size, (System.nanoTime() - start) / 1_000_000.0);
+        if (subtreePage(target).getTotalElements() != countByIds(walk(target))) {
+            throw new IllegalStateException("Tabla de clausura desactualizada después de mover");
+        }
+    }
+
+    private Page<ProductResponseDTO> subtreePage(Long categoryId) {
+        return productRepository.findProductDTOsByCategorySubtree(categoryId, PageRequest.of(0, 20));
+    }
+
+    /**
+     * Árbol por niveles con padres al azar en el nivel anterior y productos repartidos
+     * entre todas las categorías
+     */
+    private List<List<Long>> populate(int products) {
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM category_closure");
+        jdbcTemplate.update("DELETE FROM categories");
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<List<Long>> levels = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (int level = 0; level < LEVELS.length; level++) {
+            List<Long> ids = new ArrayList<>(LEVELS[level]);
+            for (int i = 0; i < LEVELS[level]; i++) {
+                id++;
+                Long parentId = level == 0 ? null : levels.get(level - 1).get(random.nextInt(LEVELS[level - 1]));
+                ids.add(id);
+                batch.add(new Object[] { id, "Categoría " + id, "cat-" + id, true, 0, parentId, now, now });
+                if (batch.size() == BATCH_SIZE) {
+                    insertCategories(batch);
+                }
+            }
+            levels.add(ids);
+        }
+        insertCategories(batch);
+
+        for (long productId = 1; productId <= products; productId++) {
+            long categoryId = 1 + random.nextLong(id);
+            batch.add(new Object[] { productId, "Producto " + productId, 10.0, 5, "SUB-" + productId, categoryId, true, now, now });
+            if (batch.size() == BATCH_SIZE || productId == products) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, stock_quantity, sku, category_id, active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return levels;
+    }
+
+    private void insertCategories(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, slug, active, sort_order, parent_id, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    /**
+     * Recorrido actual: una consulta de subcategorías por categoría visitada
+     */
+    private List<Long> walk(Long categoryId) {
+        List<Long> subtree = new ArrayList<>();
+        Deque<Long> pending = new ArrayDeque<>(List.of(categoryId));
+        while (!pending.isEmpty()) {
+            Long current = pending.poll();
+            subtree.add(current);
+            transactionTemplate.executeWithoutResult(status ->
+                    categoryRepository.findByParentId(current).forEach(child -> pending.add(child.getId())));
+        }
+        return subtree;
+    }
+
+    private long countByIds(List<Long> categoryIds) {
+        return entityManager.createQuery(
+                        "SELECT COUNT(p) FROM Product p WHERE p.category.id IN :ids AND p.active = true", Long.class)
+                .setParameter("ids", categoryIds)
+                .getSingleResult();
+    }
+
+    private static double averageMillis(Supplier<?> action) {
+        action.get(); // calentamiento
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            action.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+}
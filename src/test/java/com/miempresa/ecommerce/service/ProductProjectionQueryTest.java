@@ -0,0 +1,90 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.miempresa.ecommerce.dto.response.ProductResponseDTO;
+import com.miempresa.ecommerce.entity.Category;
+import com.miempresa.ecommerce.entity.Product;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Tests de integración de los listados de productos proyectados a DTO
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ProductProjectionQueryTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Proyecciones");
+        category.setSlug("proyecciones");
+        entityManager.persist(category);
+
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("Proyectado " + i);
+            product.setPrice(10.0 + i);
+            product.setStockQuantity(i);
+            product.setSku("PRJ-" + i);
+            product.setCategory(i == 0 ? null : category);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testGetAllActiveProducts_ShouldNotLoadEntitiesIntoPersistenceContext() {
+        // Cuando
+        Page<ProductResponseDTO> page = productService.getAllActiveProducts(
+                PageRequest.of(0, 10, Sort.by("name")));
+
+        // Entonces
+        assertEquals(3, page.getTotalElements());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testGetProductsByCategory_ShouldProjectCategoryNameThroughJoin() {
+        // Cuando
+        List<ProductResponseDTO> content = productService.getProductsByCategory(
+                "proyecciones", false, PageRequest.of(0, 10, Sort.by("price"))).getContent();
+
+        // Entonces
+        assertEquals(2, content.size());
+        assertEquals("Proyecciones", content.get(0).getCategory());
+        assertEquals("PRJ-1", content.get(0).getSku());
+    }
+
+    @Test
+    void testGetLowStockProducts_ShouldKeepProductsWithoutCategory() {
+        // Cuando
+        List<ProductResponseDTO> content = productService.getLowStockProducts(0);
+
+        // Entonces
+        assertEquals(1, content.size());
+        assertEquals(null, content.get(0).getCategory());
+    }
+}
@@ -0,0 +1,174 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Benchmark: descuento en el inventario en memoria frente a cargar, modificar y
+ * guardar la entidad (con lock pesimista y sin lock), descontando de a una unidad sobre la misma fila desde
+ * varios hilos. Resultados en op/s.
+ *
+ * Se ejecuta solo a pedido:
+ * mvn test -Dtest=StockDecrementBenchmark -Dbenchmark=true [-Dbenchmark.seconds=2]
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StockDecrementBenchmark {
+
+    private static final int[] THREADS = { 1, 4, 16 };
+    private static final int INITIAL = 100_000_000;
+
+    @Autowired
+    private IStockService stockService;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void compareInMemoryWithLoadModifySave() throws InterruptedException {
+        long seconds = Long.getLong("benchmark.seconds", 2);
+        ProductStock stock = stockRow();
+        Long productId = stock.getProduct().getId();
+        Long depositoId = stock.getDeposito().getId();
+
+        Runnable inMemory = () -> stockService.decrementStock(productId, depositoId, 1);
+        Runnable naive = () -> transactionTemplate.executeWithoutResult(status -> {
+            ProductStock row = productStockRepository.findByProductIdAndDepositoId(productId, depositoId).orElseThrow();
+            row.setQuantity(row.getQuantity() - 1);
+        });
+        Runnable locked = () -> transactionTemplate.executeWithoutResult(status -> {
+            ProductStock row = entityManager.find(ProductStock.class, stock.getId(), LockModeType.PESSIMISTIC_WRITE);
+            row.setQuantity(row.getQuantity() - 1);
+        });
+        // Calentamiento del JIT y de las cachés de planes de los tres caminos
+        for (Runnable operation : List.of(inMemory, naive, locked)) {
+            throughput(1, 1, operation);
+        }
+
+        System.out.printf("%-8s %14s %14s %14s %10s%n", "hilos", "en memoria", "con lock", "sin lock", "perdidas");
+        for (int threads : THREADS) {
+            refill(productId, depositoId);
+            double inMemoryRate = throughput(threads, seconds, inMemory).rate();
+            // La escritura diferida termina antes de que los otros caminos toquen la fila
+            writeBehind.flush();
+            double lockedRate = throughput(threads, seconds, locked).rate();
+
+            reset(stock.getId());
+            Result naiveResult = throughput(threads, seconds, naive);
+            // Sin lock, dos hilos pueden leer el mismo valor y una de las restas se pierde
+            long lost = naiveResult.operations() - (INITIAL - quantity(stock.getId()));
+
+            System.out.printf("%-8d %14.0f %14.0f %14.0f %10d%n", threads, inMemoryRate, lockedRate,
+                    naiveResult.rate(), lost);
+        }
+    }
+
+    private ProductStock stockRow() {
+        Deposito deposito = new Deposito();
+        deposito.setName("Depósito benchmark");
+        deposito = depositoRepository.save(deposito);
+
+        Product product = new Product();
+        product.setName("Descuento");
+        product.setPrice(1.0);
+        product.setStockQuantity(INITIAL);
+        product.setSku("DEC-BENCH");
+        product = productRepository.save(product);
+
+        ProductStock stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(INITIAL);
+        return productStockRepository.save(stock);
+    }
+
+    private void refill(Long productId, Long depositoId) {
+        int missing = INITIAL - inventoryEngine.get(productId, depositoId).quantity();
+        if (missing != 0) {
+            inventoryEngine.adjust(productId, depositoId, missing);
+        }
+    }
+
+    private void reset(Long stockId) {
+        transactionTemplate.executeWithoutResult(status ->
+                productStockRepository.findById(stockId).orElseThrow().setQuantity(INITIAL));
+    }
+
+    private int quantity(Long stockId) {
+        return productStockRepository.findById(stockId).orElseThrow().getQuantity();
+    }
+
+    private static Result throughput(int threads, long seconds, Runnable operation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LongAdder completed = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (System.nanoTime() < deadline) {
+                    operation.run();
+                    completed.increment();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+        return new Result(completed.sum(), completed.sum() / ((System.nanoTime() - begin) / 1_000_000_000.0));
+    }
+
+    private record Result(long operations, double rate) {
+    }
+}
@@ -0,0 +1,371 @@
+package com.miempresa.ecommerce.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.miempresa.ecommerce.dto.request.StockAdjustmentRequestDTO;
+import com.miempresa.ecommerce.dto.response.StockAdjustmentResultDTO;
+import com.miempresa.ecommerce.dto.response.StockAvailabilityResponseDTO;
+import com.miempresa.ecommerce.entity.Deposito;
+import com.miempresa.ecommerce.entity.Product;
+import com.miempresa.ecommerce.entity.ProductStock;
+import com.miempresa.ecommerce.exception.BusinessException;
+import com.miempresa.ecommerce.exception.InsufficientStockException;
+import com.miempresa.ecommerce.inventory.InventoryEngine;
+import com.miempresa.ecommerce.inventory.InventoryWriteBehind;
+import com.miempresa.ecommerce.repository.DepositoRepository;
+import com.miempresa.ecommerce.repository.ProductRepository;
+import com.miempresa.ecommerce.repository.ProductStockRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests de integración de los movimientos de stock sobre el inventario en memoria
+ *
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockServiceTest {
+
+    @Autowired
+    private IStockService stockService;
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product product;
+    private Deposito deposito;
+    private ProductStock stock;
+
+    @BeforeEach
+    void setUp() {
+        deposito = new Deposito();
+        deposito.setName("Depósito condicional");
+        deposito = depositoRepository.save(deposito);
+
+        product = new Product();
+        product.setName("Condicional");
+        product.setPrice(10.0);
+        product.setStockQuantity(10);
+        product.setSku("COND-1");
+        product = productRepository.save(product);
+
+        stock = new ProductStock();
+        stock.setProduct(product);
+        stock.setDeposito(deposito);
+        stock.setQuantity(10);
+        stock = productStockRepository.save(stock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        productStockRepository.delete(stock);
+        productRepository.delete(product);
+        depositoRepository.delete(deposito);
+    }
+
+    @Test
+    void testDecrementStock_ShouldRunInMemoryAndPersistOnFlush() {
+        // Dado: la fila ya es conocida por los componentes en memoria
+        stockService.decrementStock(product.getId(), deposito.getId(), 1);
+        // Su escritura diferida y los listeners que dispara terminan antes de empezar a contar
+        writeBehind.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Cuando
+        stockService.decrementStock(product.getId(), deposito.getId(), 2);
+
+        // Entonces: ninguna sentencia hasta la escritura diferida, que lleva la fila y los totales
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(7, quantity());
+        assertTotals(7, 7);
+    }
+
+    @Test
+    void testDecrementStock_UnderContention_ShouldNeverOversell() throws Exception {
+        // Dado
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Cuando: 20 descuentos de 1 unidad sobre 10 disponibles
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    stockService.decrementStock(product.getId(), deposito.getId(), 1);
+                    return true;
+                } catch (InsufficientStockException ex) {
+                    return false;
+                }
+            }));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            succeeded += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Entonces
+        assertEquals(10, succeeded);
+        assertEquals(0, quantity());
+        assertTotals(0, 0);
+    }
+
+    @Test
+    void testReserveStock_ShouldRespectExistingReservations() {
+        // Cuando
+        stockService.reserveStock(product.getId(), deposito.getId(), 8);
+
+        // Entonces
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> stockService.decrementStock(product.getId(), deposito.getId(), 3));
+        assertEquals("INSUFFICIENT_STOCK", ex.getErrorCode());
+        BusinessException missing = assertThrows(BusinessException.class,
+                () -> stockService.reserveStock(product.getId(), 999999L, 1));
+        assertEquals("STOCK_NOT_FOUND", missing.getErrorCode());
+    }
+
+    @Test
+    void testDecrementStock_ShouldKeepInMemoryEngineInSync() {
+        // Dado: la fila ya está en memoria con una reserva sin persistir
+        inventoryEngine.reserve(product.getId(), deposito.getId(), 2);
+
+        // Cuando
+        stockService.decrementStock(product.getId(), deposito.getId(), 5);
+        writeBehind.flush();
+
+        // Entonces: ni la memoria ni la base de datos pierden ninguno de los dos cambios
+        assertEquals(5, inventoryEngine.get(product.getId(), deposito.getId()).quantity());
+        assertEquals(2, inventoryEngine.get(product.getId(), deposito.getId()).reservedQuantity());
+        assertEquals(5, quantity());
+        assertTotals(5, 3);
+    }
+
+    @Test
+    void testDecrementStock_ShouldReturnVersionThatAvailabilityReadsHonor() {
+        // Dado: el disponible ya está en memoria
+        StockAvailabilityResponseDTO before = productService.getAvailability(product.getId(), null);
+        assertEquals(10, before.getAvailableQuantity());
+
+        // Cuando
+        long version = stockService.decrementStock(product.getId(), deposito.getId(), 3);
+
+        // Entonces: quien escribió lee su escritura, y los demás también tras la invalidación
+        assertTrue(version > before.getStockVersion());
+        StockAvailabilityResponseDTO after = productService.getAvailability(product.getId(), version);
+        assertEquals(7, after.getAvailableQuantity());
+        assertEquals(version, after.getStockVersion());
+        assertEquals(7, productService.getAvailability(product.getId(), null).getAvailableQuantity());
+        StockAdjustmentResultDTO adjusted = stockService.adjustStock(List.of(
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), 2)));
+        assertTrue(adjusted.getStockVersions().get(product.getId()) > version);
+    }
+
+    @Test
+    void testAdjustStock_ShouldCoalesceDeltasPerRow() {
+        // Cuando: tres ajustes de la misma fila
+        StockAdjustmentResultDTO result = stockService.adjustStock(List.of(
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), 5),
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), -3),
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), 1)));
+
+        // Entonces
+        assertEquals(3, result.getRequested());
+        assertEquals(1, result.getAdjusted());
+        assertEquals(13, result.getLevels().get(0).getQuantity());
+        assertEquals(13, quantity());
+        assertTotals(13, 13);
+        assertEquals(13, inventoryEngine.get(product.getId(), deposito.getId()).quantity());
+    }
+
+    @Test
+    void testAdjustStock_WhenOneRowFails_ShouldApplyNothing() {
+        // Dado
+        stockService.reserveStock(product.getId(), deposito.getId(), 4);
+
+        // Cuando: el segundo ajuste deja la fila por debajo de lo reservado
+        assertThrows(InsufficientStockException.class, () -> stockService.adjustStock(List.of(
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), 2),
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), -9))));
+        BusinessException missing = assertThrows(BusinessException.class, () -> stockService.adjustStock(List.of(
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), 2),
+                new StockAdjustmentRequestDTO(product.getId(), 999999L, 1))));
+
+        // Entonces
+        assertEquals("STOCK_NOT_FOUND", missing.getErrorCode());
+        assertEquals(10, inventoryEngine.get(product.getId(), deposito.getId()).quantity());
+        assertEquals(10, quantity());
+        assertTotals(10, 6);
+    }
+
+    @Test
+    void testAdjustStock_WhenALaterRowFails_ShouldNotTouchAnyCell() {
+        // Dado: una segunda fila con casi todo reservado
+        Deposito other = new Deposito();
+        other.setName("Depósito condicional 3");
+        other = depositoRepository.save(other);
+        ProductStock otherStock = new ProductStock();
+        otherStock.setProduct(product);
+        otherStock.setDeposito(other);
+        otherStock.setQuantity(5);
+        otherStock = productStockRepository.save(otherStock);
+        Long otherId = other.getId();
+        stockService.reserveStock(product.getId(), otherId, 4);
+        long version = inventoryEngine.stockVersion(product.getId());
+
+        // Cuando: la baja de la primera fila entra, la de la segunda no
+        assertThrows(InsufficientStockException.class, () -> stockService.adjustStock(List.of(
+                new StockAdjustmentRequestDTO(product.getId(), deposito.getId(), -3),
+                new StockAdjustmentRequestDTO(product.getId(), otherId, -2))));
+
+        // Entonces: ninguna celda cambió, ni siquiera de forma transitoria
+        assertEquals(version, inventoryEngine.stockVersion(product.getId()));
+        assertEquals(10, inventoryEngine.get(product.getId(), deposito.getId()).quantity());
+
+        inventoryEngine.release(product.getId(), otherId, 4);
+        writeBehind.flush();
+        productStockRepository.delete(otherStock);
+        depositoRepository.delete(other);
+    }
+
+    @Test
+    void testAdjustStock_InOppositeOrderConcurrently_ShouldNotDeadlock() throws Exception {
+        // Dado: una segunda fila del mismo producto
+        Deposito other = new Deposito();
+        other.setName("Depósito condicional 2");
+        other = depositoRepository.save(other);
+        ProductStock otherStock = new ProductStock();
+        otherStock.setProduct(product);
+        otherStock.setDeposito(other);
+        otherStock.setQuantity(10);
+        otherStock = productStockRepository.save(otherStock);
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 20, available_quantity = 20 WHERE id = ?", product.getId());
+        Long first = deposito.getId();
+        Long second = other.getId();
+
+        // Cuando: lotes con las filas en órdenes opuestos
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            boolean forward = i % 2 == 0;
+            results.add(executor.submit(() -> stockService.adjustStock(forward
+                    ? List.of(new StockAdjustmentRequestDTO(product.getId(), first, 1),
+                              new StockAdjustmentRequestDTO(product.getId(), second, -1))
+                    : List.of(new StockAdjustmentRequestDTO(product.getId(), second, 1),
+                              new StockAdjustmentRequestDTO(product.getId(), first, -1)))));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        // Entonces: todos terminan y los totales no cambian
+        assertEquals(10, quantity());
+        assertEquals(10, productStockRepository.findById(otherStock.getId()).orElseThrow().getQuantity());
+        assertTotals(20, 20);
+
+        writeBehind.flush();
+        productStockRepository.delete(otherStock);
+        depositoRepository.delete(other);
+    }
+
+    @Test
+    void testRolledBackRelease_WhenUnitsWereReservedMeanwhile_ShouldNotOversell() throws Exception {
+        // Dado: todo el stock reservado
+        stockService.reserveStock(product.getId(), deposito.getId(), 10);
+        long failedBefore = inventoryEngine.failedUndos();
+
+        // Cuando: una liberación se revierte después de que otro comprador reservó esas unidades
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryEngine.release(product.getId(), deposito.getId(), 10);
+            try {
+                executor.submit(() -> inventoryEngine.reserve(product.getId(), deposito.getId(), 10)).get();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            status.setRollbackOnly();
+        });
+        executor.shutdown();
+
+        // Entonces: la reversión no deja la fila con disponible negativo y queda registrada
+        assertEquals(10, inventoryEngine.get(product.getId(), deposito.getId()).reservedQuantity());
+        assertEquals(0, inventoryEngine.get(product.getId(), deposito.getId()).availableQuantity());
+        assertEquals(failedBefore + 1, inventoryEngine.failedUndos());
+        assertTotals(10, 0);
+    }
+
+    @Test
+    void testUpdateStock_ShouldAdjustMainRowWithoutOverwritingReservations() {
+        // Dado: la fila es del depósito principal y tiene una reserva sin persistir
+        deposito.setIsMain(true);
+        deposito = depositoRepository.save(deposito);
+        inventoryEngine.reserve(product.getId(), deposito.getId(), 4);
+
+        // Cuando
+        productService.updateStock(product.getId(), 15);
+        writeBehind.flush();
+
+        // Entonces: la diferencia se suma a la fila y la reserva se conserva
+        assertEquals(15, quantity());
+        assertEquals(4, productStockRepository.findById(stock.getId()).orElseThrow().getReservedQuantity());
+        assertTotals(15, 11);
+        BusinessException below = assertThrows(BusinessException.class, () -> productService.updateStock(product.getId(), 2));
+        assertEquals("STOCK_BELOW_RESERVED", below.getErrorCode());
+        assertEquals(15, inventoryEngine.get(product.getId(), deposito.getId()).quantity());
+    }
+
+    private void assertTotals(int stockQuantity, int availableQuantity) {
+        writeBehind.flush();
+        Product current = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(stockQuantity, current.getStockQuantity());
+        assertEquals(availableQuantity, current.getAvailableQuantity());
+    }
+
+    private int quantity() {
+        writeBehind.flush();
+        return productStockRepository.findById(stock.getId()).orElseThrow().getQuantity();
+    }
+}
@@ -0,0 +1,110 @@
+package com.miempresa.ecommerce.service.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.miempresa.ecommerce.event.LowStockChangedEvent;
+
+/**
+ * Tests unitarios para LowStockServiceImpl
+ *
+ */
+class LowStockServiceImplTest {
+
+    private LowStockServiceImpl lowStockService;
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        lowStockService = new LowStockServiceImpl();
+        ReflectionTestUtils.setField(lowStockService, "streamTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(lowStockService, "senderThreads", 2);
+        ReflectionTestUtils.setField(lowStockService, "maxPendingPerSubscriber", 3);
+        lowStockService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        lowStockService.stop();
+    }
+
+    @Test
+    void testOnLowStockChanged_WithSlowSubscriber_ShouldNotBlockPublisherNorOtherSubscribers() throws Exception {
+        // Dado: un suscriptor que no termina de enviar y otro normal
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        lowStockService.register(slow);
+        lowStockService.register(fast);
+
+        // Cuando
+        assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> lowStockService.onLowStockChanged(new LowStockChangedEvent(1L, 2L, 3, 5, true)));
+
+        // Entonces
+        assertTrue(fast.received.await(5, TimeUnit.SECONDS));
+        assertTrue(slow.received.await(5, TimeUnit.SECONDS));
+        assertNotSame(slow.messages.get(0), fast.messages.get(0));
+        assertEquals(2, lowStockService.subscribers());
+    }
+
+    @Test
+    void testOnLowStockChanged_WhenSubscriberFallsBehind_ShouldDropIt() throws Exception {
+        // Dado
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        lowStockService.register(slow);
+        lowStockService.onLowStockChanged(new LowStockChangedEvent(1L, 2L, 3, 5, true));
+        assertTrue(slow.received.await(5, TimeUnit.SECONDS));
+
+        // Cuando: se acumulan más eventos que el máximo mientras el envío está trabado
+        for (int i = 0; i < 4; i++) {
+            lowStockService.onLowStockChanged(new LowStockChangedEvent(1L, 2L, 3, 5, i % 2 == 0));
+        }
+
+        // Entonces
+        assertEquals(0, lowStockService.subscribers());
+    }
+
+    /**
+     * Emisor que registra cada evento y, si recibe un latch, se traba en el envío
+     * hasta que se libere
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch blockUntil;
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final List<SseEventBuilder> messages = new CopyOnWriteArrayList<>();
+
+        private RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            messages.add(builder);
+            received.countDown();
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(ex);
+                }
+            }
+        }
+    }
+}